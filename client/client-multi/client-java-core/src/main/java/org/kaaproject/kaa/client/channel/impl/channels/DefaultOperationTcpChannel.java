@@ -318,7 +318,7 @@ public class DefaultOperationTcpChannel implements KaaDataChannel {
         byte[] body = multiplexer.compileRequest(getSupportedTransportTypes());
         byte[] requestBodyEncoded = encDec.encodeData(body);
         byte[] sessionKey = encDec.getEncodedSessionKey();
-        byte[] signature = encDec.sign(sessionKey);
+        byte[] signature = encDec.getEncodedSessionKeySignature();
         sendFrame(new Connect(CHANNEL_TIMEOUT, Constants.KAA_PLATFORM_PROTOCOL_AVRO_ID, sessionKey, requestBodyEncoded, signature));
     }
 
@@ -46,7 +46,7 @@ public class HttpRequestCreator {
             byte[] requestBodyEncoded = messageEncDec.encodeData(body);
             byte[] signature = null;
             if(sign){
-                signature = messageEncDec.sign(requestKeyEncoded);
+                signature = messageEncDec.getEncodedSessionKeySignature();
             }
 
             if (LOG.isTraceEnabled()) {
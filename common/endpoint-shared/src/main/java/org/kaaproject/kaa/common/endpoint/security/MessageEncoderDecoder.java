@@ -16,12 +16,16 @@
 
 package org.kaaproject.kaa.common.endpoint.security;
 
+import java.nio.ByteBuffer;
 import java.security.GeneralSecurityException;
 import java.security.InvalidKeyException;
 import java.security.NoSuchAlgorithmException;
 import java.security.PrivateKey;
 import java.security.PublicKey;
 import java.security.Signature;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
 
 import javax.crypto.BadPaddingException;
 import javax.crypto.Cipher;
@@ -49,12 +53,30 @@ public class MessageEncoderDecoder {
     private static final int SESSION_KEY_SIZE = 128;
     private static final String SHA1WITH_RSA = "SHA1withRSA";
     private static final String RSA = "RSA/ECB/PKCS1Padding";
+    private static final int SESSION_KEYS_CACHE_SIZE = 1024;
 
     private final PrivateKey privateKey;
     private final PublicKey publicKey;
     private PublicKey remotePublicKey;
     private SecretKey sessionKey;
     private CipherPair sessionCipherPair;
+    private byte[] encodedSessionKey;
+    private byte[] encodedSessionKeySignature;
+
+    /**
+     * Session keys decoded on the server side. Endpoints reuse the encoded
+     * session key and its signature for the whole session, so the RSA
+     * decryption and signature verification are done once per session
+     * instead of once per request.
+     */
+    private final Map<ByteBuffer, DecodedSessionKey> decodedSessionKeys = new LinkedHashMap<ByteBuffer, DecodedSessionKey>(16, 0.75f, true) {
+        private static final long serialVersionUID = 1L;
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<ByteBuffer, DecodedSessionKey> eldest) {
+            return size() > SESSION_KEYS_CACHE_SIZE;
+        }
+    };
 
     /**
      * Cipher Pair holds references for encoding and decoding Ciphers that are initialized with the same key
@@ -164,17 +186,39 @@ public class MessageEncoderDecoder {
     }
 
     /**
-     * Gets the encoded session key.
+     * Gets the encoded session key. The key is encoded once and reused until
+     * the remote public key changes, so the server can recognize the session
+     * without decoding the key again.
      * 
      * @return the encoded session key
      * @throws GeneralSecurityException
      *             the general security exception
      */
     public byte[] getEncodedSessionKey() throws GeneralSecurityException {
-        SecretKey key = getSessionKey();
-        Cipher keyCipher = RSA_CIPHER.get();
-        keyCipher.init(Cipher.ENCRYPT_MODE, remotePublicKey);
-        return keyCipher.doFinal(key.getEncoded());
+        if (encodedSessionKey == null) {
+            SecretKey key = getSessionKey();
+            Cipher keyCipher = RSA_CIPHER.get();
+            keyCipher.init(Cipher.ENCRYPT_MODE, remotePublicKey);
+            encodedSessionKey = keyCipher.doFinal(key.getEncoded());
+            encodedSessionKeySignature = null;
+        }
+        return encodedSessionKey;
+    }
+
+    /**
+     * Gets the signature of the encoded session key. The signature is created
+     * once per encoded session key instead of once per request.
+     * 
+     * @return the encoded session key signature
+     * @throws GeneralSecurityException
+     *             the general security exception
+     */
+    public byte[] getEncodedSessionKeySignature() throws GeneralSecurityException {
+        byte[] key = getEncodedSessionKey();
+        if (encodedSessionKeySignature == null) {
+            encodedSessionKeySignature = sign(key);
+        }
+        return encodedSessionKeySignature;
     }
 
     /**
@@ -205,17 +249,23 @@ public class MessageEncoderDecoder {
      *             the general security exception
      */
     public byte[] decodeData(byte[] message, byte[] encodedKey) throws GeneralSecurityException {
-        sessionCipherPair = null;
         decodeSessionKey(encodedKey);
         return decodeData(message);
     }
 
     private void decodeSessionKey(byte[] encodedKey) throws InvalidKeyException, IllegalBlockSizeException,
             BadPaddingException {
-        Cipher sessionKeyCipher = RSA_CIPHER.get();
-        sessionKeyCipher.init(Cipher.DECRYPT_MODE, privateKey);
-        byte[] sessionKeyBytes = sessionKeyCipher.doFinal(encodedKey);
-        sessionKey = new SecretKeySpec(sessionKeyBytes, 0, SESSION_KEY_SIZE / 8, SESSION_KEY_ALGORITHM);
+        DecodedSessionKey decodedKey = decodedSessionKeys.get(ByteBuffer.wrap(encodedKey));
+        if (decodedKey == null) {
+            Cipher sessionKeyCipher = RSA_CIPHER.get();
+            sessionKeyCipher.init(Cipher.DECRYPT_MODE, privateKey);
+            decodedKey = new DecodedSessionKey(sessionKeyCipher.doFinal(encodedKey));
+            decodedSessionKeys.put(ByteBuffer.wrap(encodedKey.clone()), decodedKey);
+        }
+        sessionKey = new SecretKeySpec(decodedKey.keyData, 0, SESSION_KEY_SIZE / 8, SESSION_KEY_ALGORITHM);
+        encodedSessionKey = null;
+        encodedSessionKeySignature = null;
+        sessionCipherPair = new CipherPair(SESSION_CRYPT_ALGORITHM, sessionKey);
     }
 
     /**
@@ -268,6 +318,33 @@ public class MessageEncoderDecoder {
         return verifier.verify(signature);
     }
 
+    /**
+     * Verify the encoded session key using signature and remote public key.
+     * A successful verification is remembered for the decoded session key, so
+     * subsequent requests of the same session are not verified again.
+     * 
+     * @param encodedKey
+     *            the encoded session key
+     * @param signature
+     *            the signature
+     * @return true, if successful
+     * @throws GeneralSecurityException
+     *             the general security exception
+     */
+    public boolean verifySessionKey(byte[] encodedKey, byte[] signature) throws GeneralSecurityException {
+        DecodedSessionKey decodedKey = decodedSessionKeys.get(ByteBuffer.wrap(encodedKey));
+        if (decodedKey != null && remotePublicKey != null && remotePublicKey.equals(decodedKey.verifiedPublicKey)
+                && Arrays.equals(signature, decodedKey.verifiedSignature)) {
+            return true;
+        }
+        boolean verified = verify(encodedKey, signature);
+        if (verified && decodedKey != null) {
+            decodedKey.verifiedPublicKey = remotePublicKey;
+            decodedKey.verifiedSignature = signature.clone();
+        }
+        return verified;
+    }
+
     public PrivateKey getPrivateKey() {
         return privateKey;
     }
@@ -314,6 +391,8 @@ public class MessageEncoderDecoder {
      */
     public void setRemotePublicKey(byte[] remotePublicKey) throws GeneralSecurityException {
         this.remotePublicKey = KeyUtil.getPublic(remotePublicKey);
+        this.encodedSessionKey = null;
+        this.encodedSessionKeySignature = null;
         if (LOG.isTraceEnabled()) {
             LOG.trace("RemotePublicKey {}",
                     this.remotePublicKey != null ? bytesToHex(this.remotePublicKey.getEncoded()) : "empty");
@@ -330,6 +409,8 @@ public class MessageEncoderDecoder {
      */
     public void setRemotePublicKey(PublicKey remotePublicKey) throws GeneralSecurityException {
         this.remotePublicKey = remotePublicKey;
+        this.encodedSessionKey = null;
+        this.encodedSessionKeySignature = null;
         if (LOG.isTraceEnabled()) {
             LOG.trace("RemotePublicKey {}",
                     this.remotePublicKey != null ? bytesToHex(this.remotePublicKey.getEncoded()) : "empty");
@@ -344,6 +425,16 @@ public class MessageEncoderDecoder {
         this.sessionCipherPair = sessionCipher;
     }
 
+    private static final class DecodedSessionKey {
+        private final byte[] keyData;
+        private PublicKey verifiedPublicKey;
+        private byte[] verifiedSignature;
+
+        private DecodedSessionKey(byte[] keyData) {
+            this.keyData = keyData;
+        }
+    }
+
     protected static final char[] HEX_ARRAY = "0123456789ABCDEF".toCharArray(); // NOSONAR
 
     public static String bytesToHex(byte[] bytes) {
@@ -114,6 +114,30 @@ public class MessageEncoderDecoderTest {
         Assert.assertEquals(message, decodedSecret2);
     }
 
+    @Test
+    public void verifySessionKeyTest() throws Exception {
+        String message = "secret" + new Random().nextInt();
+
+        MessageEncoderDecoder client = new MessageEncoderDecoder(clientPrivate, clientPublic, serverPublic);
+        MessageEncoderDecoder thief = new MessageEncoderDecoder(theifPrivate, theifPublic, serverPublic);
+        MessageEncoderDecoder server = new MessageEncoderDecoder(serverPrivate, serverPublic);
+
+        byte[] encodedSessionKey = client.getEncodedSessionKey();
+        Assert.assertArrayEquals(encodedSessionKey, client.getEncodedSessionKey());
+        byte[] signature = client.getEncodedSessionKeySignature();
+        Assert.assertSame(signature, client.getEncodedSessionKeySignature());
+        Assert.assertArrayEquals(client.sign(encodedSessionKey), signature);
+
+        for (int i = 0; i < 2; i++) {
+            Assert.assertEquals(message, new String(server.decodeData(client.encodeData(message.getBytes()), encodedSessionKey)));
+            server.setRemotePublicKey(clientPublic);
+            Assert.assertTrue(server.verifySessionKey(encodedSessionKey, signature));
+        }
+        Assert.assertFalse(server.verifySessionKey(encodedSessionKey, thief.sign(encodedSessionKey)));
+        server.setRemotePublicKey(theifPublic);
+        Assert.assertFalse(server.verifySessionKey(encodedSessionKey, signature));
+    }
+
     @Test
     public void basicUpdateTest() throws Exception {
         MessageEncoderDecoder client = new MessageEncoderDecoder(clientPrivate, clientPublic, serverPublic);
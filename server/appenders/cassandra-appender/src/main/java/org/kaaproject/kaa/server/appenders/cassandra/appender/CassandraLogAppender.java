@@ -21,9 +21,12 @@ import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
 
@@ -36,7 +39,6 @@ import org.kaaproject.kaa.server.appenders.cassandra.config.gen.ClusteringElemen
 import org.kaaproject.kaa.server.appenders.cassandra.config.gen.ColumnMappingElement;
 import org.kaaproject.kaa.server.common.log.shared.appender.AbstractLogAppender;
 import org.kaaproject.kaa.server.common.log.shared.appender.LogDeliveryCallback;
-import org.kaaproject.kaa.server.common.log.shared.appender.LogEvent;
 import org.kaaproject.kaa.server.common.log.shared.appender.LogEventPack;
 import org.kaaproject.kaa.server.common.log.shared.appender.data.ProfileInfo;
 import org.kaaproject.kaa.server.common.log.shared.avro.gen.RecordHeader;
@@ -53,6 +55,7 @@ public class CassandraLogAppender extends AbstractLogAppender<CassandraConfig> {
 
     private static final Logger LOG = LoggerFactory.getLogger(CassandraLogAppender.class);
     private static final int MAX_CALLBACK_THREAD_POOL_SIZE = 10;
+    private static final int MAX_PENDING_LOG_EVENT_PACKS = 1000;
 
     private ExecutorService executor;
     private ExecutorService callbackExecutor;
@@ -84,8 +87,13 @@ public class CassandraLogAppender extends AbstractLogAppender<CassandraConfig> {
             @Override
             public void run() {
                 long second = System.currentTimeMillis() / 1000;
-                LOG.info("[{}] Received {} log record count, {} success cassandra callbacks, {}  failure cassandra callbacks / second.",
-                        second, inputLogCount.getAndSet(0), cassandraSuccessLogCount.getAndSet(0), cassandraFailureLogCount.getAndSet(0));
+                int inputCount = inputLogCount.getAndSet(0);
+                int successCount = cassandraSuccessLogCount.getAndSet(0);
+                int failureCount = cassandraFailureLogCount.getAndSet(0);
+                if (inputCount > 0 || successCount > 0 || failureCount > 0) {
+                    LOG.info("[{}] Received {} log record count, {} success cassandra callbacks, {}  failure cassandra callbacks / second.",
+                            second, inputCount, successCount, failureCount);
+                }
             }
         }, 0L, 1L, TimeUnit.SECONDS);
     }
@@ -93,64 +101,73 @@ public class CassandraLogAppender extends AbstractLogAppender<CassandraConfig> {
     @Override
     public void doAppend(final LogEventPack logEventPack, final RecordHeader header, final LogDeliveryCallback listener) {
         if (!closed) {
-            executor.submit(new Runnable() {
-                @Override
-                public void run() {
-                    try {
-                        LOG.debug("[{}] appending {} logs to cassandra collection", tableName, logEventPack.getEvents().size());
-                        GenericAvroConverter<GenericRecord> eventConverter = getConverter(logEventPack.getLogSchema().getSchema());
-                        GenericAvroConverter<GenericRecord> headerConverter = getConverter(header.getSchema().toString());
-                        
-                        // Get client profile data
-                        GenericAvroConverter<GenericRecord> clientProfileConverter = null;
-                        String clientProfileJson = null;
-                        ProfileInfo clientProfile = logEventPack.getClientProfile();
-                        if (clientProfile != null) {
-                            clientProfileConverter = getConverter(clientProfile.getSchema());
-                            clientProfileJson = clientProfile.getBody();
-                        }
+            try {
+                submitAppend(logEventPack, header, listener);
+            } catch (RejectedExecutionException e) {
+                LOG.warn("[{}] Too many pending log event packs, rejecting log event pack", getName());
+                listener.onConnectionError();
+            }
+        } else {
+            LOG.info("Attempted to append to closed appender named [{}].", getName());
+            listener.onConnectionError();
+        }
+    }
 
-                        // Get server profile data
-                        GenericAvroConverter<GenericRecord> serverProfileConverter = null;
-                        String serverProfileJson = null;
-                        ProfileInfo serverProfile = logEventPack.getServerProfile();
-                        if (serverProfile != null) {
-                            serverProfileConverter = getConverter(serverProfile.getSchema());
-                            serverProfileJson = serverProfile.getBody();
-                        }
+    private void submitAppend(final LogEventPack logEventPack, final RecordHeader header, final LogDeliveryCallback listener) {
+        executor.submit(new Runnable() {
+            @Override
+            public void run() {
+                try {
+                    LOG.debug("[{}] appending {} logs to cassandra collection", tableName, logEventPack.getEvents().size());
+                    GenericAvroConverter<GenericRecord> eventConverter = getConverter(logEventPack.getLogSchema().getSchema());
+                    GenericAvroConverter<GenericRecord> headerConverter = getConverter(header.getSchema().toString());
+                    
+                    // Get client profile data
+                    GenericAvroConverter<GenericRecord> clientProfileConverter = null;
+                    String clientProfileJson = null;
+                    ProfileInfo clientProfile = logEventPack.getClientProfile();
+                    if (clientProfile != null) {
+                        clientProfileConverter = getConverter(clientProfile.getSchema());
+                        clientProfileJson = clientProfile.getBody();
+                    }
+
+                    // Get server profile data
+                    GenericAvroConverter<GenericRecord> serverProfileConverter = null;
+                    String serverProfileJson = null;
+                    ProfileInfo serverProfile = logEventPack.getServerProfile();
+                    if (serverProfile != null) {
+                        serverProfileConverter = getConverter(serverProfile.getSchema());
+                        serverProfileJson = serverProfile.getBody();
+                    }
 
-                        List<CassandraLogEventDto> dtoList = generateCassandraLogEvent(logEventPack, header, eventConverter);
-                        LOG.debug("[{}] saving {} objects", tableName, dtoList.size());
-                        if (!dtoList.isEmpty()) {
-                            int logCount = dtoList.size();
-                            inputLogCount.getAndAdd(logCount);
-                            switch (executeRequestType) {
-                                case ASYNC:
-                                    ListenableFuture<ResultSet> result = logEventDao.saveAsync(dtoList, tableName, eventConverter,
-                                            headerConverter, clientProfileConverter, serverProfileConverter, clientProfileJson, serverProfileJson);
-                                    Futures.addCallback(result, new Callback(listener, cassandraSuccessLogCount, cassandraFailureLogCount, logCount), callbackExecutor);
-                                    break;
-                                case SYNC:
-                                    logEventDao.save(dtoList, tableName, eventConverter, headerConverter,
-                                            clientProfileConverter, serverProfileConverter, clientProfileJson, serverProfileJson);
-                                    listener.onSuccess();
-                                    cassandraSuccessLogCount.getAndAdd(logCount);
-                                    break;
-                            }
-                            LOG.debug("[{}] appended {} logs to cassandra collection", tableName, logEventPack.getEvents().size());
-                        } else {
-                            listener.onInternalError();
+                    List<CassandraLogEventDto> dtoList = generateCassandraLogEvent(logEventPack, header);
+                    LOG.debug("[{}] saving {} objects", tableName, dtoList.size());
+                    if (!dtoList.isEmpty()) {
+                        int logCount = dtoList.size();
+                        inputLogCount.getAndAdd(logCount);
+                        switch (executeRequestType) {
+                            case ASYNC:
+                                ListenableFuture<List<ResultSet>> result = logEventDao.saveAsync(dtoList, tableName, eventConverter,
+                                        headerConverter, clientProfileConverter, serverProfileConverter, clientProfileJson, serverProfileJson);
+                                Futures.addCallback(result, new Callback(listener, cassandraSuccessLogCount, cassandraFailureLogCount, logCount), callbackExecutor);
+                                break;
+                            case SYNC:
+                                logEventDao.save(dtoList, tableName, eventConverter, headerConverter,
+                                        clientProfileConverter, serverProfileConverter, clientProfileJson, serverProfileJson);
+                                listener.onSuccess();
+                                cassandraSuccessLogCount.getAndAdd(logCount);
+                                break;
                         }
-                    } catch (Exception e) {
-                        LOG.warn("Got exception. Can't process log events", e);
+                        LOG.debug("[{}] appended {} logs to cassandra collection", tableName, logEventPack.getEvents().size());
+                    } else {
                         listener.onInternalError();
                     }
+                } catch (Exception e) {
+                    LOG.warn("Got exception. Can't process log events", e);
+                    listener.onInternalError();
                 }
-            });
-        } else {
-            LOG.info("Attempted to append to closed appender named [{}].", getName());
-            listener.onConnectionError();
-        }
+            }
+        });
     }
 
     @Override
@@ -163,7 +180,8 @@ public class CassandraLogAppender extends AbstractLogAppender<CassandraConfig> {
             createTable(appender.getApplicationToken());
             int executorPoolSize = Math.min(configuration.getExecutorThreadPoolSize(), MAX_CALLBACK_THREAD_POOL_SIZE);
             int callbackPoolSize = Math.min(configuration.getCallbackThreadPoolSize(), MAX_CALLBACK_THREAD_POOL_SIZE);
-            executor = Executors.newFixedThreadPool(executorPoolSize);
+            executor = new ThreadPoolExecutor(executorPoolSize, executorPoolSize, 0L, TimeUnit.MILLISECONDS,
+                    new ArrayBlockingQueue<Runnable>(MAX_PENDING_LOG_EVENT_PACKS));
             callbackExecutor = Executors.newFixedThreadPool(callbackPoolSize);
             LOG.info("Cassandra log appender initialized");
         } catch (Exception e) {
@@ -214,24 +232,19 @@ public class CassandraLogAppender extends AbstractLogAppender<CassandraConfig> {
         LOG.info("Cassandra log appender stoped.");
     }
 
-    protected List<CassandraLogEventDto> generateCassandraLogEvent(LogEventPack logEventPack, RecordHeader header,
-                                                                   GenericAvroConverter<GenericRecord> eventConverter) throws IOException {
+    protected List<CassandraLogEventDto> generateCassandraLogEvent(LogEventPack logEventPack, RecordHeader header) throws IOException {
         LOG.debug("Generate LogEventDto objects from LogEventPack [{}] and header [{}]", logEventPack, header);
-        List<CassandraLogEventDto> events = new ArrayList<>(logEventPack.getEvents().size());
+        List<GenericRecord> decodedLogs;
         try {
-            for (LogEvent logEvent : logEventPack.getEvents()) {
-                LOG.debug("Convert log events [{}] to dto objects.", logEvent);
-                if (logEvent == null | logEvent.getLogData() == null) {
-                    continue;
-                }
-                LOG.trace("Avro record converter [{}] with log data [{}]", eventConverter, logEvent.getLogData());
-                GenericRecord decodedLog = eventConverter.decodeBinary(logEvent.getLogData());
-                events.add(new CassandraLogEventDto(header, decodedLog));
-            }
+            decodedLogs = logEventPack.getDecodedRecords();
         } catch (IOException e) {
             LOG.error("Unexpected IOException while decoding LogEvents", e);
             throw e;
         }
+        List<CassandraLogEventDto> events = new ArrayList<>(decodedLogs.size());
+        for (GenericRecord decodedLog : decodedLogs) {
+            events.add(new CassandraLogEventDto(header, decodedLog));
+        }
         return events;
     }
 
@@ -244,7 +257,7 @@ public class CassandraLogAppender extends AbstractLogAppender<CassandraConfig> {
         }
     }
 
-    private static final class Callback implements FutureCallback<ResultSet> {
+    private static final class Callback implements FutureCallback<List<ResultSet>> {
 
         private final LogDeliveryCallback callback;
         private final AtomicInteger cassandraSuccessLogCount;
@@ -259,7 +272,7 @@ public class CassandraLogAppender extends AbstractLogAppender<CassandraConfig> {
         }
 
         @Override
-        public void onSuccess(ResultSet result) {
+        public void onSuccess(List<ResultSet> result) {
             cassandraSuccessLogCount.getAndAdd(size);
             callback.onSuccess();
         }
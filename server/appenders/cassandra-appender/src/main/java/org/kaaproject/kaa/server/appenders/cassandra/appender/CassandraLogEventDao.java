@@ -25,10 +25,14 @@ import java.text.SimpleDateFormat;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Date;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Semaphore;
 
 import org.apache.avro.generic.GenericRecord;
 import org.kaaproject.kaa.common.avro.GenericAvroConverter;
@@ -45,19 +49,34 @@ import org.kaaproject.kaa.server.appenders.cassandra.config.gen.ColumnType;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import com.datastax.driver.core.BatchStatement;
+import com.datastax.driver.core.BoundStatement;
 import com.datastax.driver.core.Cluster;
 import com.datastax.driver.core.ConsistencyLevel;
+import com.datastax.driver.core.PreparedStatement;
 import com.datastax.driver.core.ProtocolOptions;
-import com.datastax.driver.core.RegularStatement;
 import com.datastax.driver.core.ResultSet;
 import com.datastax.driver.core.ResultSetFuture;
 import com.datastax.driver.core.Session;
 import com.datastax.driver.core.SocketOptions;
-import com.datastax.driver.core.querybuilder.Batch;
+import com.datastax.driver.core.Statement;
 import com.datastax.driver.core.querybuilder.Insert;
 import com.datastax.driver.core.querybuilder.QueryBuilder;
+import com.google.common.util.concurrent.Futures;
 import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.MoreExecutors;
 
+/**
+ * Writes log events to Cassandra with prepared insert statements.
+ *
+ * <p>The rows of a save request are grouped by their partition key. A group
+ * with a single row is written as a plain insert, larger groups are written
+ * as single-partition batches of the configured batch type, so that every
+ * request is routed to the replicas of one partition and no batch spans
+ * several partitions. A batch holds at most {@link #MAX_BATCH_SIZE} rows,
+ * larger groups are split into several batches. The groups are written concurrently, with at most
+ * {@link #MAX_IN_FLIGHT_REQUESTS} requests in flight per DAO.</p>
+ */
 public class CassandraLogEventDao implements LogEventDao {
 
     private static final String $CONFIG_HASH = "$config_hash";
@@ -77,8 +96,16 @@ public class CassandraLogEventDao implements LogEventDao {
     private static final String ABSENT_CLIENT_PROFILE_ERROR = "Client profile is not set!";
     private static final String ABSENT_SERVER_PROFILE_ERROR = "Server profile is not set!";
 
+    static final int MAX_IN_FLIGHT_REQUESTS = 256;
+
+    static final int MAX_BATCH_SIZE = 100;
+
     private final ConcurrentMap<String, ThreadLocal<SimpleDateFormat>> dateFormatMap = new ConcurrentHashMap<String, ThreadLocal<SimpleDateFormat>>();
 
+    private final ConcurrentMap<String, PreparedStatement> insertStatements = new ConcurrentHashMap<String, PreparedStatement>();
+
+    private final Semaphore inFlightRequests = new Semaphore(MAX_IN_FLIGHT_REQUESTS);
+
     private Cluster cluster;
     private Session session;
     private CassandraBatchType batchType;
@@ -240,20 +267,32 @@ public class CassandraLogEventDao implements LogEventDao {
             GenericAvroConverter<GenericRecord> clientProfileConverter, GenericAvroConverter<GenericRecord> serverProfileConverter,
             String clientProfileJson, String serverProfileJson)
             throws IOException {
-        LOG.debug("Execute bath request for cassandra table {}", tableName);
-        executeBatch(prepareQuery(logEventDtoList, tableName, eventConverter, headerConverter,
-                clientProfileConverter, serverProfileConverter, clientProfileJson, serverProfileJson));
+        LOG.debug("Execute request for cassandra table {}", tableName);
+        ListenableFuture<List<ResultSet>> result = executeAsync(prepareStatements(logEventDtoList, tableName,
+                eventConverter, headerConverter, clientProfileConverter, serverProfileConverter, clientProfileJson,
+                serverProfileJson));
+        try {
+            result.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException(e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw new IOException(e.getCause());
+        }
         return logEventDtoList;
     }
 
     @Override
-    public ListenableFuture<ResultSet> saveAsync(List<CassandraLogEventDto> logEventDtoList, String tableName,
+    public ListenableFuture<List<ResultSet>> saveAsync(List<CassandraLogEventDto> logEventDtoList, String tableName,
             GenericAvroConverter<GenericRecord> eventConverter, GenericAvroConverter<GenericRecord> headerConverter,
             GenericAvroConverter<GenericRecord> clientProfileConverter, GenericAvroConverter<GenericRecord> serverProfileConverter,
             String clientProfileJson, String serverProfileJson)
             throws IOException {
-        LOG.debug("Execute async bath request for cassandra table {}", tableName);
-        return executeBatchAsync(prepareQuery(logEventDtoList, tableName, eventConverter, headerConverter,
+        LOG.debug("Execute async request for cassandra table {}", tableName);
+        return executeAsync(prepareStatements(logEventDtoList, tableName, eventConverter, headerConverter,
                 clientProfileConverter, serverProfileConverter, clientProfileJson, serverProfileJson));
     }
 
@@ -285,32 +324,51 @@ public class CassandraLogEventDao implements LogEventDao {
         return writeConsistencyLevel;
     }
 
-    private void executeBatch(RegularStatement... statement) {
-        getSession().execute(prepareBatch(statement));
-    }
-
-    private ResultSetFuture executeBatchAsync(RegularStatement... statement) {
-        return getSession().executeAsync(prepareBatch(statement));
-    }
-
-    private Batch prepareBatch(RegularStatement... statement) {
-        Batch batch;
-        if (batchType != null && batchType.equals(CassandraBatchType.UNLOGGED)) {
-            batch = QueryBuilder.unloggedBatch(statement);
-        } else {
-            batch = QueryBuilder.batch(statement);
+    /**
+     * Executes the statements concurrently. Blocks while
+     * {@link #MAX_IN_FLIGHT_REQUESTS} requests are already in flight.
+     */
+    private ListenableFuture<List<ResultSet>> executeAsync(List<Statement> statements) throws IOException {
+        List<ListenableFuture<ResultSet>> results = new ArrayList<>(statements.size());
+        Session session = getSession();
+        for (Statement statement : statements) {
+            try {
+                inFlightRequests.acquire();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IOException(e);
+            }
+            ResultSetFuture result;
+            try {
+                result = session.executeAsync(statement);
+            } catch (RuntimeException e) {
+                inFlightRequests.release();
+                throw e;
+            }
+            result.addListener(new Runnable() {
+                @Override
+                public void run() {
+                    inFlightRequests.release();
+                }
+            }, MoreExecutors.directExecutor());
+            results.add(result);
         }
-        batch.setConsistencyLevel(getWriteConsistencyLevel());
-        return batch;
+        return Futures.allAsList(results);
     }
 
-    private Insert[] prepareQuery(List<CassandraLogEventDto> logEventDtoList, String collectionName,
+    /**
+     * Binds the log events to the prepared insert statement of the table and
+     * groups the rows by partition key.
+     */
+    private List<Statement> prepareStatements(List<CassandraLogEventDto> logEventDtoList, String collectionName,
             GenericAvroConverter<GenericRecord> eventConverter, GenericAvroConverter<GenericRecord> headerConverter,
             GenericAvroConverter<GenericRecord> clientProfileConverter, GenericAvroConverter<GenericRecord> serverProfileConverter,
             String clientProfileJson, String serverProfileJson)
             throws IOException {
         String reuseTsValue = null;
-        Insert[] insertArray = new Insert[logEventDtoList.size()];
+        PreparedStatement insertStatement = getInsertStatement(collectionName);
+        List<ColumnMappingElement> columnMapping = configuration.getColumnMapping();
+        Map<List<Object>, List<BoundStatement>> partitions = new LinkedHashMap<>();
 
         // Process client profile data
         GenericRecord clientProfile = null;
@@ -328,91 +386,140 @@ public class CassandraLogEventDao implements LogEventDao {
             serverProfileBinary = ByteBuffer.wrap(serverProfileConverter.encode(serverProfile));
         }
 
-        for (int i = 0; i < logEventDtoList.size(); i++) {
-            CassandraLogEventDto dto = logEventDtoList.get(i);
-            Insert insert = QueryBuilder.insertInto(keyspaceName, collectionName);
-            for (ColumnMappingElement element : configuration.getColumnMapping()) {
+        for (CassandraLogEventDto dto : logEventDtoList) {
+            Object[] values = new Object[columnMapping.size()];
+            List<Object> partitionKey = new ArrayList<>();
+            for (int i = 0; i < columnMapping.size(); i++) {
+                ColumnMappingElement element = columnMapping.get(i);
                 switch (element.getType()) {
                 case HEADER_FIELD:
-                    insert.value(element.getColumnName(),
-                            formatField(element.getColumnType(), dto.getHeader().get(element.getValue())));
+                    values[i] = formatField(element.getColumnType(), dto.getHeader().get(element.getValue()));
                     break;
                 case EVENT_FIELD:
-                    insert.value(element.getColumnName(),
-                            formatField(element.getColumnType(), dto.getEvent().get(element.getValue())));
+                    values[i] = formatField(element.getColumnType(), dto.getEvent().get(element.getValue()));
                     break;
                 case CLIENT_FIELD:
                     if (clientProfile != null) {
-                        insert.value(element.getColumnName(), formatField(element.getColumnType(), clientProfile.get(element.getValue())));
+                        values[i] = formatField(element.getColumnType(), clientProfile.get(element.getValue()));
                     } else {
                         throw new RuntimeException(ABSENT_CLIENT_PROFILE_ERROR);
                     }
                     break;
                 case SERVER_FIELD:
                     if (serverProfile != null) {
-                        insert.value(element.getColumnName(), formatField(element.getColumnType(), serverProfile.get(element.getValue())));
+                        values[i] = formatField(element.getColumnType(), serverProfile.get(element.getValue()));
                     } else {
                         throw new RuntimeException(ABSENT_SERVER_PROFILE_ERROR);
                     }
                     break;
                 case HEADER_JSON:
-                    insert.value(element.getColumnName(), headerConverter.encodeToJson(dto.getHeader()));
+                    values[i] = headerConverter.encodeToJson(dto.getHeader());
                     break;
                 case HEADER_BINARY:
-                    insert.value(element.getColumnName(), ByteBuffer.wrap(headerConverter.encode(dto.getHeader())));
+                    values[i] = ByteBuffer.wrap(headerConverter.encode(dto.getHeader()));
                     break;
                 case EVENT_JSON:
-                    insert.value(element.getColumnName(), eventConverter.encodeToJson(dto.getEvent()));
+                    values[i] = eventConverter.encodeToJson(dto.getEvent());
                     break;
                 case EVENT_BINARY:
-                    insert.value(element.getColumnName(), ByteBuffer.wrap(eventConverter.encode(dto.getEvent())));
+                    values[i] = ByteBuffer.wrap(eventConverter.encode(dto.getEvent()));
                     break;
                 case CLIENT_JSON:
                     if (clientProfileJson != null) {
-                        insert.value(element.getColumnName(), clientProfileJson);
-                    }
-                    else {
+                        values[i] = clientProfileJson;
+                    } else {
                         throw new RuntimeException(ABSENT_CLIENT_PROFILE_ERROR);
                     }
                     break;
                 case CLIENT_BINARY:
                     if (clientProfileBinary != null) {
-                        insert.value(element.getColumnName(), clientProfileBinary);
+                        values[i] = clientProfileBinary.duplicate();
                     } else {
                         throw new RuntimeException(ABSENT_CLIENT_PROFILE_ERROR);
                     }
                     break;
                 case SERVER_JSON:
                     if (serverProfileJson != null) {
-                        insert.value(element.getColumnName(), serverProfileJson);
-                    }
-                    else {
+                        values[i] = serverProfileJson;
+                    } else {
                         throw new RuntimeException(ABSENT_SERVER_PROFILE_ERROR);
                     }
+                    break;
                 case SERVER_BINARY:
                     if (serverProfileBinary != null) {
-                        insert.value(element.getColumnName(), clientProfileBinary);
+                        values[i] = serverProfileBinary.duplicate();
                     } else {
                         throw new RuntimeException(ABSENT_SERVER_PROFILE_ERROR);
                     }
                     break;
                 case UUID:
-                    insert.value(element.getColumnName(), UUID.randomUUID());
+                    values[i] = UUID.randomUUID();
                     break;
                 case TS:
                     reuseTsValue = formatTs(reuseTsValue, element);
-                    insert.value(element.getColumnName(), reuseTsValue);
+                    values[i] = reuseTsValue;
                     break;
                 }
+                if (element.getPartitionKey()) {
+                    partitionKey.add(values[i]);
+                }
             }
+            List<BoundStatement> partition = partitions.get(partitionKey);
+            if (partition == null) {
+                partition = new ArrayList<>();
+                partitions.put(partitionKey, partition);
+            }
+            partition.add(insertStatement.bind(values));
+        }
 
-            // Here we get ttl parameter from config and add it to insert query
-            insert.using(QueryBuilder.ttl(configuration.getDataTTL()));
+        List<Statement> statements = new ArrayList<>(partitions.size());
+        for (List<BoundStatement> partition : partitions.values()) {
+            for (int from = 0; from < partition.size(); from += MAX_BATCH_SIZE) {
+                List<BoundStatement> rows = partition.subList(from, Math.min(from + MAX_BATCH_SIZE, partition.size()));
+                Statement statement;
+                if (rows.size() == 1) {
+                    statement = rows.get(0);
+                } else {
+                    BatchStatement batch = new BatchStatement(getBatchType());
+                    batch.addAll(rows);
+                    statement = batch;
+                }
+                statement.setConsistencyLevel(getWriteConsistencyLevel());
+                statements.add(statement);
+            }
+        }
+        LOG.trace("Grouped {} rows into {} single-partition requests", logEventDtoList.size(), statements.size());
+        return statements;
+    }
 
-            insertArray[i] = insert;
+    /**
+     * Returns the insert statement for the table, preparing it on first use.
+     * The ttl is part of the statement because it is fixed by the appender
+     * configuration.
+     */
+    private PreparedStatement getInsertStatement(String collectionName) {
+        PreparedStatement statement = insertStatements.get(collectionName);
+        if (statement == null) {
+            Insert insert = QueryBuilder.insertInto(keyspaceName, collectionName);
+            for (ColumnMappingElement element : configuration.getColumnMapping()) {
+                insert.value(element.getColumnName(), QueryBuilder.bindMarker());
+            }
+            insert.using(QueryBuilder.ttl(configuration.getDataTTL()));
+            LOG.info("Preparing insert statement {}", insert);
+            statement = getSession().prepare(insert);
+            PreparedStatement existing = insertStatements.putIfAbsent(collectionName, statement);
+            if (existing != null) {
+                statement = existing;
+            }
+        }
+        return statement;
+    }
 
+    private BatchStatement.Type getBatchType() {
+        if (batchType != null && batchType.equals(CassandraBatchType.UNLOGGED)) {
+            return BatchStatement.Type.UNLOGGED;
         }
-        return insertArray;
+        return BatchStatement.Type.LOGGED;
     }
 
     private String formatTs(String tsValue, ColumnMappingElement element) {
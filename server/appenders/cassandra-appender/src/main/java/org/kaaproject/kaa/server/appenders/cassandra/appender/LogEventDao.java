@@ -34,7 +34,7 @@ public interface LogEventDao {
             GenericAvroConverter<GenericRecord> clientProfileConverter, GenericAvroConverter<GenericRecord> serverProfileConverter,
             String clientProfileJson, String serverProfileJson) throws IOException;
 
-    ListenableFuture<ResultSet> saveAsync(List<CassandraLogEventDto> logEventDtoList, String collectionName,
+    ListenableFuture<List<ResultSet>> saveAsync(List<CassandraLogEventDto> logEventDtoList, String collectionName,
             GenericAvroConverter<GenericRecord> eventConverter, GenericAvroConverter<GenericRecord> headerConverter,
             GenericAvroConverter<GenericRecord> clientProfileConverter, GenericAvroConverter<GenericRecord> serverProfileConverter,
             String clientProfileJson, String serverProfileJson) throws IOException;
@@ -0,0 +1,220 @@
+/*
+ * Copyright 2014-2016 CyberVision, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.kaaproject.kaa.server.appenders.cassandra.appender;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import org.apache.avro.generic.GenericRecord;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.kaaproject.kaa.common.avro.GenericAvroConverter;
+import org.kaaproject.kaa.server.appenders.cassandra.appender.gen.Level;
+import org.kaaproject.kaa.server.appenders.cassandra.appender.gen.LogData;
+import org.kaaproject.kaa.server.appenders.cassandra.config.gen.CassandraBatchType;
+import org.kaaproject.kaa.server.appenders.cassandra.config.gen.CassandraConfig;
+import org.kaaproject.kaa.server.appenders.cassandra.config.gen.CassandraServer;
+import org.kaaproject.kaa.server.appenders.cassandra.config.gen.ColumnMappingElement;
+import org.kaaproject.kaa.server.appenders.cassandra.config.gen.ColumnMappingElementType;
+import org.kaaproject.kaa.server.appenders.cassandra.config.gen.ColumnType;
+import org.kaaproject.kaa.server.common.log.shared.avro.gen.RecordHeader;
+import org.mockito.Mockito;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.datastax.driver.core.BatchStatement;
+import com.datastax.driver.core.BoundStatement;
+import com.datastax.driver.core.PreparedStatement;
+import com.datastax.driver.core.RegularStatement;
+import com.datastax.driver.core.ResultSet;
+import com.datastax.driver.core.ResultSetFuture;
+import com.datastax.driver.core.Session;
+import com.datastax.driver.core.Statement;
+import com.google.common.util.concurrent.AbstractFuture;
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.Uninterruptibles;
+
+public class CassandraLogEventDaoTest {
+
+    private static final String TABLE_NAME = "logs";
+    private static final long TIMEOUT = 5000;
+
+    private CassandraLogEventDao logEventDao;
+    private GenericAvroConverter<GenericRecord> eventConverter;
+
+    private final List<Statement> executed = new ArrayList<>();
+    private final List<TestResultSetFuture> futures = new ArrayList<>();
+    private volatile boolean completeImmediately = true;
+
+    @Before
+    public void before() throws Exception {
+        CassandraConfig configuration = new CassandraConfig();
+        configuration.setCassandraBatchType(CassandraBatchType.UNLOGGED);
+        configuration.setKeySpace("kaa_test");
+        configuration.setTableNamePattern("logs_$app_token_$config_hash");
+        configuration.setCassandraServers(Arrays.asList(new CassandraServer("127.0.0.1", 9142)));
+        configuration.setColumnMapping(Arrays.asList(
+                new ColumnMappingElement(ColumnMappingElementType.HEADER_FIELD, "endpointKeyHash", "endpointKeyHash", ColumnType.TEXT, true, false),
+                new ColumnMappingElement(ColumnMappingElementType.EVENT_JSON, "", "event_json", ColumnType.TEXT, false, false),
+                new ColumnMappingElement(ColumnMappingElementType.UUID, "", "binid", ColumnType.UUID, false, true)));
+        logEventDao = new CassandraLogEventDao(configuration);
+        eventConverter = new GenericAvroConverter<GenericRecord>(LogData.getClassSchema());
+
+        Session session = Mockito.mock(Session.class);
+        PreparedStatement insertStatement = Mockito.mock(PreparedStatement.class);
+        Mockito.when(session.prepare(Mockito.any(RegularStatement.class))).thenReturn(insertStatement);
+        Mockito.when(insertStatement.bind(Mockito.<Object>anyVararg())).thenAnswer(new Answer<BoundStatement>() {
+            @Override
+            public BoundStatement answer(InvocationOnMock invocation) {
+                return Mockito.mock(BoundStatement.class);
+            }
+        });
+        Mockito.when(session.executeAsync(Mockito.any(Statement.class))).thenAnswer(new Answer<ResultSetFuture>() {
+            @Override
+            public ResultSetFuture answer(InvocationOnMock invocation) {
+                TestResultSetFuture future = new TestResultSetFuture();
+                synchronized (executed) {
+                    executed.add((Statement) invocation.getArguments()[0]);
+                    futures.add(future);
+                }
+                if (completeImmediately) {
+                    future.complete();
+                }
+                return future;
+            }
+        });
+        ReflectionTestUtils.setField(logEventDao, "session", session);
+    }
+
+    @After
+    public void after() {
+        logEventDao.close();
+    }
+
+    @Test
+    public void partitionGroupingTest() throws Exception {
+        List<CassandraLogEventDto> events = new ArrayList<>();
+        events.add(createLogEvent("alpha"));
+        events.add(createLogEvent("beta"));
+        events.add(createLogEvent("alpha"));
+        events.add(createLogEvent("alpha"));
+        for (int i = 0; i < CassandraLogEventDao.MAX_BATCH_SIZE + 1; i++) {
+            events.add(createLogEvent("gamma"));
+        }
+
+        logEventDao.save(events, TABLE_NAME, eventConverter, null, null, null, null, null);
+
+        Assert.assertEquals(4, executed.size());
+        Assert.assertEquals(3, ((BatchStatement) executed.get(0)).size());
+        Assert.assertTrue(executed.get(1) instanceof BoundStatement);
+        Assert.assertEquals(CassandraLogEventDao.MAX_BATCH_SIZE, ((BatchStatement) executed.get(2)).size());
+        Assert.assertTrue(executed.get(3) instanceof BoundStatement);
+    }
+
+    @Test
+    public void inFlightRequestsLimitTest() throws Exception {
+        completeImmediately = false;
+        final List<CassandraLogEventDto> events = new ArrayList<>();
+        for (int i = 0; i < CassandraLogEventDao.MAX_IN_FLIGHT_REQUESTS + 1; i++) {
+            events.add(createLogEvent(UUID.randomUUID().toString()));
+        }
+        final List<ListenableFuture<List<ResultSet>>> result = new ArrayList<>();
+        Thread writer = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                try {
+                    result.add(logEventDao.saveAsync(events, TABLE_NAME, eventConverter, null, null, null, null, null));
+                } catch (Exception e) {
+                    throw new RuntimeException(e);
+                }
+            }
+        });
+        writer.start();
+
+        awaitExecuted(CassandraLogEventDao.MAX_IN_FLIGHT_REQUESTS);
+        writer.join(200);
+        Assert.assertTrue(writer.isAlive());
+        Assert.assertEquals(CassandraLogEventDao.MAX_IN_FLIGHT_REQUESTS, executedCount());
+
+        futures.get(0).complete();
+        awaitExecuted(CassandraLogEventDao.MAX_IN_FLIGHT_REQUESTS + 1);
+        writer.join(TIMEOUT);
+        Assert.assertFalse(writer.isAlive());
+        Assert.assertFalse(result.get(0).isDone());
+
+        synchronized (executed) {
+            for (TestResultSetFuture future : futures) {
+                future.complete();
+            }
+        }
+        Assert.assertEquals(CassandraLogEventDao.MAX_IN_FLIGHT_REQUESTS + 1, result.get(0).get().size());
+    }
+
+    private CassandraLogEventDto createLogEvent(String endpointKeyHash) {
+        RecordHeader header = new RecordHeader();
+        header.setEndpointKeyHash(endpointKeyHash);
+        header.setTimestamp(System.currentTimeMillis());
+        return new CassandraLogEventDto(header, new LogData(Level.DEBUG, UUID.randomUUID().toString()));
+    }
+
+    private int executedCount() {
+        synchronized (executed) {
+            return executed.size();
+        }
+    }
+
+    private void awaitExecuted(int count) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + TIMEOUT;
+        while (executedCount() < count && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        Assert.assertEquals(count, executedCount());
+    }
+
+    private static class TestResultSetFuture extends AbstractFuture<ResultSet> implements ResultSetFuture {
+
+        private void complete() {
+            set(null);
+        }
+
+        @Override
+        public ResultSet getUninterruptibly() {
+            try {
+                return Uninterruptibles.getUninterruptibly(this);
+            } catch (ExecutionException e) {
+                throw new IllegalStateException(e);
+            }
+        }
+
+        @Override
+        public ResultSet getUninterruptibly(long timeout, TimeUnit unit) throws TimeoutException {
+            try {
+                return Uninterruptibles.getUninterruptibly(this, timeout, unit);
+            } catch (ExecutionException e) {
+                throw new IllegalStateException(e);
+            }
+        }
+    }
+}
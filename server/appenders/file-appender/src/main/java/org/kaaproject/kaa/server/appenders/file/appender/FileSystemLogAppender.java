@@ -25,6 +25,7 @@ import java.util.List;
 import org.kaaproject.kaa.common.dto.logs.LogAppenderDto;
 import org.kaaproject.kaa.common.dto.logs.LogEventDto;
 import org.kaaproject.kaa.server.appenders.file.config.gen.FileConfig;
+import org.kaaproject.kaa.server.appenders.file.config.gen.FileSystemWriterType;
 import org.kaaproject.kaa.server.common.log.shared.appender.AbstractLogAppender;
 import org.kaaproject.kaa.server.common.log.shared.appender.LogDeliveryCallback;
 import org.kaaproject.kaa.server.common.log.shared.appender.LogEventPack;
@@ -58,11 +59,7 @@ public class FileSystemLogAppender extends AbstractLogAppender<FileConfig> {
                 LOG.debug("[{}] appending {} logs to directory", path, logEventPack.getEvents().size());
                 List<String> dtos = eventsToStrings(generateLogEvent(logEventPack, header));
                 LOG.debug("[{}] saving {} objects", path, dtos.size());
-                for (String event : dtos) {
-                    logger.append(event);
-                }
-                LOG.debug("[{}] appended {} logs to directory", path, logEventPack.getEvents().size());
-                listener.onSuccess();
+                logger.append(dtos, listener);
             } catch (Exception e) {
                 LOG.error(MessageFormat.format("[{0}] Attempted to append logs failed", getName()), e);
                 listener.onInternalError();
@@ -92,7 +89,11 @@ public class FileSystemLogAppender extends AbstractLogAppender<FileConfig> {
                 fileSystemLogEventService = new FileSystemLogEventServiceImpl();
             }
             if (logger == null) {
-                logger = new LogbackFileSystemLogger();
+                if (configuration.getWriterType() == FileSystemWriterType.NIO) {
+                    logger = new NioFileSystemLogger();
+                } else {
+                    logger = new LogbackFileSystemLogger();
+                }
             }
             initLogDirectories(appenderDto);
             logger.init(appenderDto, configuration, Paths.get(logsRootPath, tenantDirName, applicationDirName, "application.log"));
@@ -18,13 +18,23 @@ package org.kaaproject.kaa.server.appenders.file.appender;
 
 import java.io.Closeable;
 import java.nio.file.Path;
+import java.util.List;
 
 import org.kaaproject.kaa.common.dto.logs.LogAppenderDto;
 import org.kaaproject.kaa.server.appenders.file.config.gen.FileConfig;
+import org.kaaproject.kaa.server.common.log.shared.appender.LogDeliveryCallback;
 
 public interface FileSystemLogger extends Closeable{
 
     void init(LogAppenderDto appenderDto, FileConfig config, Path filePath);
-    void append(String event);
+
+    /**
+     * Appends log events to the log file. The listener is notified once the
+     * events are written, possibly from another thread.
+     *
+     * @param events the formatted log events
+     * @param listener the delivery listener
+     */
+    void append(List<String> events, LogDeliveryCallback listener);
     
 }
@@ -18,9 +18,11 @@ package org.kaaproject.kaa.server.appenders.file.appender;
 
 import java.io.IOException;
 import java.nio.file.Path;
+import java.util.List;
 
 import org.kaaproject.kaa.common.dto.logs.LogAppenderDto;
 import org.kaaproject.kaa.server.appenders.file.config.gen.FileConfig;
+import org.kaaproject.kaa.server.common.log.shared.appender.LogDeliveryCallback;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -84,7 +86,10 @@ public class LogbackFileSystemLogger implements FileSystemLogger {
     }
 
     @Override
-    public void append(String event) {
-        logger.info(event);
+    public void append(List<String> events, LogDeliveryCallback listener) {
+        for (String event : events) {
+            logger.info(event);
+        }
+        listener.onSuccess();
     }
 }
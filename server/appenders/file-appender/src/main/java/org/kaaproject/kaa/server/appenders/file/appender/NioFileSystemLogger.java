@@ -0,0 +1,382 @@
+/*
+ * Copyright 2014-2016 CyberVision, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.kaaproject.kaa.server.appenders.file.appender;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.kaaproject.kaa.common.dto.logs.LogAppenderDto;
+import org.kaaproject.kaa.server.appenders.file.config.gen.FileConfig;
+import org.kaaproject.kaa.server.appenders.file.config.gen.FileSystemFsyncPolicy;
+import org.kaaproject.kaa.server.common.log.shared.appender.LogDeliveryCallback;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import ch.qos.logback.core.util.FileSize;
+
+/**
+ * A file system logger that writes log events from a single writer thread
+ * through a file channel.
+ *
+ * <p>Callers only encode the events. The writer thread copies all pending
+ * events into a direct buffer, writes them out and then notifies the listeners
+ * of the whole group at once. Whether the data is forced to the storage device
+ * before the listeners are notified depends on the configured
+ * {@link FileSystemFsyncPolicy}.</p>
+ *
+ * <p>The active file is rolled when it exceeds the trigger max file size or
+ * when the period defined by the <code>%d{...}</code> token of the rolling file
+ * name pattern changes. A relative rolling file name pattern is resolved
+ * against the log directory, and the rolled files of the last
+ * <code>rollingMaxHistory</code> periods are kept. The encoder pattern is not
+ * used: each event is written as a single line.</p>
+ */
+public class NioFileSystemLogger implements FileSystemLogger {
+
+    private static final Logger LOG = LoggerFactory.getLogger(NioFileSystemLogger.class);
+
+    private static final int MAX_PENDING_WRITES = 1000;
+    private static final int DEFAULT_WRITE_BUFFER_SIZE = 4 * 1024 * 1024;
+    private static final int DEFAULT_FSYNC_INTERVAL = 1000;
+    private static final long POLL_TIMEOUT_MILLISECONDS = 100;
+    private static final long SHUTDOWN_TIMEOUT_MILLISECONDS = 5000;
+    private static final String DATE_TOKEN = "%d";
+    private static final String DEFAULT_DATE_PATTERN = "yyyy-MM-dd";
+    private static final char LINE_SEPARATOR = '\n';
+
+    private final BlockingQueue<WriteRequest> queue = new ArrayBlockingQueue<>(MAX_PENDING_WRITES);
+
+    private Path filePath;
+    private long maxFileSize;
+    private int maxHistory;
+    private FileSystemFsyncPolicy fsyncPolicy;
+    private long fsyncInterval;
+
+    private Path rollingDir;
+    private String rollingPrefix;
+    private String rollingSuffix;
+    private SimpleDateFormat periodFormat;
+    private Pattern rolledFilePattern;
+
+    private ByteBuffer buffer;
+    private FileChannel channel;
+    private long fileSize;
+    private String period;
+    private boolean dirty;
+    private long lastSyncTime;
+
+    private Thread writer;
+    private volatile boolean closed;
+
+    @Override
+    public void init(LogAppenderDto appenderDto, FileConfig config, Path filePath) {
+        this.filePath = filePath.toAbsolutePath();
+        this.maxFileSize = FileSize.valueOf(config.getTriggerMaxFileSize()).getSize();
+        this.maxHistory = config.getRollingMaxHistory();
+        this.fsyncPolicy = config.getFsyncPolicy() != null ? config.getFsyncPolicy() : FileSystemFsyncPolicy.PERIODIC;
+        this.fsyncInterval = config.getFsyncInterval() != null ? config.getFsyncInterval() : DEFAULT_FSYNC_INTERVAL;
+        int bufferSize = config.getWriteBufferSize() != null ? config.getWriteBufferSize() : DEFAULT_WRITE_BUFFER_SIZE;
+        LOG.info("[{}][{}] Initializing with rollingFileNamePatern: {}, rollingMaxHistory: {}, triggerMaxFileSize: {}, "
+                + "writeBufferSize: {}, fsyncPolicy: {}, fsyncInterval: {}", appenderDto.getTenantId(), appenderDto.getApplicationId(),
+                config.getRollingFileNamePatern(), maxHistory, config.getTriggerMaxFileSize(), bufferSize, fsyncPolicy, fsyncInterval);
+
+        initRollingPattern(this.filePath.getParent().resolve(config.getRollingFileNamePatern()));
+        buffer = ByteBuffer.allocateDirect(bufferSize);
+        try {
+            openFile();
+            rollOnPeriodChange();
+        } catch (IOException e) {
+            throw new IllegalStateException("Failed to open log file " + this.filePath, e);
+        }
+        writer = new Thread(this::writeLoop, "nio-file-logger-" + appenderDto.getApplicationToken());
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    @Override
+    public void append(List<String> events, LogDeliveryCallback listener) {
+        StringBuilder data = new StringBuilder();
+        for (String event : events) {
+            data.append(event).append(LINE_SEPARATOR);
+        }
+        WriteRequest request = new WriteRequest(data.toString().getBytes(StandardCharsets.UTF_8), listener);
+        if (closed || writer == null || !queue.offer(request)) {
+            LOG.warn("[{}] Log file writer is closed or overloaded, rejecting {} log events", filePath, events.size());
+            listener.onConnectionError();
+        } else if (closed && queue.remove(request)) {
+            listener.onConnectionError();
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        if (writer != null) {
+            try {
+                writer.join(SHUTDOWN_TIMEOUT_MILLISECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            if (writer.isAlive()) {
+                LOG.warn("[{}] Log file writer did not terminate in time", filePath);
+                writer.interrupt();
+            }
+        } else {
+            closeFile();
+        }
+        WriteRequest request;
+        while ((request = queue.poll()) != null) {
+            request.listener.onConnectionError();
+        }
+    }
+
+    private void writeLoop() {
+        List<WriteRequest> group = new ArrayList<>();
+        try {
+            while (!closed || !queue.isEmpty()) {
+                WriteRequest request = queue.poll(POLL_TIMEOUT_MILLISECONDS, TimeUnit.MILLISECONDS);
+                try {
+                    rollOnPeriodChange();
+                    if (request != null) {
+                        group.add(request);
+                        queue.drainTo(group);
+                        write(group);
+                        for (WriteRequest written : group) {
+                            written.listener.onSuccess();
+                        }
+                    } else if (fsyncPolicy == FileSystemFsyncPolicy.PERIODIC) {
+                        sync(false);
+                    }
+                } catch (IOException e) {
+                    LOG.error("[{}] Failed to write log file", filePath, e);
+                    for (WriteRequest failed : group) {
+                        failed.listener.onInternalError();
+                    }
+                    buffer.clear();
+                    closeQuietly();
+                } finally {
+                    group.clear();
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            closeQuietly();
+        }
+    }
+
+    private void write(List<WriteRequest> group) throws IOException {
+        if (channel == null) {
+            openFile();
+            rollOnPeriodChange();
+        }
+        for (WriteRequest request : group) {
+            long size = fileSize + buffer.position();
+            if (maxFileSize > 0 && size > 0 && size + request.data.length > maxFileSize) {
+                flushBuffer();
+                roll();
+            }
+            if (request.data.length > buffer.remaining()) {
+                flushBuffer();
+                if (request.data.length > buffer.capacity()) {
+                    writeFully(ByteBuffer.wrap(request.data));
+                    continue;
+                }
+            }
+            buffer.put(request.data);
+        }
+        flushBuffer();
+        sync(fsyncPolicy == FileSystemFsyncPolicy.ALWAYS);
+    }
+
+    private void flushBuffer() throws IOException {
+        buffer.flip();
+        try {
+            writeFully(buffer);
+        } finally {
+            buffer.clear();
+        }
+    }
+
+    private void writeFully(ByteBuffer data) throws IOException {
+        while (data.hasRemaining()) {
+            fileSize += channel.write(data);
+        }
+        dirty = true;
+    }
+
+    private void sync(boolean force) throws IOException {
+        if (channel == null || !dirty || fsyncPolicy == FileSystemFsyncPolicy.NEVER) {
+            return;
+        }
+        long now = System.currentTimeMillis();
+        if (force || now - lastSyncTime >= fsyncInterval) {
+            channel.force(false);
+            dirty = false;
+            lastSyncTime = now;
+        }
+    }
+
+    private void openFile() throws IOException {
+        channel = FileChannel.open(filePath, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+        fileSize = channel.size();
+        dirty = false;
+        if (periodFormat != null) {
+            long time = fileSize > 0 ? Files.getLastModifiedTime(filePath).toMillis() : System.currentTimeMillis();
+            period = periodFormat.format(new Date(time));
+        }
+    }
+
+    private void closeFile() throws IOException {
+        if (channel != null) {
+            try {
+                if (fsyncPolicy != FileSystemFsyncPolicy.NEVER) {
+                    channel.force(false);
+                }
+            } finally {
+                channel.close();
+                channel = null;
+            }
+        }
+    }
+
+    private void closeQuietly() {
+        try {
+            closeFile();
+        } catch (IOException e) {
+            LOG.warn("[{}] Failed to close log file", filePath, e);
+        }
+    }
+
+    private void rollOnPeriodChange() throws IOException {
+        if (periodFormat == null || channel == null) {
+            return;
+        }
+        String currentPeriod = periodFormat.format(new Date());
+        if (!currentPeriod.equals(period)) {
+            if (fileSize > 0) {
+                roll();
+            }
+            period = currentPeriod;
+        }
+    }
+
+    private void roll() throws IOException {
+        closeFile();
+        String name = rollingPrefix + (period != null ? period : "");
+        Path target = rollingDir.resolve(name + rollingSuffix);
+        for (int index = 1; Files.exists(target); index++) {
+            target = rollingDir.resolve(name + "." + index + rollingSuffix);
+        }
+        Files.move(filePath, target);
+        LOG.debug("[{}] Rolled log file to {}", filePath, target);
+        openFile();
+        deleteExpiredFiles();
+    }
+
+    /**
+     * Deletes the rolled files of all but the last <code>maxHistory</code>
+     * periods. Without a date token every rolled file is a period of its own.
+     */
+    private void deleteExpiredFiles() throws IOException {
+        if (maxHistory <= 0) {
+            return;
+        }
+        Map<String, List<Path>> periodFiles = new HashMap<>();
+        Map<String, Long> periodTimes = new HashMap<>();
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(rollingDir)) {
+            for (Path file : files) {
+                Matcher matcher = rolledFilePattern.matcher(file.getFileName().toString());
+                if (file.equals(filePath) || !matcher.matches()) {
+                    continue;
+                }
+                String key = periodFormat != null ? matcher.group(1) : file.getFileName().toString();
+                long time = Files.getLastModifiedTime(file).toMillis();
+                List<Path> keyFiles = periodFiles.get(key);
+                if (keyFiles == null) {
+                    keyFiles = new ArrayList<>();
+                    periodFiles.put(key, keyFiles);
+                }
+                keyFiles.add(file);
+                Long keyTime = periodTimes.get(key);
+                periodTimes.put(key, keyTime != null ? Math.max(keyTime, time) : time);
+            }
+        }
+        List<String> periods = new ArrayList<>(periodFiles.keySet());
+        periods.sort((first, second) -> Long.compare(periodTimes.get(second), periodTimes.get(first)));
+        for (String expired : periods.subList(Math.min(maxHistory, periods.size()), periods.size())) {
+            for (Path file : periodFiles.get(expired)) {
+                LOG.debug("[{}] Deleting expired log file {}", filePath, file);
+                Files.deleteIfExists(file);
+            }
+        }
+    }
+
+    private void initRollingPattern(Path rollingPath) {
+        rollingDir = rollingPath.getParent();
+        String pattern = rollingPath.getFileName().toString();
+        int dateIndex = pattern.indexOf(DATE_TOKEN);
+        if (dateIndex < 0) {
+            rollingPrefix = pattern;
+            rollingSuffix = "";
+            periodFormat = null;
+        } else {
+            int suffixIndex = dateIndex + DATE_TOKEN.length();
+            String datePattern = DEFAULT_DATE_PATTERN;
+            if (pattern.startsWith("{", suffixIndex)) {
+                int end = pattern.indexOf('}', suffixIndex);
+                datePattern = pattern.substring(suffixIndex + 1, end);
+                suffixIndex = end + 1;
+            }
+            rollingPrefix = pattern.substring(0, dateIndex);
+            rollingSuffix = pattern.substring(suffixIndex);
+            periodFormat = new SimpleDateFormat(datePattern);
+        }
+        rolledFilePattern = Pattern.compile(Pattern.quote(rollingPrefix) + "(.*?)(?:\\.\\d+)?" + Pattern.quote(rollingSuffix));
+    }
+
+    private static final class WriteRequest {
+
+        private final byte[] data;
+        private final LogDeliveryCallback listener;
+
+        private WriteRequest(byte[] data, LogDeliveryCallback listener) {
+            this.data = data;
+            this.listener = listener;
+        }
+    }
+}
@@ -7,7 +7,7 @@ package org.kaaproject.kaa.server.appenders.file.config.gen;
 @SuppressWarnings("all")
 @org.apache.avro.specific.AvroGenerated
 public class FileConfig extends org.apache.avro.specific.SpecificRecordBase implements org.apache.avro.specific.SpecificRecord {
-  public static final org.apache.avro.Schema SCHEMA$ = new org.apache.avro.Schema.Parser().parse("{\"type\":\"record\",\"name\":\"FileConfig\",\"namespace\":\"org.kaaproject.kaa.server.appenders.file.config.gen\",\"fields\":[{\"name\":\"publicKey\",\"type\":{\"type\":\"string\",\"avro.java.string\":\"String\"},\"displayName\":\"Public Key\",\"maxLength\":1000,\"by_default\":\"\"},{\"name\":\"logsRootPath\",\"type\":{\"type\":\"string\",\"avro.java.string\":\"String\"},\"displayName\":\"Logs root path\",\"by_default\":\"/kaa_log_uploads\"},{\"name\":\"rollingFileNamePatern\",\"type\":{\"type\":\"string\",\"avro.java.string\":\"String\"},\"displayName\":\"Rolling file name pattern\",\"by_default\":\"logFile.%d{yyyy-MM-dd}.log\"},{\"name\":\"rollingMaxHistory\",\"type\":\"int\",\"displayName\":\"Rolling max history\",\"by_default\":30},{\"name\":\"triggerMaxFileSize\",\"type\":{\"type\":\"string\",\"avro.java.string\":\"String\"},\"displayName\":\"Trigger max file size\",\"by_default\":\"1GB\"},{\"name\":\"encoderPattern\",\"type\":{\"type\":\"string\",\"avro.java.string\":\"String\"},\"displayName\":\"Encoder pattern\",\"by_default\":\"%-4relative [%thread] %-5level %logger{35} - %msg%n\"}]}");
+  public static final org.apache.avro.Schema SCHEMA$ = new org.apache.avro.Schema.Parser().parse("{\"type\":\"record\",\"name\":\"FileConfig\",\"namespace\":\"org.kaaproject.kaa.server.appenders.file.config.gen\",\"fields\":[{\"name\":\"publicKey\",\"type\":{\"type\":\"string\",\"avro.java.string\":\"String\"},\"displayName\":\"Public Key\",\"maxLength\":1000,\"by_default\":\"\"},{\"name\":\"logsRootPath\",\"type\":{\"type\":\"string\",\"avro.java.string\":\"String\"},\"displayName\":\"Logs root path\",\"by_default\":\"/kaa_log_uploads\"},{\"name\":\"rollingFileNamePatern\",\"type\":{\"type\":\"string\",\"avro.java.string\":\"String\"},\"displayName\":\"Rolling file name pattern\",\"by_default\":\"logFile.%d{yyyy-MM-dd}.log\"},{\"name\":\"rollingMaxHistory\",\"type\":\"int\",\"displayName\":\"Rolling max history\",\"by_default\":30},{\"name\":\"triggerMaxFileSize\",\"type\":{\"type\":\"string\",\"avro.java.string\":\"String\"},\"displayName\":\"Trigger max file size\",\"by_default\":\"1GB\"},{\"name\":\"encoderPattern\",\"type\":{\"type\":\"string\",\"avro.java.string\":\"String\"},\"displayName\":\"Encoder pattern\",\"by_default\":\"%-4relative [%thread] %-5level %logger{35} - %msg%n\"},{\"name\":\"writerType\",\"type\":[{\"type\":\"enum\",\"name\":\"FileSystemWriterType\",\"symbols\":[\"LOGBACK\",\"NIO\"]},\"null\"],\"displayName\":\"Writer type\",\"by_default\":\"LOGBACK\",\"optional\":true},{\"name\":\"writeBufferSize\",\"type\":[\"int\",\"null\"],\"displayName\":\"NIO write buffer size (bytes)\",\"by_default\":4194304},{\"name\":\"fsyncPolicy\",\"type\":[{\"type\":\"enum\",\"name\":\"FileSystemFsyncPolicy\",\"symbols\":[\"ALWAYS\",\"PERIODIC\",\"NEVER\"]},\"null\"],\"displayName\":\"NIO fsync policy\",\"by_default\":\"PERIODIC\",\"optional\":true},{\"name\":\"fsyncInterval\",\"type\":[\"int\",\"null\"],\"displayName\":\"NIO fsync interval (ms)\",\"by_default\":1000}]}");
   public static org.apache.avro.Schema getClassSchema() { return SCHEMA$; }
    private java.lang.String publicKey;
    private java.lang.String logsRootPath;
@@ -15,6 +15,10 @@ public class FileConfig extends org.apache.avro.specific.SpecificRecordBase impl
    private int rollingMaxHistory;
    private java.lang.String triggerMaxFileSize;
    private java.lang.String encoderPattern;
+   private org.kaaproject.kaa.server.appenders.file.config.gen.FileSystemWriterType writerType;
+   private java.lang.Integer writeBufferSize;
+   private org.kaaproject.kaa.server.appenders.file.config.gen.FileSystemFsyncPolicy fsyncPolicy;
+   private java.lang.Integer fsyncInterval;
 
   /**
    * Default constructor.  Note that this does not initialize fields
@@ -26,13 +30,17 @@ public class FileConfig extends org.apache.avro.specific.SpecificRecordBase impl
   /**
    * All-args constructor.
    */
-  public FileConfig(java.lang.String publicKey, java.lang.String logsRootPath, java.lang.String rollingFileNamePatern, java.lang.Integer rollingMaxHistory, java.lang.String triggerMaxFileSize, java.lang.String encoderPattern) {
+  public FileConfig(java.lang.String publicKey, java.lang.String logsRootPath, java.lang.String rollingFileNamePatern, java.lang.Integer rollingMaxHistory, java.lang.String triggerMaxFileSize, java.lang.String encoderPattern, org.kaaproject.kaa.server.appenders.file.config.gen.FileSystemWriterType writerType, java.lang.Integer writeBufferSize, org.kaaproject.kaa.server.appenders.file.config.gen.FileSystemFsyncPolicy fsyncPolicy, java.lang.Integer fsyncInterval) {
     this.publicKey = publicKey;
     this.logsRootPath = logsRootPath;
     this.rollingFileNamePatern = rollingFileNamePatern;
     this.rollingMaxHistory = rollingMaxHistory;
     this.triggerMaxFileSize = triggerMaxFileSize;
     this.encoderPattern = encoderPattern;
+    this.writerType = writerType;
+    this.writeBufferSize = writeBufferSize;
+    this.fsyncPolicy = fsyncPolicy;
+    this.fsyncInterval = fsyncInterval;
   }
 
   public org.apache.avro.Schema getSchema() { return SCHEMA$; }
@@ -45,6 +53,10 @@ public class FileConfig extends org.apache.avro.specific.SpecificRecordBase impl
     case 3: return rollingMaxHistory;
     case 4: return triggerMaxFileSize;
     case 5: return encoderPattern;
+    case 6: return writerType;
+    case 7: return writeBufferSize;
+    case 8: return fsyncPolicy;
+    case 9: return fsyncInterval;
     default: throw new org.apache.avro.AvroRuntimeException("Bad index");
     }
   }
@@ -58,6 +70,10 @@ public class FileConfig extends org.apache.avro.specific.SpecificRecordBase impl
     case 3: rollingMaxHistory = (java.lang.Integer)value$; break;
     case 4: triggerMaxFileSize = (java.lang.String)value$; break;
     case 5: encoderPattern = (java.lang.String)value$; break;
+    case 6: writerType = (org.kaaproject.kaa.server.appenders.file.config.gen.FileSystemWriterType)value$; break;
+    case 7: writeBufferSize = (java.lang.Integer)value$; break;
+    case 8: fsyncPolicy = (org.kaaproject.kaa.server.appenders.file.config.gen.FileSystemFsyncPolicy)value$; break;
+    case 9: fsyncInterval = (java.lang.Integer)value$; break;
     default: throw new org.apache.avro.AvroRuntimeException("Bad index");
     }
   }
@@ -152,6 +168,66 @@ public class FileConfig extends org.apache.avro.specific.SpecificRecordBase impl
     this.encoderPattern = value;
   }
 
+  /**
+   * Gets the value of the 'writerType' field.
+   */
+  public org.kaaproject.kaa.server.appenders.file.config.gen.FileSystemWriterType getWriterType() {
+    return writerType;
+  }
+
+  /**
+   * Sets the value of the 'writerType' field.
+   * @param value the value to set.
+   */
+  public void setWriterType(org.kaaproject.kaa.server.appenders.file.config.gen.FileSystemWriterType value) {
+    this.writerType = value;
+  }
+
+  /**
+   * Gets the value of the 'writeBufferSize' field.
+   */
+  public java.lang.Integer getWriteBufferSize() {
+    return writeBufferSize;
+  }
+
+  /**
+   * Sets the value of the 'writeBufferSize' field.
+   * @param value the value to set.
+   */
+  public void setWriteBufferSize(java.lang.Integer value) {
+    this.writeBufferSize = value;
+  }
+
+  /**
+   * Gets the value of the 'fsyncPolicy' field.
+   */
+  public org.kaaproject.kaa.server.appenders.file.config.gen.FileSystemFsyncPolicy getFsyncPolicy() {
+    return fsyncPolicy;
+  }
+
+  /**
+   * Sets the value of the 'fsyncPolicy' field.
+   * @param value the value to set.
+   */
+  public void setFsyncPolicy(org.kaaproject.kaa.server.appenders.file.config.gen.FileSystemFsyncPolicy value) {
+    this.fsyncPolicy = value;
+  }
+
+  /**
+   * Gets the value of the 'fsyncInterval' field.
+   */
+  public java.lang.Integer getFsyncInterval() {
+    return fsyncInterval;
+  }
+
+  /**
+   * Sets the value of the 'fsyncInterval' field.
+   * @param value the value to set.
+   */
+  public void setFsyncInterval(java.lang.Integer value) {
+    this.fsyncInterval = value;
+  }
+
   /** Creates a new FileConfig RecordBuilder */
   public static org.kaaproject.kaa.server.appenders.file.config.gen.FileConfig.Builder newBuilder() {
     return new org.kaaproject.kaa.server.appenders.file.config.gen.FileConfig.Builder();
@@ -179,6 +255,10 @@ public class FileConfig extends org.apache.avro.specific.SpecificRecordBase impl
     private int rollingMaxHistory;
     private java.lang.String triggerMaxFileSize;
     private java.lang.String encoderPattern;
+    private org.kaaproject.kaa.server.appenders.file.config.gen.FileSystemWriterType writerType;
+    private java.lang.Integer writeBufferSize;
+    private org.kaaproject.kaa.server.appenders.file.config.gen.FileSystemFsyncPolicy fsyncPolicy;
+    private java.lang.Integer fsyncInterval;
 
     /** Creates a new Builder */
     private Builder() {
@@ -212,6 +292,22 @@ public class FileConfig extends org.apache.avro.specific.SpecificRecordBase impl
         this.encoderPattern = data().deepCopy(fields()[5].schema(), other.encoderPattern);
         fieldSetFlags()[5] = true;
       }
+      if (isValidValue(fields()[6], other.writerType)) {
+        this.writerType = data().deepCopy(fields()[6].schema(), other.writerType);
+        fieldSetFlags()[6] = true;
+      }
+      if (isValidValue(fields()[7], other.writeBufferSize)) {
+        this.writeBufferSize = data().deepCopy(fields()[7].schema(), other.writeBufferSize);
+        fieldSetFlags()[7] = true;
+      }
+      if (isValidValue(fields()[8], other.fsyncPolicy)) {
+        this.fsyncPolicy = data().deepCopy(fields()[8].schema(), other.fsyncPolicy);
+        fieldSetFlags()[8] = true;
+      }
+      if (isValidValue(fields()[9], other.fsyncInterval)) {
+        this.fsyncInterval = data().deepCopy(fields()[9].schema(), other.fsyncInterval);
+        fieldSetFlags()[9] = true;
+      }
     }
     
     /** Creates a Builder by copying an existing FileConfig instance */
@@ -241,6 +337,22 @@ public class FileConfig extends org.apache.avro.specific.SpecificRecordBase impl
         this.encoderPattern = data().deepCopy(fields()[5].schema(), other.encoderPattern);
         fieldSetFlags()[5] = true;
       }
+      if (isValidValue(fields()[6], other.writerType)) {
+        this.writerType = data().deepCopy(fields()[6].schema(), other.writerType);
+        fieldSetFlags()[6] = true;
+      }
+      if (isValidValue(fields()[7], other.writeBufferSize)) {
+        this.writeBufferSize = data().deepCopy(fields()[7].schema(), other.writeBufferSize);
+        fieldSetFlags()[7] = true;
+      }
+      if (isValidValue(fields()[8], other.fsyncPolicy)) {
+        this.fsyncPolicy = data().deepCopy(fields()[8].schema(), other.fsyncPolicy);
+        fieldSetFlags()[8] = true;
+      }
+      if (isValidValue(fields()[9], other.fsyncInterval)) {
+        this.fsyncInterval = data().deepCopy(fields()[9].schema(), other.fsyncInterval);
+        fieldSetFlags()[9] = true;
+      }
     }
 
     /** Gets the value of the 'publicKey' field */
@@ -392,6 +504,106 @@ public class FileConfig extends org.apache.avro.specific.SpecificRecordBase impl
       return this;
     }
 
+    /** Gets the value of the 'writerType' field */
+    public org.kaaproject.kaa.server.appenders.file.config.gen.FileSystemWriterType getWriterType() {
+      return writerType;
+    }
+    
+    /** Sets the value of the 'writerType' field */
+    public org.kaaproject.kaa.server.appenders.file.config.gen.FileConfig.Builder setWriterType(org.kaaproject.kaa.server.appenders.file.config.gen.FileSystemWriterType value) {
+      validate(fields()[6], value);
+      this.writerType = value;
+      fieldSetFlags()[6] = true;
+      return this; 
+    }
+    
+    /** Checks whether the 'writerType' field has been set */
+    public boolean hasWriterType() {
+      return fieldSetFlags()[6];
+    }
+    
+    /** Clears the value of the 'writerType' field */
+    public org.kaaproject.kaa.server.appenders.file.config.gen.FileConfig.Builder clearWriterType() {
+      writerType = null;
+      fieldSetFlags()[6] = false;
+      return this;
+    }
+
+    /** Gets the value of the 'writeBufferSize' field */
+    public java.lang.Integer getWriteBufferSize() {
+      return writeBufferSize;
+    }
+    
+    /** Sets the value of the 'writeBufferSize' field */
+    public org.kaaproject.kaa.server.appenders.file.config.gen.FileConfig.Builder setWriteBufferSize(java.lang.Integer value) {
+      validate(fields()[7], value);
+      this.writeBufferSize = value;
+      fieldSetFlags()[7] = true;
+      return this; 
+    }
+    
+    /** Checks whether the 'writeBufferSize' field has been set */
+    public boolean hasWriteBufferSize() {
+      return fieldSetFlags()[7];
+    }
+    
+    /** Clears the value of the 'writeBufferSize' field */
+    public org.kaaproject.kaa.server.appenders.file.config.gen.FileConfig.Builder clearWriteBufferSize() {
+      writeBufferSize = null;
+      fieldSetFlags()[7] = false;
+      return this;
+    }
+
+    /** Gets the value of the 'fsyncPolicy' field */
+    public org.kaaproject.kaa.server.appenders.file.config.gen.FileSystemFsyncPolicy getFsyncPolicy() {
+      return fsyncPolicy;
+    }
+    
+    /** Sets the value of the 'fsyncPolicy' field */
+    public org.kaaproject.kaa.server.appenders.file.config.gen.FileConfig.Builder setFsyncPolicy(org.kaaproject.kaa.server.appenders.file.config.gen.FileSystemFsyncPolicy value) {
+      validate(fields()[8], value);
+      this.fsyncPolicy = value;
+      fieldSetFlags()[8] = true;
+      return this; 
+    }
+    
+    /** Checks whether the 'fsyncPolicy' field has been set */
+    public boolean hasFsyncPolicy() {
+      return fieldSetFlags()[8];
+    }
+    
+    /** Clears the value of the 'fsyncPolicy' field */
+    public org.kaaproject.kaa.server.appenders.file.config.gen.FileConfig.Builder clearFsyncPolicy() {
+      fsyncPolicy = null;
+      fieldSetFlags()[8] = false;
+      return this;
+    }
+
+    /** Gets the value of the 'fsyncInterval' field */
+    public java.lang.Integer getFsyncInterval() {
+      return fsyncInterval;
+    }
+    
+    /** Sets the value of the 'fsyncInterval' field */
+    public org.kaaproject.kaa.server.appenders.file.config.gen.FileConfig.Builder setFsyncInterval(java.lang.Integer value) {
+      validate(fields()[9], value);
+      this.fsyncInterval = value;
+      fieldSetFlags()[9] = true;
+      return this; 
+    }
+    
+    /** Checks whether the 'fsyncInterval' field has been set */
+    public boolean hasFsyncInterval() {
+      return fieldSetFlags()[9];
+    }
+    
+    /** Clears the value of the 'fsyncInterval' field */
+    public org.kaaproject.kaa.server.appenders.file.config.gen.FileConfig.Builder clearFsyncInterval() {
+      fsyncInterval = null;
+      fieldSetFlags()[9] = false;
+      return this;
+    }
+
     @Override
     public FileConfig build() {
       try {
@@ -402,6 +614,10 @@ public class FileConfig extends org.apache.avro.specific.SpecificRecordBase impl
         record.rollingMaxHistory = fieldSetFlags()[3] ? this.rollingMaxHistory : (java.lang.Integer) defaultValue(fields()[3]);
         record.triggerMaxFileSize = fieldSetFlags()[4] ? this.triggerMaxFileSize : (java.lang.String) defaultValue(fields()[4]);
         record.encoderPattern = fieldSetFlags()[5] ? this.encoderPattern : (java.lang.String) defaultValue(fields()[5]);
+        record.writerType = fieldSetFlags()[6] ? this.writerType : (org.kaaproject.kaa.server.appenders.file.config.gen.FileSystemWriterType) defaultValue(fields()[6]);
+        record.writeBufferSize = fieldSetFlags()[7] ? this.writeBufferSize : (java.lang.Integer) defaultValue(fields()[7]);
+        record.fsyncPolicy = fieldSetFlags()[8] ? this.fsyncPolicy : (org.kaaproject.kaa.server.appenders.file.config.gen.FileSystemFsyncPolicy) defaultValue(fields()[8]);
+        record.fsyncInterval = fieldSetFlags()[9] ? this.fsyncInterval : (java.lang.Integer) defaultValue(fields()[9]);
         return record;
       } catch (Exception e) {
         throw new org.apache.avro.AvroRuntimeException(e);
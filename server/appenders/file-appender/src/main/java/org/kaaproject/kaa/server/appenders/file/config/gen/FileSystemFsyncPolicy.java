@@ -0,0 +1,13 @@
+/**
+ * Autogenerated by Avro
+ * 
+ * DO NOT EDIT DIRECTLY
+ */
+package org.kaaproject.kaa.server.appenders.file.config.gen;  
+@SuppressWarnings("all")
+@org.apache.avro.specific.AvroGenerated
+public enum FileSystemFsyncPolicy { 
+  ALWAYS, PERIODIC, NEVER  ;
+  public static final org.apache.avro.Schema SCHEMA$ = new org.apache.avro.Schema.Parser().parse("{\"type\":\"enum\",\"name\":\"FileSystemFsyncPolicy\",\"namespace\":\"org.kaaproject.kaa.server.appenders.file.config.gen\",\"symbols\":[\"ALWAYS\",\"PERIODIC\",\"NEVER\"]}");
+  public static org.apache.avro.Schema getClassSchema() { return SCHEMA$; }
+}
@@ -0,0 +1,13 @@
+/**
+ * Autogenerated by Avro
+ * 
+ * DO NOT EDIT DIRECTLY
+ */
+package org.kaaproject.kaa.server.appenders.file.config.gen;  
+@SuppressWarnings("all")
+@org.apache.avro.specific.AvroGenerated
+public enum FileSystemWriterType { 
+  LOGBACK, NIO  ;
+  public static final org.apache.avro.Schema SCHEMA$ = new org.apache.avro.Schema.Parser().parse("{\"type\":\"enum\",\"name\":\"FileSystemWriterType\",\"namespace\":\"org.kaaproject.kaa.server.appenders.file.config.gen\",\"symbols\":[\"LOGBACK\",\"NIO\"]}");
+  public static org.apache.avro.Schema getClassSchema() { return SCHEMA$; }
+}
@@ -19,9 +19,18 @@ package org.kaaproject.kaa.server.appenders.file.appender;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.verify;
 
+import java.io.ByteArrayOutputStream;
 import java.io.File;
+import java.nio.file.Path;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.List;
+
+import org.apache.avro.Schema;
+import org.apache.avro.io.BinaryEncoder;
+import org.apache.avro.io.EncoderFactory;
+import org.apache.avro.specific.SpecificDatumWriter;
 
 import org.junit.Assert;
 import org.junit.Test;
@@ -34,6 +43,8 @@ import org.kaaproject.kaa.common.dto.logs.LogHeaderStructureDto;
 import org.kaaproject.kaa.common.dto.logs.LogSchemaDto;
 import org.kaaproject.kaa.common.endpoint.gen.BasicEndpointProfile;
 import org.kaaproject.kaa.server.appenders.file.config.gen.FileConfig;
+import org.kaaproject.kaa.server.appenders.file.config.gen.FileSystemFsyncPolicy;
+import org.kaaproject.kaa.server.appenders.file.config.gen.FileSystemWriterType;
 import org.kaaproject.kaa.server.common.core.algorithms.generation.DefaultRecordGenerationAlgorithm;
 import org.kaaproject.kaa.server.common.core.algorithms.generation.DefaultRecordGenerationAlgorithmImpl;
 import org.kaaproject.kaa.server.common.core.configuration.RawData;
@@ -43,6 +54,7 @@ import org.kaaproject.kaa.server.common.log.shared.appender.LogDeliveryCallback;
 import org.kaaproject.kaa.server.common.log.shared.appender.LogEvent;
 import org.kaaproject.kaa.server.common.log.shared.appender.LogSchema;
 import org.kaaproject.kaa.server.common.log.shared.appender.data.BaseLogEventPack;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Mockito;
 import org.springframework.test.util.ReflectionTestUtils;
 
@@ -163,6 +175,50 @@ public class FileSystemLogAppenderTest {
         }
     }
 
+    @Test
+    public void initWithLegacyConfigurationTest() throws Exception {
+        FileSystemLogAppender appender = new FileSystemLogAppender();
+        fileSystemLogEventService = mock(FileSystemLogEventService.class);
+        FileSystemLogger logger = Mockito.mock(FileSystemLogger.class);
+        ReflectionTestUtils.setField(appender, "fileSystemLogEventService", fileSystemLogEventService);
+        ReflectionTestUtils.setField(appender, "logger", logger);
+
+        // Configurations saved before the NIO writer options were added
+        FileConfig fileConfig = prepareFileConfig();
+        Schema schema = FileConfig.getClassSchema();
+        List<Schema.Field> fields = new ArrayList<>();
+        for (Schema.Field field : schema.getFields()) {
+            if (field.pos() < schema.getField("writerType").pos()) {
+                fields.add(new Schema.Field(field.name(), field.schema(), field.doc(), field.defaultValue()));
+            }
+        }
+        Schema legacySchema = Schema.createRecord(schema.getName(), schema.getDoc(), schema.getNamespace(), false);
+        legacySchema.setFields(fields);
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        BinaryEncoder encoder = EncoderFactory.get().binaryEncoder(output, null);
+        new SpecificDatumWriter<FileConfig>(legacySchema).write(fileConfig, encoder);
+        encoder.flush();
+
+        LogAppenderDto logAppenderDto = new LogAppenderDto();
+        logAppenderDto.setApplicationId(APPLICATION_ID);
+        logAppenderDto.setName("test");
+        logAppenderDto.setTenantId(TENANT_ID);
+        logAppenderDto.setRawConfiguration(output.toByteArray());
+
+        try {
+            appender.init(logAppenderDto);
+            ArgumentCaptor<FileConfig> configuration = ArgumentCaptor.forClass(FileConfig.class);
+            verify(logger).init(Mockito.eq(logAppenderDto), configuration.capture(), Mockito.any(Path.class));
+            Assert.assertEquals(fileConfig.getLogsRootPath(), configuration.getValue().getLogsRootPath());
+            Assert.assertEquals(FileSystemWriterType.LOGBACK, configuration.getValue().getWriterType());
+            Assert.assertEquals(Integer.valueOf(4194304), configuration.getValue().getWriteBufferSize());
+            Assert.assertEquals(FileSystemFsyncPolicy.PERIODIC, configuration.getValue().getFsyncPolicy());
+            Assert.assertEquals(Integer.valueOf(1000), configuration.getValue().getFsyncInterval());
+        } finally {
+            appender.close();
+        }
+    }
+
     private LogAppenderDto prepareConfig() throws Exception {
 
         LogAppenderDto logAppenderDto = new LogAppenderDto();
@@ -170,6 +226,15 @@ public class FileSystemLogAppenderTest {
         logAppenderDto.setName("test");
         logAppenderDto.setTenantId(TENANT_ID);
 
+        AvroByteArrayConverter<FileConfig> byteConverter = new AvroByteArrayConverter<>(FileConfig.class);
+        byte[] rawConfiguration = byteConverter.toByteArray(prepareFileConfig());
+
+        logAppenderDto.setRawConfiguration(rawConfiguration);
+
+        return logAppenderDto;
+    }
+
+    private FileConfig prepareFileConfig() throws Exception {
         RawSchema rawSchema = new RawSchema(FileConfig.getClassSchema().toString());
         DefaultRecordGenerationAlgorithm<RawData> algotithm =
                 new DefaultRecordGenerationAlgorithmImpl<>(rawSchema, new RawDataFactory());
@@ -179,13 +244,7 @@ public class FileSystemLogAppenderTest {
         FileConfig fileConfig = converter.decodeJson(rawData.getRawData());
 
         fileConfig.setLogsRootPath(System.getProperty("java.io.tmpdir") + File.separator + "tmp_logs_"+System.currentTimeMillis());
-
-        AvroByteArrayConverter<FileConfig> byteConverter = new AvroByteArrayConverter<>(FileConfig.class);
-        byte[] rawConfiguration = byteConverter.toByteArray(fileConfig);
-
-        logAppenderDto.setRawConfiguration(rawConfiguration);
-
-        return logAppenderDto;
+        return fileConfig;
     }
 
     private static class TestLogDeliveryCallback implements LogDeliveryCallback {
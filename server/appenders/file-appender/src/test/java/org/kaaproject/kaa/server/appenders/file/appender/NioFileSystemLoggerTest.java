@@ -0,0 +1,142 @@
+/*
+ * Copyright 2014-2016 CyberVision, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.kaaproject.kaa.server.appenders.file.appender;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.apache.commons.io.FileUtils;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.kaaproject.kaa.common.dto.logs.LogAppenderDto;
+import org.kaaproject.kaa.server.appenders.file.config.gen.FileConfig;
+import org.kaaproject.kaa.server.appenders.file.config.gen.FileSystemFsyncPolicy;
+import org.kaaproject.kaa.server.appenders.file.config.gen.FileSystemWriterType;
+import org.kaaproject.kaa.server.common.log.shared.appender.LogDeliveryCallback;
+import org.mockito.Mockito;
+
+public class NioFileSystemLoggerTest {
+
+    private static final int TIMEOUT = 5000;
+
+    private Path directory;
+    private Path filePath;
+
+    @Before
+    public void before() throws IOException {
+        directory = Files.createTempDirectory("nio_logs");
+        filePath = directory.resolve("application.log");
+    }
+
+    @After
+    public void after() throws IOException {
+        FileUtils.deleteDirectory(directory.toFile());
+    }
+
+    @Test
+    public void appendTest() throws IOException {
+        NioFileSystemLogger logger = new NioFileSystemLogger();
+        logger.init(prepareAppender(), prepareConfig("logFile.%d{yyyy-MM-dd}.log", "1GB", 30), filePath);
+        LogDeliveryCallback first = Mockito.mock(LogDeliveryCallback.class);
+        LogDeliveryCallback second = Mockito.mock(LogDeliveryCallback.class);
+        try {
+            logger.append(Arrays.asList("event 1", "event 2"), first);
+            logger.append(Collections.singletonList("event 3"), second);
+            Mockito.verify(first, Mockito.timeout(TIMEOUT)).onSuccess();
+            Mockito.verify(second, Mockito.timeout(TIMEOUT)).onSuccess();
+            Assert.assertEquals(Arrays.asList("event 1", "event 2", "event 3"), Files.readAllLines(filePath, StandardCharsets.UTF_8));
+        } finally {
+            logger.close();
+        }
+        LogDeliveryCallback closed = Mockito.mock(LogDeliveryCallback.class);
+        logger.append(Collections.singletonList("event 4"), closed);
+        Mockito.verify(closed).onConnectionError();
+    }
+
+    @Test
+    public void rollBySizeTest() throws IOException {
+        NioFileSystemLogger logger = new NioFileSystemLogger();
+        logger.init(prepareAppender(), prepareConfig("logFile.%d{yyyy-MM-dd}.log", "50", 30), filePath);
+        List<String> events = new ArrayList<>();
+        try {
+            for (int i = 0; i < 10; i++) {
+                String event = "rolled event " + i;
+                LogDeliveryCallback callback = Mockito.mock(LogDeliveryCallback.class);
+                logger.append(Collections.singletonList(event), callback);
+                Mockito.verify(callback, Mockito.timeout(TIMEOUT)).onSuccess();
+                events.add(event);
+            }
+        } finally {
+            logger.close();
+        }
+        File[] rolledFiles = directory.toFile().listFiles((dir, name) -> name.startsWith("logFile."));
+        Assert.assertTrue(rolledFiles.length > 1);
+        List<String> result = new ArrayList<>();
+        for (File rolledFile : rolledFiles) {
+            Assert.assertTrue(rolledFile.length() <= 50);
+            result.addAll(Files.readAllLines(rolledFile.toPath(), StandardCharsets.UTF_8));
+        }
+        result.addAll(Files.readAllLines(filePath, StandardCharsets.UTF_8));
+        Collections.sort(result);
+        Assert.assertEquals(events, result);
+    }
+
+    @Test
+    public void maxHistoryTest() throws IOException {
+        NioFileSystemLogger logger = new NioFileSystemLogger();
+        logger.init(prepareAppender(), prepareConfig("logFile", "20", 2), filePath);
+        try {
+            for (int i = 0; i < 10; i++) {
+                LogDeliveryCallback callback = Mockito.mock(LogDeliveryCallback.class);
+                logger.append(Collections.singletonList("expired event " + i), callback);
+                Mockito.verify(callback, Mockito.timeout(TIMEOUT)).onSuccess();
+            }
+        } finally {
+            logger.close();
+        }
+        Assert.assertEquals(2, directory.toFile().list((dir, name) -> name.startsWith("logFile")).length);
+    }
+
+    private static LogAppenderDto prepareAppender() {
+        LogAppenderDto appenderDto = new LogAppenderDto();
+        appenderDto.setTenantId("tenant_id");
+        appenderDto.setApplicationId("application_id");
+        appenderDto.setApplicationToken("application_token");
+        return appenderDto;
+    }
+
+    private static FileConfig prepareConfig(String rollingFileNamePattern, String triggerMaxFileSize, int rollingMaxHistory) {
+        FileConfig config = new FileConfig();
+        config.setRollingFileNamePatern(rollingFileNamePattern);
+        config.setTriggerMaxFileSize(triggerMaxFileSize);
+        config.setRollingMaxHistory(rollingMaxHistory);
+        config.setWriterType(FileSystemWriterType.NIO);
+        config.setWriteBufferSize(1024);
+        config.setFsyncPolicy(FileSystemFsyncPolicy.ALWAYS);
+        config.setFsyncInterval(1000);
+        return config;
+    }
+}
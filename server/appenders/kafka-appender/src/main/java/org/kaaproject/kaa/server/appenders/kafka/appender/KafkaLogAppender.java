@@ -26,6 +26,7 @@ import java.util.concurrent.Executors;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 
 import org.apache.avro.generic.GenericRecord;
 import org.apache.kafka.clients.producer.Callback;
@@ -33,6 +34,7 @@ import org.apache.kafka.clients.producer.RecordMetadata;
 import org.kaaproject.kaa.common.avro.GenericAvroConverter;
 import org.kaaproject.kaa.common.dto.logs.LogAppenderDto;
 import org.kaaproject.kaa.server.appenders.kafka.config.gen.KafkaConfig;
+import org.kaaproject.kaa.server.appenders.kafka.config.gen.KafkaValueFormat;
 import org.kaaproject.kaa.server.common.log.shared.appender.AbstractLogAppender;
 import org.kaaproject.kaa.server.common.log.shared.appender.LogDeliveryCallback;
 import org.kaaproject.kaa.server.common.log.shared.appender.LogEvent;
@@ -45,6 +47,8 @@ public class KafkaLogAppender extends AbstractLogAppender<KafkaConfig> {
 
     private static final Logger LOG = LoggerFactory.getLogger(KafkaLogAppender.class);
     private static final int MAX_CALLBACK_THREAD_POOL_SIZE = 10;
+    /** Delivery failures are logged with their cause at most once per this interval, the rest are counted in the statistics. */
+    private static final long FAILURE_WARN_INTERVAL_MS = 1000L;
 
     private ExecutorService executor;
 
@@ -52,6 +56,7 @@ public class KafkaLogAppender extends AbstractLogAppender<KafkaConfig> {
     private AtomicInteger kafkaSuccessLogCount = new AtomicInteger();
     private AtomicInteger kafkaFailureLogCount = new AtomicInteger();
     private AtomicInteger inputLogCount = new AtomicInteger();
+    private AtomicLong lastFailureWarnTime = new AtomicLong();
 
     private LogEventDao logEventDao;
     private String topicName;
@@ -72,10 +77,14 @@ public class KafkaLogAppender extends AbstractLogAppender<KafkaConfig> {
             @Override
             public void run() {
                 long second = System.currentTimeMillis() / 1000;
-                LOG.info(
-                        "[{}] Received {} log record count, {} success kafka callbacks, {}  failure kafka callbacks / second.",
-                        second, inputLogCount.getAndSet(0), kafkaSuccessLogCount.getAndSet(0),
-                        kafkaFailureLogCount.getAndSet(0));
+                int inputCount = inputLogCount.getAndSet(0);
+                int successCount = kafkaSuccessLogCount.getAndSet(0);
+                int failureCount = kafkaFailureLogCount.getAndSet(0);
+                if (inputCount > 0 || successCount > 0 || failureCount > 0) {
+                    LOG.info(
+                            "[{}] Received {} log record count, {} success kafka callbacks, {}  failure kafka callbacks / second.",
+                            second, inputCount, successCount, failureCount);
+                }
             }
         }, 0L, 1L, TimeUnit.SECONDS);
     }
@@ -107,17 +116,23 @@ public class KafkaLogAppender extends AbstractLogAppender<KafkaConfig> {
                     try {
                         LOG.debug("[{}] appending {} logs to kafka collection", topicName, logEventPack.getEvents()
                                 .size());
-                        GenericAvroConverter<GenericRecord> eventConverter = getConverter(logEventPack.getLogSchema()
-                                .getSchema());
-                        GenericAvroConverter<GenericRecord> headerConverter = getConverter(header.getSchema()
-                                .toString());
-                        List<KafkaLogEventDto> dtoList = generateKafkaLogEvent(logEventPack, header, eventConverter);
+                        GenericAvroConverter<GenericRecord> eventConverter = null;
+                        GenericAvroConverter<GenericRecord> headerConverter = null;
+                        List<KafkaLogEventDto> dtoList;
+                        if (logEventDao.getValueFormat() == KafkaValueFormat.AVRO_BINARY) {
+                            dtoList = generateRawKafkaLogEvent(logEventPack, header);
+                        } else {
+                            eventConverter = getConverter(logEventPack.getLogSchema().getSchema());
+                            headerConverter = getConverter(header.getSchema().toString());
+                            dtoList = generateKafkaLogEvent(logEventPack, header);
+                        }
                         LOG.debug("[{}] saving {} objects", topicName, dtoList.size());
                         if (!dtoList.isEmpty()) {
                             int logCount = dtoList.size();
                             inputLogCount.getAndAdd(logCount);
-                            logEventDao.save(dtoList, eventConverter, headerConverter, new LogAppenderCallback(
-                                    listener, kafkaSuccessLogCount, kafkaFailureLogCount));
+                            logEventDao.save(dtoList, logEventPack.getLogSchema().getVersion(), eventConverter,
+                                    headerConverter, new LogAppenderCallback(
+                                    listener, kafkaSuccessLogCount, kafkaFailureLogCount, lastFailureWarnTime));
                             LOG.debug("[{}] appended {} logs to kafka collection", topicName, logEventPack.getEvents()
                                     .size());
                         } else {
@@ -140,7 +155,7 @@ public class KafkaLogAppender extends AbstractLogAppender<KafkaConfig> {
     protected void initFromConfiguration(LogAppenderDto appender, KafkaConfig configuration) {
         LOG.info("Initializing new appender instance using {}", configuration);
         try {
-            logEventDao = new KafkaLogEventDao(configuration);
+            logEventDao = new KafkaLogEventDao(configuration, appender.getApplicationToken());
             int executorPoolSize = Math.min(configuration.getExecutorThreadPoolSize(), MAX_CALLBACK_THREAD_POOL_SIZE);
             executor = Executors.newFixedThreadPool(executorPoolSize);
             topicName = configuration.getTopic();
@@ -151,24 +166,35 @@ public class KafkaLogAppender extends AbstractLogAppender<KafkaConfig> {
 
     }
 
-    protected List<KafkaLogEventDto> generateKafkaLogEvent(LogEventPack logEventPack, RecordHeader header,
-            GenericAvroConverter<GenericRecord> eventConverter) throws IOException {
+    protected List<KafkaLogEventDto> generateKafkaLogEvent(LogEventPack logEventPack, RecordHeader header) throws IOException {
         LOG.debug("Generate LogEventDto objects from LogEventPack [{}] and header [{}]", logEventPack, header);
-        List<KafkaLogEventDto> events = new ArrayList<>(logEventPack.getEvents().size());
+        List<GenericRecord> decodedLogs;
         try {
-            for (LogEvent logEvent : logEventPack.getEvents()) {
-                LOG.debug("Convert log events [{}] to dto objects.", logEvent);
-                if (logEvent == null | logEvent.getLogData() == null) {
-                    continue;
-                }
-                LOG.trace("Avro record converter [{}] with log data [{}]", eventConverter, logEvent.getLogData());
-                GenericRecord decodedLog = eventConverter.decodeBinary(logEvent.getLogData());
-                events.add(new KafkaLogEventDto(header, decodedLog));
-            }
+            decodedLogs = logEventPack.getDecodedRecords();
         } catch (IOException e) {
             LOG.error("Unexpected IOException while decoding LogEvents", e);
             throw e;
         }
+        List<KafkaLogEventDto> events = new ArrayList<>(decodedLogs.size());
+        for (GenericRecord decodedLog : decodedLogs) {
+            events.add(new KafkaLogEventDto(header, decodedLog, logEventPack.getEndpointKey()));
+        }
+        return events;
+    }
+
+    /**
+     * Wraps the log records of the pack as sent by the endpoint, without
+     * decoding them.
+     */
+    protected List<KafkaLogEventDto> generateRawKafkaLogEvent(LogEventPack logEventPack, RecordHeader header) {
+        LOG.debug("Generate raw LogEventDto objects from LogEventPack [{}] and header [{}]", logEventPack, header);
+        List<KafkaLogEventDto> events = new ArrayList<>(logEventPack.getEvents().size());
+        for (LogEvent logEvent : logEventPack.getEvents()) {
+            byte[] logData = logEvent.getLogData();
+            if (logData != null && logData.length > 0) {
+                events.add(new KafkaLogEventDto(header, logData, logEventPack.getEndpointKey()));
+            }
+        }
         return events;
     }
 
@@ -177,13 +203,15 @@ public class KafkaLogAppender extends AbstractLogAppender<KafkaConfig> {
         private final LogDeliveryCallback callback;
         private final AtomicInteger kafkaSuccessLogCount;
         private final AtomicInteger kafkaFailureLogCount;
+        private final AtomicLong lastFailureWarnTime;
         private final int size;
 
         private LogAppenderCallback(LogDeliveryCallback callback, AtomicInteger kafkaSuccessLogCount,
-                AtomicInteger kafkaFailureLogCount) {
+                AtomicInteger kafkaFailureLogCount, AtomicLong lastFailureWarnTime) {
             this.callback = callback;
             this.kafkaSuccessLogCount = kafkaSuccessLogCount;
             this.kafkaFailureLogCount = kafkaFailureLogCount;
+            this.lastFailureWarnTime = lastFailureWarnTime;
             this.size = 1;
         }
 
@@ -194,7 +222,13 @@ public class KafkaLogAppender extends AbstractLogAppender<KafkaConfig> {
                 callback.onSuccess();
             } else {
                 kafkaFailureLogCount.getAndAdd(size);
-                LOG.warn("Failed to store record", e);
+                long now = System.currentTimeMillis();
+                long lastWarnTime = lastFailureWarnTime.get();
+                if (now - lastWarnTime >= FAILURE_WARN_INTERVAL_MS && lastFailureWarnTime.compareAndSet(lastWarnTime, now)) {
+                    LOG.warn("Failed to store record", e);
+                } else {
+                    LOG.debug("Failed to store record", e);
+                }
                 if (e instanceof IOException) {
                     callback.onConnectionError();
                 } else {
@@ -17,12 +17,15 @@
 package org.kaaproject.kaa.server.appenders.kafka.appender;
 
 import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Properties;
 import java.util.Random;
 import java.util.UUID;
 import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.apache.avro.generic.GenericRecord;
 import org.apache.kafka.clients.producer.Callback;
@@ -32,25 +35,53 @@ import org.apache.kafka.clients.producer.RecordMetadata;
 import org.apache.kafka.clients.producer.ProducerConfig;
 import org.kaaproject.kaa.common.avro.GenericAvroConverter;
 import org.kaaproject.kaa.server.appenders.kafka.config.gen.KafkaConfig;
+import org.kaaproject.kaa.server.appenders.kafka.config.gen.KafkaPartitionStrategy;
 import org.kaaproject.kaa.server.appenders.kafka.config.gen.KafkaServer;
+import org.kaaproject.kaa.server.appenders.kafka.config.gen.KafkaValueFormat;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+/**
+ * Sends log records to a Kafka topic.
+ *
+ * <p>With the {@link KafkaValueFormat#AVRO_BINARY} value format each record
+ * value is a compact header followed by the log record exactly as the
+ * endpoint sent it:</p>
+ *
+ * <pre>
+ * byte     format version, currently 1
+ * int      log schema version (big-endian)
+ * short    application token length in bytes (big-endian)
+ * byte[]   application token (UTF-8)
+ * byte[]   Avro binary encoded log record
+ * </pre>
+ *
+ * <p>Consumers resolve the writer schema by the application token and log
+ * schema version. The {@link KafkaValueFormat#JSON} value format sends the
+ * UTF-8 encoded JSON document with the record header and event.</p>
+ */
 public class KafkaLogEventDao implements LogEventDao {
 
     private static final Logger LOG = LoggerFactory.getLogger(KafkaLogEventDao.class);
 
     private static final String KEY_SERIALIZER = "org.apache.kafka.common.serialization.StringSerializer";
-    private static final String VALUE_SERIALIZER = "org.apache.kafka.common.serialization.StringSerializer";
+    private static final String VALUE_SERIALIZER = "org.apache.kafka.common.serialization.ByteArraySerializer";
+
+    static final byte BINARY_FORMAT_VERSION = 1;
 
     private final Random RANDOM = new Random();
 
-    private KafkaProducer<String, String> producer;
+    private final AtomicInteger nextPartition = new AtomicInteger();
+
+    private KafkaProducer<String, byte[]> producer;
     private KafkaConfig configuration;
     private String topicName;
     private int partitionCount;
+    private KafkaValueFormat valueFormat;
+    private KafkaPartitionStrategy partitionStrategy;
+    private byte[] applicationToken;
 
-    public KafkaLogEventDao(KafkaConfig configuration) {
+    public KafkaLogEventDao(KafkaConfig configuration, String applicationToken) {
         if (configuration == null) {
             throw new IllegalArgumentException("Configuration shouldn't be null");
         }
@@ -58,6 +89,16 @@ public class KafkaLogEventDao implements LogEventDao {
         this.configuration = configuration;
         this.topicName = configuration.getTopic();
         this.partitionCount = configuration.getPartitionCount();
+        this.valueFormat = configuration.getValueFormat() != null ? configuration.getValueFormat() : KafkaValueFormat.JSON;
+        this.partitionStrategy = getPartitionStrategy(configuration);
+        this.applicationToken = applicationToken != null ? applicationToken.getBytes(StandardCharsets.UTF_8) : new byte[0];
+        if (this.applicationToken.length > Short.MAX_VALUE) {
+            throw new IllegalArgumentException("Application token is too long");
+        }
+        if (partitionStrategy != KafkaPartitionStrategy.DEFAULT && partitionCount <= 0) {
+            throw new IllegalArgumentException("Partition count should be positive for " + partitionStrategy + " partition strategy");
+        }
+        LOG.info("Init kafka log event dao with {} value format and {} partition strategy", valueFormat, partitionStrategy);
         Properties kafkaProperties = new Properties();
         StringBuilder serverList = new StringBuilder();
         for (KafkaServer server : configuration.getKafkaServers()) {
@@ -84,25 +125,30 @@ public class KafkaLogEventDao implements LogEventDao {
         LOG.info("Init kafka cluster with property {}={}", ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG,
                 VALUE_SERIALIZER);
         kafkaProperties.put(ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG, VALUE_SERIALIZER);
-        producer = new KafkaProducer<String, String>(kafkaProperties);
+        producer = new KafkaProducer<String, byte[]>(kafkaProperties);
+    }
+
+    @Override
+    public KafkaValueFormat getValueFormat() {
+        return valueFormat;
     }
 
     @Override
-    public List<Future<RecordMetadata>> save(List<KafkaLogEventDto> logEventDtoList,
+    public List<Future<RecordMetadata>> save(List<KafkaLogEventDto> logEventDtoList, int schemaVersion,
             GenericAvroConverter<GenericRecord> eventConverter, GenericAvroConverter<GenericRecord> headerConverter,
             Callback callback) throws IOException {
-        List<Future<RecordMetadata>> results = new ArrayList<Future<RecordMetadata>>();
-        LOG.info("[{}] Sending events to Kafka using {} key defining strategy", topicName, configuration
-                .getKafkaKeyType().toString());
+        List<Future<RecordMetadata>> results = new ArrayList<Future<RecordMetadata>>(logEventDtoList.size());
+        LOG.trace("[{}] Sending {} events to Kafka", topicName, logEventDtoList.size());
+        byte[] binaryHeader = valueFormat == KafkaValueFormat.AVRO_BINARY ? formBinaryHeader(schemaVersion) : null;
         for (KafkaLogEventDto dto : logEventDtoList) {
-            ProducerRecord<String, String> recordToWrite;
-            if (configuration.getUseDefaultPartitioner()) {
-                recordToWrite = new ProducerRecord<String, String>(topicName, getKey(dto), formKafkaJSON(dto,
-                        eventConverter, headerConverter));
+            byte[] value;
+            if (binaryHeader != null) {
+                value = formKafkaBinary(binaryHeader, dto);
             } else {
-                recordToWrite = new ProducerRecord<String, String>(topicName, calculatePartitionID(dto), getKey(dto),
-                        formKafkaJSON(dto, eventConverter, headerConverter));
+                value = formKafkaJSON(dto, eventConverter, headerConverter).getBytes(StandardCharsets.UTF_8);
             }
+            ProducerRecord<String, byte[]> recordToWrite = new ProducerRecord<String, byte[]>(topicName,
+                    calculatePartitionID(dto), getKey(dto), value);
             results.add(producer.send(recordToWrite, callback));
         }
         return results;
@@ -116,8 +162,41 @@ public class KafkaLogEventDao implements LogEventDao {
         }
     }
 
-    private int calculatePartitionID(KafkaLogEventDto eventDto) {
-        return eventDto.hashCode() % partitionCount;
+    /**
+     * Returns the partition to send the record to, or null to let the producer
+     * pick one by the record key.
+     */
+    private Integer calculatePartitionID(KafkaLogEventDto eventDto) {
+        switch (partitionStrategy) {
+        case ROUND_ROBIN:
+            return (nextPartition.getAndIncrement() & Integer.MAX_VALUE) % partitionCount;
+        case ENDPOINT_KEY_HASH:
+            String endpointKey = eventDto.getEndpointKey();
+            if (endpointKey == null && eventDto.getHeader() != null) {
+                endpointKey = eventDto.getHeader().getEndpointKeyHash();
+            }
+            if (endpointKey == null) {
+                return null;
+            }
+            return (endpointKey.hashCode() & Integer.MAX_VALUE) % partitionCount;
+        default:
+            return null;
+        }
+    }
+
+    /**
+     * Resolves the partition strategy. Configurations without one keep the
+     * legacy behavior of the use default partitioner flag, with the explicit
+     * partition spread evenly across the partitions.
+     */
+    private static KafkaPartitionStrategy getPartitionStrategy(KafkaConfig configuration) {
+        if (configuration.getPartitionStrategy() != null) {
+            return configuration.getPartitionStrategy();
+        }
+        if (configuration.getUseDefaultPartitioner() == null || configuration.getUseDefaultPartitioner()) {
+            return KafkaPartitionStrategy.DEFAULT;
+        }
+        return KafkaPartitionStrategy.ROUND_ROBIN;
     }
 
     private String parseAcknowledgement(String record) {
@@ -135,6 +214,23 @@ public class KafkaLogEventDao implements LogEventDao {
         }
     }
 
+    private byte[] formBinaryHeader(int schemaVersion) {
+        ByteBuffer buffer = ByteBuffer.allocate(1 + 4 + 2 + applicationToken.length);
+        buffer.put(BINARY_FORMAT_VERSION);
+        buffer.putInt(schemaVersion);
+        buffer.putShort((short) applicationToken.length);
+        buffer.put(applicationToken);
+        return buffer.array();
+    }
+
+    private byte[] formKafkaBinary(byte[] binaryHeader, KafkaLogEventDto dto) {
+        byte[] rawEvent = dto.getRawEvent();
+        byte[] result = new byte[binaryHeader.length + rawEvent.length];
+        System.arraycopy(binaryHeader, 0, result, 0, binaryHeader.length);
+        System.arraycopy(rawEvent, 0, result, binaryHeader.length, rawEvent.length);
+        return result;
+    }
+
     private String formKafkaJSON(KafkaLogEventDto dto, GenericAvroConverter<GenericRecord> eventConverter,
             GenericAvroConverter<GenericRecord> headerConverter) throws IOException {
         String eventJSON = eventConverter.encodeToJson(dto.getEvent());
@@ -148,6 +244,9 @@ public class KafkaLogEventDao implements LogEventDao {
     }
 
     private String getKey(KafkaLogEventDto dto) {
+        if (configuration.getKafkaKeyType() == null) {
+            return null;
+        }
         switch (configuration.getKafkaKeyType()) {
         case ENDPOINTHASHKEY:
             return dto.getHeader().getEndpointKeyHash();
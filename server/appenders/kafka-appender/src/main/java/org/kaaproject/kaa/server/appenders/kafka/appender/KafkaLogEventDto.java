@@ -17,6 +17,7 @@
 package org.kaaproject.kaa.server.appenders.kafka.appender;
 
 import java.io.Serializable;
+import java.util.Arrays;
 
 import org.apache.avro.generic.GenericRecord;
 import org.kaaproject.kaa.server.common.log.shared.avro.gen.RecordHeader;
@@ -27,11 +28,27 @@ public class KafkaLogEventDto implements Serializable {
 
     private final RecordHeader header;
     private final GenericRecord event;
+    private final byte[] rawEvent;
+    private final String endpointKey;
 
     public KafkaLogEventDto(RecordHeader header, GenericRecord event) {
+        this(header, event, null, null);
+    }
+
+    public KafkaLogEventDto(RecordHeader header, GenericRecord event, String endpointKey) {
+        this(header, event, null, endpointKey);
+    }
+
+    public KafkaLogEventDto(RecordHeader header, byte[] rawEvent, String endpointKey) {
+        this(header, null, rawEvent, endpointKey);
+    }
+
+    private KafkaLogEventDto(RecordHeader header, GenericRecord event, byte[] rawEvent, String endpointKey) {
         super();
         this.header = header;
         this.event = event;
+        this.rawEvent = rawEvent;
+        this.endpointKey = endpointKey;
     }
 
     public RecordHeader getHeader() {
@@ -42,12 +59,28 @@ public class KafkaLogEventDto implements Serializable {
         return event;
     }
 
+    /**
+     * Returns the log record exactly as it was sent by the endpoint, or null
+     * if the record was decoded.
+     *
+     * @return the Avro binary encoded log record
+     */
+    public byte[] getRawEvent() {
+        return rawEvent;
+    }
+
+    public String getEndpointKey() {
+        return endpointKey;
+    }
+
     @Override
     public int hashCode() {
         final int prime = 31;
         int result = 1;
         result = prime * result + ((event == null) ? 0 : event.hashCode());
         result = prime * result + ((header == null) ? 0 : header.hashCode());
+        result = prime * result + Arrays.hashCode(rawEvent);
+        result = prime * result + ((endpointKey == null) ? 0 : endpointKey.hashCode());
         return result;
     }
 
@@ -77,6 +110,16 @@ public class KafkaLogEventDto implements Serializable {
         } else if (!header.equals(other.header)) {
             return false;
         }
+        if (!Arrays.equals(rawEvent, other.rawEvent)) {
+            return false;
+        }
+        if (endpointKey == null) {
+            if (other.endpointKey != null) {
+                return false;
+            }
+        } else if (!endpointKey.equals(other.endpointKey)) {
+            return false;
+        }
         return true;
     }
 }
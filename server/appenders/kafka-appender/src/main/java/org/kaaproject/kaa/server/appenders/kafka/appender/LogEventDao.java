@@ -24,10 +24,20 @@ import org.apache.avro.generic.GenericRecord;
 import org.apache.kafka.clients.producer.Callback;
 import org.apache.kafka.clients.producer.RecordMetadata;
 import org.kaaproject.kaa.common.avro.GenericAvroConverter;
+import org.kaaproject.kaa.server.appenders.kafka.config.gen.KafkaValueFormat;
 
 public interface LogEventDao {
 
-    List<Future<RecordMetadata>> save(List<KafkaLogEventDto> logEventDtoList,
+    /**
+     * Returns the format of the record values. With
+     * {@link KafkaValueFormat#AVRO_BINARY} the events are passed as raw
+     * records and the converters are not used.
+     *
+     * @return the record value format
+     */
+    KafkaValueFormat getValueFormat();
+
+    List<Future<RecordMetadata>> save(List<KafkaLogEventDto> logEventDtoList, int schemaVersion,
             GenericAvroConverter<GenericRecord> eventConverter, GenericAvroConverter<GenericRecord> headerConverter,
             Callback callback) throws IOException;
 
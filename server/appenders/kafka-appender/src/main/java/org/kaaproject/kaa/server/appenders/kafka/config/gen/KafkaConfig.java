@@ -7,7 +7,7 @@ package org.kaaproject.kaa.server.appenders.kafka.config.gen;
 @SuppressWarnings("all")
 @org.apache.avro.specific.AvroGenerated
 public class KafkaConfig extends org.apache.avro.specific.SpecificRecordBase implements org.apache.avro.specific.SpecificRecord {
-  public static final org.apache.avro.Schema SCHEMA$ = new org.apache.avro.Schema.Parser().parse("{\"type\":\"record\",\"name\":\"KafkaConfig\",\"namespace\":\"org.kaaproject.kaa.server.appenders.kafka.config.gen\",\"fields\":[{\"name\":\"kafkaServers\",\"type\":{\"type\":\"array\",\"items\":{\"type\":\"record\",\"name\":\"KafkaServer\",\"fields\":[{\"name\":\"host\",\"type\":{\"type\":\"string\",\"avro.java.string\":\"String\"},\"displayName\":\"Host\",\"weight\":0.75,\"by_default\":\"localhost\"},{\"name\":\"port\",\"type\":\"int\",\"displayName\":\"Port\",\"weight\":0.25,\"by_default\":9092}]}},\"displayName\":\"Kafka bootstrap servers\",\"minRowCount\":1},{\"name\":\"topic\",\"type\":{\"type\":\"string\",\"avro.java.string\":\"String\"},\"displayName\":\"Topic name\",\"by_default\":\"kaa\"},{\"name\":\"useDefaultPartitioner\",\"type\":\"boolean\",\"displayName\":\"Use default partitioner\",\"by_default\":true},{\"name\":\"partitionCount\",\"type\":\"int\",\"displayName\":\"Partition count\",\"by_default\":1},{\"name\":\"kafkaKeyType\",\"type\":[{\"type\":\"enum\",\"name\":\"KafkaKeyType\",\"symbols\":[\"ENDPOINTHASHKEY\",\"HASH\",\"UUID\",\"NULL\"]},\"null\"],\"namespace\":\"org.kaaproject.kaa.server.appenders.kafka.config.gen\",\"by_default\":\"NULL\",\"optional\":true,\"displayName\":\"Key type\"},{\"name\":\"executorThreadPoolSize\",\"type\":\"int\",\"displayName\":\"Executor thread pool size\",\"by_default\":1},{\"name\":\"bufferMemorySize\",\"type\":\"long\",\"displayName\":\"Buffer memory size\",\"by_default\":33554432},{\"name\":\"kafkaCompression\",\"type\":[{\"type\":\"enum\",\"name\":\"KafkaCompression\",\"symbols\":[\"NONE\",\"SNAPPY\",\"GZIP\"]},\"null\"],\"namespace\":\"org.kaaproject.kaa.server.appenders.kafka.config.gen\",\"by_default\":\"NONE\",\"optional\":true,\"displayName\":\"Compression type\"},{\"name\":\"kafkaAcknowledgement\",\"type\":[{\"type\":\"enum\",\"name\":\"KafkaAcknowledgement\",\"symbols\":[\"ALL\",\"ZERO\",\"ONE\",\"TWO\"]},\"null\"],\"namespace\":\"org.kaaproject.kaa.server.appenders.kafka.config.gen\",\"by_default\":\"ONE\",\"optional\":true,\"displayName\":\"Acknowledgement type\"},{\"name\":\"retries\",\"type\":\"int\",\"displayName\":\"Retries\",\"by_default\":0}]}");
+  public static final org.apache.avro.Schema SCHEMA$ = new org.apache.avro.Schema.Parser().parse("{\"type\":\"record\",\"name\":\"KafkaConfig\",\"namespace\":\"org.kaaproject.kaa.server.appenders.kafka.config.gen\",\"fields\":[{\"name\":\"kafkaServers\",\"type\":{\"type\":\"array\",\"items\":{\"type\":\"record\",\"name\":\"KafkaServer\",\"fields\":[{\"name\":\"host\",\"type\":{\"type\":\"string\",\"avro.java.string\":\"String\"},\"displayName\":\"Host\",\"weight\":0.75,\"by_default\":\"localhost\"},{\"name\":\"port\",\"type\":\"int\",\"displayName\":\"Port\",\"weight\":0.25,\"by_default\":9092}]}},\"displayName\":\"Kafka bootstrap servers\",\"minRowCount\":1},{\"name\":\"topic\",\"type\":{\"type\":\"string\",\"avro.java.string\":\"String\"},\"displayName\":\"Topic name\",\"by_default\":\"kaa\"},{\"name\":\"useDefaultPartitioner\",\"type\":\"boolean\",\"displayName\":\"Use default partitioner\",\"by_default\":true},{\"name\":\"partitionCount\",\"type\":\"int\",\"displayName\":\"Partition count\",\"by_default\":1},{\"name\":\"kafkaKeyType\",\"type\":[{\"type\":\"enum\",\"name\":\"KafkaKeyType\",\"symbols\":[\"ENDPOINTHASHKEY\",\"HASH\",\"UUID\",\"NULL\"]},\"null\"],\"namespace\":\"org.kaaproject.kaa.server.appenders.kafka.config.gen\",\"by_default\":\"NULL\",\"optional\":true,\"displayName\":\"Key type\"},{\"name\":\"executorThreadPoolSize\",\"type\":\"int\",\"displayName\":\"Executor thread pool size\",\"by_default\":1},{\"name\":\"bufferMemorySize\",\"type\":\"long\",\"displayName\":\"Buffer memory size\",\"by_default\":33554432},{\"name\":\"kafkaCompression\",\"type\":[{\"type\":\"enum\",\"name\":\"KafkaCompression\",\"symbols\":[\"NONE\",\"SNAPPY\",\"GZIP\"]},\"null\"],\"namespace\":\"org.kaaproject.kaa.server.appenders.kafka.config.gen\",\"by_default\":\"NONE\",\"optional\":true,\"displayName\":\"Compression type\"},{\"name\":\"kafkaAcknowledgement\",\"type\":[{\"type\":\"enum\",\"name\":\"KafkaAcknowledgement\",\"symbols\":[\"ALL\",\"ZERO\",\"ONE\",\"TWO\"]},\"null\"],\"namespace\":\"org.kaaproject.kaa.server.appenders.kafka.config.gen\",\"by_default\":\"ONE\",\"optional\":true,\"displayName\":\"Acknowledgement type\"},{\"name\":\"retries\",\"type\":\"int\",\"displayName\":\"Retries\",\"by_default\":0},{\"name\":\"valueFormat\",\"type\":[{\"type\":\"enum\",\"name\":\"KafkaValueFormat\",\"symbols\":[\"JSON\",\"AVRO_BINARY\"]},\"null\"],\"namespace\":\"org.kaaproject.kaa.server.appenders.kafka.config.gen\",\"by_default\":\"JSON\",\"optional\":true,\"displayName\":\"Record value format\"},{\"name\":\"partitionStrategy\",\"type\":[{\"type\":\"enum\",\"name\":\"KafkaPartitionStrategy\",\"symbols\":[\"DEFAULT\",\"ROUND_ROBIN\",\"ENDPOINT_KEY_HASH\"]},\"null\"],\"namespace\":\"org.kaaproject.kaa.server.appenders.kafka.config.gen\",\"by_default\":\"DEFAULT\",\"optional\":true,\"displayName\":\"Partition strategy\"}]}");
   public static org.apache.avro.Schema getClassSchema() { return SCHEMA$; }
    private java.util.List<org.kaaproject.kaa.server.appenders.kafka.config.gen.KafkaServer> kafkaServers;
    private java.lang.String topic;
@@ -19,6 +19,8 @@ public class KafkaConfig extends org.apache.avro.specific.SpecificRecordBase imp
    private org.kaaproject.kaa.server.appenders.kafka.config.gen.KafkaCompression kafkaCompression;
    private org.kaaproject.kaa.server.appenders.kafka.config.gen.KafkaAcknowledgement kafkaAcknowledgement;
    private int retries;
+   private org.kaaproject.kaa.server.appenders.kafka.config.gen.KafkaValueFormat valueFormat;
+   private org.kaaproject.kaa.server.appenders.kafka.config.gen.KafkaPartitionStrategy partitionStrategy;
 
   /**
    * Default constructor.  Note that this does not initialize fields
@@ -30,7 +32,7 @@ public class KafkaConfig extends org.apache.avro.specific.SpecificRecordBase imp
   /**
    * All-args constructor.
    */
-  public KafkaConfig(java.util.List<org.kaaproject.kaa.server.appenders.kafka.config.gen.KafkaServer> kafkaServers, java.lang.String topic, java.lang.Boolean useDefaultPartitioner, java.lang.Integer partitionCount, org.kaaproject.kaa.server.appenders.kafka.config.gen.KafkaKeyType kafkaKeyType, java.lang.Integer executorThreadPoolSize, java.lang.Long bufferMemorySize, org.kaaproject.kaa.server.appenders.kafka.config.gen.KafkaCompression kafkaCompression, org.kaaproject.kaa.server.appenders.kafka.config.gen.KafkaAcknowledgement kafkaAcknowledgement, java.lang.Integer retries) {
+  public KafkaConfig(java.util.List<org.kaaproject.kaa.server.appenders.kafka.config.gen.KafkaServer> kafkaServers, java.lang.String topic, java.lang.Boolean useDefaultPartitioner, java.lang.Integer partitionCount, org.kaaproject.kaa.server.appenders.kafka.config.gen.KafkaKeyType kafkaKeyType, java.lang.Integer executorThreadPoolSize, java.lang.Long bufferMemorySize, org.kaaproject.kaa.server.appenders.kafka.config.gen.KafkaCompression kafkaCompression, org.kaaproject.kaa.server.appenders.kafka.config.gen.KafkaAcknowledgement kafkaAcknowledgement, java.lang.Integer retries, org.kaaproject.kaa.server.appenders.kafka.config.gen.KafkaValueFormat valueFormat, org.kaaproject.kaa.server.appenders.kafka.config.gen.KafkaPartitionStrategy partitionStrategy) {
     this.kafkaServers = kafkaServers;
     this.topic = topic;
     this.useDefaultPartitioner = useDefaultPartitioner;
@@ -41,6 +43,8 @@ public class KafkaConfig extends org.apache.avro.specific.SpecificRecordBase imp
     this.kafkaCompression = kafkaCompression;
     this.kafkaAcknowledgement = kafkaAcknowledgement;
     this.retries = retries;
+    this.valueFormat = valueFormat;
+    this.partitionStrategy = partitionStrategy;
   }
 
   public org.apache.avro.Schema getSchema() { return SCHEMA$; }
@@ -57,6 +61,8 @@ public class KafkaConfig extends org.apache.avro.specific.SpecificRecordBase imp
     case 7: return kafkaCompression;
     case 8: return kafkaAcknowledgement;
     case 9: return retries;
+    case 10: return valueFormat;
+    case 11: return partitionStrategy;
     default: throw new org.apache.avro.AvroRuntimeException("Bad index");
     }
   }
@@ -74,6 +80,8 @@ public class KafkaConfig extends org.apache.avro.specific.SpecificRecordBase imp
     case 7: kafkaCompression = (org.kaaproject.kaa.server.appenders.kafka.config.gen.KafkaCompression)value$; break;
     case 8: kafkaAcknowledgement = (org.kaaproject.kaa.server.appenders.kafka.config.gen.KafkaAcknowledgement)value$; break;
     case 9: retries = (java.lang.Integer)value$; break;
+    case 10: valueFormat = (org.kaaproject.kaa.server.appenders.kafka.config.gen.KafkaValueFormat)value$; break;
+    case 11: partitionStrategy = (org.kaaproject.kaa.server.appenders.kafka.config.gen.KafkaPartitionStrategy)value$; break;
     default: throw new org.apache.avro.AvroRuntimeException("Bad index");
     }
   }
@@ -228,6 +236,36 @@ public class KafkaConfig extends org.apache.avro.specific.SpecificRecordBase imp
     this.retries = value;
   }
 
+  /**
+   * Gets the value of the 'valueFormat' field.
+   */
+  public org.kaaproject.kaa.server.appenders.kafka.config.gen.KafkaValueFormat getValueFormat() {
+    return valueFormat;
+  }
+
+  /**
+   * Sets the value of the 'valueFormat' field.
+   * @param value the value to set.
+   */
+  public void setValueFormat(org.kaaproject.kaa.server.appenders.kafka.config.gen.KafkaValueFormat value) {
+    this.valueFormat = value;
+  }
+
+  /**
+   * Gets the value of the 'partitionStrategy' field.
+   */
+  public org.kaaproject.kaa.server.appenders.kafka.config.gen.KafkaPartitionStrategy getPartitionStrategy() {
+    return partitionStrategy;
+  }
+
+  /**
+   * Sets the value of the 'partitionStrategy' field.
+   * @param value the value to set.
+   */
+  public void setPartitionStrategy(org.kaaproject.kaa.server.appenders.kafka.config.gen.KafkaPartitionStrategy value) {
+    this.partitionStrategy = value;
+  }
+
   /** Creates a new KafkaConfig RecordBuilder */
   public static org.kaaproject.kaa.server.appenders.kafka.config.gen.KafkaConfig.Builder newBuilder() {
     return new org.kaaproject.kaa.server.appenders.kafka.config.gen.KafkaConfig.Builder();
@@ -259,6 +297,8 @@ public class KafkaConfig extends org.apache.avro.specific.SpecificRecordBase imp
     private org.kaaproject.kaa.server.appenders.kafka.config.gen.KafkaCompression kafkaCompression;
     private org.kaaproject.kaa.server.appenders.kafka.config.gen.KafkaAcknowledgement kafkaAcknowledgement;
     private int retries;
+    private org.kaaproject.kaa.server.appenders.kafka.config.gen.KafkaValueFormat valueFormat;
+    private org.kaaproject.kaa.server.appenders.kafka.config.gen.KafkaPartitionStrategy partitionStrategy;
 
     /** Creates a new Builder */
     private Builder() {
@@ -308,6 +348,14 @@ public class KafkaConfig extends org.apache.avro.specific.SpecificRecordBase imp
         this.retries = data().deepCopy(fields()[9].schema(), other.retries);
         fieldSetFlags()[9] = true;
       }
+      if (isValidValue(fields()[10], other.valueFormat)) {
+        this.valueFormat = data().deepCopy(fields()[10].schema(), other.valueFormat);
+        fieldSetFlags()[10] = true;
+      }
+      if (isValidValue(fields()[11], other.partitionStrategy)) {
+        this.partitionStrategy = data().deepCopy(fields()[11].schema(), other.partitionStrategy);
+        fieldSetFlags()[11] = true;
+      }
     }
     
     /** Creates a Builder by copying an existing KafkaConfig instance */
@@ -353,6 +401,14 @@ public class KafkaConfig extends org.apache.avro.specific.SpecificRecordBase imp
         this.retries = data().deepCopy(fields()[9].schema(), other.retries);
         fieldSetFlags()[9] = true;
       }
+      if (isValidValue(fields()[10], other.valueFormat)) {
+        this.valueFormat = data().deepCopy(fields()[10].schema(), other.valueFormat);
+        fieldSetFlags()[10] = true;
+      }
+      if (isValidValue(fields()[11], other.partitionStrategy)) {
+        this.partitionStrategy = data().deepCopy(fields()[11].schema(), other.partitionStrategy);
+        fieldSetFlags()[11] = true;
+      }
     }
 
     /** Gets the value of the 'kafkaServers' field */
@@ -600,6 +656,56 @@ public class KafkaConfig extends org.apache.avro.specific.SpecificRecordBase imp
       return this;
     }
 
+    /** Gets the value of the 'valueFormat' field */
+    public org.kaaproject.kaa.server.appenders.kafka.config.gen.KafkaValueFormat getValueFormat() {
+      return valueFormat;
+    }
+    
+    /** Sets the value of the 'valueFormat' field */
+    public org.kaaproject.kaa.server.appenders.kafka.config.gen.KafkaConfig.Builder setValueFormat(org.kaaproject.kaa.server.appenders.kafka.config.gen.KafkaValueFormat value) {
+      validate(fields()[10], value);
+      this.valueFormat = value;
+      fieldSetFlags()[10] = true;
+      return this; 
+    }
+    
+    /** Checks whether the 'valueFormat' field has been set */
+    public boolean hasValueFormat() {
+      return fieldSetFlags()[10];
+    }
+    
+    /** Clears the value of the 'valueFormat' field */
+    public org.kaaproject.kaa.server.appenders.kafka.config.gen.KafkaConfig.Builder clearValueFormat() {
+      valueFormat = null;
+      fieldSetFlags()[10] = false;
+      return this;
+    }
+
+    /** Gets the value of the 'partitionStrategy' field */
+    public org.kaaproject.kaa.server.appenders.kafka.config.gen.KafkaPartitionStrategy getPartitionStrategy() {
+      return partitionStrategy;
+    }
+    
+    /** Sets the value of the 'partitionStrategy' field */
+    public org.kaaproject.kaa.server.appenders.kafka.config.gen.KafkaConfig.Builder setPartitionStrategy(org.kaaproject.kaa.server.appenders.kafka.config.gen.KafkaPartitionStrategy value) {
+      validate(fields()[11], value);
+      this.partitionStrategy = value;
+      fieldSetFlags()[11] = true;
+      return this; 
+    }
+    
+    /** Checks whether the 'partitionStrategy' field has been set */
+    public boolean hasPartitionStrategy() {
+      return fieldSetFlags()[11];
+    }
+    
+    /** Clears the value of the 'partitionStrategy' field */
+    public org.kaaproject.kaa.server.appenders.kafka.config.gen.KafkaConfig.Builder clearPartitionStrategy() {
+      partitionStrategy = null;
+      fieldSetFlags()[11] = false;
+      return this;
+    }
+
     @Override
     public KafkaConfig build() {
       try {
@@ -614,6 +720,8 @@ public class KafkaConfig extends org.apache.avro.specific.SpecificRecordBase imp
         record.kafkaCompression = fieldSetFlags()[7] ? this.kafkaCompression : (org.kaaproject.kaa.server.appenders.kafka.config.gen.KafkaCompression) defaultValue(fields()[7]);
         record.kafkaAcknowledgement = fieldSetFlags()[8] ? this.kafkaAcknowledgement : (org.kaaproject.kaa.server.appenders.kafka.config.gen.KafkaAcknowledgement) defaultValue(fields()[8]);
         record.retries = fieldSetFlags()[9] ? this.retries : (java.lang.Integer) defaultValue(fields()[9]);
+        record.valueFormat = fieldSetFlags()[10] ? this.valueFormat : (org.kaaproject.kaa.server.appenders.kafka.config.gen.KafkaValueFormat) defaultValue(fields()[10]);
+        record.partitionStrategy = fieldSetFlags()[11] ? this.partitionStrategy : (org.kaaproject.kaa.server.appenders.kafka.config.gen.KafkaPartitionStrategy) defaultValue(fields()[11]);
         return record;
       } catch (Exception e) {
         throw new org.apache.avro.AvroRuntimeException(e);
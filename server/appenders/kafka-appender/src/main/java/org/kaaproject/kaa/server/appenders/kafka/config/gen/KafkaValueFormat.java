@@ -0,0 +1,13 @@
+/**
+ * Autogenerated by Avro
+ * 
+ * DO NOT EDIT DIRECTLY
+ */
+package org.kaaproject.kaa.server.appenders.kafka.config.gen;  
+@SuppressWarnings("all")
+@org.apache.avro.specific.AvroGenerated
+public enum KafkaValueFormat { 
+  JSON, AVRO_BINARY  ;
+  public static final org.apache.avro.Schema SCHEMA$ = new org.apache.avro.Schema.Parser().parse("{\"type\":\"enum\",\"name\":\"KafkaValueFormat\",\"namespace\":\"org.kaaproject.kaa.server.appenders.kafka.config.gen\",\"symbols\":[\"JSON\",\"AVRO_BINARY\"]}");
+  public static org.apache.avro.Schema getClassSchema() { return SCHEMA$; }
+}
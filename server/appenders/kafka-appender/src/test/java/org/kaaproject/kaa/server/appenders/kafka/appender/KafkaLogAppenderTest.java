@@ -16,6 +16,7 @@
 
 package org.kaaproject.kaa.server.appenders.kafka.appender;
 
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Arrays;
@@ -25,6 +26,11 @@ import java.util.Random;
 import java.util.UUID;
 import java.util.concurrent.atomic.AtomicInteger;
 
+import org.apache.avro.Schema;
+import org.apache.avro.Schema.Field;
+import org.apache.avro.io.BinaryEncoder;
+import org.apache.avro.io.EncoderFactory;
+import org.apache.avro.specific.SpecificDatumWriter;
 import org.apache.kafka.clients.consumer.ConsumerConfig;
 import org.apache.kafka.clients.consumer.KafkaConsumer;
 import org.junit.Assert;
@@ -41,7 +47,9 @@ import org.kaaproject.kaa.server.appenders.kafka.appender.gen.LogData;
 import org.kaaproject.kaa.server.appenders.kafka.config.gen.KafkaAcknowledgement;
 import org.kaaproject.kaa.server.appenders.kafka.config.gen.KafkaCompression;
 import org.kaaproject.kaa.server.appenders.kafka.config.gen.KafkaConfig;
+import org.kaaproject.kaa.server.appenders.kafka.config.gen.KafkaPartitionStrategy;
 import org.kaaproject.kaa.server.appenders.kafka.config.gen.KafkaServer;
+import org.kaaproject.kaa.server.appenders.kafka.config.gen.KafkaValueFormat;
 import org.kaaproject.kaa.server.common.log.shared.appender.LogAppender;
 import org.kaaproject.kaa.server.common.log.shared.appender.LogDeliveryCallback;
 import org.kaaproject.kaa.server.common.log.shared.appender.LogEvent;
@@ -126,6 +134,42 @@ public class KafkaLogAppenderTest {
     }
 
 
+    @Test
+    public void initWithLegacyConfigurationTest() throws IOException {
+        Schema schema = KafkaConfig.getClassSchema();
+        List<Field> fields = new ArrayList<>();
+        for (Field field : schema.getFields()) {
+            if (!field.name().equals("valueFormat") && !field.name().equals("partitionStrategy")) {
+                fields.add(new Field(field.name(), field.schema(), field.doc(), field.defaultValue()));
+            }
+        }
+        Schema legacySchema = Schema.createRecord(schema.getName(), schema.getDoc(), schema.getNamespace(), false);
+        legacySchema.setFields(fields);
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        BinaryEncoder encoder = EncoderFactory.get().binaryEncoder(output, null);
+        new SpecificDatumWriter<KafkaConfig>(legacySchema).write(configuration, encoder);
+        encoder.flush();
+        appenderDto.setRawConfiguration(output.toByteArray());
+
+        final List<KafkaConfig> configurations = new ArrayList<>();
+        LogAppender legacyAppender = new KafkaLogAppender() {
+            @Override
+            protected void initFromConfiguration(LogAppenderDto appender, KafkaConfig configuration) {
+                configurations.add(configuration);
+                super.initFromConfiguration(appender, configuration);
+            }
+        };
+        legacyAppender.init(appenderDto);
+        legacyAppender.close();
+
+        Assert.assertEquals(1, configurations.size());
+        KafkaConfig decoded = configurations.get(0);
+        Assert.assertEquals(TOPIC_NAME, decoded.getTopic());
+        Assert.assertEquals(configuration.getKafkaServers(), decoded.getKafkaServers());
+        Assert.assertEquals(KafkaValueFormat.JSON, decoded.getValueFormat());
+        Assert.assertEquals(KafkaPartitionStrategy.DEFAULT, decoded.getPartitionStrategy());
+    }
+
     @Test
     @Ignore
     public void doAppendTest() throws IOException, InterruptedException {
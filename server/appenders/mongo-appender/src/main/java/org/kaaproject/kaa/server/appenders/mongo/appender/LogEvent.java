@@ -16,83 +16,124 @@
 
 package org.kaaproject.kaa.server.appenders.mongo.appender;
 
-import java.io.Serializable;
-
-import org.kaaproject.kaa.common.dto.logs.LogEventDto;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.avro.Schema;
+import org.apache.avro.generic.GenericFixed;
+import org.apache.avro.generic.IndexedRecord;
+import org.apache.avro.specific.SpecificData;
+import org.bson.Document;
 import org.kaaproject.kaa.server.common.log.shared.appender.data.ProfileInfo;
-import org.springframework.data.annotation.Id;
-import org.springframework.data.mongodb.core.mapping.Document;
-
-import com.mongodb.DBObject;
-import com.mongodb.util.JSON;
-
-@Document
-public final class LogEvent implements Serializable {
-
-    private static final long serialVersionUID = -2738374699172219071L;
 
-    @Id
-    private String id;
-    private DBObject header;
-    private DBObject event;
-    private DBObject clientProfile;
-    private DBObject serverProfile;
-
-    public LogEvent() {
-
-    }
-
-    public LogEvent(LogEventDto dto, ProfileInfo clientProfile, ProfileInfo serverProfile) {
-        this.id = dto.getId();
-        this.header = (DBObject) JSON.parse(dto.getHeader());
-        this.event = (DBObject) JSON.parse(dto.getEvent());
-        this.clientProfile = (clientProfile != null) ? (DBObject) JSON.parse(clientProfile.getBody()) : null;
-        this.serverProfile = (serverProfile != null) ? (DBObject) JSON.parse(serverProfile.getBody()) : null;
-    }
-
-    public String getId() {
-        return id;
-    }
-
-    public void setId(String id) {
-        this.id = id;
-    }
-
-    public DBObject getEvent() {
-        return event;
-    }
-
-    public void setEvent(DBObject event) {
-        this.event = event;
-    }
-
-    public DBObject getHeader() {
-        return header;
-    }
-
-    public void setHeader(DBObject header) {
-        this.header = header;
-    }
+/**
+ * Builds the MongoDB documents of log records directly from the decoded Avro
+ * records.
+ *
+ * <p>Values are laid out the way the Avro JSON encoding represents them, with
+ * non-null union values wrapped in a single-entry document keyed by the
+ * branch type name, so the documents keep the shape they had when they were
+ * parsed from JSON. Bytes and fixed values are stored as BSON binary.</p>
+ */
+public final class LogEvent {
 
-    public DBObject getClientProfile() {
-        return clientProfile;
-    }
+    public static final String HEADER = "header";
+    public static final String EVENT = "event";
+    public static final String CLIENT_PROFILE = "clientProfile";
+    public static final String SERVER_PROFILE = "serverProfile";
 
-    public void setClientProfile(DBObject clientProfile) {
-        this.clientProfile = clientProfile;
+    private LogEvent() {
     }
 
-    public DBObject getServerProfile() {
-        return serverProfile;
+    /**
+     * Builds the document of a log record. Null parts are omitted.
+     *
+     * @param header
+     *            the record header, may be null
+     * @param event
+     *            the decoded log record
+     * @param clientProfile
+     *            the client profile document, may be null
+     * @param serverProfile
+     *            the server profile document, may be null
+     * @return the log record document
+     */
+    public static Document toDocument(IndexedRecord header, IndexedRecord event, Document clientProfile, Document serverProfile) {
+        Document document = new Document();
+        if (header != null) {
+            document.put(HEADER, toBson(header.getSchema(), header));
+        }
+        document.put(EVENT, toBson(event.getSchema(), event));
+        if (clientProfile != null) {
+            document.put(CLIENT_PROFILE, clientProfile);
+        }
+        if (serverProfile != null) {
+            document.put(SERVER_PROFILE, serverProfile);
+        }
+        return document;
     }
 
-    public void setServerProfile(DBObject serverProfile) {
-        this.serverProfile = serverProfile;
+    /**
+     * Parses the JSON body of a profile.
+     *
+     * @param profile
+     *            the profile, may be null
+     * @return the profile document, or null if there is no profile
+     */
+    public static Document toDocument(ProfileInfo profile) {
+        return (profile != null) ? Document.parse(profile.getBody()) : null;
     }
 
-    @Override
-    public String toString() {
-        return "LogEvent [id=" + id + ", header=" + header + ", event=" + event + ", clientProfile=" + clientProfile + ", serverProfile=" + serverProfile + "]";
+    private static Object toBson(Schema schema, Object value) {
+        if (value == null) {
+            return null;
+        }
+        switch (schema.getType()) {
+        case RECORD:
+            IndexedRecord record = (IndexedRecord) value;
+            Document document = new Document();
+            for (Schema.Field field : schema.getFields()) {
+                document.put(field.name(), toBson(field.schema(), record.get(field.pos())));
+            }
+            return document;
+        case UNION:
+            Schema branch = schema.getTypes().get(SpecificData.get().resolveUnion(schema, value));
+            if (branch.getType() == Schema.Type.NULL) {
+                return null;
+            }
+            return new Document(branch.getFullName(), toBson(branch, value));
+        case ARRAY:
+            Collection<?> items = (Collection<?>) value;
+            List<Object> list = new ArrayList<>(items.size());
+            for (Object item : items) {
+                list.add(toBson(schema.getElementType(), item));
+            }
+            return list;
+        case MAP:
+            Document map = new Document();
+            for (Map.Entry<?, ?> entry : ((Map<?, ?>) value).entrySet()) {
+                map.put(entry.getKey().toString(), toBson(schema.getValueType(), entry.getValue()));
+            }
+            return map;
+        case ENUM:
+        case STRING:
+            return value.toString();
+        case BYTES:
+            ByteBuffer buffer = ((ByteBuffer) value).duplicate();
+            byte[] bytes = new byte[buffer.remaining()];
+            buffer.get(bytes);
+            return bytes;
+        case FIXED:
+            return ((GenericFixed) value).bytes();
+        case FLOAT:
+            return ((Float) value).doubleValue();
+        case NULL:
+            return null;
+        default:
+            return value;
+        }
     }
-
 }
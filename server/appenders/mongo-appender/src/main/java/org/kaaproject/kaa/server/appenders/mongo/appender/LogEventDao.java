@@ -18,14 +18,13 @@ package org.kaaproject.kaa.server.appenders.mongo.appender;
 
 import java.util.List;
 
-import org.kaaproject.kaa.common.dto.logs.LogEventDto;
-import org.kaaproject.kaa.server.common.log.shared.appender.data.ProfileInfo;
+import org.bson.Document;
 
 public interface LogEventDao {
 
     void createCollection(String collectionName);
 
-    List<LogEvent> save(List<LogEventDto> logEventDtos, ProfileInfo clientProfile, ProfileInfo serverProfile, String collectionName);
+    void save(List<Document> logEvents, String collectionName);
 
     void removeAll(String collectionName);
 
@@ -19,33 +19,36 @@ package org.kaaproject.kaa.server.appenders.mongo.appender;
 import java.util.ArrayList;
 import java.util.List;
 
-import org.kaaproject.kaa.common.dto.logs.LogEventDto;
+import org.bson.Document;
 import org.kaaproject.kaa.server.appenders.mongo.config.gen.MongoDBCredential;
 import org.kaaproject.kaa.server.appenders.mongo.config.gen.MongoDbConfig;
 import org.kaaproject.kaa.server.appenders.mongo.config.gen.MongoDbServer;
-import org.kaaproject.kaa.server.common.log.shared.appender.data.ProfileInfo;
+import org.kaaproject.kaa.server.appenders.mongo.config.gen.MongoDbWriteConcern;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.data.mongodb.MongoDbFactory;
-import org.springframework.data.mongodb.UncategorizedMongoDbException;
-import org.springframework.data.mongodb.core.MongoTemplate;
-import org.springframework.data.mongodb.core.SimpleMongoDbFactory;
-import org.springframework.data.mongodb.core.WriteResultChecking;
-import org.springframework.data.mongodb.core.convert.DefaultMongoTypeMapper;
-import org.springframework.data.mongodb.core.convert.MappingMongoConverter;
-import org.springframework.data.mongodb.core.mapping.MongoMappingContext;
 
 import com.mongodb.MongoClient;
 import com.mongodb.MongoClientOptions;
 import com.mongodb.MongoCredential;
+import com.mongodb.MongoException;
 import com.mongodb.ServerAddress;
+import com.mongodb.WriteConcern;
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.MongoDatabase;
+import com.mongodb.client.model.InsertManyOptions;
 
 public class LogEventMongoDao implements LogEventDao {
 
     private static final Logger LOG = LoggerFactory.getLogger(LogEventMongoDao.class);
 
+    private static final int DEFAULT_MAX_BATCH_SIZE = 1000;
+
+    private static final InsertManyOptions UNORDERED = new InsertManyOptions().ordered(false);
+
     private MongoClient mongoClient;
-    private MongoTemplate mongoTemplate;
+    private MongoDatabase database;
+    private WriteConcern writeConcern;
+    private int maxBatchSize;
 
     @SuppressWarnings("deprecation")
     public LogEventMongoDao(MongoDbConfig configuration) throws Exception {
@@ -83,41 +86,47 @@ public class LogEventMongoDao implements LogEventDao {
         MongoClientOptions options = optionsBuilder.build();
         mongoClient = new MongoClient(seeds, credentials, options);
 
-        MongoDbFactory dbFactory = new SimpleMongoDbFactory(mongoClient, configuration.getDbName());
-
-        MappingMongoConverter converter = new MappingMongoConverter(dbFactory, new MongoMappingContext());
-        converter.setTypeMapper(new DefaultMongoTypeMapper(null));
-
-        mongoTemplate = new MongoTemplate(dbFactory, converter);
-        mongoTemplate.setWriteResultChecking(WriteResultChecking.EXCEPTION);
+        database = mongoClient.getDatabase(configuration.getDbName());
+        writeConcern = toWriteConcern(configuration.getWriteConcern());
+        if (configuration.getMaxBatchSize() != null && configuration.getMaxBatchSize() > 0) {
+            maxBatchSize = configuration.getMaxBatchSize();
+        } else {
+            maxBatchSize = DEFAULT_MAX_BATCH_SIZE;
+        }
     }
 
     @Override
     public void createCollection(String collectionName) {
         try {
-            if (!mongoTemplate.collectionExists(collectionName)) {
-                mongoTemplate.createCollection(collectionName);
+            for (String name : database.listCollectionNames()) {
+                if (name.equals(collectionName)) {
+                    return;
+                }
             }
-        } catch (UncategorizedMongoDbException e) {
+            database.createCollection(collectionName);
+        } catch (MongoException e) {
             LOG.warn("Failed to create collection {} due to", collectionName, e);
         }
     }
 
+    /**
+     * Inserts the documents with unordered bulk inserts of at most the
+     * configured batch size, so that the server applies the documents of a
+     * batch in parallel and a failed document doesn't stop the rest.
+     */
     @Override
-    public List<LogEvent> save(List<LogEventDto> logEventDtos, ProfileInfo clientProfile, ProfileInfo serverProfile, String collectionName) {
-        List<LogEvent> logEvents = new ArrayList<>(logEventDtos.size());
-        for (LogEventDto logEventDto : logEventDtos) {
-            logEvents.add(new LogEvent(logEventDto, clientProfile, serverProfile));
-        }
+    public void save(List<Document> logEvents, String collectionName) {
         LOG.debug("Saving {} log events", logEvents.size());
-        mongoTemplate.insert(logEvents, collectionName);
-        return logEvents;
+        MongoCollection<Document> collection = database.getCollection(collectionName).withWriteConcern(writeConcern);
+        for (int from = 0; from < logEvents.size(); from += maxBatchSize) {
+            collection.insertMany(logEvents.subList(from, Math.min(from + maxBatchSize, logEvents.size())), UNORDERED);
+        }
     }
 
     @Override
     public void removeAll(String collectionName) {
         LOG.debug("Remove all documents from [{}] collection.", collectionName);
-        mongoTemplate.dropCollection(collectionName);
+        database.getCollection(collectionName).drop();
     }
 
     @Override
@@ -127,4 +136,20 @@ public class LogEventMongoDao implements LogEventDao {
         }
     }
 
+    private static WriteConcern toWriteConcern(MongoDbWriteConcern writeConcern) {
+        if (writeConcern == null) {
+            return WriteConcern.ACKNOWLEDGED;
+        }
+        switch (writeConcern) {
+        case UNACKNOWLEDGED:
+            return WriteConcern.UNACKNOWLEDGED;
+        case JOURNALED:
+            return WriteConcern.JOURNALED;
+        case MAJORITY:
+            return WriteConcern.MAJORITY;
+        default:
+            return WriteConcern.ACKNOWLEDGED;
+        }
+    }
+
 }
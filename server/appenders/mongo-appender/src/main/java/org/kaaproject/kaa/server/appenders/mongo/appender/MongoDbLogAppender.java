@@ -17,15 +17,20 @@
 package org.kaaproject.kaa.server.appenders.mongo.appender;
 
 import java.text.MessageFormat;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
 
+import org.apache.avro.generic.GenericRecord;
+import org.bson.Document;
 import org.kaaproject.kaa.common.dto.logs.LogAppenderDto;
-import org.kaaproject.kaa.common.dto.logs.LogEventDto;
 import org.kaaproject.kaa.server.appenders.mongo.config.gen.MongoDbConfig;
 import org.kaaproject.kaa.server.common.log.shared.appender.AbstractLogAppender;
 import org.kaaproject.kaa.server.common.log.shared.appender.LogDeliveryCallback;
 import org.kaaproject.kaa.server.common.log.shared.appender.LogEventPack;
-import org.kaaproject.kaa.server.common.log.shared.appender.data.ProfileInfo;
 import org.kaaproject.kaa.server.common.log.shared.avro.gen.RecordHeader;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -33,11 +38,22 @@ import org.slf4j.LoggerFactory;
 import com.mongodb.MongoInternalException;
 import com.mongodb.MongoServerException;
 import com.mongodb.MongoSocketException;
+import com.mongodb.MongoTimeoutException;
 
+/**
+ * Stores log records in MongoDB. Log event packs are written by a bounded
+ * pool of writer threads, so a slow MongoDB server doesn't block the caller.
+ * Packs that don't fit into the pending queue are rejected with a connection
+ * error.
+ */
 public class MongoDbLogAppender extends AbstractLogAppender<MongoDbConfig> {
 
     private static final Logger LOG = LoggerFactory.getLogger(MongoDbLogAppender.class);
 
+    private static final int DEFAULT_MAX_CONCURRENT_WRITES = 4;
+    private static final int MAX_PENDING_LOG_EVENT_PACKS = 1000;
+    private static final long SHUTDOWN_TIMEOUT_SECONDS = 5;
+
     private LogEventDao logEventDao;
     private String collectionName;
     private boolean closed = false;
@@ -45,6 +61,8 @@ public class MongoDbLogAppender extends AbstractLogAppender<MongoDbConfig> {
     private boolean includeClientProfile;
     private boolean includeServerProfile;
 
+    private ThreadPoolExecutor executor;
+
     public MongoDbLogAppender() {
         super(MongoDbConfig.class);
     }
@@ -53,26 +71,10 @@ public class MongoDbLogAppender extends AbstractLogAppender<MongoDbConfig> {
     public void doAppend(LogEventPack logEventPack, RecordHeader header, LogDeliveryCallback listener) {
         if (!closed) {
             try {
-                ProfileInfo clientProfile = (this.includeClientProfile) ? logEventPack.getClientProfile() : null;
-                ProfileInfo serverProfile = (this.includeServerProfile) ? logEventPack.getServerProfile() : null;
-                
-                LOG.debug("[{}] appending {} logs to mongodb collection", collectionName, logEventPack.getEvents().size());
-                List<LogEventDto> dtos = generateLogEvent(logEventPack, header);
-                LOG.debug("[{}] saving {} objects", collectionName, dtos.size());
-                if (!dtos.isEmpty()) {
-                    logEventDao.save(dtos, clientProfile, serverProfile, collectionName);
-                    LOG.debug("[{}] appended {} logs to mongodb collection", collectionName, logEventPack.getEvents().size());
-                }
-                listener.onSuccess();
-            } catch (MongoSocketException e) {
-                LOG.error(MessageFormat.format("[{0}] Attempted to append logs failed due to network error", getName()), e);
+                executor.execute(new WriteTask(logEventPack, header, listener));
+            } catch (RejectedExecutionException e) {
+                LOG.warn("[{}] Too many pending log event packs, rejecting log event pack", getName());
                 listener.onConnectionError();
-            } catch (MongoInternalException | MongoServerException e) {
-                LOG.error(MessageFormat.format("[{0}] Attempted to append logs failed due to remote error", getName()), e);
-                listener.onRemoteError();
-            } catch (Exception e) {
-                LOG.error(MessageFormat.format("[{0}] Attempted to append logs failed due to internal error", getName()), e);
-                listener.onInternalError();
             }
         } else {
             LOG.info("Attempted to append to closed appender named [{}].", getName());
@@ -80,6 +82,34 @@ public class MongoDbLogAppender extends AbstractLogAppender<MongoDbConfig> {
         }
     }
 
+    private void write(LogEventPack logEventPack, RecordHeader header, LogDeliveryCallback listener) {
+        try {
+            LOG.debug("[{}] appending {} logs to mongodb collection", collectionName, logEventPack.getEvents().size());
+            List<GenericRecord> records = logEventPack.getDecodedRecords();
+            LOG.debug("[{}] saving {} objects", collectionName, records.size());
+            if (!records.isEmpty()) {
+                Document clientProfile = (this.includeClientProfile) ? LogEvent.toDocument(logEventPack.getClientProfile()) : null;
+                Document serverProfile = (this.includeServerProfile) ? LogEvent.toDocument(logEventPack.getServerProfile()) : null;
+                List<Document> logEvents = new ArrayList<>(records.size());
+                for (GenericRecord record : records) {
+                    logEvents.add(LogEvent.toDocument(header, record, clientProfile, serverProfile));
+                }
+                logEventDao.save(logEvents, collectionName);
+                LOG.debug("[{}] appended {} logs to mongodb collection", collectionName, logEventPack.getEvents().size());
+            }
+            listener.onSuccess();
+        } catch (MongoSocketException | MongoTimeoutException e) {
+            LOG.error(MessageFormat.format("[{0}] Attempted to append logs failed due to network error", getName()), e);
+            listener.onConnectionError();
+        } catch (MongoInternalException | MongoServerException e) {
+            LOG.error(MessageFormat.format("[{0}] Attempted to append logs failed due to remote error", getName()), e);
+            listener.onRemoteError();
+        } catch (Exception e) {
+            LOG.error(MessageFormat.format("[{0}] Attempted to append logs failed due to internal error", getName()), e);
+            listener.onInternalError();
+        }
+    }
+
     @Override
     protected void initFromConfiguration(LogAppenderDto appender, MongoDbConfig configuration) {
         LOG.debug("Initializing new instance of MongoDB log appender");
@@ -90,7 +120,21 @@ public class MongoDbLogAppender extends AbstractLogAppender<MongoDbConfig> {
             createCollection(appender.getApplicationToken());
         } catch (Exception e) {
             LOG.error("Failed to init MongoDB log appender: ", e);
+            if (logEventDao != null) {
+                logEventDao.close();
+                logEventDao = null;
+            }
+            closed = true;
+            return;
+        }
+        // The writer threads are only started once the DAO is usable, so a
+        // failed init doesn't leave an idle pool behind.
+        int maxConcurrentWrites = DEFAULT_MAX_CONCURRENT_WRITES;
+        if (configuration.getMaxConcurrentWrites() != null && configuration.getMaxConcurrentWrites() > 0) {
+            maxConcurrentWrites = configuration.getMaxConcurrentWrites();
         }
+        executor = new ThreadPoolExecutor(maxConcurrentWrites, maxConcurrentWrites, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<Runnable>(MAX_PENDING_LOG_EVENT_PACKS));
     }
 
     private void createCollection(String applicationToken) {
@@ -106,6 +150,19 @@ public class MongoDbLogAppender extends AbstractLogAppender<MongoDbConfig> {
     public void close() {
         if (!closed) {
             closed = true;
+            if (executor != null) {
+                executor.shutdown();
+                try {
+                    if (!executor.awaitTermination(SHUTDOWN_TIMEOUT_SECONDS, TimeUnit.SECONDS)) {
+                        LOG.warn("[{}] Pending log event packs were not written in time", getName());
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                for (Runnable task : executor.shutdownNow()) {
+                    ((WriteTask) task).listener.onConnectionError();
+                }
+            }
             if (logEventDao != null) {
                 logEventDao.close();
                 logEventDao = null;
@@ -114,4 +171,22 @@ public class MongoDbLogAppender extends AbstractLogAppender<MongoDbConfig> {
         LOG.debug("Stoped MongoDB log appender.");
     }
 
+    private final class WriteTask implements Runnable {
+
+        private final LogEventPack logEventPack;
+        private final RecordHeader header;
+        private final LogDeliveryCallback listener;
+
+        private WriteTask(LogEventPack logEventPack, RecordHeader header, LogDeliveryCallback listener) {
+            this.logEventPack = logEventPack;
+            this.header = header;
+            this.listener = listener;
+        }
+
+        @Override
+        public void run() {
+            write(logEventPack, header, listener);
+        }
+    }
+
 }
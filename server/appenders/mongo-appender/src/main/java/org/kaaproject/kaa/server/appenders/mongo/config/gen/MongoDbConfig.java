@@ -7,7 +7,7 @@ package org.kaaproject.kaa.server.appenders.mongo.config.gen;
 @SuppressWarnings("all")
 @org.apache.avro.specific.AvroGenerated
 public class MongoDbConfig extends org.apache.avro.specific.SpecificRecordBase implements org.apache.avro.specific.SpecificRecord {
-  public static final org.apache.avro.Schema SCHEMA$ = new org.apache.avro.Schema.Parser().parse("{\"type\":\"record\",\"name\":\"MongoDbConfig\",\"namespace\":\"org.kaaproject.kaa.server.appenders.mongo.config.gen\",\"fields\":[{\"name\":\"mongoServers\",\"type\":{\"type\":\"array\",\"items\":{\"type\":\"record\",\"name\":\"MongoDbServer\",\"fields\":[{\"name\":\"host\",\"type\":{\"type\":\"string\",\"avro.java.string\":\"String\"},\"displayName\":\"Host\",\"weight\":0.75,\"by_default\":\"localhost\"},{\"name\":\"port\",\"type\":\"int\",\"displayName\":\"Port\",\"weight\":0.25,\"by_default\":27017}]}},\"displayName\":\"MongoDB nodes\",\"minRowCount\":1},{\"name\":\"mongoCredentials\",\"type\":{\"type\":\"array\",\"items\":{\"type\":\"record\",\"name\":\"MongoDBCredential\",\"fields\":[{\"name\":\"user\",\"type\":{\"type\":\"string\",\"avro.java.string\":\"String\"},\"displayName\":\"User\",\"weight\":0.5,\"by_default\":\"user\"},{\"name\":\"password\",\"type\":{\"type\":\"string\",\"avro.java.string\":\"String\"},\"displayName\":\"Password\",\"weight\":0.5,\"by_default\":\"password\"}]}},\"displayName\":\"Authentication credentials\",\"minRowCount\":0},{\"name\":\"dbName\",\"type\":{\"type\":\"string\",\"avro.java.string\":\"String\"},\"displayName\":\"MongoDB database name\",\"by_default\":\"kaa\"},{\"name\":\"connectionsPerHost\",\"type\":[\"int\",\"null\"],\"displayName\":\"Max connections per host\",\"by_default\":30},{\"name\":\"maxWaitTime\",\"type\":[\"int\",\"null\"],\"displayName\":\"Max wait time (ms)\",\"by_default\":120000},{\"name\":\"connectionTimeout\",\"type\":[\"int\",\"null\"],\"displayName\":\"Connection timeout (ms)\",\"by_default\":5000},{\"name\":\"socketTimeout\",\"type\":[\"int\",\"null\"],\"displayName\":\"Socket timeout (ms)\",\"by_default\":0},{\"name\":\"socketKeepalive\",\"type\":[\"boolean\",\"null\"],\"displayName\":\"Turn on socket keepalive\",\"by_default\":false},{\"name\":\"includeClientProfile\",\"type\":[\"boolean\",\"null\"],\"displayName\":\"Include client profile data\",\"by_default\":false},{\"name\":\"includeServerProfile\",\"type\":[\"boolean\",\"null\"],\"displayName\":\"Include server profile data\",\"by_default\":false}]}");
+  public static final org.apache.avro.Schema SCHEMA$ = new org.apache.avro.Schema.Parser().parse("{\"type\":\"record\",\"name\":\"MongoDbConfig\",\"namespace\":\"org.kaaproject.kaa.server.appenders.mongo.config.gen\",\"fields\":[{\"name\":\"mongoServers\",\"type\":{\"type\":\"array\",\"items\":{\"type\":\"record\",\"name\":\"MongoDbServer\",\"fields\":[{\"name\":\"host\",\"type\":{\"type\":\"string\",\"avro.java.string\":\"String\"},\"displayName\":\"Host\",\"weight\":0.75,\"by_default\":\"localhost\"},{\"name\":\"port\",\"type\":\"int\",\"displayName\":\"Port\",\"weight\":0.25,\"by_default\":27017}]}},\"displayName\":\"MongoDB nodes\",\"minRowCount\":1},{\"name\":\"mongoCredentials\",\"type\":{\"type\":\"array\",\"items\":{\"type\":\"record\",\"name\":\"MongoDBCredential\",\"fields\":[{\"name\":\"user\",\"type\":{\"type\":\"string\",\"avro.java.string\":\"String\"},\"displayName\":\"User\",\"weight\":0.5,\"by_default\":\"user\"},{\"name\":\"password\",\"type\":{\"type\":\"string\",\"avro.java.string\":\"String\"},\"displayName\":\"Password\",\"weight\":0.5,\"by_default\":\"password\"}]}},\"displayName\":\"Authentication credentials\",\"minRowCount\":0},{\"name\":\"dbName\",\"type\":{\"type\":\"string\",\"avro.java.string\":\"String\"},\"displayName\":\"MongoDB database name\",\"by_default\":\"kaa\"},{\"name\":\"connectionsPerHost\",\"type\":[\"int\",\"null\"],\"displayName\":\"Max connections per host\",\"by_default\":30},{\"name\":\"maxWaitTime\",\"type\":[\"int\",\"null\"],\"displayName\":\"Max wait time (ms)\",\"by_default\":120000},{\"name\":\"connectionTimeout\",\"type\":[\"int\",\"null\"],\"displayName\":\"Connection timeout (ms)\",\"by_default\":5000},{\"name\":\"socketTimeout\",\"type\":[\"int\",\"null\"],\"displayName\":\"Socket timeout (ms)\",\"by_default\":0},{\"name\":\"socketKeepalive\",\"type\":[\"boolean\",\"null\"],\"displayName\":\"Turn on socket keepalive\",\"by_default\":false},{\"name\":\"includeClientProfile\",\"type\":[\"boolean\",\"null\"],\"displayName\":\"Include client profile data\",\"by_default\":false},{\"name\":\"includeServerProfile\",\"type\":[\"boolean\",\"null\"],\"displayName\":\"Include server profile data\",\"by_default\":false},{\"name\":\"writeConcern\",\"type\":[{\"type\":\"enum\",\"name\":\"MongoDbWriteConcern\",\"symbols\":[\"UNACKNOWLEDGED\",\"ACKNOWLEDGED\",\"JOURNALED\",\"MAJORITY\"]},\"null\"],\"namespace\":\"org.kaaproject.kaa.server.appenders.mongo.config.gen\",\"displayName\":\"Write concern\",\"by_default\":\"ACKNOWLEDGED\",\"optional\":true},{\"name\":\"maxBatchSize\",\"type\":[\"int\",\"null\"],\"displayName\":\"Max documents per insert\",\"by_default\":1000},{\"name\":\"maxConcurrentWrites\",\"type\":[\"int\",\"null\"],\"displayName\":\"Max concurrent writes\",\"by_default\":4}]}");
   public static org.apache.avro.Schema getClassSchema() { return SCHEMA$; }
    private java.util.List<org.kaaproject.kaa.server.appenders.mongo.config.gen.MongoDbServer> mongoServers;
    private java.util.List<org.kaaproject.kaa.server.appenders.mongo.config.gen.MongoDBCredential> mongoCredentials;
@@ -19,6 +19,9 @@ public class MongoDbConfig extends org.apache.avro.specific.SpecificRecordBase i
    private java.lang.Boolean socketKeepalive;
    private java.lang.Boolean includeClientProfile;
    private java.lang.Boolean includeServerProfile;
+   private org.kaaproject.kaa.server.appenders.mongo.config.gen.MongoDbWriteConcern writeConcern;
+   private java.lang.Integer maxBatchSize;
+   private java.lang.Integer maxConcurrentWrites;
 
   /**
    * Default constructor.  Note that this does not initialize fields
@@ -30,7 +33,7 @@ public class MongoDbConfig extends org.apache.avro.specific.SpecificRecordBase i
   /**
    * All-args constructor.
    */
-  public MongoDbConfig(java.util.List<org.kaaproject.kaa.server.appenders.mongo.config.gen.MongoDbServer> mongoServers, java.util.List<org.kaaproject.kaa.server.appenders.mongo.config.gen.MongoDBCredential> mongoCredentials, java.lang.String dbName, java.lang.Integer connectionsPerHost, java.lang.Integer maxWaitTime, java.lang.Integer connectionTimeout, java.lang.Integer socketTimeout, java.lang.Boolean socketKeepalive, java.lang.Boolean includeClientProfile, java.lang.Boolean includeServerProfile) {
+  public MongoDbConfig(java.util.List<org.kaaproject.kaa.server.appenders.mongo.config.gen.MongoDbServer> mongoServers, java.util.List<org.kaaproject.kaa.server.appenders.mongo.config.gen.MongoDBCredential> mongoCredentials, java.lang.String dbName, java.lang.Integer connectionsPerHost, java.lang.Integer maxWaitTime, java.lang.Integer connectionTimeout, java.lang.Integer socketTimeout, java.lang.Boolean socketKeepalive, java.lang.Boolean includeClientProfile, java.lang.Boolean includeServerProfile, org.kaaproject.kaa.server.appenders.mongo.config.gen.MongoDbWriteConcern writeConcern, java.lang.Integer maxBatchSize, java.lang.Integer maxConcurrentWrites) {
     this.mongoServers = mongoServers;
     this.mongoCredentials = mongoCredentials;
     this.dbName = dbName;
@@ -41,6 +44,9 @@ public class MongoDbConfig extends org.apache.avro.specific.SpecificRecordBase i
     this.socketKeepalive = socketKeepalive;
     this.includeClientProfile = includeClientProfile;
     this.includeServerProfile = includeServerProfile;
+    this.writeConcern = writeConcern;
+    this.maxBatchSize = maxBatchSize;
+    this.maxConcurrentWrites = maxConcurrentWrites;
   }
 
   public org.apache.avro.Schema getSchema() { return SCHEMA$; }
@@ -57,6 +63,9 @@ public class MongoDbConfig extends org.apache.avro.specific.SpecificRecordBase i
     case 7: return socketKeepalive;
     case 8: return includeClientProfile;
     case 9: return includeServerProfile;
+    case 10: return writeConcern;
+    case 11: return maxBatchSize;
+    case 12: return maxConcurrentWrites;
     default: throw new org.apache.avro.AvroRuntimeException("Bad index");
     }
   }
@@ -74,6 +83,9 @@ public class MongoDbConfig extends org.apache.avro.specific.SpecificRecordBase i
     case 7: socketKeepalive = (java.lang.Boolean)value$; break;
     case 8: includeClientProfile = (java.lang.Boolean)value$; break;
     case 9: includeServerProfile = (java.lang.Boolean)value$; break;
+    case 10: writeConcern = (org.kaaproject.kaa.server.appenders.mongo.config.gen.MongoDbWriteConcern)value$; break;
+    case 11: maxBatchSize = (java.lang.Integer)value$; break;
+    case 12: maxConcurrentWrites = (java.lang.Integer)value$; break;
     default: throw new org.apache.avro.AvroRuntimeException("Bad index");
     }
   }
@@ -228,6 +240,51 @@ public class MongoDbConfig extends org.apache.avro.specific.SpecificRecordBase i
     this.includeServerProfile = value;
   }
 
+  /**
+   * Gets the value of the 'writeConcern' field.
+   */
+  public org.kaaproject.kaa.server.appenders.mongo.config.gen.MongoDbWriteConcern getWriteConcern() {
+    return writeConcern;
+  }
+
+  /**
+   * Sets the value of the 'writeConcern' field.
+   * @param value the value to set.
+   */
+  public void setWriteConcern(org.kaaproject.kaa.server.appenders.mongo.config.gen.MongoDbWriteConcern value) {
+    this.writeConcern = value;
+  }
+
+  /**
+   * Gets the value of the 'maxBatchSize' field.
+   */
+  public java.lang.Integer getMaxBatchSize() {
+    return maxBatchSize;
+  }
+
+  /**
+   * Sets the value of the 'maxBatchSize' field.
+   * @param value the value to set.
+   */
+  public void setMaxBatchSize(java.lang.Integer value) {
+    this.maxBatchSize = value;
+  }
+
+  /**
+   * Gets the value of the 'maxConcurrentWrites' field.
+   */
+  public java.lang.Integer getMaxConcurrentWrites() {
+    return maxConcurrentWrites;
+  }
+
+  /**
+   * Sets the value of the 'maxConcurrentWrites' field.
+   * @param value the value to set.
+   */
+  public void setMaxConcurrentWrites(java.lang.Integer value) {
+    this.maxConcurrentWrites = value;
+  }
+
   /** Creates a new MongoDbConfig RecordBuilder */
   public static org.kaaproject.kaa.server.appenders.mongo.config.gen.MongoDbConfig.Builder newBuilder() {
     return new org.kaaproject.kaa.server.appenders.mongo.config.gen.MongoDbConfig.Builder();
@@ -259,6 +316,9 @@ public class MongoDbConfig extends org.apache.avro.specific.SpecificRecordBase i
     private java.lang.Boolean socketKeepalive;
     private java.lang.Boolean includeClientProfile;
     private java.lang.Boolean includeServerProfile;
+    private org.kaaproject.kaa.server.appenders.mongo.config.gen.MongoDbWriteConcern writeConcern;
+    private java.lang.Integer maxBatchSize;
+    private java.lang.Integer maxConcurrentWrites;
 
     /** Creates a new Builder */
     private Builder() {
@@ -308,6 +368,18 @@ public class MongoDbConfig extends org.apache.avro.specific.SpecificRecordBase i
         this.includeServerProfile = data().deepCopy(fields()[9].schema(), other.includeServerProfile);
         fieldSetFlags()[9] = true;
       }
+      if (isValidValue(fields()[10], other.writeConcern)) {
+        this.writeConcern = data().deepCopy(fields()[10].schema(), other.writeConcern);
+        fieldSetFlags()[10] = true;
+      }
+      if (isValidValue(fields()[11], other.maxBatchSize)) {
+        this.maxBatchSize = data().deepCopy(fields()[11].schema(), other.maxBatchSize);
+        fieldSetFlags()[11] = true;
+      }
+      if (isValidValue(fields()[12], other.maxConcurrentWrites)) {
+        this.maxConcurrentWrites = data().deepCopy(fields()[12].schema(), other.maxConcurrentWrites);
+        fieldSetFlags()[12] = true;
+      }
     }
     
     /** Creates a Builder by copying an existing MongoDbConfig instance */
@@ -353,6 +425,18 @@ public class MongoDbConfig extends org.apache.avro.specific.SpecificRecordBase i
         this.includeServerProfile = data().deepCopy(fields()[9].schema(), other.includeServerProfile);
         fieldSetFlags()[9] = true;
       }
+      if (isValidValue(fields()[10], other.writeConcern)) {
+        this.writeConcern = data().deepCopy(fields()[10].schema(), other.writeConcern);
+        fieldSetFlags()[10] = true;
+      }
+      if (isValidValue(fields()[11], other.maxBatchSize)) {
+        this.maxBatchSize = data().deepCopy(fields()[11].schema(), other.maxBatchSize);
+        fieldSetFlags()[11] = true;
+      }
+      if (isValidValue(fields()[12], other.maxConcurrentWrites)) {
+        this.maxConcurrentWrites = data().deepCopy(fields()[12].schema(), other.maxConcurrentWrites);
+        fieldSetFlags()[12] = true;
+      }
     }
 
     /** Gets the value of the 'mongoServers' field */
@@ -605,6 +689,81 @@ public class MongoDbConfig extends org.apache.avro.specific.SpecificRecordBase i
       return this;
     }
 
+    /** Gets the value of the 'writeConcern' field */
+    public org.kaaproject.kaa.server.appenders.mongo.config.gen.MongoDbWriteConcern getWriteConcern() {
+      return writeConcern;
+    }
+    
+    /** Sets the value of the 'writeConcern' field */
+    public org.kaaproject.kaa.server.appenders.mongo.config.gen.MongoDbConfig.Builder setWriteConcern(org.kaaproject.kaa.server.appenders.mongo.config.gen.MongoDbWriteConcern value) {
+      validate(fields()[10], value);
+      this.writeConcern = value;
+      fieldSetFlags()[10] = true;
+      return this; 
+    }
+    
+    /** Checks whether the 'writeConcern' field has been set */
+    public boolean hasWriteConcern() {
+      return fieldSetFlags()[10];
+    }
+    
+    /** Clears the value of the 'writeConcern' field */
+    public org.kaaproject.kaa.server.appenders.mongo.config.gen.MongoDbConfig.Builder clearWriteConcern() {
+      writeConcern = null;
+      fieldSetFlags()[10] = false;
+      return this;
+    }
+
+    /** Gets the value of the 'maxBatchSize' field */
+    public java.lang.Integer getMaxBatchSize() {
+      return maxBatchSize;
+    }
+    
+    /** Sets the value of the 'maxBatchSize' field */
+    public org.kaaproject.kaa.server.appenders.mongo.config.gen.MongoDbConfig.Builder setMaxBatchSize(java.lang.Integer value) {
+      validate(fields()[11], value);
+      this.maxBatchSize = value;
+      fieldSetFlags()[11] = true;
+      return this; 
+    }
+    
+    /** Checks whether the 'maxBatchSize' field has been set */
+    public boolean hasMaxBatchSize() {
+      return fieldSetFlags()[11];
+    }
+    
+    /** Clears the value of the 'maxBatchSize' field */
+    public org.kaaproject.kaa.server.appenders.mongo.config.gen.MongoDbConfig.Builder clearMaxBatchSize() {
+      maxBatchSize = null;
+      fieldSetFlags()[11] = false;
+      return this;
+    }
+
+    /** Gets the value of the 'maxConcurrentWrites' field */
+    public java.lang.Integer getMaxConcurrentWrites() {
+      return maxConcurrentWrites;
+    }
+    
+    /** Sets the value of the 'maxConcurrentWrites' field */
+    public org.kaaproject.kaa.server.appenders.mongo.config.gen.MongoDbConfig.Builder setMaxConcurrentWrites(java.lang.Integer value) {
+      validate(fields()[12], value);
+      this.maxConcurrentWrites = value;
+      fieldSetFlags()[12] = true;
+      return this; 
+    }
+    
+    /** Checks whether the 'maxConcurrentWrites' field has been set */
+    public boolean hasMaxConcurrentWrites() {
+      return fieldSetFlags()[12];
+    }
+    
+    /** Clears the value of the 'maxConcurrentWrites' field */
+    public org.kaaproject.kaa.server.appenders.mongo.config.gen.MongoDbConfig.Builder clearMaxConcurrentWrites() {
+      maxConcurrentWrites = null;
+      fieldSetFlags()[12] = false;
+      return this;
+    }
+
     @Override
     public MongoDbConfig build() {
       try {
@@ -619,6 +778,9 @@ public class MongoDbConfig extends org.apache.avro.specific.SpecificRecordBase i
         record.socketKeepalive = fieldSetFlags()[7] ? this.socketKeepalive : (java.lang.Boolean) defaultValue(fields()[7]);
         record.includeClientProfile = fieldSetFlags()[8] ? this.includeClientProfile : (java.lang.Boolean) defaultValue(fields()[8]);
         record.includeServerProfile = fieldSetFlags()[9] ? this.includeServerProfile : (java.lang.Boolean) defaultValue(fields()[9]);
+        record.writeConcern = fieldSetFlags()[10] ? this.writeConcern : (org.kaaproject.kaa.server.appenders.mongo.config.gen.MongoDbWriteConcern) defaultValue(fields()[10]);
+        record.maxBatchSize = fieldSetFlags()[11] ? this.maxBatchSize : (java.lang.Integer) defaultValue(fields()[11]);
+        record.maxConcurrentWrites = fieldSetFlags()[12] ? this.maxConcurrentWrites : (java.lang.Integer) defaultValue(fields()[12]);
         return record;
       } catch (Exception e) {
         throw new org.apache.avro.AvroRuntimeException(e);
@@ -0,0 +1,13 @@
+/**
+ * Autogenerated by Avro
+ * 
+ * DO NOT EDIT DIRECTLY
+ */
+package org.kaaproject.kaa.server.appenders.mongo.config.gen;  
+@SuppressWarnings("all")
+@org.apache.avro.specific.AvroGenerated
+public enum MongoDbWriteConcern { 
+  UNACKNOWLEDGED, ACKNOWLEDGED, JOURNALED, MAJORITY  ;
+  public static final org.apache.avro.Schema SCHEMA$ = new org.apache.avro.Schema.Parser().parse("{\"type\":\"enum\",\"name\":\"MongoDbWriteConcern\",\"namespace\":\"org.kaaproject.kaa.server.appenders.mongo.config.gen\",\"symbols\":[\"UNACKNOWLEDGED\",\"ACKNOWLEDGED\",\"JOURNALED\",\"MAJORITY\"]}");
+  public static org.apache.avro.Schema getClassSchema() { return SCHEMA$; }
+}
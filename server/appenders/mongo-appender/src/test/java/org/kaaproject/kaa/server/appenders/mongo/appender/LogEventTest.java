@@ -16,25 +16,55 @@
 
 package org.kaaproject.kaa.server.appenders.mongo.appender;
 
-import com.mongodb.DBObject;
+import java.util.Arrays;
+
+import org.apache.avro.Schema;
+import org.apache.avro.generic.GenericData;
+import org.apache.avro.generic.GenericRecord;
+import org.bson.Document;
 import org.junit.Assert;
 import org.junit.Test;
-import org.kaaproject.kaa.common.dto.logs.LogEventDto;
+import org.kaaproject.kaa.server.common.log.shared.appender.data.BaseProfileInfo;
+import org.kaaproject.kaa.server.common.log.shared.appender.data.BaseSchemaInfo;
+import org.kaaproject.kaa.server.common.log.shared.avro.gen.RecordHeader;
 
 public class LogEventTest {
     private static final String KEY = "key";
     private static final String HEADER_VALUE = "value";
     private static final Integer EVENT_VALUE = 5;
-    private static final String HEADER = "{\"" + KEY  + "\":\"" + HEADER_VALUE + "\"}";
-    private static final String EVENT = "{" + KEY  + ":" + EVENT_VALUE + "}";
+    private static final String EVENT_SCHEMA = "{\"type\":\"record\",\"name\":\"Log\",\"fields\":["
+            + "{\"name\":\"" + KEY + "\",\"type\":\"int\"},"
+            + "{\"name\":\"tags\",\"type\":{\"type\":\"array\",\"items\":\"string\"}},"
+            + "{\"name\":\"level\",\"type\":[\"null\",{\"type\":\"enum\",\"name\":\"Level\",\"symbols\":[\"INFO\",\"DEBUG\"]}]}]}";
+    private static final String PROFILE = "{\"" + KEY + "\":" + EVENT_VALUE + "}";
 
     @Test
     public void basicLogEventTest() {
-        LogEventDto logEventDto = new LogEventDto(HEADER, EVENT);
-        LogEvent logEvent = new LogEvent(logEventDto, null, null);
-        DBObject dBHeader = logEvent.getHeader();
-        DBObject dbEvent = logEvent.getEvent();
-        Assert.assertEquals(HEADER_VALUE, dBHeader.get(KEY));
+        RecordHeader header = new RecordHeader();
+        header.setEndpointKeyHash(HEADER_VALUE);
+        Schema schema = new Schema.Parser().parse(EVENT_SCHEMA);
+        GenericRecord event = new GenericData.Record(schema);
+        event.put(KEY, EVENT_VALUE);
+        event.put("tags", Arrays.asList("a", "b"));
+        event.put("level", new GenericData.EnumSymbol(schema.getField("level").schema().getTypes().get(1), "DEBUG"));
+
+        Document document = LogEvent.toDocument(header, event, null, null);
+        Document dbHeader = (Document) document.get(LogEvent.HEADER);
+        Document dbEvent = (Document) document.get(LogEvent.EVENT);
+        Assert.assertEquals(HEADER_VALUE, ((Document) dbHeader.get("endpointKeyHash")).get("string"));
+        Assert.assertTrue(dbHeader.containsKey("timestamp"));
+        Assert.assertNull(dbHeader.get("timestamp"));
         Assert.assertEquals(EVENT_VALUE, dbEvent.get(KEY));
+        Assert.assertEquals(Arrays.asList("a", "b"), dbEvent.get("tags"));
+        Assert.assertEquals("DEBUG", ((Document) dbEvent.get("level")).get("Level"));
+        Assert.assertFalse(document.containsKey(LogEvent.CLIENT_PROFILE));
+        Assert.assertFalse(document.containsKey(LogEvent.SERVER_PROFILE));
+    }
+
+    @Test
+    public void profileTest() {
+        Assert.assertNull(LogEvent.toDocument(null));
+        Document profile = LogEvent.toDocument(new BaseProfileInfo(new BaseSchemaInfo("1", "{}"), PROFILE));
+        Assert.assertEquals(EVENT_VALUE, profile.get(KEY));
     }
 }
@@ -17,6 +17,7 @@
 package org.kaaproject.kaa.server.appenders.mongo.appender;
 
 import java.io.BufferedReader;
+import java.io.ByteArrayOutputStream;
 import java.io.File;
 import java.io.FileReader;
 import java.io.IOException;
@@ -29,8 +30,15 @@ import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
 import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
 
+import org.apache.avro.Schema;
 import org.apache.avro.generic.GenericRecord;
+import org.apache.avro.io.BinaryEncoder;
+import org.apache.avro.io.EncoderFactory;
+import org.apache.avro.specific.SpecificDatumWriter;
 import org.junit.After;
 import org.junit.AfterClass;
 import org.junit.Assert;
@@ -48,6 +56,7 @@ import org.kaaproject.kaa.common.endpoint.gen.BasicEndpointProfile;
 import org.kaaproject.kaa.server.appenders.mongo.config.gen.MongoDBCredential;
 import org.kaaproject.kaa.server.appenders.mongo.config.gen.MongoDbConfig;
 import org.kaaproject.kaa.server.appenders.mongo.config.gen.MongoDbServer;
+import org.kaaproject.kaa.server.appenders.mongo.config.gen.MongoDbWriteConcern;
 import org.kaaproject.kaa.server.common.core.algorithms.generation.DefaultRecordGenerationAlgorithm;
 import org.kaaproject.kaa.server.common.core.algorithms.generation.DefaultRecordGenerationAlgorithmImpl;
 import org.kaaproject.kaa.server.common.core.configuration.RawData;
@@ -60,7 +69,6 @@ import org.kaaproject.kaa.server.common.log.shared.appender.LogSchema;
 import org.kaaproject.kaa.server.common.log.shared.appender.data.BaseLogEventPack;
 import org.kaaproject.kaa.server.common.log.shared.appender.data.BaseProfileInfo;
 import org.kaaproject.kaa.server.common.log.shared.appender.data.BaseSchemaInfo;
-import org.kaaproject.kaa.server.common.log.shared.appender.data.ProfileInfo;
 import org.kaaproject.kaa.server.common.nosql.mongo.dao.MongoDBTestRunner;
 import org.mockito.Mockito;
 import org.slf4j.Logger;
@@ -97,6 +105,8 @@ public class MongoDBLogAppenderTest {
 
     private static final String SERVER_PROFILE = "serverProfile";
 
+    private static final long TIMEOUT = 10000;
+
     private LogAppender logAppender;
 
     @BeforeClass
@@ -185,7 +195,7 @@ public class MongoDBLogAppenderTest {
 
     @Test
     public void doAppendWithCatchIOExceptionTest() throws NoSuchFieldException, SecurityException, IllegalArgumentException,
-            IllegalAccessException, IOException {
+            IllegalAccessException, IOException, InterruptedException {
         GenericAvroConverter<BasicEndpointProfile> converter = new GenericAvroConverter<BasicEndpointProfile>(BasicEndpointProfile.SCHEMA$);
         BasicEndpointProfile theLog = new BasicEndpointProfile("test");
         List<LogEvent> events = new ArrayList<>();
@@ -214,13 +224,14 @@ public class MongoDBLogAppenderTest {
 
         TestLogDeliveryCallback callback = new TestLogDeliveryCallback();
         logAppender.doAppend(logEventPack, callback);
+        Assert.assertTrue(callback.await());
         Assert.assertTrue(callback.internallError);
-        Mockito.verify(logEventDao, Mockito.never()).save(Mockito.anyList(), Mockito.<ProfileInfo>anyObject(), Mockito.<ProfileInfo>anyObject(), Mockito.anyString());
+        Mockito.verify(logEventDao, Mockito.never()).save(Mockito.anyList(), Mockito.anyString());
         ReflectionTestUtils.setField(logAppender, "logEventDao", eventDao);
     }
 
     @Test
-    public void doAppendWithoutServerProfileTest() throws IOException {
+    public void doAppendWithoutServerProfileTest() throws IOException, InterruptedException {
         GenericAvroConverter<BasicEndpointProfile> converter = new GenericAvroConverter<BasicEndpointProfile>(BasicEndpointProfile.SCHEMA$);
         BasicEndpointProfile theLog = new BasicEndpointProfile("test");
         List<LogEvent> events = new ArrayList<>();
@@ -246,6 +257,7 @@ public class MongoDBLogAppenderTest {
         Assert.assertEquals(0, MongoDBTestRunner.getDB().getCollection(collectionName).count());
         TestLogDeliveryCallback callback = new TestLogDeliveryCallback();
         logAppender.doAppend(logEventPack, callback);
+        Assert.assertTrue(callback.await());
         Assert.assertTrue(callback.success);
         collectionName = (String) ReflectionTestUtils.getField(logAppender, "collectionName");
         Assert.assertEquals(3, MongoDBTestRunner.getDB().getCollection(collectionName).count());
@@ -285,7 +297,9 @@ public class MongoDBLogAppenderTest {
         String body = this.getResourceAsString(SERVER_PROFILE_CONTENT_FILE);
         logEventPack.setServerProfile(new BaseProfileInfo(schemaInfo, body));
 
-        this.logAppender.doAppend(logEventPack, new TestLogDeliveryCallback());
+        TestLogDeliveryCallback callback = new TestLogDeliveryCallback();
+        this.logAppender.doAppend(logEventPack, callback);
+        Assert.assertTrue(callback.await());
         String collectionName = (String) ReflectionTestUtils.getField(this.logAppender, "collectionName");
         DBObject serverProfile = (DBObject) MongoDBTestRunner.getDB().getCollection(collectionName).findOne().get(SERVER_PROFILE);
         Assert.assertEquals(SERVER_FIELD_VALUE, serverProfile.get(SERVER_FIELD_KEY));
@@ -320,50 +334,110 @@ public class MongoDBLogAppenderTest {
         BaseLogEventPack logEventPack = new BaseLogEventPack(profileDto, DATE_CREATED, logSchema.getVersion(), logEvents);
         logEventPack.setLogSchema(logSchema);
 
-        this.logAppender.doAppend(logEventPack, new TestLogDeliveryCallback());
+        TestLogDeliveryCallback callback = new TestLogDeliveryCallback();
+        this.logAppender.doAppend(logEventPack, callback);
+        Assert.assertTrue(callback.await());
         String collectionName = (String) ReflectionTestUtils.getField(this.logAppender, "collectionName");
         DBObject serverProfile = (DBObject) MongoDBTestRunner.getDB().getCollection(collectionName).findOne().get(SERVER_PROFILE);
         Assert.assertEquals(null, serverProfile);
     }
 
+    @Test
+    public void initWithLegacyConfigurationTest() throws Exception {
+        MongoDbConfig mongoDbConfig = createConfiguration(false, false);
+        // Configurations saved before writeConcern, maxBatchSize and maxConcurrentWrites were added
+        Schema schema = MongoDbConfig.getClassSchema();
+        List<Schema.Field> fields = new ArrayList<>();
+        for (Schema.Field field : schema.getFields()) {
+            if (field.pos() < schema.getField("writeConcern").pos()) {
+                fields.add(new Schema.Field(field.name(), field.schema(), field.doc(), field.defaultValue()));
+            }
+        }
+        Schema legacySchema = Schema.createRecord(schema.getName(), schema.getDoc(), schema.getNamespace(), false);
+        legacySchema.setFields(fields);
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        BinaryEncoder encoder = EncoderFactory.get().binaryEncoder(output, null);
+        new SpecificDatumWriter<MongoDbConfig>(legacySchema).write(mongoDbConfig, encoder);
+        encoder.flush();
+
+        final List<MongoDbConfig> configurations = new ArrayList<>();
+        logAppender.close();
+        logAppender = new MongoDbLogAppender() {
+            @Override
+            protected void initFromConfiguration(LogAppenderDto appender, MongoDbConfig configuration) {
+                configurations.add(configuration);
+                super.initFromConfiguration(appender, configuration);
+            }
+        };
+        logAppender.init(createAppenderDto(output.toByteArray()));
+
+        Assert.assertEquals(1, configurations.size());
+        MongoDbConfig decoded = configurations.get(0);
+        Assert.assertEquals(mongoDbConfig.getDbName(), decoded.getDbName());
+        Assert.assertEquals(MongoDbWriteConcern.ACKNOWLEDGED, decoded.getWriteConcern());
+        Assert.assertEquals(Integer.valueOf(1000), decoded.getMaxBatchSize());
+        Assert.assertEquals(Integer.valueOf(4), decoded.getMaxConcurrentWrites());
+        ThreadPoolExecutor executor = (ThreadPoolExecutor) ReflectionTestUtils.getField(logAppender, "executor");
+        Assert.assertEquals(4, executor.getMaximumPoolSize());
+    }
+
     private static class TestLogDeliveryCallback implements LogDeliveryCallback {
 
+        private final CountDownLatch delivered = new CountDownLatch(1);
+
         private volatile boolean success;
         private volatile boolean internallError;
         private volatile boolean connectionError;
         private volatile boolean remoteError;
 
+        private boolean await() throws InterruptedException {
+            return delivered.await(TIMEOUT, TimeUnit.MILLISECONDS);
+        }
+
         @Override
         public void onSuccess() {
             success = true;
+            delivered.countDown();
         }
 
         @Override
         public void onInternalError() {
             internallError = true;
+            delivered.countDown();
         }
 
         @Override
         public void onConnectionError() {
             connectionError = true;
+            delivered.countDown();
         }
 
         @Override
         public void onRemoteError() {
             remoteError = true;
+            delivered.countDown();
         }
 
     }
 
     private void initLogAppender(boolean includeClientProfile, boolean includeServerProfile) throws Exception {
         logAppender = new MongoDbLogAppender();
+        AvroByteArrayConverter<MongoDbConfig> byteConverter = new AvroByteArrayConverter<>(MongoDbConfig.class);
+        byte[] rawConfiguration = byteConverter.toByteArray(createConfiguration(includeClientProfile, includeServerProfile));
+        logAppender.init(createAppenderDto(rawConfiguration));
+    }
 
+    private LogAppenderDto createAppenderDto(byte[] rawConfiguration) {
         LogAppenderDto appenderDto = new LogAppenderDto();
         appenderDto.setApplicationId(APPLICATION_ID);
         appenderDto.setApplicationToken(APPLICATION_TOKEN);
         appenderDto.setTenantId(TENANT_ID);
         appenderDto.setHeaderStructure(Arrays.asList(LogHeaderStructureDto.values()));
+        appenderDto.setRawConfiguration(rawConfiguration);
+        return appenderDto;
+    }
 
+    private MongoDbConfig createConfiguration(boolean includeClientProfile, boolean includeServerProfile) throws Exception {
         String dbName = MongoDBTestRunner.getDB().getName();
         List<ServerAddress> serverAddresses = MongoDBTestRunner.getDB().getMongo().getServerAddressList();
         List<MongoDbServer> servers = new ArrayList<>();
@@ -383,13 +457,7 @@ public class MongoDBLogAppenderTest {
         mongoDbConfig.setDbName(dbName);
         mongoDbConfig.setIncludeClientProfile(includeClientProfile);
         mongoDbConfig.setIncludeServerProfile(includeServerProfile);
-
-        AvroByteArrayConverter<MongoDbConfig> byteConverter = new AvroByteArrayConverter<>(MongoDbConfig.class);
-        byte[] rawConfiguration = byteConverter.toByteArray(mongoDbConfig);
-
-        appenderDto.setRawConfiguration(rawConfiguration);
-
-        logAppender.init(appenderDto);
+        return mongoDbConfig;
     }
 
     protected String getResourceAsString(String path) throws IOException {
@@ -22,9 +22,20 @@ import java.net.URISyntaxException;
 import java.security.KeyManagementException;
 import java.security.KeyStoreException;
 import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.apache.http.HttpHost;
 import org.apache.http.HttpRequest;
@@ -46,8 +57,11 @@ import org.apache.http.impl.client.CloseableHttpClient;
 import org.apache.http.impl.client.HttpClientBuilder;
 import org.apache.http.impl.client.HttpClients;
 import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+import org.apache.http.util.EntityUtils;
 import org.kaaproject.kaa.common.dto.logs.LogAppenderDto;
 import org.kaaproject.kaa.common.dto.logs.LogEventDto;
+import org.kaaproject.kaa.server.appenders.rest.config.gen.BatchFormat;
+import org.kaaproject.kaa.server.appenders.rest.config.gen.BatchMode;
 import org.kaaproject.kaa.server.appenders.rest.config.gen.MethodType;
 import org.kaaproject.kaa.server.appenders.rest.config.gen.RequestType;
 import org.kaaproject.kaa.server.appenders.rest.config.gen.RestConfig;
@@ -62,13 +76,26 @@ public class RestLogAppender extends AbstractLogAppender<RestConfig> {
 
     private static final Logger LOG = LoggerFactory.getLogger(RestLogAppender.class);
 
+    private static final ContentType NDJSON_CONTENT_TYPE = ContentType.create("application/x-ndjson", "UTF-8");
+
+    /** The number of requests that may wait for each connection of the pool. */
+    private static final int MAX_PENDING_REQUESTS_PER_CONNECTION = 1000;
+
     private ExecutorService executor;
+    private ScheduledExecutorService scheduler;
     private CloseableHttpClient client;
     private HttpHost target;
     private URI targetURI;
     private RestConfig configuration;
     private boolean closed = false;
 
+    private final Object bufferLock = new Object();
+    private List<String> bufferedRecords = new ArrayList<>();
+    private List<PackDelivery> bufferedDeliveries = new ArrayList<>();
+    private long bufferGeneration;
+
+    private final Set<List<PackDelivery>> pendingRetries = Collections.newSetFromMap(new ConcurrentHashMap<List<PackDelivery>, Boolean>());
+
     public RestLogAppender() {
         super(RestConfig.class);
     }
@@ -76,7 +103,12 @@ public class RestLogAppender extends AbstractLogAppender<RestConfig> {
     @Override
     protected void initFromConfiguration(LogAppenderDto appender, RestConfig configuration) {
         this.configuration = configuration;
-        this.executor = Executors.newFixedThreadPool(configuration.getConnectionPoolSize());
+        int poolSize = configuration.getConnectionPoolSize();
+        // Requests that don't fit in the queue are rejected instead of piling up while the endpoint is slow
+        this.executor = new ThreadPoolExecutor(poolSize, poolSize, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<Runnable>(poolSize * MAX_PENDING_REQUESTS_PER_CONNECTION));
+        // Batch delays and retry delays are waited for here, so they don't hold a connection pool thread
+        this.scheduler = Executors.newSingleThreadScheduledExecutor();
         target = new HttpHost(configuration.getHost(), configuration.getPort(), configuration.getSsl() ? "https" : "http");
         HttpClientBuilder builder = HttpClients.custom();
         if (configuration.getUsername() != null && configuration.getPassword() != null) {
@@ -109,6 +141,7 @@ public class RestLogAppender extends AbstractLogAppender<RestConfig> {
         if (closed) {
             LOG.warn("Attempt to append data to already stopped appender");
             listener.onInternalError();
+            return;
         }
         if(targetURI == null){
             try {
@@ -116,13 +149,18 @@ public class RestLogAppender extends AbstractLogAppender<RestConfig> {
             } catch (URISyntaxException e) {
                 LOG.warn("[{}] failed to build request URI", this.getApplicationToken(), e);
                 listener.onInternalError();
+                return;
             }
         }
         LOG.trace("[{}] appending {} logs to rest endpoint", this.getApplicationToken(), logEventPack.getEvents().size());
         final RestConfig configuration = this.configuration;
+        if (configuration.getBatchMode() != null) {
+            appendBatched(logEventPack, header, listener);
+            return;
+        }
         try {
             for (final LogEventDto dto : generateLogEvent(logEventPack, header)) {
-                executor.submit(new Runnable() {
+                Runnable task = new Runnable() {
 
                     @Override
                     public void run() {
@@ -153,7 +191,13 @@ public class RestLogAppender extends AbstractLogAppender<RestConfig> {
                             listener.onInternalError();
                         }
                     }
-                });
+                };
+                try {
+                    executor.execute(task);
+                } catch (RejectedExecutionException e) {
+                    LOG.warn("[{}] Too many pending requests, rejecting log event", getName());
+                    listener.onConnectionError();
+                }
             }
         } catch (IOException e) {
             LOG.error("[{}] Failed to send log events.", getName(), e);
@@ -162,8 +206,10 @@ public class RestLogAppender extends AbstractLogAppender<RestConfig> {
     }
 
     private HttpRequest createRequest(RestConfig configuration, LogEventDto dto) throws URISyntaxException {
-        String body = buildRequestBody(configuration, dto);
-        ContentType contentType = buildContentType(configuration);
+        return createRequest(configuration, buildRequestBody(configuration, dto), buildContentType(configuration));
+    }
+
+    private HttpRequest createRequest(RestConfig configuration, String body, ContentType contentType) {
         StringEntity entity = new StringEntity(body, contentType);
         final HttpEntityEnclosingRequestBase request;
         
@@ -176,6 +222,183 @@ public class RestLogAppender extends AbstractLogAppender<RestConfig> {
         return request;
     }
 
+    /**
+     * Sends the records of the pack in batches. In {@link BatchMode#PACK} mode
+     * every pack is sent at once, in {@link BatchMode#ACCUMULATE} mode records
+     * of several packs are accumulated until the batch is full or the batch
+     * delay expires. Packs that exceed the batch size are split.
+     */
+    private void appendBatched(LogEventPack logEventPack, RecordHeader header, LogDeliveryCallback listener) {
+        List<String> records = new ArrayList<>(logEventPack.getEvents().size());
+        try {
+            for (LogEventDto dto : generateLogEvent(logEventPack, header)) {
+                records.add(buildRequestBody(configuration, dto));
+            }
+        } catch (IOException e) {
+            LOG.error("[{}] Failed to send log events.", getName(), e);
+            listener.onInternalError();
+            return;
+        }
+        if (records.isEmpty()) {
+            listener.onSuccess();
+            return;
+        }
+        int maxBatchSize = Math.max(1, configuration.getMaxBatchSize());
+        if (configuration.getBatchMode() == BatchMode.ACCUMULATE && records.size() < maxBatchSize) {
+            synchronized (bufferLock) {
+                if (!bufferedRecords.isEmpty() && bufferedRecords.size() + records.size() > maxBatchSize) {
+                    flushBuffer();
+                }
+                if (bufferedRecords.isEmpty()) {
+                    final long generation = bufferGeneration;
+                    scheduler.schedule(new Runnable() {
+                        @Override
+                        public void run() {
+                            flushExpiredBuffer(generation);
+                        }
+                    }, configuration.getMaxBatchDelay(), TimeUnit.MILLISECONDS);
+                }
+                bufferedRecords.addAll(records);
+                bufferedDeliveries.add(new PackDelivery(listener, 1));
+                if (bufferedRecords.size() >= maxBatchSize) {
+                    flushBuffer();
+                }
+            }
+        } else {
+            if (configuration.getBatchMode() == BatchMode.ACCUMULATE) {
+                synchronized (bufferLock) {
+                    flushBuffer();
+                }
+            }
+            int batchCount = (records.size() + maxBatchSize - 1) / maxBatchSize;
+            PackDelivery delivery = new PackDelivery(listener, batchCount);
+            for (int from = 0; from < records.size(); from += maxBatchSize) {
+                List<String> batch = records.subList(from, Math.min(records.size(), from + maxBatchSize));
+                submitBatch(batch, Collections.singletonList(delivery));
+            }
+        }
+    }
+
+    private void flushExpiredBuffer(long generation) {
+        synchronized (bufferLock) {
+            if (generation == bufferGeneration) {
+                flushBuffer();
+            }
+        }
+    }
+
+    private void flushBuffer() {
+        if (!bufferedRecords.isEmpty()) {
+            submitBatch(bufferedRecords, bufferedDeliveries);
+            bufferedRecords = new ArrayList<>();
+            bufferedDeliveries = new ArrayList<>();
+        }
+        bufferGeneration++;
+    }
+
+    private void submitBatch(List<String> records, final List<PackDelivery> deliveries) {
+        final HttpRequest request;
+        if (configuration.getBatchFormat() == BatchFormat.NDJSON) {
+            StringBuilder body = new StringBuilder();
+            for (String record : records) {
+                body.append(record).append('\n');
+            }
+            request = createRequest(configuration, body.toString(), NDJSON_CONTENT_TYPE);
+        } else {
+            StringBuilder body = new StringBuilder("[");
+            for (int i = 0; i < records.size(); i++) {
+                if (i > 0) {
+                    body.append(',');
+                }
+                body.append(records.get(i));
+            }
+            body.append(']');
+            request = createRequest(configuration, body.toString(), buildContentType(configuration));
+        }
+        submitAttempt(request, records.size(), deliveries, 0);
+    }
+
+    private void submitAttempt(final HttpRequest request, final int size, final List<PackDelivery> deliveries, final int attempt) {
+        try {
+            executor.execute(new Runnable() {
+                @Override
+                public void run() {
+                    sendBatch(request, size, deliveries, attempt);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            LOG.warn("[{}] Too many pending requests, rejecting batch of {} logs", getName(), size);
+            for (PackDelivery delivery : deliveries) {
+                delivery.onConnectionError();
+            }
+        }
+    }
+
+    private void scheduleRetry(final HttpRequest request, final int size, final List<PackDelivery> deliveries, final int attempt) {
+        pendingRetries.add(deliveries);
+        try {
+            scheduler.schedule(new Runnable() {
+                @Override
+                public void run() {
+                    if (pendingRetries.remove(deliveries)) {
+                        submitAttempt(request, size, deliveries, attempt);
+                    }
+                }
+            }, configuration.getRetryDelay(), TimeUnit.MILLISECONDS);
+        } catch (RejectedExecutionException e) {
+            pendingRetries.remove(deliveries);
+            LOG.warn("[{}] Appender is closed, dropping retry of batch of {} logs", getName(), size);
+            for (PackDelivery delivery : deliveries) {
+                delivery.onConnectionError();
+            }
+        }
+    }
+
+    private void sendBatch(HttpRequest request, int size, List<PackDelivery> deliveries, int attempt) {
+        try {
+            LOG.trace("[{}] executing {} with {} logs", getName(), request.getRequestLine(), size);
+            CloseableHttpResponse response = client.execute(target, request);
+            int responseCode;
+            try {
+                responseCode = response.getStatusLine().getStatusCode();
+                EntityUtils.consume(response.getEntity());
+            } finally {
+                response.close();
+            }
+            if (responseCode >= 200 && responseCode < 400) {
+                LOG.trace("[{}] batch of {} logs appended successfully", getName(), size);
+                for (PackDelivery delivery : deliveries) {
+                    delivery.onBatchSuccess();
+                }
+                return;
+            }
+            if (responseCode < 500 || attempt >= configuration.getMaxRetries()) {
+                LOG.warn("[{}] bad response code {} for batch of {} logs", getName(), responseCode, size);
+                for (PackDelivery delivery : deliveries) {
+                    delivery.onRemoteError();
+                }
+                return;
+            }
+            LOG.debug("[{}] bad response code {}, retrying batch of {} logs", getName(), responseCode, size);
+        } catch (IOException e) {
+            if (attempt >= configuration.getMaxRetries()) {
+                LOG.error("[{}] Failed to send batch of {} logs.", getName(), size, e);
+                for (PackDelivery delivery : deliveries) {
+                    delivery.onConnectionError();
+                }
+                return;
+            }
+            LOG.debug("[{}] Failed to send batch of {} logs, retrying", getName(), size, e);
+        } catch (Exception e) {
+            LOG.error("[{}] Failed to send batch of {} logs.", getName(), size, e);
+            for (PackDelivery delivery : deliveries) {
+                delivery.onInternalError();
+            }
+            return;
+        }
+        scheduleRetry(request, size, deliveries, attempt + 1);
+    }
+
     private ContentType buildContentType(RestConfig configuration) {
         ContentType contentType;
         if (configuration.getMimeType() == RequestType.TEXT) {
@@ -203,11 +426,62 @@ public class RestLogAppender extends AbstractLogAppender<RestConfig> {
     public void close() {
         closed = true;
         try {
-            client.close();
+            scheduler.shutdownNow();
+            synchronized (bufferLock) {
+                flushBuffer();
+            }
+            for (List<PackDelivery> deliveries : pendingRetries) {
+                if (pendingRetries.remove(deliveries)) {
+                    for (PackDelivery delivery : deliveries) {
+                        delivery.onConnectionError();
+                    }
+                }
+            }
             executor.shutdown();
             executor.awaitTermination(5, TimeUnit.SECONDS);
+            client.close();
         } catch (IOException | InterruptedException e) {
             LOG.error("Failed to close appender: {}", e.getMessage(), e);
         }
     }
+
+    /**
+     * Tracks the delivery of a pack that is sent in one or more batches and
+     * reports the result to the pack listener exactly once.
+     */
+    private static final class PackDelivery {
+
+        private final LogDeliveryCallback listener;
+        private final AtomicInteger pendingBatches;
+        private final AtomicBoolean completed = new AtomicBoolean();
+
+        private PackDelivery(LogDeliveryCallback listener, int batchCount) {
+            this.listener = listener;
+            this.pendingBatches = new AtomicInteger(batchCount);
+        }
+
+        private void onBatchSuccess() {
+            if (pendingBatches.decrementAndGet() == 0 && completed.compareAndSet(false, true)) {
+                listener.onSuccess();
+            }
+        }
+
+        private void onRemoteError() {
+            if (completed.compareAndSet(false, true)) {
+                listener.onRemoteError();
+            }
+        }
+
+        private void onConnectionError() {
+            if (completed.compareAndSet(false, true)) {
+                listener.onConnectionError();
+            }
+        }
+
+        private void onInternalError() {
+            if (completed.compareAndSet(false, true)) {
+                listener.onInternalError();
+            }
+        }
+    }
 }
@@ -0,0 +1,13 @@
+/**
+ * Autogenerated by Avro
+ * 
+ * DO NOT EDIT DIRECTLY
+ */
+package org.kaaproject.kaa.server.appenders.rest.config.gen;  
+@SuppressWarnings("all")
+@org.apache.avro.specific.AvroGenerated
+public enum BatchMode { 
+  PACK, ACCUMULATE  ;
+  public static final org.apache.avro.Schema SCHEMA$ = new org.apache.avro.Schema.Parser().parse("{\"type\":\"enum\",\"name\":\"BatchMode\",\"namespace\":\"org.kaaproject.kaa.server.appenders.rest.config.gen\",\"symbols\":[\"PACK\",\"ACCUMULATE\"]}");
+  public static org.apache.avro.Schema getClassSchema() { return SCHEMA$; }
+}
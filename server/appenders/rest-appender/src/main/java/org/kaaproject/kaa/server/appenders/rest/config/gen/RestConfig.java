@@ -7,7 +7,7 @@ package org.kaaproject.kaa.server.appenders.rest.config.gen;
 @SuppressWarnings("all")
 @org.apache.avro.specific.AvroGenerated
 public class RestConfig extends org.apache.avro.specific.SpecificRecordBase implements org.apache.avro.specific.SpecificRecord {
-  public static final org.apache.avro.Schema SCHEMA$ = new org.apache.avro.Schema.Parser().parse("{\"type\":\"record\",\"name\":\"RestConfig\",\"namespace\":\"org.kaaproject.kaa.server.appenders.rest.config.gen\",\"fields\":[{\"name\":\"host\",\"type\":{\"type\":\"string\",\"avro.java.string\":\"String\"},\"displayName\":\"Host\",\"by_default\":\"localhost\"},{\"name\":\"port\",\"type\":\"int\",\"displayName\":\"Port\",\"by_default\":10000},{\"name\":\"ssl\",\"type\":\"boolean\",\"displayName\":\"Use SSL\",\"by_default\":\"false\"},{\"name\":\"verifySslCert\",\"type\":\"boolean\",\"displayName\":\"Validate SSL Certificate\",\"by_default\":\"false\"},{\"name\":\"username\",\"type\":[{\"type\":\"string\",\"avro.java.string\":\"String\"},\"null\"],\"displayName\":\"Username\"},{\"name\":\"password\",\"type\":[{\"type\":\"string\",\"avro.java.string\":\"String\"},\"null\"],\"displayName\":\"Password\"},{\"name\":\"connectionPoolSize\",\"type\":\"int\",\"displayName\":\"Thread/connection pool size\",\"by_default\":1},{\"name\":\"header\",\"type\":\"boolean\",\"displayName\":\"Include Kaa header\",\"by_default\":\"false\"},{\"name\":\"path\",\"type\":{\"type\":\"string\",\"avro.java.string\":\"String\"},\"displayName\":\"Relative URI path\"},{\"name\":\"method\",\"type\":{\"type\":\"enum\",\"name\":\"MethodType\",\"symbols\":[\"PUT\",\"POST\"]},\"displayName\":\"Method\"},{\"name\":\"mimeType\",\"type\":{\"type\":\"enum\",\"name\":\"RequestType\",\"symbols\":[\"TEXT\",\"JSON\"]},\"displayName\":\"Request mime type\"}]}");
+  public static final org.apache.avro.Schema SCHEMA$ = new org.apache.avro.Schema.Parser().parse("{\"type\":\"record\",\"name\":\"RestConfig\",\"namespace\":\"org.kaaproject.kaa.server.appenders.rest.config.gen\",\"fields\":[{\"name\":\"host\",\"type\":{\"type\":\"string\",\"avro.java.string\":\"String\"},\"displayName\":\"Host\",\"by_default\":\"localhost\"},{\"name\":\"port\",\"type\":\"int\",\"displayName\":\"Port\",\"by_default\":10000},{\"name\":\"ssl\",\"type\":\"boolean\",\"displayName\":\"Use SSL\",\"by_default\":\"false\"},{\"name\":\"verifySslCert\",\"type\":\"boolean\",\"displayName\":\"Validate SSL Certificate\",\"by_default\":\"false\"},{\"name\":\"username\",\"type\":[{\"type\":\"string\",\"avro.java.string\":\"String\"},\"null\"],\"displayName\":\"Username\"},{\"name\":\"password\",\"type\":[{\"type\":\"string\",\"avro.java.string\":\"String\"},\"null\"],\"displayName\":\"Password\",\"inputType\":\"password\"},{\"name\":\"connectionPoolSize\",\"type\":\"int\",\"displayName\":\"Thread/connection pool size\",\"by_default\":1},{\"name\":\"header\",\"type\":\"boolean\",\"displayName\":\"Include Kaa header\",\"by_default\":\"false\"},{\"name\":\"path\",\"type\":{\"type\":\"string\",\"avro.java.string\":\"String\"},\"displayName\":\"Relative URI path\"},{\"name\":\"method\",\"type\":{\"type\":\"enum\",\"name\":\"MethodType\",\"symbols\":[\"PUT\",\"POST\"]},\"displayName\":\"Method\"},{\"name\":\"mimeType\",\"type\":{\"type\":\"enum\",\"name\":\"RequestType\",\"symbols\":[\"TEXT\",\"JSON\"]},\"displayName\":\"Request mime type\"},{\"name\":\"batchMode\",\"type\":[{\"type\":\"enum\",\"name\":\"BatchMode\",\"symbols\":[\"PACK\",\"ACCUMULATE\"]},\"null\"],\"displayName\":\"Batch mode\",\"optional\":true},{\"name\":\"batchFormat\",\"type\":[{\"type\":\"enum\",\"name\":\"BatchFormat\",\"symbols\":[\"JSON_ARRAY\",\"NDJSON\"]},\"null\"],\"displayName\":\"Batch format\",\"optional\":true},{\"name\":\"maxBatchSize\",\"type\":\"int\",\"displayName\":\"Max batch size (records)\",\"by_default\":500},{\"name\":\"maxBatchDelay\",\"type\":\"int\",\"displayName\":\"Max batch delay (ms)\",\"by_default\":1000},{\"name\":\"maxRetries\",\"type\":\"int\",\"displayName\":\"Max retries per request\",\"by_default\":3},{\"name\":\"retryDelay\",\"type\":\"int\",\"displayName\":\"Retry delay (ms)\",\"by_default\":1000}]}");
   public static org.apache.avro.Schema getClassSchema() { return SCHEMA$; }
    private java.lang.String host;
    private int port;
@@ -20,6 +20,12 @@ public class RestConfig extends org.apache.avro.specific.SpecificRecordBase impl
    private java.lang.String path;
    private org.kaaproject.kaa.server.appenders.rest.config.gen.MethodType method;
    private org.kaaproject.kaa.server.appenders.rest.config.gen.RequestType mimeType;
+   private org.kaaproject.kaa.server.appenders.rest.config.gen.BatchMode batchMode;
+   private org.kaaproject.kaa.server.appenders.rest.config.gen.BatchFormat batchFormat;
+   private int maxBatchSize;
+   private int maxBatchDelay;
+   private int maxRetries;
+   private int retryDelay;
 
   /**
    * Default constructor.  Note that this does not initialize fields
@@ -31,7 +37,7 @@ public class RestConfig extends org.apache.avro.specific.SpecificRecordBase impl
   /**
    * All-args constructor.
    */
-  public RestConfig(java.lang.String host, java.lang.Integer port, java.lang.Boolean ssl, java.lang.Boolean verifySslCert, java.lang.String username, java.lang.String password, java.lang.Integer connectionPoolSize, java.lang.Boolean header, java.lang.String path, org.kaaproject.kaa.server.appenders.rest.config.gen.MethodType method, org.kaaproject.kaa.server.appenders.rest.config.gen.RequestType mimeType) {
+  public RestConfig(java.lang.String host, java.lang.Integer port, java.lang.Boolean ssl, java.lang.Boolean verifySslCert, java.lang.String username, java.lang.String password, java.lang.Integer connectionPoolSize, java.lang.Boolean header, java.lang.String path, org.kaaproject.kaa.server.appenders.rest.config.gen.MethodType method, org.kaaproject.kaa.server.appenders.rest.config.gen.RequestType mimeType, org.kaaproject.kaa.server.appenders.rest.config.gen.BatchMode batchMode, org.kaaproject.kaa.server.appenders.rest.config.gen.BatchFormat batchFormat, java.lang.Integer maxBatchSize, java.lang.Integer maxBatchDelay, java.lang.Integer maxRetries, java.lang.Integer retryDelay) {
     this.host = host;
     this.port = port;
     this.ssl = ssl;
@@ -43,6 +49,12 @@ public class RestConfig extends org.apache.avro.specific.SpecificRecordBase impl
     this.path = path;
     this.method = method;
     this.mimeType = mimeType;
+    this.batchMode = batchMode;
+    this.batchFormat = batchFormat;
+    this.maxBatchSize = maxBatchSize;
+    this.maxBatchDelay = maxBatchDelay;
+    this.maxRetries = maxRetries;
+    this.retryDelay = retryDelay;
   }
 
   public org.apache.avro.Schema getSchema() { return SCHEMA$; }
@@ -60,6 +72,12 @@ public class RestConfig extends org.apache.avro.specific.SpecificRecordBase impl
     case 8: return path;
     case 9: return method;
     case 10: return mimeType;
+    case 11: return batchMode;
+    case 12: return batchFormat;
+    case 13: return maxBatchSize;
+    case 14: return maxBatchDelay;
+    case 15: return maxRetries;
+    case 16: return retryDelay;
     default: throw new org.apache.avro.AvroRuntimeException("Bad index");
     }
   }
@@ -78,6 +96,12 @@ public class RestConfig extends org.apache.avro.specific.SpecificRecordBase impl
     case 8: path = (java.lang.String)value$; break;
     case 9: method = (org.kaaproject.kaa.server.appenders.rest.config.gen.MethodType)value$; break;
     case 10: mimeType = (org.kaaproject.kaa.server.appenders.rest.config.gen.RequestType)value$; break;
+    case 11: batchMode = (org.kaaproject.kaa.server.appenders.rest.config.gen.BatchMode)value$; break;
+    case 12: batchFormat = (org.kaaproject.kaa.server.appenders.rest.config.gen.BatchFormat)value$; break;
+    case 13: maxBatchSize = (java.lang.Integer)value$; break;
+    case 14: maxBatchDelay = (java.lang.Integer)value$; break;
+    case 15: maxRetries = (java.lang.Integer)value$; break;
+    case 16: retryDelay = (java.lang.Integer)value$; break;
     default: throw new org.apache.avro.AvroRuntimeException("Bad index");
     }
   }
@@ -247,6 +271,96 @@ public class RestConfig extends org.apache.avro.specific.SpecificRecordBase impl
     this.mimeType = value;
   }
 
+  /**
+   * Gets the value of the 'batchMode' field.
+   */
+  public org.kaaproject.kaa.server.appenders.rest.config.gen.BatchMode getBatchMode() {
+    return batchMode;
+  }
+
+  /**
+   * Sets the value of the 'batchMode' field.
+   * @param value the value to set.
+   */
+  public void setBatchMode(org.kaaproject.kaa.server.appenders.rest.config.gen.BatchMode value) {
+    this.batchMode = value;
+  }
+
+  /**
+   * Gets the value of the 'batchFormat' field.
+   */
+  public org.kaaproject.kaa.server.appenders.rest.config.gen.BatchFormat getBatchFormat() {
+    return batchFormat;
+  }
+
+  /**
+   * Sets the value of the 'batchFormat' field.
+   * @param value the value to set.
+   */
+  public void setBatchFormat(org.kaaproject.kaa.server.appenders.rest.config.gen.BatchFormat value) {
+    this.batchFormat = value;
+  }
+
+  /**
+   * Gets the value of the 'maxBatchSize' field.
+   */
+  public java.lang.Integer getMaxBatchSize() {
+    return maxBatchSize;
+  }
+
+  /**
+   * Sets the value of the 'maxBatchSize' field.
+   * @param value the value to set.
+   */
+  public void setMaxBatchSize(java.lang.Integer value) {
+    this.maxBatchSize = value;
+  }
+
+  /**
+   * Gets the value of the 'maxBatchDelay' field.
+   */
+  public java.lang.Integer getMaxBatchDelay() {
+    return maxBatchDelay;
+  }
+
+  /**
+   * Sets the value of the 'maxBatchDelay' field.
+   * @param value the value to set.
+   */
+  public void setMaxBatchDelay(java.lang.Integer value) {
+    this.maxBatchDelay = value;
+  }
+
+  /**
+   * Gets the value of the 'maxRetries' field.
+   */
+  public java.lang.Integer getMaxRetries() {
+    return maxRetries;
+  }
+
+  /**
+   * Sets the value of the 'maxRetries' field.
+   * @param value the value to set.
+   */
+  public void setMaxRetries(java.lang.Integer value) {
+    this.maxRetries = value;
+  }
+
+  /**
+   * Gets the value of the 'retryDelay' field.
+   */
+  public java.lang.Integer getRetryDelay() {
+    return retryDelay;
+  }
+
+  /**
+   * Sets the value of the 'retryDelay' field.
+   * @param value the value to set.
+   */
+  public void setRetryDelay(java.lang.Integer value) {
+    this.retryDelay = value;
+  }
+
   /** Creates a new RestConfig RecordBuilder */
   public static org.kaaproject.kaa.server.appenders.rest.config.gen.RestConfig.Builder newBuilder() {
     return new org.kaaproject.kaa.server.appenders.rest.config.gen.RestConfig.Builder();
@@ -279,6 +393,12 @@ public class RestConfig extends org.apache.avro.specific.SpecificRecordBase impl
     private java.lang.String path;
     private org.kaaproject.kaa.server.appenders.rest.config.gen.MethodType method;
     private org.kaaproject.kaa.server.appenders.rest.config.gen.RequestType mimeType;
+    private org.kaaproject.kaa.server.appenders.rest.config.gen.BatchMode batchMode;
+    private org.kaaproject.kaa.server.appenders.rest.config.gen.BatchFormat batchFormat;
+    private int maxBatchSize;
+    private int maxBatchDelay;
+    private int maxRetries;
+    private int retryDelay;
 
     /** Creates a new Builder */
     private Builder() {
@@ -332,6 +452,30 @@ public class RestConfig extends org.apache.avro.specific.SpecificRecordBase impl
         this.mimeType = data().deepCopy(fields()[10].schema(), other.mimeType);
         fieldSetFlags()[10] = true;
       }
+      if (isValidValue(fields()[11], other.batchMode)) {
+        this.batchMode = data().deepCopy(fields()[11].schema(), other.batchMode);
+        fieldSetFlags()[11] = true;
+      }
+      if (isValidValue(fields()[12], other.batchFormat)) {
+        this.batchFormat = data().deepCopy(fields()[12].schema(), other.batchFormat);
+        fieldSetFlags()[12] = true;
+      }
+      if (isValidValue(fields()[13], other.maxBatchSize)) {
+        this.maxBatchSize = data().deepCopy(fields()[13].schema(), other.maxBatchSize);
+        fieldSetFlags()[13] = true;
+      }
+      if (isValidValue(fields()[14], other.maxBatchDelay)) {
+        this.maxBatchDelay = data().deepCopy(fields()[14].schema(), other.maxBatchDelay);
+        fieldSetFlags()[14] = true;
+      }
+      if (isValidValue(fields()[15], other.maxRetries)) {
+        this.maxRetries = data().deepCopy(fields()[15].schema(), other.maxRetries);
+        fieldSetFlags()[15] = true;
+      }
+      if (isValidValue(fields()[16], other.retryDelay)) {
+        this.retryDelay = data().deepCopy(fields()[16].schema(), other.retryDelay);
+        fieldSetFlags()[16] = true;
+      }
     }
     
     /** Creates a Builder by copying an existing RestConfig instance */
@@ -381,6 +525,30 @@ public class RestConfig extends org.apache.avro.specific.SpecificRecordBase impl
         this.mimeType = data().deepCopy(fields()[10].schema(), other.mimeType);
         fieldSetFlags()[10] = true;
       }
+      if (isValidValue(fields()[11], other.batchMode)) {
+        this.batchMode = data().deepCopy(fields()[11].schema(), other.batchMode);
+        fieldSetFlags()[11] = true;
+      }
+      if (isValidValue(fields()[12], other.batchFormat)) {
+        this.batchFormat = data().deepCopy(fields()[12].schema(), other.batchFormat);
+        fieldSetFlags()[12] = true;
+      }
+      if (isValidValue(fields()[13], other.maxBatchSize)) {
+        this.maxBatchSize = data().deepCopy(fields()[13].schema(), other.maxBatchSize);
+        fieldSetFlags()[13] = true;
+      }
+      if (isValidValue(fields()[14], other.maxBatchDelay)) {
+        this.maxBatchDelay = data().deepCopy(fields()[14].schema(), other.maxBatchDelay);
+        fieldSetFlags()[14] = true;
+      }
+      if (isValidValue(fields()[15], other.maxRetries)) {
+        this.maxRetries = data().deepCopy(fields()[15].schema(), other.maxRetries);
+        fieldSetFlags()[15] = true;
+      }
+      if (isValidValue(fields()[16], other.retryDelay)) {
+        this.retryDelay = data().deepCopy(fields()[16].schema(), other.retryDelay);
+        fieldSetFlags()[16] = true;
+      }
     }
 
     /** Gets the value of the 'host' field */
@@ -653,6 +821,152 @@ public class RestConfig extends org.apache.avro.specific.SpecificRecordBase impl
       return this;
     }
 
+    /** Gets the value of the 'batchMode' field */
+    public org.kaaproject.kaa.server.appenders.rest.config.gen.BatchMode getBatchMode() {
+      return batchMode;
+    }
+    
+    /** Sets the value of the 'batchMode' field */
+    public org.kaaproject.kaa.server.appenders.rest.config.gen.RestConfig.Builder setBatchMode(org.kaaproject.kaa.server.appenders.rest.config.gen.BatchMode value) {
+      validate(fields()[11], value);
+      this.batchMode = value;
+      fieldSetFlags()[11] = true;
+      return this; 
+    }
+    
+    /** Checks whether the 'batchMode' field has been set */
+    public boolean hasBatchMode() {
+      return fieldSetFlags()[11];
+    }
+    
+    /** Clears the value of the 'batchMode' field */
+    public org.kaaproject.kaa.server.appenders.rest.config.gen.RestConfig.Builder clearBatchMode() {
+      batchMode = null;
+      fieldSetFlags()[11] = false;
+      return this;
+    }
+
+    /** Gets the value of the 'batchFormat' field */
+    public org.kaaproject.kaa.server.appenders.rest.config.gen.BatchFormat getBatchFormat() {
+      return batchFormat;
+    }
+    
+    /** Sets the value of the 'batchFormat' field */
+    public org.kaaproject.kaa.server.appenders.rest.config.gen.RestConfig.Builder setBatchFormat(org.kaaproject.kaa.server.appenders.rest.config.gen.BatchFormat value) {
+      validate(fields()[12], value);
+      this.batchFormat = value;
+      fieldSetFlags()[12] = true;
+      return this; 
+    }
+    
+    /** Checks whether the 'batchFormat' field has been set */
+    public boolean hasBatchFormat() {
+      return fieldSetFlags()[12];
+    }
+    
+    /** Clears the value of the 'batchFormat' field */
+    public org.kaaproject.kaa.server.appenders.rest.config.gen.RestConfig.Builder clearBatchFormat() {
+      batchFormat = null;
+      fieldSetFlags()[12] = false;
+      return this;
+    }
+
+    /** Gets the value of the 'maxBatchSize' field */
+    public java.lang.Integer getMaxBatchSize() {
+      return maxBatchSize;
+    }
+    
+    /** Sets the value of the 'maxBatchSize' field */
+    public org.kaaproject.kaa.server.appenders.rest.config.gen.RestConfig.Builder setMaxBatchSize(int value) {
+      validate(fields()[13], value);
+      this.maxBatchSize = value;
+      fieldSetFlags()[13] = true;
+      return this; 
+    }
+    
+    /** Checks whether the 'maxBatchSize' field has been set */
+    public boolean hasMaxBatchSize() {
+      return fieldSetFlags()[13];
+    }
+    
+    /** Clears the value of the 'maxBatchSize' field */
+    public org.kaaproject.kaa.server.appenders.rest.config.gen.RestConfig.Builder clearMaxBatchSize() {
+      fieldSetFlags()[13] = false;
+      return this;
+    }
+
+    /** Gets the value of the 'maxBatchDelay' field */
+    public java.lang.Integer getMaxBatchDelay() {
+      return maxBatchDelay;
+    }
+    
+    /** Sets the value of the 'maxBatchDelay' field */
+    public org.kaaproject.kaa.server.appenders.rest.config.gen.RestConfig.Builder setMaxBatchDelay(int value) {
+      validate(fields()[14], value);
+      this.maxBatchDelay = value;
+      fieldSetFlags()[14] = true;
+      return this; 
+    }
+    
+    /** Checks whether the 'maxBatchDelay' field has been set */
+    public boolean hasMaxBatchDelay() {
+      return fieldSetFlags()[14];
+    }
+    
+    /** Clears the value of the 'maxBatchDelay' field */
+    public org.kaaproject.kaa.server.appenders.rest.config.gen.RestConfig.Builder clearMaxBatchDelay() {
+      fieldSetFlags()[14] = false;
+      return this;
+    }
+
+    /** Gets the value of the 'maxRetries' field */
+    public java.lang.Integer getMaxRetries() {
+      return maxRetries;
+    }
+    
+    /** Sets the value of the 'maxRetries' field */
+    public org.kaaproject.kaa.server.appenders.rest.config.gen.RestConfig.Builder setMaxRetries(int value) {
+      validate(fields()[15], value);
+      this.maxRetries = value;
+      fieldSetFlags()[15] = true;
+      return this; 
+    }
+    
+    /** Checks whether the 'maxRetries' field has been set */
+    public boolean hasMaxRetries() {
+      return fieldSetFlags()[15];
+    }
+    
+    /** Clears the value of the 'maxRetries' field */
+    public org.kaaproject.kaa.server.appenders.rest.config.gen.RestConfig.Builder clearMaxRetries() {
+      fieldSetFlags()[15] = false;
+      return this;
+    }
+
+    /** Gets the value of the 'retryDelay' field */
+    public java.lang.Integer getRetryDelay() {
+      return retryDelay;
+    }
+    
+    /** Sets the value of the 'retryDelay' field */
+    public org.kaaproject.kaa.server.appenders.rest.config.gen.RestConfig.Builder setRetryDelay(int value) {
+      validate(fields()[16], value);
+      this.retryDelay = value;
+      fieldSetFlags()[16] = true;
+      return this; 
+    }
+    
+    /** Checks whether the 'retryDelay' field has been set */
+    public boolean hasRetryDelay() {
+      return fieldSetFlags()[16];
+    }
+    
+    /** Clears the value of the 'retryDelay' field */
+    public org.kaaproject.kaa.server.appenders.rest.config.gen.RestConfig.Builder clearRetryDelay() {
+      fieldSetFlags()[16] = false;
+      return this;
+    }
+
     @Override
     public RestConfig build() {
       try {
@@ -668,6 +982,12 @@ public class RestConfig extends org.apache.avro.specific.SpecificRecordBase impl
         record.path = fieldSetFlags()[8] ? this.path : (java.lang.String) defaultValue(fields()[8]);
         record.method = fieldSetFlags()[9] ? this.method : (org.kaaproject.kaa.server.appenders.rest.config.gen.MethodType) defaultValue(fields()[9]);
         record.mimeType = fieldSetFlags()[10] ? this.mimeType : (org.kaaproject.kaa.server.appenders.rest.config.gen.RequestType) defaultValue(fields()[10]);
+        record.batchMode = fieldSetFlags()[11] ? this.batchMode : (org.kaaproject.kaa.server.appenders.rest.config.gen.BatchMode) defaultValue(fields()[11]);
+        record.batchFormat = fieldSetFlags()[12] ? this.batchFormat : (org.kaaproject.kaa.server.appenders.rest.config.gen.BatchFormat) defaultValue(fields()[12]);
+        record.maxBatchSize = fieldSetFlags()[13] ? this.maxBatchSize : (java.lang.Integer) defaultValue(fields()[13]);
+        record.maxBatchDelay = fieldSetFlags()[14] ? this.maxBatchDelay : (java.lang.Integer) defaultValue(fields()[14]);
+        record.maxRetries = fieldSetFlags()[15] ? this.maxRetries : (java.lang.Integer) defaultValue(fields()[15]);
+        record.retryDelay = fieldSetFlags()[16] ? this.retryDelay : (java.lang.Integer) defaultValue(fields()[16]);
         return record;
       } catch (Exception e) {
         throw new org.apache.avro.AvroRuntimeException(e);
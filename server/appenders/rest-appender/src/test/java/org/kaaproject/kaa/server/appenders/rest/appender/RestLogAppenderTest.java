@@ -0,0 +1,343 @@
+/*
+ * Copyright 2014-2016 CyberVision, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.kaaproject.kaa.server.appenders.rest.appender;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.avro.Schema;
+import org.apache.avro.generic.GenericData;
+import org.apache.avro.generic.GenericRecord;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.kaaproject.kaa.common.avro.AvroByteArrayConverter;
+import org.kaaproject.kaa.common.avro.GenericAvroConverter;
+import org.kaaproject.kaa.common.dto.EndpointProfileDataDto;
+import org.kaaproject.kaa.common.dto.logs.LogAppenderDto;
+import org.kaaproject.kaa.common.dto.logs.LogSchemaDto;
+import org.kaaproject.kaa.server.appenders.rest.config.gen.BatchFormat;
+import org.kaaproject.kaa.server.appenders.rest.config.gen.BatchMode;
+import org.kaaproject.kaa.server.appenders.rest.config.gen.MethodType;
+import org.kaaproject.kaa.server.appenders.rest.config.gen.RequestType;
+import org.kaaproject.kaa.server.appenders.rest.config.gen.RestConfig;
+import org.kaaproject.kaa.server.common.log.shared.appender.LogDeliveryCallback;
+import org.kaaproject.kaa.server.common.log.shared.appender.LogEvent;
+import org.kaaproject.kaa.server.common.log.shared.appender.LogSchema;
+import org.kaaproject.kaa.server.common.log.shared.appender.data.BaseLogEventPack;
+import org.kaaproject.kaa.server.common.log.shared.avro.gen.RecordHeader;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import com.sun.net.httpserver.HttpServer;
+
+public class RestLogAppenderTest {
+
+    private static final String LOG_SCHEMA = "{\"type\":\"record\",\"name\":\"Log\",\"fields\":[{\"name\":\"message\",\"type\":\"string\"}]}";
+    private static final String PATH = "/logs";
+    private static final long TIMEOUT = 5000;
+
+    private static final String SUCCESS = "success";
+    private static final String INTERNAL_ERROR = "internalError";
+    private static final String CONNECTION_ERROR = "connectionError";
+    private static final String REMOTE_ERROR = "remoteError";
+
+    private HttpServer server;
+    private ExecutorService serverExecutor;
+    private final List<String> requests = Collections.synchronizedList(new ArrayList<String>());
+    private final LinkedList<Integer> responseCodes = new LinkedList<>();
+    private volatile CountDownLatch responseLatch = new CountDownLatch(0);
+
+    private RestLogAppender appender;
+    private RecordHeader header;
+    private final Schema logSchema = new Schema.Parser().parse(LOG_SCHEMA);
+    private final GenericAvroConverter<GenericRecord> logConverter = new GenericAvroConverter<>(logSchema);
+
+    @Before
+    public void before() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext(PATH, new HttpHandler() {
+            @Override
+            public void handle(HttpExchange exchange) throws IOException {
+                requests.add(readBody(exchange.getRequestBody()));
+                try {
+                    responseLatch.await(TIMEOUT, TimeUnit.MILLISECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                int responseCode;
+                synchronized (responseCodes) {
+                    responseCode = responseCodes.isEmpty() ? 200 : responseCodes.poll();
+                }
+                exchange.sendResponseHeaders(responseCode, -1);
+                exchange.close();
+            }
+        });
+        serverExecutor = Executors.newCachedThreadPool();
+        server.setExecutor(serverExecutor);
+        server.start();
+
+        header = new RecordHeader();
+        header.setApplicationToken("appToken");
+        header.setEndpointKeyHash(UUID.randomUUID().toString());
+        header.setHeaderVersion(1);
+        header.setTimestamp(System.currentTimeMillis());
+    }
+
+    @After
+    public void after() {
+        if (appender != null) {
+            appender.close();
+        }
+        responseLatch.countDown();
+        server.stop(0);
+        serverExecutor.shutdownNow();
+    }
+
+    @Test
+    public void accumulatedBatchFlushTest() throws Exception {
+        RestConfig configuration = createConfiguration(server.getAddress().getPort(), BatchMode.ACCUMULATE);
+        configuration.setMaxBatchSize(4);
+        initAppender(configuration);
+
+        TestLogDeliveryCallback first = new TestLogDeliveryCallback();
+        TestLogDeliveryCallback second = new TestLogDeliveryCallback();
+        appender.doAppend(generateLogEventPack(2), header, first);
+        Thread.sleep(100);
+        Assert.assertTrue(requests.isEmpty());
+        appender.doAppend(generateLogEventPack(2), header, second);
+
+        Assert.assertEquals(SUCCESS, first.await());
+        Assert.assertEquals(SUCCESS, second.await());
+        Assert.assertEquals(1, requests.size());
+        Assert.assertEquals(4, requests.get(0).split("\n").length);
+        appender.close();
+        first.assertCompletedOnce();
+        second.assertCompletedOnce();
+    }
+
+    @Test
+    public void accumulatedBatchDelayFlushTest() throws Exception {
+        RestConfig configuration = createConfiguration(server.getAddress().getPort(), BatchMode.ACCUMULATE);
+        configuration.setMaxBatchDelay(50);
+        initAppender(configuration);
+
+        TestLogDeliveryCallback callback = new TestLogDeliveryCallback();
+        appender.doAppend(generateLogEventPack(1), header, callback);
+
+        Assert.assertEquals(SUCCESS, callback.await());
+        Assert.assertEquals(1, requests.size());
+        appender.close();
+        callback.assertCompletedOnce();
+    }
+
+    @Test
+    public void packSplitTest() throws Exception {
+        RestConfig configuration = createConfiguration(server.getAddress().getPort(), BatchMode.PACK);
+        configuration.setMaxBatchSize(2);
+        initAppender(configuration);
+
+        TestLogDeliveryCallback callback = new TestLogDeliveryCallback();
+        appender.doAppend(generateLogEventPack(5), header, callback);
+
+        Assert.assertEquals(SUCCESS, callback.await());
+        Assert.assertEquals(3, requests.size());
+        appender.close();
+        callback.assertCompletedOnce();
+    }
+
+    @Test
+    public void retryAndSuccessTest() throws Exception {
+        initAppender(createConfiguration(server.getAddress().getPort(), BatchMode.PACK));
+        responseCodes.add(503);
+
+        TestLogDeliveryCallback callback = new TestLogDeliveryCallback();
+        appender.doAppend(generateLogEventPack(2), header, callback);
+
+        Assert.assertEquals(SUCCESS, callback.await());
+        Assert.assertEquals(2, requests.size());
+        Assert.assertEquals(requests.get(0), requests.get(1));
+        appender.close();
+        callback.assertCompletedOnce();
+    }
+
+    @Test
+    public void retriesExhaustedRemoteErrorTest() throws Exception {
+        RestConfig configuration = createConfiguration(server.getAddress().getPort(), BatchMode.PACK);
+        initAppender(configuration);
+        for (int i = 0; i <= configuration.getMaxRetries(); i++) {
+            responseCodes.add(500);
+        }
+
+        TestLogDeliveryCallback callback = new TestLogDeliveryCallback();
+        appender.doAppend(generateLogEventPack(2), header, callback);
+
+        Assert.assertEquals(REMOTE_ERROR, callback.await());
+        Assert.assertEquals(configuration.getMaxRetries() + 1, requests.size());
+        appender.close();
+        callback.assertCompletedOnce();
+    }
+
+    @Test
+    public void retriesExhaustedConnectionErrorTest() throws Exception {
+        int port;
+        try (ServerSocket socket = new ServerSocket(0)) {
+            port = socket.getLocalPort();
+        }
+        RestConfig configuration = createConfiguration(port, BatchMode.PACK);
+        configuration.setRetryDelay(100);
+        initAppender(configuration);
+
+        TestLogDeliveryCallback callback = new TestLogDeliveryCallback();
+        long start = System.currentTimeMillis();
+        appender.doAppend(generateLogEventPack(2), header, callback);
+
+        Assert.assertEquals(CONNECTION_ERROR, callback.await());
+        Assert.assertTrue(System.currentTimeMillis() - start >= configuration.getMaxRetries() * configuration.getRetryDelay());
+        appender.close();
+        callback.assertCompletedOnce();
+    }
+
+    @Test
+    public void queueFullRejectionTest() throws Exception {
+        RestConfig configuration = createConfiguration(server.getAddress().getPort(), BatchMode.PACK);
+        configuration.setConnectionPoolSize(1);
+        configuration.setMaxBatchSize(1);
+        initAppender(configuration);
+        responseLatch = new CountDownLatch(1);
+
+        TestLogDeliveryCallback callback = new TestLogDeliveryCallback();
+        appender.doAppend(generateLogEventPack(1002), header, callback);
+
+        Assert.assertEquals(CONNECTION_ERROR, callback.await());
+        responseLatch.countDown();
+        appender.close();
+        Assert.assertTrue(requests.size() < 1002);
+        callback.assertCompletedOnce();
+    }
+
+    private void initAppender(RestConfig configuration) throws IOException {
+        LogAppenderDto appenderDto = new LogAppenderDto();
+        appenderDto.setId("appenderId");
+        appenderDto.setName("appenderName");
+        appenderDto.setApplicationToken("appToken");
+        appenderDto.setRawConfiguration(new AvroByteArrayConverter<>(RestConfig.class).toByteArray(configuration));
+        appender = new RestLogAppender();
+        appender.init(appenderDto);
+    }
+
+    private static RestConfig createConfiguration(int port, BatchMode batchMode) {
+        RestConfig configuration = new RestConfig();
+        configuration.setHost("127.0.0.1");
+        configuration.setPort(port);
+        configuration.setSsl(false);
+        configuration.setVerifySslCert(false);
+        configuration.setConnectionPoolSize(2);
+        configuration.setHeader(false);
+        configuration.setPath(PATH);
+        configuration.setMethod(MethodType.POST);
+        configuration.setMimeType(RequestType.JSON);
+        configuration.setBatchMode(batchMode);
+        configuration.setBatchFormat(BatchFormat.NDJSON);
+        configuration.setMaxBatchSize(500);
+        configuration.setMaxBatchDelay(60000);
+        configuration.setMaxRetries(2);
+        configuration.setRetryDelay(10);
+        return configuration;
+    }
+
+    private BaseLogEventPack generateLogEventPack(int count) throws IOException {
+        List<LogEvent> events = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            GenericRecord record = new GenericData.Record(logSchema);
+            record.put("message", "message " + i);
+            LogEvent event = new LogEvent();
+            event.setLogData(logConverter.encode(record));
+            events.add(event);
+        }
+        EndpointProfileDataDto profileDto = new EndpointProfileDataDto("1", header.getEndpointKeyHash(), 1, "", 1, "");
+        BaseLogEventPack logEventPack = new BaseLogEventPack(profileDto, System.currentTimeMillis(), 1, events);
+        LogSchemaDto logSchemaDto = new LogSchemaDto();
+        logSchemaDto.setId("logSchemaId");
+        logSchemaDto.setSchema(LOG_SCHEMA);
+        logEventPack.setLogSchema(new LogSchema(logSchemaDto));
+        return logEventPack;
+    }
+
+    private static String readBody(InputStream in) throws IOException {
+        ByteArrayOutputStream body = new ByteArrayOutputStream();
+        byte[] buffer = new byte[1024];
+        int read;
+        while ((read = in.read(buffer)) >= 0) {
+            body.write(buffer, 0, read);
+        }
+        return new String(body.toByteArray(), "UTF-8");
+    }
+
+    private static class TestLogDeliveryCallback implements LogDeliveryCallback {
+
+        private final List<String> results = Collections.synchronizedList(new ArrayList<String>());
+        private final CountDownLatch completed = new CountDownLatch(1);
+
+        @Override
+        public void onSuccess() {
+            complete(SUCCESS);
+        }
+
+        @Override
+        public void onInternalError() {
+            complete(INTERNAL_ERROR);
+        }
+
+        @Override
+        public void onConnectionError() {
+            complete(CONNECTION_ERROR);
+        }
+
+        @Override
+        public void onRemoteError() {
+            complete(REMOTE_ERROR);
+        }
+
+        private void complete(String result) {
+            results.add(result);
+            completed.countDown();
+        }
+
+        private String await() throws InterruptedException {
+            Assert.assertTrue(completed.await(TIMEOUT, TimeUnit.MILLISECONDS));
+            return results.get(0);
+        }
+
+        private void assertCompletedOnce() {
+            Assert.assertEquals(1, results.size());
+        }
+    }
+}
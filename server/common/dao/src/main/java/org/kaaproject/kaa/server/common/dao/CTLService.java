@@ -280,6 +280,11 @@ public interface CTLService {
      * Exports the body of a CTL schema with all dependencies inline,
      * recursively.
      * 
+     * <p>The returned Schema object is cached and shared between callers, so
+     * it must not be modified (e.g. with <code>addProp</code>). Callers that
+     * need to modify the schema should parse the result of
+     * {@link #flatExportAsString(CTLSchemaDto)} instead.</p>
+     * 
      * @param schema
      *            A CTL schema to export
      * 
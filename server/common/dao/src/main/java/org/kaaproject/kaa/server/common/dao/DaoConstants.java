@@ -44,6 +44,7 @@ public class DaoConstants {
     public static final String CLASS_NAME_PROPERTY = "className";
     public static final String SDK_TOKEN_PROPERTY = "token";
     public static final String CREATED_TIME_PROPERTY = "createdTime";
+    public static final String CHANGE_PROPERTY = "change";
 
     public static final String TENANT_ALIAS = "tenant";
     public static final String ENDPOINT_PROFILE_SCHEMA_ALIAS = "endpointProfileSchema";
@@ -245,6 +246,7 @@ public class DaoConstants {
     public static final String HISTORY_LAST_MODIFY_TIME = LAST_MODIFY_TIME;
     public static final String HISTORY_APPLICATION_ID = APPLICATION_ID;
     public static final String HISTORY_CHANGE_ID = CHANGE_ID;
+    public static final String HISTORY_APPLICATION_ID_SEQUENCE_NUMBER_INDEX = "history_app_id_seq_num_idx";
 
     /**
      * Change constants.
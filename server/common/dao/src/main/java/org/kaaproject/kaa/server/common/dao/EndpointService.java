@@ -17,6 +17,7 @@
 package org.kaaproject.kaa.server.common.dao;
 
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 import org.kaaproject.kaa.common.dto.ChangeNotificationDto;
 import org.kaaproject.kaa.common.dto.EndpointConfigurationDto;
@@ -150,6 +151,17 @@ public interface EndpointService {
      */
     EndpointProfileDto findEndpointProfileByKeyHash(byte[] endpointProfileKeyHash);
 
+    /**
+     * Find endpoint profile by key hash without blocking the calling thread.
+     * DAOs without an asynchronous driver, such as the MongoDB ones, run the
+     * query in the calling thread and return a completed future.
+     *
+     * @param endpointProfileKeyHash
+     *            the endpoint profile key hash
+     * @return the future of the endpoint profile dto
+     */
+    CompletableFuture<EndpointProfileDto> findEndpointProfileByKeyHashAsync(byte[] endpointProfileKeyHash);
+
     /**
      * Find endpoint profile by key hash.
      *
@@ -50,7 +50,7 @@ public interface HistoryService {
      *
      * @param appId       the string id of application
      * @param startSeqNum the start sequence number
-     * @return the list of found histories
+     * @return the list of found histories ordered by sequence number
      */
     List<HistoryDto> findHistoriesBySeqNumberStart(String appId, int startSeqNum);
 
@@ -60,7 +60,7 @@ public interface HistoryService {
      * @param appId       the string id of application
      * @param startSeqNum the start sequence number
      * @param endSeqNum   the end sequence number
-     * @return the list of found histories
+     * @return the list of found histories ordered by sequence number
      */
     List<HistoryDto> findHistoriesBySeqNumberRange(String appId, int startSeqNum, int endSeqNum);
 
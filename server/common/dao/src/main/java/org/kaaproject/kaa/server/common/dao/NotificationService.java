@@ -17,6 +17,7 @@
 package org.kaaproject.kaa.server.common.dao;
 
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 import org.kaaproject.kaa.common.dto.EndpointNotificationDto;
 import org.kaaproject.kaa.common.dto.NotificationDto;
@@ -157,6 +158,16 @@ public interface NotificationService {
      */
     List<EndpointNotificationDto> findUnicastNotificationsByKeyHash(byte[] keyHash);
 
+    /**
+     * Find unicast notifications by key hash without blocking the calling
+     * thread. DAOs without an asynchronous driver, such as the MongoDB ones,
+     * run the query in the calling thread and return a completed future.
+     *
+     * @param keyHash the key hash
+     * @return the future of the list
+     */
+    CompletableFuture<List<EndpointNotificationDto>> findUnicastNotificationsByKeyHashAsync(byte[] keyHash);
+
     /**
      * Removes the unicast notifications by key hash.
      *
@@ -32,6 +32,8 @@ import java.util.Collections;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
 
 import static org.apache.commons.lang.StringUtils.isNotBlank;
 
@@ -165,4 +167,22 @@ public abstract class DaoUtil {
         }
         return data;
     }
+
+    /**
+     * Runs the query in the calling thread and returns its result as a
+     * completed future. Used by the DAOs that have no asynchronous driver.
+     *
+     * @param query the query to run
+     * @param <T>   the result type
+     * @return the future completed with the query result or failure
+     */
+    public static <T> CompletableFuture<T> completedQuery(Supplier<T> query) {
+        CompletableFuture<T> future = new CompletableFuture<>();
+        try {
+            future.complete(query.get());
+        } catch (RuntimeException e) {
+            future.completeExceptionally(e);
+        }
+        return future;
+    }
 }
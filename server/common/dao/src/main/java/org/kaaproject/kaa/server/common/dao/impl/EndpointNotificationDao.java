@@ -17,6 +17,7 @@
 package org.kaaproject.kaa.server.common.dao.impl;
 
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 import org.kaaproject.kaa.common.dto.EndpointNotificationDto;
 import org.kaaproject.kaa.server.common.dao.model.EndpointNotification;
@@ -44,6 +45,17 @@ public interface EndpointNotificationDao<T extends EndpointNotification> extends
      */
     List<T> findNotificationsByKeyHash(byte[] keyHash);
 
+    /**
+     * Find notifications by key hash without blocking the calling thread.
+     * The default implementation runs the query in the calling thread.
+     *
+     * @param keyHash the endpoint key hash
+     * @return the future of the list of endpoint notifications
+     */
+    default CompletableFuture<List<T>> findNotificationsByKeyHashAsync(byte[] keyHash) {
+        return DaoUtil.completedQuery(() -> findNotificationsByKeyHash(keyHash));
+    }
+
     /**
      * Removes the notifications by key hash.
      *
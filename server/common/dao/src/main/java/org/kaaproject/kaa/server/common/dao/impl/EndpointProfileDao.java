@@ -18,6 +18,7 @@ package org.kaaproject.kaa.server.common.dao.impl;
 
 import java.nio.ByteBuffer;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 import org.kaaproject.kaa.common.dto.EndpointProfileBodyDto;
 import org.kaaproject.kaa.common.dto.EndpointProfileDto;
@@ -50,6 +51,29 @@ public interface EndpointProfileDao<T extends EndpointProfile> extends Dao<T, By
      */
     T findByKeyHash(byte[] endpointKeyHash);
 
+    /**
+     * Find endpoint profile by key hash without blocking the calling thread.
+     * The default implementation runs the query in the calling thread.
+     *
+     * @param endpointKeyHash the endpoint key hash
+     * @return the future of the endpoint profile object
+     */
+    default CompletableFuture<T> findByKeyHashAsync(byte[] endpointKeyHash) {
+        return DaoUtil.completedQuery(() -> findByKeyHash(endpointKeyHash));
+    }
+
+    /**
+     * Find endpoint profile by key hash. Only the id, the endpoint key and the
+     * version of the returned profile are guaranteed to be set. The default
+     * implementation loads the whole profile.
+     *
+     * @param endpointKeyHash the endpoint key hash
+     * @return the endpoint profile object
+     */
+    default T findKeyAndVersionByKeyHash(byte[] endpointKeyHash) {
+        return findByKeyHash(endpointKeyHash);
+    }
+
     /**
      * Find endpoint profile by endpoint group id.
      *
@@ -132,4 +156,18 @@ public interface EndpointProfileDao<T extends EndpointProfile> extends Dao<T, By
      * @return the updated endpoint profile with.
      */
     T updateServerProfile(byte[] keyHash, int version, String serverProfile);
+
+    /**
+     * Update endpoint user id of the endpoint profile with given keyHash, if the stored endpoint profile has the given version.
+     * Only the endpoint user id and the version of the endpoint profile are written. Other changes, such as
+     * group state and profile body updates, go through {@link #save(EndpointProfileDto)} that keeps the profile indexes in sync.
+     *
+     * @param keyHash        the endpoint profile key hash.
+     * @param version        the expected endpoint profile version.
+     * @param endpointUserId the endpoint user id, or null to detach the endpoint from its user.
+     * @return the new endpoint profile version.
+     * @throws org.kaaproject.kaa.server.common.dao.exception.KaaOptimisticLockingFailureException
+     *         if the endpoint profile has been changed or removed.
+     */
+    long updateEndpointUserId(byte[] keyHash, long version, String endpointUserId);
 }
@@ -46,7 +46,7 @@ public interface HistoryDao<T> extends SqlDao<T> {
      *
      * @param appId the application id
      * @param startSeqNum the start sequence number
-     * @return the list of history objects
+     * @return the list of history objects ordered by sequence number
      */
     List<T> findBySeqNumberStart(String appId, int startSeqNum);
 
@@ -56,7 +56,7 @@ public interface HistoryDao<T> extends SqlDao<T> {
      * @param appId the application id
      * @param startSeqNum the start sequence number
      * @param endSeqNum the end sequence number
-     * @return the list of history objects
+     * @return the list of history objects ordered by sequence number
      */
     List<T> findBySeqNumberRange(String appId, int startSeqNum, int endSeqNum);
 
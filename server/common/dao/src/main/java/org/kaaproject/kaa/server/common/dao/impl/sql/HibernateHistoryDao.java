@@ -16,6 +16,10 @@
 
 package org.kaaproject.kaa.server.common.dao.impl.sql;
 
+import org.hibernate.Criteria;
+import org.hibernate.FetchMode;
+import org.hibernate.criterion.Criterion;
+import org.hibernate.criterion.Order;
 import org.hibernate.criterion.Restrictions;
 import org.kaaproject.kaa.server.common.dao.impl.HistoryDao;
 import org.kaaproject.kaa.server.common.dao.model.sql.History;
@@ -31,6 +35,7 @@ import static org.apache.commons.lang.StringUtils.isNotBlank;
 import static org.kaaproject.kaa.server.common.dao.DaoConstants.APPLICATION_ALIAS;
 import static org.kaaproject.kaa.server.common.dao.DaoConstants.APPLICATION_PROPERTY;
 import static org.kaaproject.kaa.server.common.dao.DaoConstants.APPLICATION_REFERENCE;
+import static org.kaaproject.kaa.server.common.dao.DaoConstants.CHANGE_PROPERTY;
 import static org.kaaproject.kaa.server.common.dao.DaoConstants.SEQUENCE_NUMBER_PROPERTY;
 
 @Repository
@@ -77,10 +82,7 @@ public class HibernateHistoryDao extends HibernateAbstractDao<History> implement
         List<History> histories = Collections.emptyList();
         LOG.debug("Searching history by application id [{}] start sequence number [{}]", appId, startSeqNum);
         if (isNotBlank(appId)) {
-            histories = findListByCriterionWithAlias(APPLICATION_PROPERTY, APPLICATION_ALIAS,
-                    Restrictions.and(
-                            Restrictions.eq(APPLICATION_REFERENCE, Long.valueOf(appId)),
-                            Restrictions.gt(SEQUENCE_NUMBER_PROPERTY, startSeqNum)));
+            histories = findBySeqNumberCriterion(appId, Restrictions.gt(SEQUENCE_NUMBER_PROPERTY, startSeqNum));
         }
         if (LOG.isTraceEnabled()) {
             LOG.trace("[{},{}] Search result: {}.", appId, startSeqNum, Arrays.toString(histories.toArray()));
@@ -95,11 +97,9 @@ public class HibernateHistoryDao extends HibernateAbstractDao<History> implement
         List<History> histories = Collections.emptyList();
         LOG.debug("Searching history by application id {} start sequence number {} and end {}", appId, startSeqNum, endSeqNum);
         if (isNotBlank(appId)) {
-            histories = findListByCriterionWithAlias(APPLICATION_PROPERTY, APPLICATION_ALIAS,
-                    Restrictions.and(
-                            Restrictions.eq(APPLICATION_REFERENCE, Long.valueOf(appId)),
-                            Restrictions.gt(SEQUENCE_NUMBER_PROPERTY, startSeqNum),
-                            Restrictions.le(SEQUENCE_NUMBER_PROPERTY, endSeqNum)));
+            histories = findBySeqNumberCriterion(appId, Restrictions.and(
+                    Restrictions.gt(SEQUENCE_NUMBER_PROPERTY, startSeqNum),
+                    Restrictions.le(SEQUENCE_NUMBER_PROPERTY, endSeqNum)));
         }
         if (LOG.isTraceEnabled()) {
             LOG.trace("[{},{},{}] Search result: {}.", appId, startSeqNum, endSeqNum, Arrays.toString(histories.toArray()));
@@ -109,6 +109,21 @@ public class HibernateHistoryDao extends HibernateAbstractDao<History> implement
         return histories;
     }
 
+    /**
+     * Selects the history of the application in ascending sequence number
+     * order. The changes are fetched in the same query, the application row
+     * isn't joined, and the loaded entities are read-only.
+     */
+    private List<History> findBySeqNumberCriterion(String appId, Criterion seqNumberCriterion) {
+        Criteria criteria = getCriteria()
+                .setFetchMode(CHANGE_PROPERTY, FetchMode.JOIN)
+                .add(Restrictions.eq(APPLICATION_REFERENCE, Long.valueOf(appId)))
+                .add(seqNumberCriterion)
+                .addOrder(Order.asc(SEQUENCE_NUMBER_PROPERTY))
+                .setReadOnly(true);
+        return findListByCriteria(criteria);
+    }
+
     @Override
     protected Class<History> getEntityClass() {
         return History.class;
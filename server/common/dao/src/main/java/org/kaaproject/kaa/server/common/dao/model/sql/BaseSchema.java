@@ -38,12 +38,15 @@ import javax.persistence.JoinColumn;
 import javax.persistence.ManyToOne;
 import javax.persistence.Table;
 
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import org.hibernate.annotations.OnDelete;
 import org.hibernate.annotations.OnDeleteAction;
 import org.kaaproject.kaa.common.dto.BaseSchemaDto;
 import org.kaaproject.kaa.common.dto.VersionDto;
 
 @Entity
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
 @Table(name = BASE_SCHEMA_TABLE_NAME)
 @Inheritance(strategy = InheritanceType.JOINED)
 public abstract class BaseSchema<T extends BaseSchemaDto> extends GenericModel<T> implements HasVersion {
@@ -24,12 +24,14 @@ import javax.persistence.CascadeType;
 import javax.persistence.Column;
 import javax.persistence.Entity;
 import javax.persistence.FetchType;
+import javax.persistence.Index;
 import javax.persistence.JoinColumn;
 import javax.persistence.ManyToOne;
 import javax.persistence.Table;
 import java.io.Serializable;
 
 import static org.kaaproject.kaa.server.common.dao.DaoConstants.HISTORY_APPLICATION_ID;
+import static org.kaaproject.kaa.server.common.dao.DaoConstants.HISTORY_APPLICATION_ID_SEQUENCE_NUMBER_INDEX;
 import static org.kaaproject.kaa.server.common.dao.DaoConstants.HISTORY_CHANGE_ID;
 import static org.kaaproject.kaa.server.common.dao.DaoConstants.HISTORY_LAST_MODIFY_TIME;
 import static org.kaaproject.kaa.server.common.dao.DaoConstants.HISTORY_SEQUENCE_NUMBER;
@@ -37,7 +39,8 @@ import static org.kaaproject.kaa.server.common.dao.DaoConstants.HISTORY_TABLE_NA
 import static org.kaaproject.kaa.server.common.dao.model.sql.ModelUtils.getLongId;
 
 @Entity
-@Table(name = HISTORY_TABLE_NAME)
+@Table(name = HISTORY_TABLE_NAME, indexes = {
+        @Index(name = HISTORY_APPLICATION_ID_SEQUENCE_NUMBER_INDEX, columnList = HISTORY_APPLICATION_ID + "," + HISTORY_SEQUENCE_NUMBER)})
 public class History extends GenericModel<HistoryDto> implements Serializable {
 
     private static final long serialVersionUID = 2061028534480732230L;
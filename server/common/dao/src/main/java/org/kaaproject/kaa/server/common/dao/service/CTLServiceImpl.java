@@ -29,11 +29,15 @@ import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.text.MessageFormat;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 import java.util.zip.ZipEntry;
 import java.util.zip.ZipOutputStream;
 
@@ -106,6 +110,13 @@ public class CTLServiceImpl implements CTLService {
      */
     private static final ObjectMapper FORMATTER = new ObjectMapper();
 
+    /**
+     * Flat schemas by the identifier and version of the exported CTL schema.
+     *
+     * @see #getFlatSchema(CTLSchemaDto)
+     */
+    private final ConcurrentMap<List<Object>, FlatSchema> flatSchemas = new ConcurrentHashMap<>();
+
     @Autowired
     private CTLSchemaDao<CTLSchema> ctlSchemaDao;
     
@@ -173,7 +184,7 @@ public class CTLServiceImpl implements CTLService {
 
     private void validateDefaultRecord(CTLSchemaDto unSavedSchema) {
         try {
-            String schemaBody = flatExportAsString(unSavedSchema);
+            String schemaBody = parseFlatSchema(unSavedSchema).toString();
             GenericAvroConverter<GenericRecord> converter = new GenericAvroConverter<GenericRecord>(schemaBody);
             converter.decodeJson(unSavedSchema.getDefaultRecord());
         } catch (IOException | RuntimeException e) {
@@ -184,7 +195,7 @@ public class CTLServiceImpl implements CTLService {
 
     private CTLSchemaDto generateDefaultRecord(CTLSchemaDto unSavedSchema) {
         try {
-            String schemaBody = flatExportAsString(unSavedSchema);
+            String schemaBody = parseFlatSchema(unSavedSchema).toString();
             LOG.debug("Generating default record for flat schema: {}", schemaBody);
             RawSchema dataSchema = new RawSchema(schemaBody);
             DefaultRecordGenerationAlgorithm<RawData> dataProcessor = new DefaultRecordGenerationAlgorithmImpl<RawSchema, RawData>(
@@ -217,7 +228,9 @@ public class CTLServiceImpl implements CTLService {
                 }
                 ctlSchemaMetaInfoDao.lockRequest(lockOptions).setScope(true).lock(metaInfo);
                 schema.update(ctlSchema);
-                return DaoUtil.getDto(ctlSchemaDao.save(schema, true));
+                CTLSchemaDto updated = DaoUtil.getDto(ctlSchemaDao.save(schema, true));
+                evictFlatSchemas(updated.getId());
+                return updated;
             }
         } else {
             throw new DatabaseProcessingException("Can't find common type version by id.");
@@ -301,6 +314,7 @@ public class CTLServiceImpl implements CTLService {
                     ctlSchemaMetaInfoDao.lockRequest(lockOptions).setScope(true).lock(metaInfo);
                     try {
                         ctlSchemaDao.removeById(ctlSchema.getStringId());
+                        evictFlatSchemas(ctlSchema.getStringId());
                         List<CTLSchema> schemas = ctlSchemaDao.findAllByMetaInfoId(metaInfo.getStringId());
                         if (schemas == null || schemas.isEmpty()) {
                             ctlSchemaMetaInfoDao.removeById(metaInfo.getStringId());
@@ -480,6 +494,41 @@ public class CTLServiceImpl implements CTLService {
 
     @Override
     public Schema flatExportAsSchema(CTLSchemaDto schema) {
+        return getFlatSchema(schema).schema;
+    }
+
+    @Override
+    public String flatExportAsString(CTLSchemaDto schema) {
+        return getFlatSchema(schema).body;
+    }
+
+    /**
+     * Returns the flat form of the CTL schema, parsing it only on the first
+     * export of the saved CTL schema version. A cache hit doesn't touch the
+     * dependencies of the schema. The cached flat schemas that contain an
+     * updated or removed CTL schema are evicted. Schemas that aren't saved yet
+     * are parsed on every call. The cached Schema instance is returned to
+     * every caller as is, so callers must not modify it.
+     */
+    private FlatSchema getFlatSchema(CTLSchemaDto schema) {
+        if (schema.getId() == null) {
+            return new FlatSchema(parseFlatSchema(schema), Collections.<String>emptySet());
+        }
+        List<Object> key = Arrays.<Object>asList(schema.getId(), schema.getVersion());
+        FlatSchema flatSchema = flatSchemas.get(key);
+        if (flatSchema == null) {
+            Set<String> schemaIds = new HashSet<>();
+            collectIds(schema, schemaIds);
+            flatSchema = new FlatSchema(parseFlatSchema(schema), schemaIds);
+            FlatSchema previous = flatSchemas.putIfAbsent(key, flatSchema);
+            if (previous != null) {
+                flatSchema = previous;
+            }
+        }
+        return flatSchema;
+    }
+
+    private Schema parseFlatSchema(CTLSchemaDto schema) {
         try {
             return this.parseDependencies(schema, new Schema.Parser());
         } catch (Exception cause) {
@@ -488,9 +537,19 @@ public class CTLServiceImpl implements CTLService {
         }
     }
 
-    @Override
-    public String flatExportAsString(CTLSchemaDto schema) {
-        return flatExportAsSchema(schema).toString();
+    private void collectIds(CTLSchemaDto schema, Set<String> schemaIds) {
+        if (schema.getId() != null) {
+            schemaIds.add(schema.getId());
+        }
+        if (schema.getDependencySet() != null) {
+            for (CTLSchemaDto dependency : schema.getDependencySet()) {
+                collectIds(dependency, schemaIds);
+            }
+        }
+    }
+
+    private void evictFlatSchemas(String schemaId) {
+        flatSchemas.values().removeIf(flatSchema -> flatSchema.schemaIds.contains(schemaId));
     }
 
     @Override
@@ -565,4 +624,21 @@ public class CTLServiceImpl implements CTLService {
         }
         return files;
     }
+
+    /**
+     * A parsed flat schema, its string form and the identifiers of the CTL
+     * schemas it was built from.
+     */
+    private static final class FlatSchema {
+
+        private final Schema schema;
+        private final String body;
+        private final Set<String> schemaIds;
+
+        private FlatSchema(Schema schema, Set<String> schemaIds) {
+            this.schema = schema;
+            this.body = schema.toString();
+            this.schemaIds = schemaIds;
+        }
+    }
 }
@@ -31,6 +31,7 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 import org.apache.commons.lang.StringUtils;
 import org.kaaproject.kaa.common.dto.ChangeDto;
@@ -255,6 +256,12 @@ public class EndpointServiceImpl implements EndpointService {
         return getDto(endpointProfileDao.findByKeyHash(endpointProfileKeyHash));
     }
 
+    @Override
+    public CompletableFuture<EndpointProfileDto> findEndpointProfileByKeyHashAsync(byte[] endpointProfileKeyHash) {
+        validateHash(endpointProfileKeyHash, "Can't find endpoint profile by key hash. Invalid key hash " + endpointProfileKeyHash);
+        return endpointProfileDao.findByKeyHashAsync(endpointProfileKeyHash).thenApply(profile -> getDto(profile));
+    }
+
     @Override
     public EndpointProfileBodyDto findEndpointProfileBodyByKeyHash(byte[] endpointProfileKeyHash) {
         validateHash(endpointProfileKeyHash, "Can't find endpoint profile by key hash. Invalid key hash " + endpointProfileKeyHash);
@@ -288,7 +295,7 @@ public class EndpointServiceImpl implements EndpointService {
         }
         EndpointProfileDto dto;
         if (isBlank(endpointProfileDto.getId())) {
-            EndpointProfile storedProfile = endpointProfileDao.findByKeyHash(keyHash);
+            EndpointProfile storedProfile = endpointProfileDao.findKeyAndVersionByKeyHash(keyHash);
             if (storedProfile == null) {
                 dto = getDto(endpointProfileDao.save(endpointProfileDto));
             } else {
@@ -366,9 +373,10 @@ public class EndpointServiceImpl implements EndpointService {
                     endpointUser = endpointUserDao.save(endpointUser);
                     while (true) {
                         try {
-                            endpoint.setEndpointUserId(endpointUser.getId());
                             LOG.trace("Save endpoint user {} and endpoint profile {}", endpointUser, endpoint);
-                            endpoint = endpointProfileDao.save(endpoint);
+                            endpoint.setVersion(endpointProfileDao.updateEndpointUserId(
+                                    SHA1HashUtils.hashToBytes(endpoint.getEndpointKey()), endpoint.getVersion(), endpointUser.getId()));
+                            endpoint.setEndpointUserId(endpointUser.getId());
                             break;
                         } catch (KaaOptimisticLockingFailureException ex) {
                             LOG.warn("Optimistic lock detected in endpoint profile ", Arrays.toString(endpoint.getEndpointKey()), ex);
@@ -407,8 +415,8 @@ public class EndpointServiceImpl implements EndpointService {
             while (true) {
                 try {
                     LOG.trace("Save endpoint user {} and endpoint profile {}", endpointUser, endpoint);
+                    endpoint.setVersion(endpointProfileDao.updateEndpointUserId(endpoint.getEndpointKeyHash(), endpoint.getVersion(), null));
                     endpoint.setEndpointUserId(null);
-                    saveEndpointProfile(endpoint);
                     break;
                 } catch (KaaOptimisticLockingFailureException ex) {
                     LOG.warn("Optimistic lock detected in endpoint profile ", Arrays.toString(endpoint.getEndpointKey()), ex);
@@ -32,6 +32,7 @@ import java.util.ArrayList;
 import java.util.Date;
 import java.util.GregorianCalendar;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 import java.util.TimeZone;
 
 import org.apache.avro.generic.GenericRecord;
@@ -327,6 +328,12 @@ public class NotificationServiceImpl implements NotificationService {
         return convertDtoList(unicastNotificationDao.findNotificationsByKeyHash(keyHash));
     }
 
+    @Override
+    public CompletableFuture<List<EndpointNotificationDto>> findUnicastNotificationsByKeyHashAsync(final byte[] keyHash) {
+        validateHash(keyHash, "Can't find unicast notification. Invalid key hash " + keyHash);
+        return unicastNotificationDao.findNotificationsByKeyHashAsync(keyHash).thenApply(notifications -> convertDtoList(notifications));
+    }
+
     @Override
     public void removeUnicastNotificationsByKeyHash(final byte[] keyHash) {
         validateHash(keyHash, "Can't remove unicast notification. Invalid key hash " + keyHash);
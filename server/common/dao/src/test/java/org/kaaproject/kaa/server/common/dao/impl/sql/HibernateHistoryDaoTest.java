@@ -21,6 +21,7 @@ import java.util.List;
 import org.junit.Assert;
 import org.junit.Test;
 import org.junit.runner.RunWith;
+import org.kaaproject.kaa.server.common.dao.model.sql.Application;
 import org.kaaproject.kaa.server.common.dao.model.sql.History;
 import org.springframework.test.annotation.DirtiesContext;
 import org.springframework.test.context.ContextConfiguration;
@@ -72,4 +73,27 @@ public class HibernateHistoryDaoTest extends HibernateAbstractTest {
         Assert.assertEquals(1, found.size());
         Assert.assertEquals(second, found.get(0));
     }
+
+    @Test
+    public void findBySeqNumberRangeOrderTest() {
+        Application app = generateApplication(null);
+        for (int seqNum : new int[] {4, 2, 5, 1, 3}) {
+            History history = new History();
+            history.setApplication(app);
+            history.setLastModifyTime(System.currentTimeMillis());
+            history.setSequenceNumber(seqNum);
+            history.setChange(generateChange());
+            historyDao.save(history);
+        }
+        List<History> found = historyDao.findBySeqNumberRange(app.getId().toString(), 1, 5);
+        Assert.assertEquals(4, found.size());
+        for (int i = 0; i < found.size(); i++) {
+            Assert.assertEquals(i + 2, found.get(i).getSequenceNumber());
+        }
+        found = historyDao.findBySeqNumberStart(app.getId().toString(), 0);
+        Assert.assertEquals(5, found.size());
+        for (int i = 0; i < found.size(); i++) {
+            Assert.assertEquals(i + 1, found.get(i).getSequenceNumber());
+        }
+    }
 }
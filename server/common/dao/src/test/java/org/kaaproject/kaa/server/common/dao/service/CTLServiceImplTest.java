@@ -16,8 +16,10 @@
 
 package org.kaaproject.kaa.server.common.dao.service;
 
+import org.apache.avro.Schema;
 import org.codehaus.jackson.JsonNode;
 import org.codehaus.jackson.map.ObjectMapper;
+import org.codehaus.jackson.node.ObjectNode;
 import org.junit.Assert;
 import org.junit.Before;
 import org.junit.Ignore;
@@ -303,4 +305,35 @@ public class CTLServiceImplTest extends AbstractTest {
         JsonNode actual = mapper.readTree(ctlService.flatExport(alpha).getFileData());
         Assert.assertEquals(expected, actual);
     }
+
+    @Test
+    public void testFlatExportCache() throws Exception {
+        Schema schema = ctlService.flatExportAsSchema(alpha);
+        Assert.assertSame(schema, ctlService.flatExportAsSchema(ctlService.findCTLSchemaById(alpha.getId())));
+
+        ObjectMapper mapper = new ObjectMapper();
+        ObjectNode body = mapper.readValue(alpha.getBody(), ObjectNode.class);
+        body.put("doc", "Updated");
+        alpha.setBody(mapper.writeValueAsString(body));
+        ctlService.updateCTLSchema(alpha);
+
+        Schema updated = ctlService.flatExportAsSchema(ctlService.findCTLSchemaById(alpha.getId()));
+        Assert.assertNotSame(schema, updated);
+        Assert.assertEquals("Updated", updated.getDoc());
+    }
+
+    @Test
+    public void testFlatExportCacheDependencyUpdate() throws Exception {
+        String body = ctlService.flatExportAsString(alpha);
+
+        ObjectMapper mapper = new ObjectMapper();
+        ObjectNode betaBody = mapper.readValue(beta.getBody(), ObjectNode.class);
+        betaBody.put("doc", "Beta updated");
+        beta.setBody(mapper.writeValueAsString(betaBody));
+        ctlService.updateCTLSchema(beta);
+
+        String updated = ctlService.flatExportAsString(ctlService.findCTLSchemaById(alpha.getId()));
+        Assert.assertFalse(body.contains("Beta updated"));
+        Assert.assertTrue(updated.contains("Beta updated"));
+    }
 }
@@ -22,8 +22,15 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
+import org.apache.avro.Schema;
+import org.apache.avro.Schema.Field;
 import org.apache.avro.generic.GenericRecord;
+import org.apache.avro.io.BinaryDecoder;
+import org.apache.avro.io.DecoderFactory;
+import org.apache.avro.specific.SpecificData;
+import org.apache.avro.specific.SpecificDatumReader;
 import org.apache.avro.specific.SpecificRecordBase;
+import org.codehaus.jackson.JsonNode;
 import org.kaaproject.kaa.common.avro.AvroByteArrayConverter;
 import org.kaaproject.kaa.common.avro.GenericAvroConverter;
 import org.kaaproject.kaa.common.dto.logs.LogAppenderDto;
@@ -41,6 +48,9 @@ public abstract class AbstractLogAppender<T extends SpecificRecordBase> implemen
     /** The Constant LOG. */
     private static final Logger LOG = LoggerFactory.getLogger(AbstractLogAppender.class);
 
+    /** The Constant BY_DEFAULT, the property holding the default value of a configuration field. */
+    private static final String BY_DEFAULT = "by_default";
+
     /** The Constant LOG_HEADER_VERSION. */
     private static final int LOG_HEADER_VERSION = 1;
 
@@ -92,15 +102,110 @@ public abstract class AbstractLogAppender<T extends SpecificRecordBase> implemen
         this.maxSchemaVersion = appender.getMaxLogSchemaVersion();
         this.confirmDelivery = appender.isConfirmDelivery();
         byte[] rawConfiguration = appender.getRawConfiguration();
+        T configuration;
         try {
-            AvroByteArrayConverter<T> converter = new AvroByteArrayConverter<>(configurationClass);
-            T configuration = converter.fromByteArray(rawConfiguration);
-            initFromConfiguration(appender, configuration);
+            configuration = decodeConfiguration(rawConfiguration);
         } catch (IOException e) {
             LOG.error("Unable to parse configuration for appender '" + getName() + "'", e);
+            throw new IllegalArgumentException("Unable to parse configuration for appender '" + getName() + "'", e);
+        }
+        initFromConfiguration(appender, configuration);
+    }
+
+    /**
+     * Decodes the binary configuration of the appender. A configuration saved
+     * before fields were appended to the configuration schema is decoded with
+     * the schema it was written with, that is the current schema without the
+     * appended fields. The appended fields get their <code>by_default</code>
+     * values, or null if they have none.
+     *
+     * @param rawConfiguration  the binary configuration
+     * @return the configuration
+     * @throws IOException if the configuration can't be decoded
+     */
+    T decodeConfiguration(byte[] rawConfiguration) throws IOException {
+        AvroByteArrayConverter<T> converter = new AvroByteArrayConverter<>(configurationClass);
+        try {
+            return converter.fromByteArray(rawConfiguration);
+        } catch (IOException e) {
+            Schema schema = SpecificData.get().getSchema(configurationClass);
+            List<Field> fields = schema.getFields();
+            for (int storedFields = fields.size() - 1; storedFields > 0 && hasDefault(fields.get(storedFields)); storedFields--) {
+                T configuration = decodeStoredFields(rawConfiguration, schema, storedFields);
+                if (configuration != null) {
+                    LOG.info("Configuration of appender '{}' was saved with {} of {} fields, the rest get default values", getName(),
+                            storedFields, fields.size());
+                    return configuration;
+                }
+            }
+            throw e;
+        }
+    }
+
+    private T decodeStoredFields(byte[] rawConfiguration, Schema schema, int storedFields) {
+        List<Field> fields = new ArrayList<>(storedFields);
+        for (Field field : schema.getFields().subList(0, storedFields)) {
+            fields.add(new Field(field.name(), field.schema(), field.doc(), field.defaultValue()));
+        }
+        Schema storedSchema = Schema.createRecord(schema.getName(), schema.getDoc(), schema.getNamespace(), schema.isError());
+        storedSchema.setFields(fields);
+        try {
+            BinaryDecoder decoder = DecoderFactory.get().binaryDecoder(rawConfiguration, null);
+            T configuration = new SpecificDatumReader<T>(storedSchema, storedSchema).read(null, decoder);
+            if (!decoder.isEnd()) {
+                return null;
+            }
+            for (Field field : schema.getFields().subList(storedFields, schema.getFields().size())) {
+                configuration.put(field.pos(), getDefaultValue(field));
+            }
+            return configuration;
+        } catch (IOException | RuntimeException e) {
+            return null;
         }
     }
 
+    private static boolean hasDefault(Field field) {
+        return field.getJsonProp(BY_DEFAULT) != null || getNonNullType(field.schema()) != field.schema();
+    }
+
+    private static Object getDefaultValue(Field field) {
+        JsonNode byDefault = field.getJsonProp(BY_DEFAULT);
+        if (byDefault == null || byDefault.isNull()) {
+            return null;
+        }
+        Schema type = getNonNullType(field.schema());
+        String value = byDefault.asText();
+        switch (type.getType()) {
+        case ENUM:
+            return SpecificData.get().createEnum(value, type);
+        case STRING:
+            return value;
+        case INT:
+            return Integer.valueOf(value);
+        case LONG:
+            return Long.valueOf(value);
+        case FLOAT:
+            return Float.valueOf(value);
+        case DOUBLE:
+            return Double.valueOf(value);
+        case BOOLEAN:
+            return Boolean.valueOf(value);
+        default:
+            return null;
+        }
+    }
+
+    private static Schema getNonNullType(Schema schema) {
+        if (schema.getType() == Schema.Type.UNION) {
+            for (Schema type : schema.getTypes()) {
+                if (type.getType() != Schema.Type.NULL) {
+                    return type;
+                }
+            }
+        }
+        return schema;
+    }
+
     @Override
     public void setName(String name) {
         this.name = name;
@@ -191,26 +296,20 @@ public abstract class AbstractLogAppender<T extends SpecificRecordBase> implemen
      */
     protected List<LogEventDto> generateLogEvent(LogEventPack logEventPack, RecordHeader header) throws IOException {
         LOG.debug("Generate LogEventDto objects from LogEventPack [{}] and header [{}]", logEventPack, header);
-        List<LogEventDto> events = new ArrayList<>(logEventPack.getEvents().size());
-        GenericAvroConverter<GenericRecord> eventConverter = getConverter(logEventPack.getLogSchema().getSchema());
-        GenericAvroConverter<GenericRecord> headerConverter = getConverter(header.getSchema().toString());
+        List<String> jsonRecords;
         try {
-            for (LogEvent logEvent : logEventPack.getEvents()) {
-                LOG.debug("Convert log events [{}] to dto objects.", logEvent);
-                if (logEvent == null | logEvent.getLogData() == null) {
-                    continue;
-                }
-                LOG.trace("Avro record converter [{}] with log data [{}]", eventConverter, logEvent.getLogData());
-                GenericRecord decodedLog = eventConverter.decodeBinary(logEvent.getLogData());
-                LOG.trace("Avro header record converter [{}]", headerConverter);
-                String encodedJsonLogHeader = headerConverter.encodeToJson(header);
-                String encodedJsonLog = eventConverter.encodeToJson(decodedLog);
-                events.add(new LogEventDto(encodedJsonLogHeader, encodedJsonLog));
-            }
+            jsonRecords = logEventPack.getJsonRecords();
         } catch (IOException e) {
             LOG.error("Unexpected IOException while decoding LogEvents", e);
             throw e;
         }
+        GenericAvroConverter<GenericRecord> headerConverter = getConverter(header.getSchema().toString());
+        LOG.trace("Avro header record converter [{}]", headerConverter);
+        String encodedJsonLogHeader = headerConverter.encodeToJson(header);
+        List<LogEventDto> events = new ArrayList<>(jsonRecords.size());
+        for (String encodedJsonLog : jsonRecords) {
+            events.add(new LogEventDto(encodedJsonLogHeader, encodedJsonLog));
+        }
         return events;
     }
 
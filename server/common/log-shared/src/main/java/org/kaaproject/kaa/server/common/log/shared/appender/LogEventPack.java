@@ -16,8 +16,10 @@
 
 package org.kaaproject.kaa.server.common.log.shared.appender;
 
+import java.io.IOException;
 import java.util.List;
 
+import org.apache.avro.generic.GenericRecord;
 import org.kaaproject.kaa.server.common.log.shared.appender.data.ProfileInfo;
 
 public interface LogEventPack {
@@ -32,6 +34,28 @@ public interface LogEventPack {
 
     List<LogEvent> getEvents();
 
+    /**
+     * Returns the log events decoded using the log schema. Events without log
+     * data are skipped. Records are decoded once and shared by all appenders
+     * that process this pack, so they must not be modified.
+     *
+     * @return the decoded log records
+     * @throws IOException
+     *             if the log data can't be decoded
+     */
+    List<GenericRecord> getDecodedRecords() throws IOException;
+
+    /**
+     * Returns the log events in JSON format, in the same order as
+     * {@link #getDecodedRecords()}. Records are encoded once and shared by all
+     * appenders that process this pack.
+     *
+     * @return the log records in JSON format
+     * @throws IOException
+     *             if the log data can't be decoded or encoded
+     */
+    List<String> getJsonRecords() throws IOException;
+
     ProfileInfo getClientProfile();
 
     ProfileInfo getServerProfile();
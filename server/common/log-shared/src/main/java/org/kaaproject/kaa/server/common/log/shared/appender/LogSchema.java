@@ -16,12 +16,15 @@
 
 package org.kaaproject.kaa.server.common.log.shared.appender;
 
+import org.apache.avro.Schema;
 import org.kaaproject.kaa.common.dto.logs.LogSchemaDto;
 
 public final class LogSchema {
 
     private final LogSchemaDto logSchemaDto;
 
+    private volatile Schema avroSchema;
+
     public LogSchema(LogSchemaDto logSchemaDto) {
         this.logSchemaDto = logSchemaDto;
     }
@@ -38,6 +41,21 @@ public final class LogSchema {
         return logSchemaDto.getSchema();
     }
 
+    /**
+     * Returns the parsed Avro schema. The schema is parsed once on first access
+     * and shared by all log event packs that reference this log schema.
+     *
+     * @return the parsed Avro schema
+     */
+    public Schema getAvroSchema() {
+        Schema result = avroSchema;
+        if (result == null) {
+            result = new Schema.Parser().parse(logSchemaDto.getSchema());
+            avroSchema = result;
+        }
+        return result;
+    }
+
     public int getVersion() {
         return logSchemaDto.getVersion();
     }
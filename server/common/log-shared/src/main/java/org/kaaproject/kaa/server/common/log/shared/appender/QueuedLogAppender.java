@@ -0,0 +1,212 @@
+/*
+ * Copyright 2014-2016 CyberVision, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.kaaproject.kaa.server.common.log.shared.appender;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.kaaproject.kaa.common.dto.logs.LogAppenderDto;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * A log appender that hands log event packs over to the wrapped appender
+ * through a bounded queue served by a dedicated pool of workers. The caller is
+ * never blocked by the wrapped appender: when the queue is full, the pack is
+ * rejected and the delivery callback is notified with a connection error, so
+ * the endpoint retries the upload later. Rejections are counted and reported
+ * at most once per {@value #REJECTION_REPORT_INTERVAL_MS} ms.
+ */
+public class QueuedLogAppender implements LogAppender {
+
+    private static final Logger LOG = LoggerFactory.getLogger(QueuedLogAppender.class);
+
+    private static final long SHUTDOWN_TIMEOUT_SECONDS = 5;
+
+    private static final long REJECTION_REPORT_INTERVAL_MS = 60000;
+
+    private final LogAppender appender;
+
+    private final BlockingQueue<PendingLogEventPack> queue;
+
+    private final ExecutorService workers;
+
+    private final AtomicLong rejectedCount = new AtomicLong();
+
+    private final AtomicLong lastRejectionReportTime = new AtomicLong();
+
+    private volatile boolean closed;
+
+    /**
+     * Instantiates a new queued log appender.
+     *
+     * @param appender
+     *            the initialized appender to deliver log event packs to
+     * @param queueCapacity
+     *            the maximum number of log event packs waiting for delivery
+     * @param workerCount
+     *            the number of threads that deliver log event packs
+     */
+    public QueuedLogAppender(LogAppender appender, int queueCapacity, int workerCount) {
+        if (queueCapacity <= 0 || workerCount <= 0) {
+            throw new IllegalArgumentException("Queue capacity and worker count must be positive");
+        }
+        this.appender = appender;
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.workers = Executors.newFixedThreadPool(workerCount);
+        for (int i = 0; i < workerCount; i++) {
+            workers.submit(this::processQueue);
+        }
+    }
+
+    @Override
+    public void doAppend(LogEventPack logEventPack, LogDeliveryCallback listener) {
+        if (closed || !queue.offer(new PendingLogEventPack(logEventPack, listener))) {
+            LOG.debug("[{}] Log appender is overloaded, rejecting log event pack [{}]", appender.getName(), logEventPack);
+            reportRejection();
+            listener.onConnectionError();
+        }
+    }
+
+    private void reportRejection() {
+        long rejected = rejectedCount.incrementAndGet();
+        long now = System.currentTimeMillis();
+        long lastReportTime = lastRejectionReportTime.get();
+        if (now - lastReportTime >= REJECTION_REPORT_INTERVAL_MS && lastRejectionReportTime.compareAndSet(lastReportTime, now)) {
+            LOG.warn("[{}] Log appender is overloaded, {} log event pack(s) rejected so far", appender.getName(), rejected);
+        }
+    }
+
+    /**
+     * Returns the number of log event packs waiting for delivery.
+     *
+     * @return the queue size
+     */
+    public int getQueueSize() {
+        return queue.size();
+    }
+
+    /**
+     * Returns the number of log event packs rejected since the appender was
+     * created.
+     *
+     * @return the rejected log event packs count
+     */
+    public long getRejectedCount() {
+        return rejectedCount.get();
+    }
+
+    private void processQueue() {
+        while (!Thread.currentThread().isInterrupted()) {
+            try {
+                deliver(queue.take());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+        }
+    }
+
+    private void deliver(PendingLogEventPack pending) {
+        try {
+            appender.doAppend(pending.logEventPack, pending.listener);
+        } catch (Exception e) {
+            LOG.warn("[{}] Failed to append log event pack", appender.getName(), e);
+            pending.listener.onInternalError();
+        }
+    }
+
+    @Override
+    public void setName(String name) {
+        appender.setName(name);
+    }
+
+    @Override
+    public String getName() {
+        return appender.getName();
+    }
+
+    @Override
+    public void setAppenderId(String appenderId) {
+        appender.setAppenderId(appenderId);
+    }
+
+    @Override
+    public String getAppenderId() {
+        return appender.getAppenderId();
+    }
+
+    @Override
+    public void setApplicationToken(String applicationToken) {
+        appender.setApplicationToken(applicationToken);
+    }
+
+    @Override
+    public void init(LogAppenderDto appenderDto) {
+        appender.init(appenderDto);
+    }
+
+    @Override
+    public boolean isSchemaVersionSupported(int version) {
+        return appender.isSchemaVersionSupported(version);
+    }
+
+    @Override
+    public boolean isDeliveryConfirmationRequired() {
+        return appender.isDeliveryConfirmationRequired();
+    }
+
+    @Override
+    public void close() {
+        closed = true;
+        workers.shutdownNow();
+        try {
+            if (!workers.awaitTermination(SHUTDOWN_TIMEOUT_SECONDS, TimeUnit.SECONDS)) {
+                LOG.warn("[{}] Log appender workers did not terminate in time", appender.getName());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        List<PendingLogEventPack> pendingPacks = new ArrayList<>(queue.size());
+        queue.drainTo(pendingPacks);
+        for (PendingLogEventPack pending : pendingPacks) {
+            pending.listener.onConnectionError();
+        }
+        appender.close();
+    }
+
+    @Override
+    public String toString() {
+        return "QueuedLogAppender [appender=" + appender + ", queueSize=" + queue.size() + ", rejectedCount=" + rejectedCount.get() + "]";
+    }
+
+    private static final class PendingLogEventPack {
+        private final LogEventPack logEventPack;
+        private final LogDeliveryCallback listener;
+
+        private PendingLogEventPack(LogEventPack logEventPack, LogDeliveryCallback listener) {
+            this.logEventPack = logEventPack;
+            this.listener = listener;
+        }
+    }
+}
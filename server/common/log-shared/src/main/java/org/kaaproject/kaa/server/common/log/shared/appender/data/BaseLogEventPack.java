@@ -16,13 +16,24 @@
 
 package org.kaaproject.kaa.server.common.log.shared.appender.data;
 
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 
+import org.apache.avro.generic.GenericRecord;
+import org.kaaproject.kaa.common.avro.GenericAvroConverter;
 import org.kaaproject.kaa.common.dto.EndpointProfileDataDto;
 import org.kaaproject.kaa.server.common.log.shared.appender.LogEvent;
 import org.kaaproject.kaa.server.common.log.shared.appender.LogEventPack;
 import org.kaaproject.kaa.server.common.log.shared.appender.LogSchema;
 
+/**
+ * The base implementation of {@link LogEventPack}. Decoded and JSON
+ * representations of the log events are materialized lazily on first request
+ * and cached, so a pack that is delivered to several appenders is decoded only
+ * once.
+ */
 public class BaseLogEventPack implements LogEventPack {
 
     private final EndpointProfileDataDto profileDto;
@@ -41,6 +52,12 @@ public class BaseLogEventPack implements LogEventPack {
 
     private ProfileInfo serverProfile;
 
+    private final Object recordsLock = new Object();
+
+    private volatile List<GenericRecord> decodedRecords;
+
+    private volatile List<String> jsonRecords;
+
     public BaseLogEventPack(EndpointProfileDataDto profileDto, long dateCreated, int logSchemaVersion, List<LogEvent> events) {
         this.profileDto = profileDto;
         this.dateCreated = dateCreated;
@@ -77,6 +94,50 @@ public class BaseLogEventPack implements LogEventPack {
         return events;
     }
 
+    @Override
+    public List<GenericRecord> getDecodedRecords() throws IOException {
+        List<GenericRecord> result = decodedRecords;
+        if (result == null) {
+            synchronized (recordsLock) {
+                result = decodedRecords;
+                if (result == null) {
+                    GenericAvroConverter<GenericRecord> converter = new GenericAvroConverter<>(logSchema.getAvroSchema());
+                    List<GenericRecord> records = new ArrayList<>(events.size());
+                    for (LogEvent logEvent : events) {
+                        if (logEvent == null || logEvent.getLogData() == null) {
+                            continue;
+                        }
+                        records.add(converter.decodeBinary(logEvent.getLogData()));
+                    }
+                    result = Collections.unmodifiableList(records);
+                    decodedRecords = result;
+                }
+            }
+        }
+        return result;
+    }
+
+    @Override
+    public List<String> getJsonRecords() throws IOException {
+        List<String> result = jsonRecords;
+        if (result == null) {
+            List<GenericRecord> records = getDecodedRecords();
+            synchronized (recordsLock) {
+                result = jsonRecords;
+                if (result == null) {
+                    GenericAvroConverter<GenericRecord> converter = new GenericAvroConverter<>(logSchema.getAvroSchema());
+                    List<String> encoded = new ArrayList<>(records.size());
+                    for (GenericRecord record : records) {
+                        encoded.add(converter.encodeToJson(record));
+                    }
+                    result = Collections.unmodifiableList(encoded);
+                    jsonRecords = result;
+                }
+            }
+        }
+        return result;
+    }
+
     @Override
     public ProfileInfo getClientProfile() {
         return clientProfile;
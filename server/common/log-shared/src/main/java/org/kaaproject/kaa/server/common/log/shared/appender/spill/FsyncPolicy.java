@@ -0,0 +1,30 @@
+/*
+ * Copyright 2014-2016 CyberVision, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.kaaproject.kaa.server.common.log.shared.appender.spill;
+
+/**
+ * Defines when spilled log event packs are forced to the storage device.
+ */
+public enum FsyncPolicy {
+
+    /** Every log event pack is forced before it is acknowledged. */
+    ALWAYS,
+    /** Spilled data is forced at most once per configured interval and on segment roll. */
+    PERIODIC,
+    /** Spilled data is flushed by the operating system. */
+    NEVER
+}
@@ -0,0 +1,652 @@
+/*
+ * Copyright 2014-2016 CyberVision, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.kaaproject.kaa.server.common.log.shared.appender.spill;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.channels.OverlappingFileLockException;
+import java.nio.charset.Charset;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.CRC32;
+
+import org.kaaproject.kaa.common.dto.EndpointProfileDataDto;
+import org.kaaproject.kaa.common.dto.logs.LogSchemaDto;
+import org.kaaproject.kaa.server.common.log.shared.appender.LogEvent;
+import org.kaaproject.kaa.server.common.log.shared.appender.LogEventPack;
+import org.kaaproject.kaa.server.common.log.shared.appender.LogSchema;
+import org.kaaproject.kaa.server.common.log.shared.appender.data.BaseLogEventPack;
+import org.kaaproject.kaa.server.common.log.shared.appender.data.BaseProfileInfo;
+import org.kaaproject.kaa.server.common.log.shared.appender.data.BaseSchemaInfo;
+import org.kaaproject.kaa.server.common.log.shared.appender.data.ProfileInfo;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * A durable FIFO queue of log event packs, stored as a sequence of segment
+ * files in a local directory.
+ *
+ * <p>Each record is prefixed with its length and CRC32 checksum. Schemas are
+ * written once per segment and referenced by index afterwards, so spilling
+ * packs of the same application does not repeat them. Segments are deleted as
+ * soon as all their records are removed. The read offset of the oldest segment
+ * is checkpointed on every removal and forced according to the fsync policy.
+ * Segments left by a previous run are replayed first, starting from the last
+ * checkpoint; packs removed after the last checkpoint that reached the storage
+ * device are delivered again.</p>
+ */
+public class LogEventPackSpill implements Closeable {
+
+    private static final Logger LOG = LoggerFactory.getLogger(LogEventPackSpill.class);
+
+    private static final String SEGMENT_SUFFIX = ".spill";
+
+    private static final String LOCK_FILE_NAME = "spill.lock";
+
+    private static final String CHECKPOINT_FILE_NAME = "spill.offset";
+
+    private static final Charset UTF8 = Charset.forName("UTF-8");
+
+    private static final byte FORMAT_VERSION = 2;
+
+    private static final int RECORD_HEADER_SIZE = 12;
+
+    private static final int CHECKPOINT_SIZE = 24;
+
+    private static final int NULL_REFERENCE = -2;
+
+    private static final int NEW_REFERENCE = -1;
+
+    private final File directory;
+
+    private final long maxSegmentSize;
+
+    private final long maxSize;
+
+    private final FsyncPolicy fsyncPolicy;
+
+    private final long fsyncInterval;
+
+    private final FileChannel lockChannel;
+
+    private final FileLock lock;
+
+    private final FileChannel checkpointChannel;
+
+    private final Deque<Segment> segments = new ArrayDeque<>();
+
+    private long nextSegmentId;
+
+    private long size;
+
+    private Segment writeSegment;
+
+    private FileChannel writeChannel;
+
+    private final Map<String, Integer> writeStrings = new HashMap<>();
+
+    private boolean dirty;
+
+    private boolean checkpointDirty;
+
+    private long lastFsyncTime;
+
+    private FileChannel readChannel;
+
+    private final List<String> readStrings = new ArrayList<>();
+
+    private long readPosition;
+
+    private LogEventPack peeked;
+
+    private long peekedEnd;
+
+    /**
+     * Opens the spill in the given directory, picking up segments left by a
+     * previous run.
+     *
+     * @param directory
+     *            the spill directory, exclusively owned by this spill
+     * @param maxSegmentSize
+     *            the size in bytes after which a new segment is started
+     * @param maxSize
+     *            the maximum total size in bytes of all segments
+     * @param fsyncPolicy
+     *            the fsync policy
+     * @param fsyncInterval
+     *            the fsync interval in milliseconds, used by
+     *            {@link FsyncPolicy#PERIODIC}
+     * @throws IOException
+     *             if the directory can't be created, read or locked
+     */
+    public LogEventPackSpill(File directory, long maxSegmentSize, long maxSize, FsyncPolicy fsyncPolicy, long fsyncInterval)
+            throws IOException {
+        if (!directory.isDirectory() && !directory.mkdirs()) {
+            throw new IOException("Unable to create spill directory " + directory);
+        }
+        this.directory = directory;
+        this.maxSegmentSize = maxSegmentSize;
+        this.maxSize = maxSize;
+        this.fsyncPolicy = fsyncPolicy;
+        this.fsyncInterval = fsyncInterval;
+        this.lockChannel = FileChannel.open(new File(directory, LOCK_FILE_NAME).toPath(), StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE);
+        FileLock fileLock;
+        try {
+            fileLock = lockChannel.tryLock();
+        } catch (OverlappingFileLockException e) {
+            fileLock = null;
+        }
+        if (fileLock == null) {
+            lockChannel.close();
+            throw new IOException("Spill directory " + directory + " is used by another spill");
+        }
+        this.lock = fileLock;
+        this.checkpointChannel = FileChannel.open(new File(directory, CHECKPOINT_FILE_NAME).toPath(), StandardOpenOption.CREATE,
+                StandardOpenOption.READ, StandardOpenOption.WRITE);
+        File[] files = directory.listFiles((dir, name) -> name.endsWith(SEGMENT_SUFFIX));
+        if (files != null) {
+            Arrays.sort(files);
+            for (File file : files) {
+                long id;
+                try {
+                    id = Long.parseLong(file.getName().substring(0, file.getName().length() - SEGMENT_SUFFIX.length()));
+                } catch (NumberFormatException e) {
+                    LOG.warn("Ignoring unexpected file {} in spill directory", file);
+                    continue;
+                }
+                Segment segment = new Segment(id, file, file.length());
+                segments.addLast(segment);
+                size += segment.length;
+                nextSegmentId = Math.max(nextSegmentId, id + 1);
+            }
+        }
+        if (!segments.isEmpty()) {
+            LOG.info("Recovered {} spill segment(s) with {} bytes from {}", segments.size(), size, directory);
+            restoreCheckpoint();
+        } else if (checkpointChannel.size() > 0) {
+            // segment ids start over in an empty directory, so a stale checkpoint could match a new segment
+            checkpointChannel.truncate(0);
+            checkpointChannel.force(false);
+        }
+    }
+
+    /**
+     * Appends the log event pack to the spill.
+     *
+     * @param logEventPack
+     *            the log event pack
+     * @return true if the pack is stored, false if the spill is full
+     * @throws IOException
+     *             if the pack can't be written
+     */
+    public synchronized boolean append(LogEventPack logEventPack) throws IOException {
+        Map<String, Integer> addedStrings = new HashMap<>();
+        byte[] record = encode(logEventPack, addedStrings);
+        if (writeSegment != null && writeSegment.length > 0 && writeSegment.length + record.length > maxSegmentSize) {
+            closeWriteSegment();
+            addedStrings.clear();
+            record = encode(logEventPack, addedStrings);
+        }
+        if (size + record.length > maxSize) {
+            return false;
+        }
+        if (writeSegment == null) {
+            openWriteSegment();
+        }
+        ByteBuffer buffer = ByteBuffer.wrap(record);
+        while (buffer.hasRemaining()) {
+            writeChannel.write(buffer);
+        }
+        writeSegment.length += record.length;
+        size += record.length;
+        writeStrings.putAll(addedStrings);
+        dirty = true;
+        forceIfDue();
+        return true;
+    }
+
+    /**
+     * Returns the oldest log event pack without removing it.
+     *
+     * @return the oldest log event pack, or null if the spill is empty
+     * @throws IOException
+     *             if the spill can't be read
+     */
+    public synchronized LogEventPack peek() throws IOException {
+        while (peeked == null) {
+            Segment head = segments.peekFirst();
+            if (head == null) {
+                return null;
+            }
+            if (readPosition >= head.length) {
+                if (head == writeSegment) {
+                    return null;
+                }
+                removeHeadSegment();
+                continue;
+            }
+            if (readChannel == null) {
+                readChannel = FileChannel.open(head.file.toPath(), StandardOpenOption.READ);
+            }
+            try {
+                peeked = readRecord(head);
+            } catch (IOException e) {
+                LOG.warn("Discarding the corrupted remainder of spill segment {}", head.file, e);
+                removeHeadSegment();
+            }
+        }
+        return peeked;
+    }
+
+    /**
+     * Removes the oldest log event pack.
+     *
+     * @throws IOException
+     *             if the spill can't be read or a segment can't be deleted
+     */
+    public synchronized void remove() throws IOException {
+        if (peek() == null) {
+            return;
+        }
+        peeked = null;
+        readPosition = peekedEnd;
+        Segment head = segments.peekFirst();
+        if (readPosition >= head.length) {
+            removeHeadSegment();
+        } else {
+            writeCheckpoint(head.id, readPosition);
+            forceIfDue();
+        }
+    }
+
+    /**
+     * Returns whether there are no stored log event packs.
+     *
+     * @return true if the spill is empty
+     */
+    public synchronized boolean isEmpty() {
+        return segments.isEmpty();
+    }
+
+    /**
+     * Returns the total size in bytes of all segments.
+     *
+     * @return the spill size
+     */
+    public synchronized long getSize() {
+        return size;
+    }
+
+    /**
+     * Forces appended data to the storage device unless the fsync policy is
+     * {@link FsyncPolicy#NEVER}.
+     *
+     * @throws IOException
+     *             if the data can't be forced
+     */
+    public synchronized void flush() throws IOException {
+        if (fsyncPolicy != FsyncPolicy.NEVER) {
+            force();
+        }
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        try {
+            if (writeSegment != null) {
+                force();
+                writeChannel.close();
+            }
+            if (checkpointDirty) {
+                checkpointChannel.force(false);
+            }
+            if (readChannel != null) {
+                readChannel.close();
+            }
+        } finally {
+            writeSegment = null;
+            writeChannel = null;
+            readChannel = null;
+            checkpointChannel.close();
+            lock.release();
+            lockChannel.close();
+        }
+    }
+
+    private void forceIfDue() throws IOException {
+        if (fsyncPolicy == FsyncPolicy.ALWAYS) {
+            force();
+        } else if (fsyncPolicy == FsyncPolicy.PERIODIC && System.currentTimeMillis() - lastFsyncTime >= fsyncInterval) {
+            force();
+        }
+    }
+
+    private void force() throws IOException {
+        if (dirty && writeChannel != null) {
+            writeChannel.force(false);
+            dirty = false;
+        }
+        if (checkpointDirty) {
+            checkpointChannel.force(false);
+            checkpointDirty = false;
+        }
+        lastFsyncTime = System.currentTimeMillis();
+    }
+
+    private void writeCheckpoint(long segmentId, long position) throws IOException {
+        ByteBuffer checkpoint = ByteBuffer.allocate(CHECKPOINT_SIZE);
+        checkpoint.putLong(segmentId);
+        checkpoint.putLong(position);
+        CRC32 crc = new CRC32();
+        crc.update(checkpoint.array(), 0, CHECKPOINT_SIZE - 8);
+        checkpoint.putLong(crc.getValue());
+        checkpoint.flip();
+        while (checkpoint.hasRemaining()) {
+            checkpointChannel.write(checkpoint, checkpoint.position());
+        }
+        checkpointDirty = true;
+    }
+
+    /**
+     * Skips the records of the oldest segment that were removed before the
+     * last checkpoint. The records are decoded rather than skipped by offset,
+     * because later records reference strings defined by earlier ones. If the
+     * checkpoint is missing or doesn't match the segment, the whole segment is
+     * replayed.
+     */
+    private void restoreCheckpoint() throws IOException {
+        ByteBuffer checkpoint = ByteBuffer.allocate(CHECKPOINT_SIZE);
+        while (checkpoint.hasRemaining()) {
+            if (checkpointChannel.read(checkpoint, checkpoint.position()) < 0) {
+                return;
+            }
+        }
+        checkpoint.flip();
+        long segmentId = checkpoint.getLong();
+        long position = checkpoint.getLong();
+        long checksum = checkpoint.getLong();
+        CRC32 crc = new CRC32();
+        crc.update(checkpoint.array(), 0, CHECKPOINT_SIZE - 8);
+        Segment head = segments.peekFirst();
+        if (crc.getValue() != checksum || head.id != segmentId || position > head.length) {
+            return;
+        }
+        try {
+            readChannel = FileChannel.open(head.file.toPath(), StandardOpenOption.READ);
+            while (readPosition < position) {
+                readRecord(head);
+                readPosition = peekedEnd;
+            }
+        } catch (IOException e) {
+            LOG.warn("Unable to restore the read offset of spill segment {}, replaying it from the start", head.file, e);
+            readPosition = 0;
+            readStrings.clear();
+        }
+    }
+
+    private void openWriteSegment() throws IOException {
+        File file = new File(directory, String.format("%020d", nextSegmentId) + SEGMENT_SUFFIX);
+        writeChannel = FileChannel.open(file.toPath(), StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE);
+        writeSegment = new Segment(nextSegmentId++, file, 0);
+        segments.addLast(writeSegment);
+    }
+
+    private void closeWriteSegment() throws IOException {
+        if (fsyncPolicy != FsyncPolicy.NEVER) {
+            force();
+        }
+        writeChannel.close();
+        writeChannel = null;
+        writeSegment = null;
+        writeStrings.clear();
+        dirty = false;
+    }
+
+    private void removeHeadSegment() throws IOException {
+        Segment head = segments.pollFirst();
+        if (head == writeSegment) {
+            closeWriteSegment();
+        }
+        if (readChannel != null) {
+            readChannel.close();
+            readChannel = null;
+        }
+        readPosition = 0;
+        readStrings.clear();
+        peeked = null;
+        size -= head.length;
+        if (!head.file.delete()) {
+            LOG.warn("Unable to delete spill segment {}", head.file);
+        }
+    }
+
+    private LogEventPack readRecord(Segment head) throws IOException {
+        if (head.length - readPosition < RECORD_HEADER_SIZE) {
+            throw new EOFException("Truncated record header at position " + readPosition);
+        }
+        ByteBuffer header = ByteBuffer.allocate(RECORD_HEADER_SIZE);
+        readFully(header, readPosition);
+        header.flip();
+        int length = header.getInt();
+        long checksum = header.getLong();
+        if (length < 0 || head.length - readPosition - RECORD_HEADER_SIZE < length) {
+            throw new EOFException("Truncated record at position " + readPosition);
+        }
+        ByteBuffer payload = ByteBuffer.allocate(length);
+        readFully(payload, readPosition + RECORD_HEADER_SIZE);
+        CRC32 crc = new CRC32();
+        crc.update(payload.array(), 0, length);
+        if (crc.getValue() != checksum) {
+            throw new IOException("Checksum mismatch at position " + readPosition);
+        }
+        LogEventPack logEventPack = decode(payload.array());
+        peekedEnd = readPosition + RECORD_HEADER_SIZE + length;
+        return logEventPack;
+    }
+
+    private void readFully(ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            if (readChannel.read(buffer, position + buffer.position()) < 0) {
+                throw new EOFException();
+            }
+        }
+    }
+
+    private byte[] encode(LogEventPack logEventPack, Map<String, Integer> addedStrings) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(bytes);
+        out.writeByte(FORMAT_VERSION);
+        writeString(out, logEventPack.getEndpointKey());
+        writeString(out, logEventPack.getUserId());
+        out.writeLong(logEventPack.getDateCreated());
+        LogSchema logSchema = logEventPack.getLogSchema();
+        writeReference(out, logSchema.getId(), addedStrings);
+        writeReference(out, logSchema.getApplicationId(), addedStrings);
+        writeReference(out, logSchema.getSchema(), addedStrings);
+        out.writeInt(logSchema.getVersion());
+        writeProfile(out, logEventPack.getClientProfile(), addedStrings);
+        writeProfile(out, logEventPack.getServerProfile(), addedStrings);
+        EndpointProfileDataDto profileDto = logEventPack instanceof BaseLogEventPack ? ((BaseLogEventPack) logEventPack).getProfileDto() : null;
+        out.writeInt(profileDto != null ? profileDto.getClientProfileVersion() : 0);
+        out.writeInt(profileDto != null ? profileDto.getServerProfileVersion() : 0);
+        List<LogEvent> events = logEventPack.getEvents();
+        out.writeInt(events.size());
+        for (LogEvent event : events) {
+            byte[] data = event != null ? event.getLogData() : null;
+            if (data == null) {
+                out.writeInt(-1);
+            } else {
+                out.writeInt(data.length);
+                out.write(data);
+            }
+        }
+        out.flush();
+        byte[] payload = bytes.toByteArray();
+        CRC32 crc = new CRC32();
+        crc.update(payload, 0, payload.length);
+        ByteBuffer record = ByteBuffer.allocate(RECORD_HEADER_SIZE + payload.length);
+        record.putInt(payload.length);
+        record.putLong(crc.getValue());
+        record.put(payload);
+        return record.array();
+    }
+
+    private LogEventPack decode(byte[] payload) throws IOException {
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(payload));
+        byte version = in.readByte();
+        if (version != FORMAT_VERSION) {
+            throw new IOException("Unsupported spill record format " + version);
+        }
+        String endpointKey = readString(in);
+        String userId = readString(in);
+        long dateCreated = in.readLong();
+        LogSchemaDto logSchemaDto = new LogSchemaDto();
+        logSchemaDto.setId(readReference(in));
+        logSchemaDto.setApplicationId(readReference(in));
+        logSchemaDto.setSchema(readReference(in));
+        logSchemaDto.setVersion(in.readInt());
+        ProfileInfo clientProfile = readProfile(in);
+        ProfileInfo serverProfile = readProfile(in);
+        int clientProfileVersion = in.readInt();
+        int serverProfileVersion = in.readInt();
+        int eventCount = in.readInt();
+        List<LogEvent> events = new ArrayList<>(eventCount);
+        for (int i = 0; i < eventCount; i++) {
+            int length = in.readInt();
+            LogEvent event = new LogEvent();
+            if (length >= 0) {
+                byte[] data = new byte[length];
+                in.readFully(data);
+                event.setLogData(data);
+            }
+            events.add(event);
+        }
+        EndpointProfileDataDto profileDto = new EndpointProfileDataDto(null, endpointKey, clientProfileVersion,
+                clientProfile != null ? clientProfile.getBody() : null, serverProfileVersion,
+                serverProfile != null ? serverProfile.getBody() : null);
+        BaseLogEventPack logEventPack = new BaseLogEventPack(profileDto, dateCreated, logSchemaDto.getVersion(), events);
+        logEventPack.setLogSchema(new LogSchema(logSchemaDto));
+        logEventPack.setUserId(userId);
+        logEventPack.setClientProfile(clientProfile);
+        logEventPack.setServerProfile(serverProfile);
+        return logEventPack;
+    }
+
+    private void writeProfile(DataOutputStream out, ProfileInfo profile, Map<String, Integer> addedStrings) throws IOException {
+        out.writeBoolean(profile != null);
+        if (profile != null) {
+            writeReference(out, profile.getSchemaId(), addedStrings);
+            writeReference(out, profile.getSchema(), addedStrings);
+            writeString(out, profile.getBody());
+        }
+    }
+
+    private ProfileInfo readProfile(DataInputStream in) throws IOException {
+        if (!in.readBoolean()) {
+            return null;
+        }
+        String schemaId = readReference(in);
+        String schema = readReference(in);
+        return new BaseProfileInfo(new BaseSchemaInfo(schemaId, schema), readString(in));
+    }
+
+    private void writeReference(DataOutputStream out, String value, Map<String, Integer> addedStrings) throws IOException {
+        if (value == null) {
+            out.writeInt(NULL_REFERENCE);
+            return;
+        }
+        Integer index = writeStrings.get(value);
+        if (index == null) {
+            index = addedStrings.get(value);
+        }
+        if (index != null) {
+            out.writeInt(index);
+        } else {
+            out.writeInt(NEW_REFERENCE);
+            writeString(out, value);
+            addedStrings.put(value, writeStrings.size() + addedStrings.size());
+        }
+    }
+
+    private String readReference(DataInputStream in) throws IOException {
+        int index = in.readInt();
+        if (index == NULL_REFERENCE) {
+            return null;
+        } else if (index == NEW_REFERENCE) {
+            String value = readString(in);
+            readStrings.add(value);
+            return value;
+        } else if (index >= 0 && index < readStrings.size()) {
+            return readStrings.get(index);
+        } else {
+            throw new IOException("Unknown string reference " + index);
+        }
+    }
+
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        if (value == null) {
+            out.writeInt(-1);
+        } else {
+            byte[] data = value.getBytes(UTF8);
+            out.writeInt(data.length);
+            out.write(data);
+        }
+    }
+
+    private static String readString(DataInputStream in) throws IOException {
+        int length = in.readInt();
+        if (length < 0) {
+            return null;
+        }
+        byte[] data = new byte[length];
+        in.readFully(data);
+        return new String(data, UTF8);
+    }
+
+    private static final class Segment {
+        private final long id;
+        private final File file;
+        private long length;
+
+        private Segment(long id, File file, long length) {
+            this.id = id;
+            this.file = file;
+            this.length = length;
+        }
+
+        @Override
+        public String toString() {
+            return "Segment [id=" + id + ", file=" + file + ", length=" + length + "]";
+        }
+    }
+}
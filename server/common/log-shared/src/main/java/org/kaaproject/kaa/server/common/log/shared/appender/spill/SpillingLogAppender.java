@@ -0,0 +1,300 @@
+/*
+ * Copyright 2014-2016 CyberVision, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.kaaproject.kaa.server.common.log.shared.appender.spill;
+
+import java.io.IOException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import org.kaaproject.kaa.common.dto.logs.LogAppenderDto;
+import org.kaaproject.kaa.server.common.log.shared.appender.LogAppender;
+import org.kaaproject.kaa.server.common.log.shared.appender.LogDeliveryCallback;
+import org.kaaproject.kaa.server.common.log.shared.appender.LogEventPack;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * A log appender that keeps accepting log event packs while the wrapped
+ * appender is unavailable.
+ *
+ * <p>Once the wrapped appender reports a connection or remote error, new packs
+ * are stored in a {@link LogEventPackSpill} and acknowledged as delivered. A
+ * background task replays the spill in order and switches back to direct
+ * delivery when the spill is drained. Packs are rejected with a connection
+ * error only when the spill is full or can't be written.</p>
+ */
+public class SpillingLogAppender implements LogAppender {
+
+    private static final Logger LOG = LoggerFactory.getLogger(SpillingLogAppender.class);
+
+    private static final long SHUTDOWN_TIMEOUT_SECONDS = 5;
+
+    private final LogAppender appender;
+
+    private final LogEventPackSpill spill;
+
+    private final long replayTimeout;
+
+    private final ScheduledExecutorService replayExecutor;
+
+    private volatile boolean spilling;
+
+    /**
+     * Instantiates a new spilling log appender. Packs left in the spill by a
+     * previous run are replayed before direct delivery resumes.
+     *
+     * @param appender
+     *            the initialized appender to deliver log event packs to
+     * @param spill
+     *            the spill, owned and closed by this appender
+     * @param replayInterval
+     *            the delay in milliseconds between replay attempts
+     * @param replayTimeout
+     *            the time in milliseconds to wait for the wrapped appender to
+     *            confirm delivery of a replayed pack
+     */
+    public SpillingLogAppender(LogAppender appender, LogEventPackSpill spill, long replayInterval, long replayTimeout) {
+        this.appender = appender;
+        this.spill = spill;
+        this.replayTimeout = replayTimeout;
+        this.spilling = !spill.isEmpty();
+        this.replayExecutor = Executors.newSingleThreadScheduledExecutor();
+        this.replayExecutor.scheduleWithFixedDelay(this::replay, replayInterval, replayInterval, TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public void doAppend(LogEventPack logEventPack, LogDeliveryCallback listener) {
+        if (spilling) {
+            synchronized (spill) {
+                if (spilling) {
+                    store(logEventPack, listener);
+                    return;
+                }
+            }
+        }
+        appender.doAppend(logEventPack, new HealthTrackingCallback(listener));
+    }
+
+    /**
+     * Returns whether log event packs are currently stored in the spill
+     * instead of being delivered directly.
+     *
+     * @return true if the appender is spilling
+     */
+    public boolean isSpilling() {
+        return spilling;
+    }
+
+    private void store(LogEventPack logEventPack, LogDeliveryCallback listener) {
+        boolean stored;
+        try {
+            stored = spill.append(logEventPack);
+            if (!stored) {
+                LOG.warn("[{}] Log spill is full, rejecting log event pack [{}]", appender.getName(), logEventPack);
+            }
+        } catch (IOException e) {
+            LOG.warn("[{}] Failed to spill log event pack [{}]", appender.getName(), logEventPack, e);
+            stored = false;
+        }
+        if (stored) {
+            listener.onSuccess();
+        } else {
+            listener.onConnectionError();
+        }
+    }
+
+    private void replay() {
+        try {
+            spill.flush();
+            if (!spilling) {
+                return;
+            }
+            LogEventPack logEventPack;
+            while ((logEventPack = spill.peek()) != null) {
+                ReplayCallback callback = new ReplayCallback();
+                appender.doAppend(logEventPack, callback);
+                if (!callback.await(replayTimeout)) {
+                    LOG.debug("[{}] Log appender is still unavailable, {} bytes left in spill", appender.getName(), spill.getSize());
+                    return;
+                }
+                if (callback.rejected) {
+                    LOG.warn("[{}] Log appender rejected spilled log event pack [{}], dropping it", appender.getName(), logEventPack);
+                }
+                spill.remove();
+            }
+            synchronized (spill) {
+                if (spill.peek() == null) {
+                    LOG.info("[{}] Log spill is replayed, resuming direct delivery", appender.getName());
+                    spilling = false;
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (Exception e) {
+            LOG.warn("[{}] Failed to replay log spill", appender.getName(), e);
+        }
+    }
+
+    private void onAppenderFailure() {
+        if (!spilling) {
+            synchronized (spill) {
+                if (!spilling) {
+                    LOG.warn("[{}] Log appender is unavailable, spilling log event packs", appender.getName());
+                    spilling = true;
+                }
+            }
+        }
+    }
+
+    @Override
+    public void setName(String name) {
+        appender.setName(name);
+    }
+
+    @Override
+    public String getName() {
+        return appender.getName();
+    }
+
+    @Override
+    public void setAppenderId(String appenderId) {
+        appender.setAppenderId(appenderId);
+    }
+
+    @Override
+    public String getAppenderId() {
+        return appender.getAppenderId();
+    }
+
+    @Override
+    public void setApplicationToken(String applicationToken) {
+        appender.setApplicationToken(applicationToken);
+    }
+
+    @Override
+    public void init(LogAppenderDto appenderDto) {
+        appender.init(appenderDto);
+    }
+
+    @Override
+    public boolean isSchemaVersionSupported(int version) {
+        return appender.isSchemaVersionSupported(version);
+    }
+
+    @Override
+    public boolean isDeliveryConfirmationRequired() {
+        return appender.isDeliveryConfirmationRequired();
+    }
+
+    @Override
+    public void close() {
+        replayExecutor.shutdownNow();
+        try {
+            if (!replayExecutor.awaitTermination(SHUTDOWN_TIMEOUT_SECONDS, TimeUnit.SECONDS)) {
+                LOG.warn("[{}] Log spill replay did not terminate in time", appender.getName());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        synchronized (spill) {
+            try {
+                spill.close();
+            } catch (IOException e) {
+                LOG.warn("[{}] Failed to close log spill", appender.getName(), e);
+            }
+        }
+        appender.close();
+    }
+
+    @Override
+    public String toString() {
+        return "SpillingLogAppender [appender=" + appender + ", spilling=" + spilling + "]";
+    }
+
+    private final class HealthTrackingCallback implements LogDeliveryCallback {
+
+        private final LogDeliveryCallback listener;
+
+        private HealthTrackingCallback(LogDeliveryCallback listener) {
+            this.listener = listener;
+        }
+
+        @Override
+        public void onSuccess() {
+            listener.onSuccess();
+        }
+
+        @Override
+        public void onInternalError() {
+            listener.onInternalError();
+        }
+
+        @Override
+        public void onConnectionError() {
+            onAppenderFailure();
+            listener.onConnectionError();
+        }
+
+        @Override
+        public void onRemoteError() {
+            onAppenderFailure();
+            listener.onRemoteError();
+        }
+    }
+
+    /**
+     * Waits for the delivery of a replayed pack. An internal error means the
+     * pack itself can't be appended, so it is dropped instead of blocking the
+     * spill.
+     */
+    private static final class ReplayCallback implements LogDeliveryCallback {
+
+        private final CountDownLatch latch = new CountDownLatch(1);
+
+        private volatile boolean delivered;
+
+        private volatile boolean rejected;
+
+        private boolean await(long timeout) throws InterruptedException {
+            return latch.await(timeout, TimeUnit.MILLISECONDS) && (delivered || rejected);
+        }
+
+        @Override
+        public void onSuccess() {
+            delivered = true;
+            latch.countDown();
+        }
+
+        @Override
+        public void onInternalError() {
+            rejected = true;
+            latch.countDown();
+        }
+
+        @Override
+        public void onConnectionError() {
+            latch.countDown();
+        }
+
+        @Override
+        public void onRemoteError() {
+            latch.countDown();
+        }
+    }
+}
@@ -0,0 +1,100 @@
+/*
+ * Copyright 2014-2016 CyberVision, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.kaaproject.kaa.server.common.log.shared.appender;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.apache.avro.Schema;
+import org.apache.avro.Schema.Field;
+import org.apache.avro.generic.GenericData;
+import org.apache.avro.generic.GenericDatumWriter;
+import org.apache.avro.generic.GenericRecord;
+import org.apache.avro.io.BinaryEncoder;
+import org.apache.avro.io.EncoderFactory;
+import org.junit.Assert;
+import org.junit.Test;
+import org.kaaproject.kaa.common.avro.AvroByteArrayConverter;
+import org.kaaproject.kaa.common.dto.logs.LogAppenderDto;
+import org.kaaproject.kaa.server.common.log.shared.avro.gen.RecordHeader;
+
+public class AbstractLogAppenderTest {
+
+    private static final String ENDPOINT_KEY_HASH = "endpoint key hash";
+    private static final String APPLICATION_TOKEN = "application token";
+
+    @Test
+    public void decodeConfigurationTest() throws IOException {
+        RecordHeader configuration = new RecordHeader(ENDPOINT_KEY_HASH, APPLICATION_TOKEN, 1, 2L, 3);
+        byte[] rawConfiguration = new AvroByteArrayConverter<>(RecordHeader.class).toByteArray(configuration);
+        Assert.assertEquals(configuration, new TestLogAppender().decodeConfiguration(rawConfiguration));
+    }
+
+    @Test
+    public void decodeConfigurationWithoutAppendedFieldsTest() throws IOException {
+        Schema schema = RecordHeader.getClassSchema();
+        List<Field> fields = new ArrayList<>();
+        for (Field field : schema.getFields().subList(0, 2)) {
+            fields.add(new Field(field.name(), field.schema(), field.doc(), field.defaultValue()));
+        }
+        Schema storedSchema = Schema.createRecord(schema.getName(), schema.getDoc(), schema.getNamespace(), false);
+        storedSchema.setFields(fields);
+        GenericRecord storedConfiguration = new GenericData.Record(storedSchema);
+        storedConfiguration.put(0, ENDPOINT_KEY_HASH);
+        storedConfiguration.put(1, APPLICATION_TOKEN);
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        BinaryEncoder encoder = EncoderFactory.get().binaryEncoder(output, null);
+        new GenericDatumWriter<GenericRecord>(storedSchema).write(storedConfiguration, encoder);
+        encoder.flush();
+
+        RecordHeader configuration = new TestLogAppender().decodeConfiguration(output.toByteArray());
+        Assert.assertEquals(ENDPOINT_KEY_HASH, configuration.getEndpointKeyHash());
+        Assert.assertEquals(APPLICATION_TOKEN, configuration.getApplicationToken());
+        Assert.assertNull(configuration.getHeaderVersion());
+        Assert.assertNull(configuration.getTimestamp());
+        Assert.assertNull(configuration.getLogSchemaVersion());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void initWithInvalidConfigurationTest() {
+        LogAppenderDto appenderDto = new LogAppenderDto();
+        appenderDto.setRawConfiguration(new byte[] { -1 });
+        new TestLogAppender().init(appenderDto);
+    }
+
+    private static class TestLogAppender extends AbstractLogAppender<RecordHeader> {
+
+        private TestLogAppender() {
+            super(RecordHeader.class);
+        }
+
+        @Override
+        public void doAppend(LogEventPack logEventPack, RecordHeader header, LogDeliveryCallback listener) {
+        }
+
+        @Override
+        protected void initFromConfiguration(LogAppenderDto appender, RecordHeader configuration) {
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+}
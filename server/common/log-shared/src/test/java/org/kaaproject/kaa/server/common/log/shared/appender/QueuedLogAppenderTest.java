@@ -0,0 +1,113 @@
+/*
+ * Copyright 2014-2016 CyberVision, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.kaaproject.kaa.server.common.log.shared.appender;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.mockito.Mockito;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
+
+public class QueuedLogAppenderTest {
+
+    private static final int TIMEOUT = 5000;
+
+    @Test
+    public void appendTest() {
+        LogAppender appender = Mockito.mock(LogAppender.class);
+        LogEventPack logEventPack = Mockito.mock(LogEventPack.class);
+        LogDeliveryCallback callback = Mockito.mock(LogDeliveryCallback.class);
+        QueuedLogAppender queuedAppender = new QueuedLogAppender(appender, 10, 2);
+        try {
+            queuedAppender.doAppend(logEventPack, callback);
+            Mockito.verify(appender, Mockito.timeout(TIMEOUT)).doAppend(logEventPack, callback);
+            Mockito.verify(callback, Mockito.never()).onConnectionError();
+        } finally {
+            queuedAppender.close();
+        }
+        Mockito.verify(appender).close();
+    }
+
+    @Test
+    public void overloadTest() throws InterruptedException {
+        final CountDownLatch started = new CountDownLatch(1);
+        final CountDownLatch release = new CountDownLatch(1);
+        final CountDownLatch delivered = new CountDownLatch(2);
+        LogAppender appender = Mockito.mock(LogAppender.class);
+        Mockito.doAnswer(new Answer<Void>() {
+            @Override
+            public Void answer(InvocationOnMock invocation) throws Throwable {
+                started.countDown();
+                release.await();
+                delivered.countDown();
+                return null;
+            }
+        }).when(appender).doAppend(Mockito.any(LogEventPack.class), Mockito.any(LogDeliveryCallback.class));
+        LogEventPack logEventPack = Mockito.mock(LogEventPack.class);
+        LogDeliveryCallback first = Mockito.mock(LogDeliveryCallback.class);
+        LogDeliveryCallback second = Mockito.mock(LogDeliveryCallback.class);
+        LogDeliveryCallback rejected = Mockito.mock(LogDeliveryCallback.class);
+        QueuedLogAppender queuedAppender = new QueuedLogAppender(appender, 1, 1);
+        try {
+            queuedAppender.doAppend(logEventPack, first);
+            Assert.assertTrue(started.await(TIMEOUT, TimeUnit.MILLISECONDS));
+            queuedAppender.doAppend(logEventPack, second);
+            queuedAppender.doAppend(logEventPack, rejected);
+            Mockito.verify(rejected).onConnectionError();
+            Assert.assertEquals(1, queuedAppender.getQueueSize());
+            Assert.assertEquals(1, queuedAppender.getRejectedCount());
+
+            release.countDown();
+            Assert.assertTrue(delivered.await(TIMEOUT, TimeUnit.MILLISECONDS));
+            Mockito.verify(appender).doAppend(logEventPack, second);
+            Mockito.verify(appender, Mockito.never()).doAppend(logEventPack, rejected);
+        } finally {
+            release.countDown();
+            queuedAppender.close();
+        }
+    }
+
+    @Test
+    public void appenderFailureTest() {
+        LogAppender appender = Mockito.mock(LogAppender.class);
+        Mockito.doThrow(new RuntimeException()).when(appender)
+                .doAppend(Mockito.any(LogEventPack.class), Mockito.any(LogDeliveryCallback.class));
+        LogDeliveryCallback callback = Mockito.mock(LogDeliveryCallback.class);
+        QueuedLogAppender queuedAppender = new QueuedLogAppender(appender, 10, 1);
+        try {
+            queuedAppender.doAppend(Mockito.mock(LogEventPack.class), callback);
+            Mockito.verify(callback, Mockito.timeout(TIMEOUT)).onInternalError();
+        } finally {
+            queuedAppender.close();
+        }
+    }
+
+    @Test
+    public void appendAfterCloseTest() {
+        LogAppender appender = Mockito.mock(LogAppender.class);
+        LogDeliveryCallback callback = Mockito.mock(LogDeliveryCallback.class);
+        QueuedLogAppender queuedAppender = new QueuedLogAppender(appender, 10, 1);
+        queuedAppender.close();
+        queuedAppender.doAppend(Mockito.mock(LogEventPack.class), callback);
+        Mockito.verify(callback).onConnectionError();
+        Assert.assertEquals(1, queuedAppender.getRejectedCount());
+        Mockito.verify(appender, Mockito.never()).doAppend(Mockito.any(LogEventPack.class), Mockito.any(LogDeliveryCallback.class));
+    }
+}
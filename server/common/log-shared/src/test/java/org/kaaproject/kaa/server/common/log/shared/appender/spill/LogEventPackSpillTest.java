@@ -0,0 +1,235 @@
+/*
+ * Copyright 2014-2016 CyberVision, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.kaaproject.kaa.server.common.log.shared.appender.spill;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.kaaproject.kaa.common.dto.EndpointProfileDataDto;
+import org.kaaproject.kaa.common.dto.logs.LogSchemaDto;
+import org.kaaproject.kaa.server.common.log.shared.appender.LogEvent;
+import org.kaaproject.kaa.server.common.log.shared.appender.LogEventPack;
+import org.kaaproject.kaa.server.common.log.shared.appender.LogSchema;
+import org.kaaproject.kaa.server.common.log.shared.appender.data.BaseLogEventPack;
+import org.kaaproject.kaa.server.common.log.shared.appender.data.BaseProfileInfo;
+import org.kaaproject.kaa.server.common.log.shared.appender.data.BaseSchemaInfo;
+
+public class LogEventPackSpillTest {
+
+    private static final String ENDPOINT_KEY = "endpoint key";
+    private static final String USER_ID = "user id";
+    private static final String LOG_SCHEMA = "{\"type\":\"record\",\"name\":\"Log\",\"fields\":[]}";
+    private static final String PROFILE_SCHEMA = "{\"type\":\"record\",\"name\":\"Profile\",\"fields\":[]}";
+    private static final long MAX_SIZE = 1024 * 1024;
+
+    private File directory;
+
+    @Before
+    public void before() throws IOException {
+        directory = Files.createTempDirectory("log-spill").toFile();
+    }
+
+    @After
+    public void after() throws IOException {
+        Files.walkFileTree(directory.toPath(), new SimpleFileVisitor<Path>() {
+            @Override
+            public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) throws IOException {
+                Files.delete(file);
+                return FileVisitResult.CONTINUE;
+            }
+
+            @Override
+            public FileVisitResult postVisitDirectory(Path dir, IOException exc) throws IOException {
+                Files.delete(dir);
+                return FileVisitResult.CONTINUE;
+            }
+        });
+    }
+
+    @Test
+    public void appendAndReplayInOrderTest() throws IOException {
+        LogEventPackSpill spill = new LogEventPackSpill(directory, 200, MAX_SIZE, FsyncPolicy.ALWAYS, 0);
+        try {
+            for (int i = 0; i < 10; i++) {
+                Assert.assertTrue(spill.append(generateLogEventPack(i)));
+            }
+            Assert.assertTrue(directory.list((dir, name) -> name.endsWith(".spill")).length > 1);
+            for (int i = 0; i < 10; i++) {
+                assertLogEventPack(i, spill.peek());
+                spill.remove();
+            }
+            Assert.assertNull(spill.peek());
+            Assert.assertTrue(spill.isEmpty());
+            Assert.assertEquals(0, spill.getSize());
+            Assert.assertEquals(0, directory.list((dir, name) -> name.endsWith(".spill")).length);
+        } finally {
+            spill.close();
+        }
+    }
+
+    @Test
+    public void recoverAfterRestartTest() throws IOException {
+        LogEventPackSpill spill = new LogEventPackSpill(directory, MAX_SIZE, MAX_SIZE, FsyncPolicy.PERIODIC, 1000);
+        for (int i = 0; i < 3; i++) {
+            spill.append(generateLogEventPack(i));
+        }
+        spill.remove();
+        spill.close();
+
+        spill = new LogEventPackSpill(directory, MAX_SIZE, MAX_SIZE, FsyncPolicy.PERIODIC, 1000);
+        try {
+            Assert.assertFalse(spill.isEmpty());
+            for (int i = 1; i < 3; i++) {
+                assertLogEventPack(i, spill.peek());
+                spill.remove();
+            }
+            Assert.assertNull(spill.peek());
+        } finally {
+            spill.close();
+        }
+    }
+
+    @Test
+    public void restartAfterDrainTest() throws IOException {
+        LogEventPackSpill spill = new LogEventPackSpill(directory, MAX_SIZE, MAX_SIZE, FsyncPolicy.ALWAYS, 0);
+        for (int i = 0; i < 3; i++) {
+            spill.append(generateLogEventPack(i));
+        }
+        spill.remove();
+        spill.remove();
+        spill.close();
+
+        spill = new LogEventPackSpill(directory, MAX_SIZE, MAX_SIZE, FsyncPolicy.ALWAYS, 0);
+        assertLogEventPack(2, spill.peek());
+        spill.remove();
+        Assert.assertTrue(spill.isEmpty());
+        spill.close();
+
+        spill = new LogEventPackSpill(directory, MAX_SIZE, MAX_SIZE, FsyncPolicy.ALWAYS, 0);
+        spill.append(generateLogEventPack(3));
+        spill.close();
+
+        spill = new LogEventPackSpill(directory, MAX_SIZE, MAX_SIZE, FsyncPolicy.ALWAYS, 0);
+        try {
+            assertLogEventPack(3, spill.peek());
+        } finally {
+            spill.close();
+        }
+    }
+
+    @Test
+    public void discardTruncatedRecordTest() throws IOException {
+        LogEventPackSpill spill = new LogEventPackSpill(directory, MAX_SIZE, MAX_SIZE, FsyncPolicy.NEVER, 0);
+        spill.append(generateLogEventPack(0));
+        spill.append(generateLogEventPack(1));
+        spill.close();
+        File segment = directory.listFiles((dir, name) -> name.endsWith(".spill"))[0];
+        try (RandomAccessFile file = new RandomAccessFile(segment, "rw")) {
+            file.setLength(file.length() - 1);
+        }
+
+        spill = new LogEventPackSpill(directory, MAX_SIZE, MAX_SIZE, FsyncPolicy.NEVER, 0);
+        try {
+            assertLogEventPack(0, spill.peek());
+            spill.remove();
+            Assert.assertNull(spill.peek());
+            Assert.assertTrue(spill.isEmpty());
+        } finally {
+            spill.close();
+        }
+    }
+
+    @Test
+    public void maxSizeTest() throws IOException {
+        LogEventPackSpill spill = new LogEventPackSpill(directory, MAX_SIZE, 400, FsyncPolicy.NEVER, 0);
+        try {
+            Assert.assertTrue(spill.append(generateLogEventPack(0)));
+            boolean full = false;
+            for (int i = 1; i < 100 && !full; i++) {
+                full = !spill.append(generateLogEventPack(i));
+            }
+            Assert.assertTrue(full);
+            Assert.assertTrue(spill.getSize() <= 400);
+        } finally {
+            spill.close();
+        }
+    }
+
+    @Test(expected = IOException.class)
+    public void exclusiveDirectoryTest() throws IOException {
+        LogEventPackSpill spill = new LogEventPackSpill(directory, MAX_SIZE, MAX_SIZE, FsyncPolicy.NEVER, 0);
+        try {
+            new LogEventPackSpill(directory, MAX_SIZE, MAX_SIZE, FsyncPolicy.NEVER, 0);
+        } finally {
+            spill.close();
+        }
+    }
+
+    private static LogEventPack generateLogEventPack(int index) {
+        List<LogEvent> events = new ArrayList<>();
+        for (int i = 0; i <= index % 3; i++) {
+            LogEvent event = new LogEvent();
+            event.setLogData(new byte[] { (byte) index, (byte) i });
+            events.add(event);
+        }
+        EndpointProfileDataDto profileDto = new EndpointProfileDataDto("1", ENDPOINT_KEY + index, 1, "client body", 2, null);
+        BaseLogEventPack logEventPack = new BaseLogEventPack(profileDto, index, 3, events);
+        LogSchemaDto logSchemaDto = new LogSchemaDto();
+        logSchemaDto.setId("log schema id");
+        logSchemaDto.setApplicationId("application id");
+        logSchemaDto.setSchema(LOG_SCHEMA);
+        logSchemaDto.setVersion(3);
+        logEventPack.setLogSchema(new LogSchema(logSchemaDto));
+        logEventPack.setUserId(USER_ID);
+        logEventPack.setClientProfile(new BaseProfileInfo(new BaseSchemaInfo("client schema id", PROFILE_SCHEMA), "client body"));
+        return logEventPack;
+    }
+
+    private static void assertLogEventPack(int index, LogEventPack logEventPack) {
+        Assert.assertNotNull(logEventPack);
+        Assert.assertEquals(ENDPOINT_KEY + index, logEventPack.getEndpointKey());
+        Assert.assertEquals(USER_ID, logEventPack.getUserId());
+        Assert.assertEquals(index, logEventPack.getDateCreated());
+        Assert.assertEquals("log schema id", logEventPack.getLogSchema().getId());
+        Assert.assertEquals("application id", logEventPack.getLogSchema().getApplicationId());
+        Assert.assertEquals(LOG_SCHEMA, logEventPack.getLogSchema().getSchema());
+        Assert.assertEquals(3, logEventPack.getLogSchema().getVersion());
+        Assert.assertEquals("client schema id", logEventPack.getClientProfile().getSchemaId());
+        Assert.assertEquals(PROFILE_SCHEMA, logEventPack.getClientProfile().getSchema());
+        Assert.assertEquals("client body", logEventPack.getClientProfile().getBody());
+        Assert.assertNull(logEventPack.getServerProfile());
+        EndpointProfileDataDto profileDto = ((BaseLogEventPack) logEventPack).getProfileDto();
+        Assert.assertEquals(1, profileDto.getClientProfileVersion());
+        Assert.assertEquals(2, profileDto.getServerProfileVersion());
+        Assert.assertEquals(index % 3 + 1, logEventPack.getEvents().size());
+        for (int i = 0; i < logEventPack.getEvents().size(); i++) {
+            Assert.assertArrayEquals(new byte[] { (byte) index, (byte) i }, logEventPack.getEvents().get(i).getLogData());
+        }
+    }
+}
@@ -0,0 +1,103 @@
+/*
+ * Copyright 2014-2016 CyberVision, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.kaaproject.kaa.server.common.log.shared.appender.spill;
+
+import java.io.IOException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.kaaproject.kaa.server.common.log.shared.appender.LogAppender;
+import org.kaaproject.kaa.server.common.log.shared.appender.LogDeliveryCallback;
+import org.kaaproject.kaa.server.common.log.shared.appender.LogEventPack;
+import org.mockito.Mockito;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
+
+public class SpillingLogAppenderTest {
+
+    private static final int TIMEOUT = 5000;
+
+    @Test
+    public void spillWhileUnavailableTest() throws IOException {
+        final AtomicBoolean available = new AtomicBoolean(false);
+        LogAppender appender = Mockito.mock(LogAppender.class);
+        Mockito.doAnswer(new Answer<Void>() {
+            @Override
+            public Void answer(InvocationOnMock invocation) throws Throwable {
+                LogDeliveryCallback callback = (LogDeliveryCallback) invocation.getArguments()[1];
+                if (available.get()) {
+                    callback.onSuccess();
+                } else {
+                    callback.onConnectionError();
+                }
+                return null;
+            }
+        }).when(appender).doAppend(Mockito.any(LogEventPack.class), Mockito.any(LogDeliveryCallback.class));
+
+        LogEventPackSpill spill = Mockito.mock(LogEventPackSpill.class);
+        LogEventPack spilled = Mockito.mock(LogEventPack.class);
+        Mockito.when(spill.isEmpty()).thenReturn(true);
+        Mockito.when(spill.append(spilled)).thenReturn(true);
+        Mockito.when(spill.peek()).thenReturn(spilled, (LogEventPack) null);
+
+        SpillingLogAppender spillingAppender = new SpillingLogAppender(appender, spill, 10, TIMEOUT);
+        try {
+            LogDeliveryCallback failed = Mockito.mock(LogDeliveryCallback.class);
+            spillingAppender.doAppend(Mockito.mock(LogEventPack.class), failed);
+            Mockito.verify(failed).onConnectionError();
+            Assert.assertTrue(spillingAppender.isSpilling());
+
+            LogDeliveryCallback accepted = Mockito.mock(LogDeliveryCallback.class);
+            spillingAppender.doAppend(spilled, accepted);
+            Mockito.verify(spill).append(spilled);
+            Mockito.verify(accepted).onSuccess();
+
+            available.set(true);
+            Mockito.verify(spill, Mockito.timeout(TIMEOUT)).remove();
+            long deadline = System.currentTimeMillis() + TIMEOUT;
+            while (spillingAppender.isSpilling() && System.currentTimeMillis() < deadline) {
+                Thread.yield();
+            }
+            Assert.assertFalse(spillingAppender.isSpilling());
+            Mockito.verify(appender).doAppend(Mockito.eq(spilled), Mockito.any(LogDeliveryCallback.class));
+        } finally {
+            spillingAppender.close();
+        }
+        Mockito.verify(spill).close();
+        Mockito.verify(appender).close();
+    }
+
+    @Test
+    public void rejectWhenSpillIsFullTest() throws IOException {
+        LogAppender appender = Mockito.mock(LogAppender.class);
+        LogEventPackSpill spill = Mockito.mock(LogEventPackSpill.class);
+        Mockito.when(spill.isEmpty()).thenReturn(false);
+        Mockito.when(spill.append(Mockito.any(LogEventPack.class))).thenReturn(false);
+
+        SpillingLogAppender spillingAppender = new SpillingLogAppender(appender, spill, TIMEOUT, TIMEOUT);
+        try {
+            Assert.assertTrue(spillingAppender.isSpilling());
+            LogDeliveryCallback callback = Mockito.mock(LogDeliveryCallback.class);
+            spillingAppender.doAppend(Mockito.mock(LogEventPack.class), callback);
+            Mockito.verify(callback).onConnectionError();
+            Mockito.verify(appender, Mockito.never()).doAppend(Mockito.any(LogEventPack.class), Mockito.any(LogDeliveryCallback.class));
+        } finally {
+            spillingAppender.close();
+        }
+    }
+}
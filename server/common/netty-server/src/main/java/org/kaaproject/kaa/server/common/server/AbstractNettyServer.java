@@ -69,6 +69,16 @@ public abstract class AbstractNettyServer extends Thread {
 
     protected abstract ChannelInitializer<SocketChannel> configureInitializer() throws Exception;
 
+    /**
+     * Allows subclasses to set options of the accepted channels, e.g. write
+     * buffer water marks.
+     *
+     * @param bootstrap
+     *            the server bootstrap
+     */
+    protected void configureChildOptions(ServerBootstrap bootstrap) {
+    }
+
     /**
      * Netty HTTP server initialization.
      */
@@ -88,6 +98,7 @@ public abstract class AbstractNettyServer extends Thread {
             LOG.debug("NettyServer InitClass instance init()");
             bServer.group(bossGroup, workerGroup).channel(NioServerSocketChannel.class).childHandler(sInit)
                     .option(ChannelOption.SO_REUSEADDR, true);
+            configureChildOptions(bServer);
             LOG.debug("NettyServer ServerBootstrap group initialized");
             bindChannel = bServer.bind(bindAddress, bindPort).sync().channel();
         } catch (Exception e) {
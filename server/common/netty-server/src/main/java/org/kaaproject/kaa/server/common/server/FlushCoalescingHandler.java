@@ -0,0 +1,115 @@
+/*
+ * Copyright 2014-2016 CyberVision, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.kaaproject.kaa.server.common.server;
+
+import io.netty.channel.ChannelDuplexHandler;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.ChannelPromise;
+
+/**
+ * Outbound handler that coalesces flush requests of a channel. Instead of
+ * flushing on every request, the flush is postponed until the tasks that are
+ * already queued to the channel event loop are processed, so several responses
+ * written to the same channel during one event loop turn (e.g. a sync reply
+ * followed by notifications) reach the socket with a single write. The
+ * flush is performed immediately once the number of pending flush requests
+ * reaches the configured threshold, the channel becomes writable again or the
+ * channel is closed.
+ */
+public class FlushCoalescingHandler extends ChannelDuplexHandler {
+
+    public static final int DEFAULT_MAX_PENDING_FLUSHES = 16;
+
+    private final int maxPendingFlushes;
+
+    private int pendingFlushes;
+    private boolean flushScheduled;
+    private ChannelHandlerContext ctx;
+
+    private final Runnable flushTask = new Runnable() {
+        @Override
+        public void run() {
+            flushScheduled = false;
+            flushIfNeeded(ctx);
+        }
+    };
+
+    public FlushCoalescingHandler() {
+        this(DEFAULT_MAX_PENDING_FLUSHES);
+    }
+
+    /**
+     * Creates the handler.
+     *
+     * @param maxPendingFlushes
+     *            the number of flush requests after which the channel is
+     *            flushed without waiting for the end of the event loop turn.
+     *            Values less than 2 disable coalescing.
+     */
+    public FlushCoalescingHandler(int maxPendingFlushes) {
+        super();
+        this.maxPendingFlushes = maxPendingFlushes;
+    }
+
+    @Override
+    public void handlerAdded(ChannelHandlerContext ctx) throws Exception {
+        this.ctx = ctx;
+    }
+
+    @Override
+    public void flush(ChannelHandlerContext ctx) throws Exception {
+        pendingFlushes++;
+        if (pendingFlushes >= maxPendingFlushes) {
+            flushIfNeeded(ctx);
+        } else if (!flushScheduled) {
+            flushScheduled = true;
+            ctx.channel().eventLoop().execute(flushTask);
+        }
+    }
+
+    @Override
+    public void channelWritabilityChanged(ChannelHandlerContext ctx) throws Exception {
+        if (ctx.channel().isWritable()) {
+            flushIfNeeded(ctx);
+        }
+        ctx.fireChannelWritabilityChanged();
+    }
+
+    @Override
+    public void close(ChannelHandlerContext ctx, ChannelPromise promise) throws Exception {
+        flushIfNeeded(ctx);
+        ctx.close(promise);
+    }
+
+    @Override
+    public void disconnect(ChannelHandlerContext ctx, ChannelPromise promise) throws Exception {
+        flushIfNeeded(ctx);
+        ctx.disconnect(promise);
+    }
+
+    @Override
+    public void handlerRemoved(ChannelHandlerContext ctx) throws Exception {
+        flushIfNeeded(ctx);
+    }
+
+    private void flushIfNeeded(ChannelHandlerContext ctx) {
+        if (pendingFlushes > 0) {
+            pendingFlushes = 0;
+            ctx.flush();
+        }
+    }
+}
@@ -0,0 +1,76 @@
+/*
+ * Copyright 2014-2016 CyberVision, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.netty.http.server.common.server;
+
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.ChannelOutboundHandlerAdapter;
+import io.netty.channel.embedded.EmbeddedChannel;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.kaaproject.kaa.server.common.server.FlushCoalescingHandler;
+
+public class FlushCoalescingHandlerTest {
+
+    @Test
+    public void flushesOncePerEventLoopTurnTest() {
+        FlushCounter counter = new FlushCounter();
+        EmbeddedChannel channel = new EmbeddedChannel(counter, new FlushCoalescingHandler(10));
+        channel.write("first");
+        channel.flush();
+        channel.write("second");
+        channel.flush();
+        Assert.assertEquals(0, counter.flushes);
+        channel.runPendingTasks();
+        Assert.assertEquals(1, counter.flushes);
+        Assert.assertEquals("first", channel.readOutbound());
+        Assert.assertEquals("second", channel.readOutbound());
+        channel.runPendingTasks();
+        Assert.assertEquals(1, counter.flushes);
+    }
+
+    @Test
+    public void flushesWhenThresholdReachedTest() {
+        FlushCounter counter = new FlushCounter();
+        EmbeddedChannel channel = new EmbeddedChannel(counter, new FlushCoalescingHandler(2));
+        channel.writeAndFlush("first");
+        Assert.assertEquals(0, counter.flushes);
+        channel.writeAndFlush("second");
+        Assert.assertEquals(1, counter.flushes);
+        channel.runPendingTasks();
+        Assert.assertEquals(1, counter.flushes);
+    }
+
+    @Test
+    public void flushesOnCloseTest() {
+        FlushCounter counter = new FlushCounter();
+        EmbeddedChannel channel = new EmbeddedChannel(counter, new FlushCoalescingHandler(10));
+        channel.writeAndFlush("first");
+        channel.close();
+        Assert.assertEquals(1, counter.flushes);
+    }
+
+    private static class FlushCounter extends ChannelOutboundHandlerAdapter {
+        private int flushes;
+
+        @Override
+        public void flush(ChannelHandlerContext ctx) throws Exception {
+            flushes++;
+            super.flush(ctx);
+        }
+    }
+}
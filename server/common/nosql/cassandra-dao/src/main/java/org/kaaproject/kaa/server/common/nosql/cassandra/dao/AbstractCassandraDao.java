@@ -16,10 +16,16 @@
 
 package org.kaaproject.kaa.server.common.nosql.cassandra.dao;
 
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Semaphore;
 
+import org.kaaproject.kaa.server.common.dao.exception.DatabaseProcessingException;
 import org.kaaproject.kaa.server.common.nosql.cassandra.dao.client.CassandraClient;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -28,18 +34,25 @@ import org.springframework.beans.factory.annotation.Value;
 
 import com.datastax.driver.core.BatchStatement;
 import com.datastax.driver.core.ConsistencyLevel;
+import com.datastax.driver.core.PreparedStatement;
+import com.datastax.driver.core.RegularStatement;
 import com.datastax.driver.core.ResultSet;
+import com.datastax.driver.core.ResultSetFuture;
 import com.datastax.driver.core.Session;
 import com.datastax.driver.core.Statement;
 import com.datastax.driver.core.UserType;
 import com.datastax.driver.core.querybuilder.QueryBuilder;
 import com.datastax.driver.mapping.Mapper;
 import com.datastax.driver.mapping.Result;
+import com.google.common.util.concurrent.FutureCallback;
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.MoreExecutors;
 
 public abstract class AbstractCassandraDao<T, K> {
 
     private static final Logger LOG = LoggerFactory.getLogger(AbstractCassandraDao.class);
     private static final String KAA = "kaa";
+    private static final int DEFAULT_MAX_CONCURRENT_REQUESTS = 128;
 
     /**
      * Cassandra client classes.
@@ -53,9 +66,13 @@ public abstract class AbstractCassandraDao<T, K> {
     private String writeConsistencyLevel;
     @Value("#{cassandra_properties[batch_type]}")
     private String batchType;
+    @Value("#{cassandra_properties[max_concurrent_requests]}")
+    private Integer maxConcurrentRequests;
 
     private Session session;
 
+    private final ConcurrentMap<String, PreparedStatement> preparedStatements = new ConcurrentHashMap<>();
+
     protected abstract Class<T> getColumnFamilyClass();
 
     protected abstract String getColumnFamilyName();
@@ -88,6 +105,125 @@ public abstract class AbstractCassandraDao<T, K> {
         return list;
     }
 
+    /**
+     * Executes the read statements asynchronously with the read consistency
+     * level.
+     *
+     * @param statements the statements to execute
+     * @return the result sets in the order of the statements
+     * @see #executeAsync(List, ConsistencyLevel)
+     */
+    protected List<ResultSet> executeAsync(List<? extends Statement> statements) {
+        return executeAsync(statements, getReadConsistencyLevel());
+    }
+
+    /**
+     * Executes the statements asynchronously, keeping at most
+     * <code>max_concurrent_requests</code> of them in flight, and waits for
+     * all of them to complete. Single partition statements, such as bound
+     * prepared statements, are routed directly to a replica of the partition.
+     *
+     * @param statements the statements to execute
+     * @param consistencyLevel the consistency level of the statements
+     * @return the result sets in the order of the statements
+     */
+    protected List<ResultSet> executeAsync(List<? extends Statement> statements, ConsistencyLevel consistencyLevel) {
+        List<ResultSetFuture> futures = new ArrayList<>(statements.size());
+        Semaphore permits = new Semaphore(getMaxConcurrentRequests());
+        try {
+            for (Statement statement : statements) {
+                statement.setConsistencyLevel(consistencyLevel);
+                permits.acquire();
+                ResultSetFuture future = getSession().executeAsync(statement);
+                future.addListener(permits::release, MoreExecutors.directExecutor());
+                futures.add(future);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            for (ResultSetFuture future : futures) {
+                future.cancel(true);
+            }
+            throw new DatabaseProcessingException(e);
+        }
+        List<ResultSet> resultSets = new ArrayList<>(futures.size());
+        for (ResultSetFuture future : futures) {
+            resultSets.add(future.getUninterruptibly());
+        }
+        return resultSets;
+    }
+
+    /**
+     * Executes the read statement without blocking the calling thread and maps
+     * the first row of the result.
+     *
+     * @param statement the statement to execute
+     * @return the future of the found entity, completed with null if no row
+     *         matches
+     */
+    protected CompletableFuture<T> findOneByStatementAsync(Statement statement) {
+        return executeAsync(statement, getReadConsistencyLevel()).thenApply(resultSet -> getMapper().map(resultSet).one());
+    }
+
+    /**
+     * Executes the read statement without blocking the calling thread and maps
+     * all rows of the result. If the result has more than one page, the
+     * remaining pages are fetched by the asynchronous requests executor of the
+     * client, outside of the driver I/O threads.
+     *
+     * @param statement the statement to execute
+     * @return the future of the found entities
+     */
+    protected CompletableFuture<List<T>> findListByStatementAsync(Statement statement) {
+        return executeAsync(statement, getReadConsistencyLevel()).thenCompose(resultSet -> resultSet.isFullyFetched()
+                ? CompletableFuture.completedFuture(getMapper().map(resultSet).all())
+                : CompletableFuture.supplyAsync(() -> getMapper().map(resultSet).all(), cassandraClient.getAsyncExecutor()));
+    }
+
+    /**
+     * Executes the statement without blocking the calling thread. The returned
+     * future is completed by a driver I/O thread, so dependent stages must not
+     * block.
+     *
+     * @param statement the statement to execute
+     * @param consistencyLevel the consistency level of the statement
+     * @return the future of the result set
+     */
+    protected CompletableFuture<ResultSet> executeAsync(Statement statement, ConsistencyLevel consistencyLevel) {
+        statement.setConsistencyLevel(consistencyLevel);
+        CompletableFuture<ResultSet> result = new CompletableFuture<>();
+        Futures.addCallback(getSession().executeAsync(statement), new FutureCallback<ResultSet>() {
+            @Override
+            public void onSuccess(ResultSet resultSet) {
+                result.complete(resultSet);
+            }
+
+            @Override
+            public void onFailure(Throwable cause) {
+                result.completeExceptionally(cause);
+            }
+        }, MoreExecutors.directExecutor());
+        return result;
+    }
+
+    /**
+     * Returns the prepared form of the statement, preparing it on first use.
+     *
+     * @param statement the statement with bind markers
+     * @return the prepared statement
+     */
+    protected PreparedStatement prepare(RegularStatement statement) {
+        String query = statement.getQueryString();
+        PreparedStatement prepared = preparedStatements.get(query);
+        if (prepared == null) {
+            prepared = getSession().prepare(statement);
+            PreparedStatement existing = preparedStatements.putIfAbsent(query, prepared);
+            if (existing != null) {
+                prepared = existing;
+            }
+        }
+        return prepared;
+    }
+
     protected UserType getUserType(String userType) {
         return getSession().getCluster().getMetadata().getKeyspace(KAA).getUserType(userType);
     }
@@ -189,6 +325,10 @@ public abstract class AbstractCassandraDao<T, K> {
         return defaultConsistencyLevel;
     }
 
+    protected int getMaxConcurrentRequests() {
+        return maxConcurrentRequests != null && maxConcurrentRequests > 0 ? maxConcurrentRequests : DEFAULT_MAX_CONCURRENT_REQUESTS;
+    }
+
     protected BatchStatement.Type getBatchType() {
         BatchStatement.Type type = BatchStatement.Type.LOGGED;
         if (batchType != null && BatchStatement.Type.UNLOGGED.name().equalsIgnoreCase(batchType)) {
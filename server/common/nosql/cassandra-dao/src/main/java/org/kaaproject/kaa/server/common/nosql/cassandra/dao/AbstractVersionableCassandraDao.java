@@ -96,6 +96,31 @@ public abstract class AbstractVersionableCassandraDao<T extends HasVersion, K> e
         }
     }
     
+    /**
+     * Updates the given columns of the row matched by the key clause if the
+     * row still has the given version. The update is a lightweight
+     * transaction that writes only the given columns and the new version.
+     *
+     * @param keyClause   the clause that matches the row key
+     * @param version     the expected version of the row
+     * @param assignments the column assignments
+     * @return the new version of the row
+     */
+    protected long updateLocked(Clause keyClause, long version, Assignment... assignments) {
+        Assignments assigns = update(getColumnFamilyName()).onlyIf(eq(OPT_LOCK, version)).with(set(OPT_LOCK, version + 1));
+        for (Assignment assignment : assignments) {
+            assigns = assigns.and(assignment);
+        }
+        Update.Where query = assigns.where(keyClause);
+        query.setConsistencyLevel(getWriteConsistencyLevel());
+        ResultSet res = execute(query);
+        if (!res.wasApplied()) {
+            LOG.error("[{}] Can't update entity with version {}. Entity already changed!", getColumnFamilyClass(), version);
+            throw new KaaOptimisticLockingFailureException("Can't update entity with version " + version + ". Entity already changed!");
+        }
+        return version + 1;
+    }
+
     private T insertLocked(T entity) {
         Insert insert = insertInto(getColumnFamilyName()).ifNotExists();
         CassandraEntityMapper<T> entityMapper = CassandraEntityMapper.getEntityMapperForClass(getColumnFamilyClass(), cassandraClient);
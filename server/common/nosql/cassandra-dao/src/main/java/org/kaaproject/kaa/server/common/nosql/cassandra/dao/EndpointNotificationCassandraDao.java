@@ -16,6 +16,7 @@
 
 package org.kaaproject.kaa.server.common.nosql.cassandra.dao;
 
+import static com.datastax.driver.core.querybuilder.QueryBuilder.bindMarker;
 import static com.datastax.driver.core.querybuilder.QueryBuilder.delete;
 import static com.datastax.driver.core.querybuilder.QueryBuilder.eq;
 import static com.datastax.driver.core.querybuilder.QueryBuilder.select;
@@ -26,6 +27,7 @@ import static org.kaaproject.kaa.server.common.nosql.cassandra.dao.model.Cassand
 
 import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 import org.kaaproject.kaa.common.dto.EndpointNotificationDto;
 import org.kaaproject.kaa.server.common.dao.impl.EndpointNotificationDao;
@@ -36,6 +38,7 @@ import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Repository;
 
+import com.datastax.driver.core.PreparedStatement;
 import com.datastax.driver.core.Statement;
 import com.datastax.driver.core.querybuilder.QueryBuilder;
 import com.datastax.driver.core.querybuilder.Select;
@@ -70,6 +73,16 @@ public class EndpointNotificationCassandraDao extends AbstractCassandraDao<Cassa
         return cassandraEndpointNotifications;
     }
 
+    @Override
+    public CompletableFuture<List<CassandraEndpointNotification>> findNotificationsByKeyHashAsync(byte[] keyHash) {
+        LOG.debug("Try to find endpoint notifications by endpoint key hash {} asynchronously", keyHash);
+        if (keyHash == null) {
+            return CompletableFuture.completedFuture(Collections.<CassandraEndpointNotification>emptyList());
+        }
+        PreparedStatement query = prepare(select().from(getColumnFamilyName()).where(eq(ET_NF_ENDPOINT_KEY_HASH_PROPERTY, bindMarker())));
+        return findListByStatementAsync(query.bind(getByteBuffer(keyHash)));
+    }
+
     @Override
     public void removeNotificationsByKeyHash(byte[] keyHash) {
         LOG.debug("Remove endpoint notifications by endpoint key hash {}", keyHash);
@@ -17,10 +17,12 @@
 package org.kaaproject.kaa.server.common.nosql.cassandra.dao;
 
 import com.datastax.driver.core.ConsistencyLevel;
+import com.datastax.driver.core.PreparedStatement;
 import com.datastax.driver.core.ResultSet;
 import com.datastax.driver.core.Row;
 import com.datastax.driver.core.Statement;
 import com.datastax.driver.core.querybuilder.QueryBuilder;
+import com.datastax.driver.core.querybuilder.Select;
 import com.google.common.base.Predicates;
 import com.google.common.collect.Sets;
 import org.apache.commons.codec.binary.Base64;
@@ -31,7 +33,6 @@ import org.kaaproject.kaa.common.dto.EndpointProfilesPageDto;
 import org.kaaproject.kaa.common.dto.PageLinkDto;
 import org.kaaproject.kaa.server.common.dao.DaoConstants;
 import org.kaaproject.kaa.server.common.dao.exception.DatabaseProcessingException;
-import org.kaaproject.kaa.server.common.dao.exception.KaaOptimisticLockingFailureException;
 import org.kaaproject.kaa.server.common.dao.impl.EndpointProfileDao;
 import org.kaaproject.kaa.server.common.nosql.cassandra.dao.filter.CassandraEPByAccessTokenDao;
 import org.kaaproject.kaa.server.common.nosql.cassandra.dao.filter.CassandraEPByAppIdDao;
@@ -49,6 +50,7 @@ import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Repository;
 
+import javax.annotation.PreDestroy;
 import java.nio.ByteBuffer;
 import java.util.ArrayList;
 import java.util.Arrays;
@@ -57,7 +59,14 @@ import java.util.HashSet;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Set;
-
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import static com.datastax.driver.core.querybuilder.QueryBuilder.bindMarker;
 import static com.datastax.driver.core.querybuilder.QueryBuilder.delete;
 import static com.datastax.driver.core.querybuilder.QueryBuilder.eq;
 import static com.datastax.driver.core.querybuilder.QueryBuilder.in;
@@ -69,6 +78,8 @@ import static org.kaaproject.kaa.server.common.nosql.cassandra.dao.CassandraDaoU
 import static org.kaaproject.kaa.server.common.nosql.cassandra.dao.CassandraDaoUtil.getByteBuffer;
 import static org.kaaproject.kaa.server.common.nosql.cassandra.dao.CassandraDaoUtil.getBytes;
 import static org.kaaproject.kaa.server.common.nosql.cassandra.dao.model.CassandraModelConstants.EP_APP_ID_PROPERTY;
+import static org.kaaproject.kaa.server.common.nosql.cassandra.dao.model.CassandraModelConstants.EP_BY_ACCESS_TOKEN_ACCESS_TOKEN_PROPERTY;
+import static org.kaaproject.kaa.server.common.nosql.cassandra.dao.model.CassandraModelConstants.EP_BY_ACCESS_TOKEN_COLUMN_FAMILY_NAME;
 import static org.kaaproject.kaa.server.common.nosql.cassandra.dao.model.CassandraModelConstants.EP_BY_APP_ID_APPLICATION_ID_PROPERTY;
 import static org.kaaproject.kaa.server.common.nosql.cassandra.dao.model.CassandraModelConstants.EP_BY_APP_ID_COLUMN_FAMILY_NAME;
 import static org.kaaproject.kaa.server.common.nosql.cassandra.dao.model.CassandraModelConstants.EP_BY_APP_ID_ENDPOINT_KEY_HASH_PROPERTY;
@@ -84,12 +95,16 @@ import static org.kaaproject.kaa.server.common.nosql.cassandra.dao.model.Cassand
 import static org.kaaproject.kaa.server.common.nosql.cassandra.dao.model.CassandraModelConstants.EP_PROFILE_VERSION_PROPERTY;
 import static org.kaaproject.kaa.server.common.nosql.cassandra.dao.model.CassandraModelConstants.EP_SERVER_PROFILE_PROPERTY;
 import static org.kaaproject.kaa.server.common.nosql.cassandra.dao.model.CassandraModelConstants.EP_SERVER_PROFILE_VERSION_PROPERTY;
+import static org.kaaproject.kaa.server.common.nosql.cassandra.dao.model.CassandraModelConstants.EP_USER_ID_PROPERTY;
 
 @Repository(value = "endpointProfileDao")
 public class EndpointProfileCassandraDao extends AbstractVersionableCassandraDao<CassandraEndpointProfile, ByteBuffer> implements EndpointProfileDao<CassandraEndpointProfile> {
 
     private static final Logger LOG = LoggerFactory.getLogger(EndpointProfileCassandraDao.class);
-    
+
+    private static final int REMOVAL_PAGE_SIZE = 1000;
+    private static final int MAX_PENDING_REMOVALS = 16;
+
     @Autowired
     private CassandraEPByAppIdDao cassandraEPByAppIdDao;
     @Autowired
@@ -101,6 +116,11 @@ public class EndpointProfileCassandraDao extends AbstractVersionableCassandraDao
 
     private EndpointUserCassandraDao endpointUserDao;
 
+    private final ConcurrentMap<String, CompletableFuture<Void>> appRemovals = new ConcurrentHashMap<>();
+
+    private final ThreadPoolExecutor removalExecutor = new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<Runnable>(MAX_PENDING_REMOVALS), (removal, executor) -> removal.run());
+
     @Override
     protected Class<CassandraEndpointProfile> getColumnFamilyClass() {
         return CassandraEndpointProfile.class;
@@ -137,14 +157,13 @@ public class EndpointProfileCassandraDao extends AbstractVersionableCassandraDao
         if (accessToken != null) {
             statementList.add(cassandraEPByAccessTokenDao.getSaveQuery(new CassandraEPByAccessToken(accessToken, epKeyHash)));
         }
-        statementList.add(getSaveQuery(profile));
         Statement saveBySdkTokenId = cassandraEPBySdkTokenDao.getSaveQuery(new CassandraEPBySdkToken(profile.getSdkToken(), epKeyHash));
         statementList.add(saveBySdkTokenId);
         Set<String> groupIdSet = getEndpointProfilesGroupIdSet(profile);
         for (String groupId : groupIdSet) {
             statementList.add(cassandraEPByEndpointGroupIdDao.getSaveQuery(new CassandraEPByEndpointGroupId(groupId, epKeyHash)));
         }
-        executeBatch(statementList.toArray(new Statement[statementList.size()]));
+        executeIndexStatements(statementList);
         LOG.debug("[{}] Endpoint profile saved", profile.getId());
         return profile;
     }
@@ -163,31 +182,23 @@ public class EndpointProfileCassandraDao extends AbstractVersionableCassandraDao
 
             Set<String> removeEndpointGroupIds = Sets.filter(oldEndpointGroupIds, Predicates.not(Predicates.in(newEndpointGroupIds)));
             Set<String> addEndpointGroupIds = Sets.filter(newEndpointGroupIds, Predicates.not(Predicates.in(oldEndpointGroupIds)));
-            if (addEndpointGroupIds != null) {
-                for (String id : addEndpointGroupIds) {
-                    statementList.add(cassandraEPByEndpointGroupIdDao.getSaveQuery(new CassandraEPByEndpointGroupId(id, epKeyHash)));
-                }
-                if (removeEndpointGroupIds != null) {
-                    for (String id : removeEndpointGroupIds) {
-                        statementList.add(delete().from(EP_BY_ENDPOINT_GROUP_ID_COLUMN_FAMILY_NAME)
-                                .where(eq(EP_BY_ENDPOINT_GROUP_ID_ENDPOINT_GROUP_ID_PROPERTY, id))
-                                .and(eq(EP_BY_ENDPOINT_GROUP_ID_ENDPOINT_KEY_HASH_PROPERTY, epKeyHash)));
-                    }
-                }
-                executeBatch(statementList.toArray(new Statement[statementList.size()]));
-            } else {
-                LOG.error("[{}] Can't update endpoint profile with version {}. Endpoint profile already changed!", profile.getId(), profile.getVersion());
-                throw new KaaOptimisticLockingFailureException("Can't update endpoint profile with version . Endpoint profile already changed!");
+            for (String id : addEndpointGroupIds) {
+                statementList.add(cassandraEPByEndpointGroupIdDao.getSaveQuery(new CassandraEPByEndpointGroupId(id, epKeyHash)));
+            }
+            for (String id : removeEndpointGroupIds) {
+                statementList.add(getDeleteByEndpointGroupIdQuery(id, epKeyHash));
             }
 
             String accessToken = profile.getAccessToken();
-            if (storedProfile.getAccessToken() != null && !storedProfile.getAccessToken().equals(accessToken)) {
-                cassandraEPByAccessTokenDao.removeById(storedProfile.getAccessToken());
+            String storedAccessToken = storedProfile.getAccessToken();
+            if (storedAccessToken != null && !storedAccessToken.equals(accessToken)) {
+                statementList.add(prepare(delete().from(EP_BY_ACCESS_TOKEN_COLUMN_FAMILY_NAME)
+                        .where(eq(EP_BY_ACCESS_TOKEN_ACCESS_TOKEN_PROPERTY, bindMarker()))).bind(storedAccessToken));
             }
-            if (accessToken != null) {
+            if (accessToken != null && !accessToken.equals(storedAccessToken)) {
                 statementList.add(cassandraEPByAccessTokenDao.getSaveQuery(new CassandraEPByAccessToken(accessToken, epKeyHash)));
-            } 
-            executeBatch(statementList.toArray(new Statement[statementList.size()]));
+            }
+            executeIndexStatements(statementList);
             LOG.debug("[{}] Endpoint profile updated", profile.getId());
         } else {
             LOG.error("[{}] Stored profile is null. Can't update endpoint profile.", profile.getId());
@@ -196,6 +207,24 @@ public class EndpointProfileCassandraDao extends AbstractVersionableCassandraDao
         return profile;
     }
 
+    /**
+     * Writes the index table rows of an endpoint profile. Each row belongs to
+     * its own partition, so the statements are sent concurrently instead of
+     * as a multi-partition batch.
+     */
+    private void executeIndexStatements(List<Statement> statements) {
+        if (!statements.isEmpty()) {
+            LOG.trace("Execute index statements {}", statements);
+            executeAsync(statements, getWriteConsistencyLevel());
+        }
+    }
+
+    private Statement getDeleteByEndpointGroupIdQuery(String endpointGroupId, ByteBuffer epKeyHash) {
+        return prepare(delete().from(EP_BY_ENDPOINT_GROUP_ID_COLUMN_FAMILY_NAME)
+                .where(eq(EP_BY_ENDPOINT_GROUP_ID_ENDPOINT_GROUP_ID_PROPERTY, bindMarker()))
+                .and(eq(EP_BY_ENDPOINT_GROUP_ID_ENDPOINT_KEY_HASH_PROPERTY, bindMarker()))).bind(endpointGroupId, epKeyHash);
+    }
+
     @Override
     public CassandraEndpointProfile findByKeyHash(byte[] endpointKeyHash) {
         LOG.debug("Try to find endpoint profile by key hash [{}]", endpointKeyHash);
@@ -204,18 +233,31 @@ public class EndpointProfileCassandraDao extends AbstractVersionableCassandraDao
         return endpointProfile;
     }
 
+    @Override
+    public CompletableFuture<CassandraEndpointProfile> findByKeyHashAsync(byte[] endpointKeyHash) {
+        LOG.debug("Try to find endpoint profile by key hash [{}] asynchronously", endpointKeyHash);
+        PreparedStatement query = prepare(select().from(getColumnFamilyName()).where(eq(EP_EP_KEY_HASH_PROPERTY, bindMarker())));
+        return findOneByStatementAsync(query.bind(getByteBuffer(endpointKeyHash)));
+    }
+
     @Override
     public EndpointProfileBodyDto findBodyByKeyHash(byte[] endpointKeyHash) {
         LOG.debug("Try to find endpoint profile body by key hash [{}]", endpointKeyHash);
+        ResultSet resultSet = execute(selectBody().where(eq(EP_EP_KEY_HASH_PROPERTY, getByteBuffer(endpointKeyHash))));
+        return toBodyDto(endpointKeyHash, resultSet.one());
+    }
+
+    private Select selectBody() {
+        return select(EP_PROFILE_PROPERTY, EP_SERVER_PROFILE_PROPERTY, EP_APP_ID_PROPERTY, EP_PROFILE_VERSION_PROPERTY,
+                EP_SERVER_PROFILE_VERSION_PROPERTY).from(getColumnFamilyName());
+    }
+
+    private EndpointProfileBodyDto toBodyDto(byte[] endpointKeyHash, Row row) {
         String profile = null;
         String serverSideProfile = null;
         String appId = null;
         int clientSideProfileVersion = 0;
         int serverSideProfileVersion = 0;
-        ResultSet resultSet = execute(select(EP_PROFILE_PROPERTY, EP_SERVER_PROFILE_PROPERTY, EP_APP_ID_PROPERTY, EP_PROFILE_VERSION_PROPERTY,
-                EP_SERVER_PROFILE_VERSION_PROPERTY).from(getColumnFamilyName())
-                .where(eq(EP_EP_KEY_HASH_PROPERTY, getByteBuffer(endpointKeyHash))));
-        Row row = resultSet.one();
         if (row != null) {
             profile = row.getString(EP_PROFILE_PROPERTY);
             appId = row.getString(EP_APP_ID_PROPERTY);
@@ -244,58 +286,107 @@ public class EndpointProfileCassandraDao extends AbstractVersionableCassandraDao
         return profile;
     }
 
-    private void removeByKeyHashFromEpByEndpointGroupId(byte[] endpointKeyHash) {
-        CassandraEndpointProfile storedProfile = findByKeyHash(endpointKeyHash);
-        List<CassandraEndpointGroupState> cfGroupState = new ArrayList<>();
-        List<String> endpointGroupIds = new ArrayList<>();
+    /**
+     * Returns the statements that delete the endpoint profile row and its
+     * endpoint group index rows.
+     */
+    private List<Statement> getDeleteProfileQueries(CassandraEndpointProfile storedProfile, ByteBuffer epKeyHash) {
         List<Statement> statementList = new ArrayList<>();
-        if (storedProfile.getGroupStates() != null) {
-            cfGroupState.addAll(storedProfile.getGroupStates());
-        }
-        if (cfGroupState != null) {
-            for (CassandraEndpointGroupState cf : cfGroupState) {
-                endpointGroupIds.add(cf.getEndpointGroupId());
-            }
+        for (String id : getEndpointProfilesGroupIdSet(storedProfile)) {
+            statementList.add(getDeleteByEndpointGroupIdQuery(id, epKeyHash));
         }
-        if (endpointGroupIds != null) {
-            for (String id : endpointGroupIds) {
-                statementList.add(delete().from(EP_BY_ENDPOINT_GROUP_ID_COLUMN_FAMILY_NAME)
-                        .where(eq(EP_BY_ENDPOINT_GROUP_ID_ENDPOINT_GROUP_ID_PROPERTY, id))
-                        .and(eq(EP_BY_ENDPOINT_GROUP_ID_ENDPOINT_KEY_HASH_PROPERTY, getByteBuffer(endpointKeyHash))));
-            }
-        }
-        Statement[] st = new Statement[statementList.size()];
-        statementList.toArray(st);
-        executeBatch(st);
+        statementList.add(prepare(delete().from(getColumnFamilyName()).where(eq(EP_EP_KEY_HASH_PROPERTY, bindMarker()))).bind(epKeyHash));
+        return statementList;
     }
 
     @Override
     public void removeByKeyHash(byte[] endpointKeyHash) {
         LOG.debug("Remove endpoint profile by key hash [{}]", endpointKeyHash);
+        ByteBuffer epKeyHash = getByteBuffer(endpointKeyHash);
         CassandraEndpointProfile storedProfile = findByKeyHash(endpointKeyHash);
-        removeByKeyHashFromEpByEndpointGroupId(endpointKeyHash);
+        List<Statement> statementList = getDeleteProfileQueries(storedProfile, epKeyHash);
         String appId = storedProfile.getApplicationId();
         if (!appId.isEmpty()) {
-            Statement deleteEp = delete().from(EP_BY_APP_ID_COLUMN_FAMILY_NAME).where(eq(EP_BY_APP_ID_APPLICATION_ID_PROPERTY, appId))
-                    .and(eq(EP_BY_APP_ID_ENDPOINT_KEY_HASH_PROPERTY, getByteBuffer(endpointKeyHash)));
-            executeBatch(deleteEp);
+            statementList.add(prepare(delete().from(EP_BY_APP_ID_COLUMN_FAMILY_NAME)
+                    .where(eq(EP_BY_APP_ID_APPLICATION_ID_PROPERTY, bindMarker()))
+                    .and(eq(EP_BY_APP_ID_ENDPOINT_KEY_HASH_PROPERTY, bindMarker()))).bind(appId, epKeyHash));
         }
-        getMapper().delete(getByteBuffer(endpointKeyHash));
+        executeIndexStatements(statementList);
     }
 
+    /**
+     * Removes the endpoint profiles of the application in the background, so
+     * the admin request that deletes the application does not wait for it.
+     * Removals run one at a time, and each page of profiles is removed with
+     * at most the configured number of concurrent requests. Once the queue of
+     * pending removals is full, the caller runs the removal itself.
+     */
     @Override
     public void removeByAppId(String appId) {
         LOG.debug("Remove endpoint profile by application id [{}]", appId);
-        Statement deleteEps = delete().from(getColumnFamilyName()).where(in(EP_EP_KEY_HASH_PROPERTY, cassandraEPByAppIdDao.getEPIdsListByAppId(appId)));
-        ByteBuffer[] epKeyHashList = cassandraEPByAppIdDao.getEPIdsListByAppId(appId);
-        if (epKeyHashList != null) {
-            for (ByteBuffer epKeyHash : epKeyHashList) {
-                removeByKeyHashFromEpByEndpointGroupId(getBytes(epKeyHash));
+        removeByAppIdAsync(appId);
+    }
+
+    CompletableFuture<Void> removeByAppIdAsync(String appId) {
+        CompletableFuture<Void> removal = new CompletableFuture<>();
+        CompletableFuture<Void> pending = appRemovals.putIfAbsent(appId, removal);
+        if (pending != null) {
+            LOG.debug("[{}] Endpoint profiles of application are already being removed", appId);
+            return pending;
+        }
+        removal.whenComplete((result, e) -> {
+            appRemovals.remove(appId, removal);
+            if (e != null) {
+                LOG.error("[{}] Failed to remove endpoint profiles of application", appId, e);
+            }
+        });
+        removalExecutor.execute(() -> {
+            try {
+                removeEndpointProfilesByAppId(appId);
+                removal.complete(null);
+            } catch (RuntimeException e) {
+                removal.completeExceptionally(e);
+            }
+        });
+        return removal;
+    }
+
+    /**
+     * The application index partition is scanned page by page, the profiles
+     * of each page are removed with concurrent prepared requests, and the
+     * partition itself is removed last.
+     */
+    private void removeEndpointProfilesByAppId(String appId) {
+        Statement scan = select(EP_BY_APP_ID_ENDPOINT_KEY_HASH_PROPERTY).from(EP_BY_APP_ID_COLUMN_FAMILY_NAME)
+                .where(eq(EP_BY_APP_ID_APPLICATION_ID_PROPERTY, appId))
+                .setFetchSize(REMOVAL_PAGE_SIZE);
+        List<ByteBuffer> page = new ArrayList<>(REMOVAL_PAGE_SIZE);
+        long removed = 0;
+        for (Row row : execute(scan, getReadConsistencyLevel())) {
+            page.add(row.getBytes(EP_BY_APP_ID_ENDPOINT_KEY_HASH_PROPERTY));
+            if (page.size() == REMOVAL_PAGE_SIZE) {
+                removed += removeEndpointProfiles(page);
+                page.clear();
             }
         }
-        Statement deleteEpsByAppId = delete().from(EP_BY_APP_ID_COLUMN_FAMILY_NAME).where(eq(EP_BY_APP_ID_APPLICATION_ID_PROPERTY, appId));
-        executeBatch(deleteEps, deleteEpsByAppId);
-        LOG.trace("Execute statements {}, {} like batch", deleteEps, deleteEpsByAppId);
+        removed += removeEndpointProfiles(page);
+        execute(delete().from(EP_BY_APP_ID_COLUMN_FAMILY_NAME).where(eq(EP_BY_APP_ID_APPLICATION_ID_PROPERTY, appId)),
+                getWriteConsistencyLevel());
+        LOG.info("[{}] Removed {} endpoint profiles of application", appId, removed);
+    }
+
+    private int removeEndpointProfiles(List<ByteBuffer> keyHashList) {
+        List<Statement> statementList = new ArrayList<>();
+        for (CassandraEndpointProfile profile : findByKeyHashes(keyHashList.toArray(new ByteBuffer[keyHashList.size()]))) {
+            statementList.addAll(getDeleteProfileQueries(profile, profile.getEndpointKeyHash()));
+        }
+        executeIndexStatements(statementList);
+        return keyHashList.size();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        removalExecutor.shutdown();
     }
 
     @Override
@@ -310,30 +401,55 @@ public class EndpointProfileCassandraDao extends AbstractVersionableCassandraDao
         return endpointProfile;
     }
 
-    private List<EndpointProfileDto> findEndpointProfilesList(ByteBuffer[] keyHashList, String endpointGroupId) {
-        List<EndpointProfileDto> cassandraEndpointProfileList = new ArrayList<>();
-        LOG.debug("Found {} endpoint profiles by group id {}", keyHashList != null ? keyHashList.length : 0, endpointGroupId);
+    /**
+     * Finds the endpoint profiles by key hashes with concurrent single
+     * partition reads instead of one round trip per profile.
+     */
+    private List<CassandraEndpointProfile> findByKeyHashes(ByteBuffer[] keyHashList) {
+        List<CassandraEndpointProfile> profiles = new ArrayList<>();
+        if (keyHashList == null || keyHashList.length == 0) {
+            return profiles;
+        }
+        PreparedStatement query = prepare(select().from(getColumnFamilyName()).where(eq(EP_EP_KEY_HASH_PROPERTY, bindMarker())));
+        List<Statement> statements = new ArrayList<>(keyHashList.length);
         for (ByteBuffer keyHash : keyHashList) {
-            CassandraEndpointProfile profile = findByKeyHash(getBytes(keyHash));
+            statements.add(query.bind(keyHash));
+        }
+        List<ResultSet> resultSets = executeAsync(statements);
+        for (int i = 0; i < keyHashList.length; i++) {
+            CassandraEndpointProfile profile = getMapper().map(resultSets.get(i)).one();
             if (profile != null) {
-                cassandraEndpointProfileList.add(getDto(profile));
+                profiles.add(profile);
             } else {
-                LOG.debug("Can't find endpoint profile by id {}", keyHash);
+                LOG.debug("Can't find endpoint profile by id {}", keyHashList[i]);
             }
         }
+        return profiles;
+    }
+
+    private List<EndpointProfileDto> findEndpointProfilesList(ByteBuffer[] keyHashList, String endpointGroupId) {
+        List<EndpointProfileDto> cassandraEndpointProfileList = new ArrayList<>();
+        LOG.debug("Found {} endpoint profiles by group id {}", keyHashList != null ? keyHashList.length : 0, endpointGroupId);
+        for (CassandraEndpointProfile profile : findByKeyHashes(keyHashList)) {
+            cassandraEndpointProfileList.add(getDto(profile));
+        }
         return cassandraEndpointProfileList;
     }
 
     private List<EndpointProfileBodyDto> findEndpointProfilesBodyList(ByteBuffer[] keyHashList, String endpointGroupId) {
         List<EndpointProfileBodyDto> endpointProfilesBodyDto = new ArrayList<>();
         LOG.debug("Found {} endpoint profiles body by group id {}", keyHashList != null ? keyHashList.length : 0, endpointGroupId);
+        if (keyHashList == null || keyHashList.length == 0) {
+            return endpointProfilesBodyDto;
+        }
+        PreparedStatement query = prepare(selectBody().where(eq(EP_EP_KEY_HASH_PROPERTY, bindMarker())));
+        List<Statement> statements = new ArrayList<>(keyHashList.length);
         for (ByteBuffer keyHash : keyHashList) {
-            EndpointProfileBodyDto endpointProfileBodyDto = findBodyByKeyHash(getBytes(keyHash));
-            if (endpointProfileBodyDto != null) {
-                endpointProfilesBodyDto.add(endpointProfileBodyDto);
-            } else {
-                LOG.debug("Can't find endpoint profile by id {}", keyHash);
-            }
+            statements.add(query.bind(keyHash));
+        }
+        List<ResultSet> resultSets = executeAsync(statements);
+        for (int i = 0; i < keyHashList.length; i++) {
+            endpointProfilesBodyDto.add(toBodyDto(getBytes(keyHashList[i]), resultSets.get(i).one()));
         }
         return endpointProfilesBodyDto;
     }
@@ -382,9 +498,7 @@ public class EndpointProfileCassandraDao extends AbstractVersionableCassandraDao
         if (endpointUser != null) {
             List<String> ids = endpointUser.getEndpointIds();
             if (ids != null && !ids.isEmpty()) {
-                Statement select = select().from(getColumnFamilyName()).where(in(EP_EP_KEY_HASH_PROPERTY, convertStringIds(ids)));
-                LOG.trace("Execute statements {}", select);
-                profileList = findListByStatement(select);
+                profileList = findByKeyHashes(convertStringIds(ids));
             }
         }
         if (LOG.isTraceEnabled()) {
@@ -434,6 +548,12 @@ public class EndpointProfileCassandraDao extends AbstractVersionableCassandraDao
         return findById(key);
     }
 
+    @Override
+    public long updateEndpointUserId(byte[] keyHash, long version, String endpointUserId) {
+        LOG.debug("Updating endpoint user id for endpoint profile with key hash [{}] with version [{}]", keyHash, version);
+        return updateLocked(eq(EP_EP_KEY_HASH_PROPERTY, getByteBuffer(keyHash)), version, set(EP_USER_ID_PROPERTY, endpointUserId));
+    }
+
     private Set<String> getEndpointProfilesGroupIdSet(CassandraEndpointProfile profile) {
         Set<String> groupIdSet = new HashSet<>();
         List<CassandraEndpointGroupState> groupStateSet = new LinkedList<>();
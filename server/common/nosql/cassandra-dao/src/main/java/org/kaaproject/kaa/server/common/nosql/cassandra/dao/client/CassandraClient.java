@@ -22,6 +22,8 @@ import java.net.InetSocketAddress;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 import javax.annotation.PostConstruct;
 
@@ -35,6 +37,7 @@ import com.datastax.driver.core.ProtocolOptions.Compression;
 import com.datastax.driver.core.Session;
 import com.datastax.driver.mapping.Mapper;
 import com.datastax.driver.mapping.MappingManager;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 
 @Component
 public class CassandraClient implements Closeable {
@@ -70,6 +73,7 @@ public class CassandraClient implements Closeable {
     private Cluster cluster;
     private Session session;
     private MappingManager mappingManager;
+    private ExecutorService asyncExecutor;
 
 
     public Session getSession() {
@@ -87,6 +91,17 @@ public class CassandraClient implements Closeable {
         return getMappingManager().mapper(clazz);
     }
 
+    /**
+     * Returns the executor for the work of asynchronous requests that may
+     * block, such as fetching the remaining pages of a result set. Such work
+     * must not run on the driver I/O threads or in the common pool.
+     *
+     * @return the asynchronous requests executor
+     */
+    public ExecutorService getAsyncExecutor() {
+        return asyncExecutor;
+    }
+
     private MappingManager getMappingManager() {
         if (mappingManager == null) {
             mappingManager = new MappingManager(getSession());
@@ -112,6 +127,8 @@ public class CassandraClient implements Closeable {
         builder.withQueryOptions(clientOptions.getQueryOptions());
         builder.withCompression(parseCompression(compression));
         cluster = builder.build();
+        asyncExecutor = Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors(),
+                new ThreadFactoryBuilder().setNameFormat("cassandra-async-%d").setDaemon(true).build());
     }
 
     private List<InetSocketAddress> parseNodeList(String nodeList) {
@@ -149,6 +166,9 @@ public class CassandraClient implements Closeable {
 
     @Override
     public void close() {
+        if (asyncExecutor != null) {
+            asyncExecutor.shutdownNow();
+        }
         if (cluster != null) {
             cluster.close();
         }
@@ -0,0 +1,103 @@
+/*
+ * Copyright 2014-2016 CyberVision, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.kaaproject.kaa.server.common.nosql.cassandra.dao;
+
+import static com.datastax.driver.core.querybuilder.QueryBuilder.bindMarker;
+import static com.datastax.driver.core.querybuilder.QueryBuilder.eq;
+import static com.datastax.driver.core.querybuilder.QueryBuilder.select;
+import static org.kaaproject.kaa.server.common.nosql.cassandra.dao.model.CassandraModelConstants.EP_COLUMN_FAMILY_NAME;
+import static org.kaaproject.kaa.server.common.nosql.cassandra.dao.model.CassandraModelConstants.EP_EP_KEY_HASH_PROPERTY;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.kaaproject.kaa.common.dto.EndpointProfileDto;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.junit4.SpringJUnit4ClassRunner;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.datastax.driver.core.PreparedStatement;
+import com.datastax.driver.core.ResultSet;
+import com.datastax.driver.core.Row;
+import com.datastax.driver.core.Statement;
+
+@RunWith(SpringJUnit4ClassRunner.class)
+@ContextConfiguration(locations = "/cassandra-client-test-context.xml")
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_CLASS)
+public class AbstractCassandraDaoTest extends AbstractCassandraTest {
+
+    private static final int GENERATED_PROFILES_COUNT = 5;
+
+    private EndpointProfileCassandraDao dao;
+
+    @Before
+    public void before() {
+        dao = (EndpointProfileCassandraDao) endpointProfileDao;
+    }
+
+    @Test
+    public void testPrepare() throws Exception {
+        PreparedStatement first = dao.prepare(select().from(EP_COLUMN_FAMILY_NAME).where(eq(EP_EP_KEY_HASH_PROPERTY, bindMarker())));
+        PreparedStatement second = dao.prepare(select().from(EP_COLUMN_FAMILY_NAME).where(eq(EP_EP_KEY_HASH_PROPERTY, bindMarker())));
+        Assert.assertSame(first, second);
+    }
+
+    @Test
+    public void testExecuteAsync() throws Exception {
+        executeAsyncAndCheckOrder();
+    }
+
+    @Test
+    public void testExecuteAsyncWithSingleRequestInFlight() throws Exception {
+        Object maxConcurrentRequests = ReflectionTestUtils.getField(dao, "maxConcurrentRequests");
+        ReflectionTestUtils.setField(dao, "maxConcurrentRequests", 1);
+        try {
+            executeAsyncAndCheckOrder();
+        } finally {
+            ReflectionTestUtils.setField(dao, "maxConcurrentRequests", maxConcurrentRequests);
+        }
+    }
+
+    private void executeAsyncAndCheckOrder() {
+        PreparedStatement query = dao.prepare(select().from(EP_COLUMN_FAMILY_NAME).where(eq(EP_EP_KEY_HASH_PROPERTY, bindMarker())));
+        List<ByteBuffer> keyHashes = new ArrayList<>();
+        List<Statement> statements = new ArrayList<>();
+        for (int i = 0; i < GENERATED_PROFILES_COUNT; i++) {
+            EndpointProfileDto endpointProfile = generateEndpointProfile(null, null, null, null);
+            ByteBuffer keyHash = ByteBuffer.wrap(endpointProfile.getEndpointKeyHash());
+            keyHashes.add(keyHash);
+            statements.add(query.bind(keyHash));
+        }
+        statements.add(query.bind(ByteBuffer.wrap(generateBytes())));
+
+        List<ResultSet> resultSets = dao.executeAsync(statements);
+
+        Assert.assertEquals(statements.size(), resultSets.size());
+        for (int i = 0; i < keyHashes.size(); i++) {
+            Row row = resultSets.get(i).one();
+            Assert.assertNotNull(row);
+            Assert.assertEquals(keyHashes.get(i), row.getBytes(EP_EP_KEY_HASH_PROPERTY));
+        }
+        Assert.assertNull(resultSets.get(keyHashes.size()).one());
+    }
+}
@@ -48,6 +48,14 @@ public class EndpointNotificationCassandraDaoTest extends AbstractCassandraTest
         Assert.assertEquals(notifications.size(), found.size());
     }
 
+    @Test
+    public void testFindNotificationsByKeyHashAsync() throws Exception {
+        List<CassandraEndpointNotification> notifications = generateEndpointNotification(null, 2);
+        CassandraEndpointNotification notification = notifications.get(0);
+        List<CassandraEndpointNotification> found = unicastNotificationDao.findNotificationsByKeyHashAsync(notification.getEndpointKeyHash().array()).get();
+        Assert.assertEquals(notifications.size(), found.size());
+    }
+
     @Test
     public void testRemoveNotificationsByKeyHash() throws Exception {
         ByteBuffer epKeyHash = ByteBuffer.wrap(generateBytes());
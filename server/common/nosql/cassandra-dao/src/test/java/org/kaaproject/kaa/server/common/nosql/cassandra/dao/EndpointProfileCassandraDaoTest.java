@@ -179,6 +179,14 @@ public class EndpointProfileCassandraDaoTest extends AbstractCassandraTest {
         Assert.assertEquals(expected, found.toDto());
     }
 
+    @Test
+    public void testFindByKeyHashAsync() throws Exception {
+        EndpointProfileDto expected = generateEndpointProfile(null, null, null, null);
+        EndpointProfile found = endpointProfileDao.findByKeyHashAsync(expected.getEndpointKeyHash()).get();
+        Assert.assertEquals(expected, found.toDto());
+        Assert.assertNull(endpointProfileDao.findByKeyHashAsync(generateBytes()).get());
+    }
+
     @Test
     public void testFindEndpointIdByKeyHash() throws Exception {
         EndpointProfileDto endpointProfile = generateEndpointProfile(null, null, null, null);
@@ -242,6 +250,41 @@ public class EndpointProfileCassandraDaoTest extends AbstractCassandraTest {
         Assert.assertNotNull(found);
     }
 
+    @Test
+    public void testRemoveByAppId() throws Exception {
+        String appId = generateStringId();
+        String endpointGroupId = generateStringId();
+        List<EndpointProfileDto> removed = new ArrayList<>();
+        for (int i = 0; i < GENERATED_PROFILES_COUNT; i++) {
+            List<EndpointGroupStateDto> groupState = new ArrayList<>();
+            groupState.add(new EndpointGroupStateDto(endpointGroupId, null, null));
+            EndpointProfileDto profile = generateEndpointProfileForTestUpdate(null, generateBytes(), groupState);
+            profile.setApplicationId(appId);
+            removed.add(endpointProfileDao.save(profile).toDto());
+        }
+        EndpointProfileDto retained = generateEndpointProfile(null, null, null, null);
+        ((EndpointProfileCassandraDao) endpointProfileDao).removeByAppIdAsync(appId).get();
+        for (EndpointProfileDto profile : removed) {
+            Assert.assertNull(endpointProfileDao.findByKeyHash(profile.getEndpointKeyHash()));
+            Assert.assertNull(endpointProfileDao.findByAccessToken(profile.getAccessToken()));
+        }
+        PageLinkDto pageLink = new PageLinkDto(endpointGroupId, TEST_LIMIT, TEST_OFFSET);
+        Assert.assertTrue(endpointProfileDao.findByEndpointGroupId(pageLink).getEndpointProfiles().isEmpty());
+        Assert.assertNotNull(endpointProfileDao.findByKeyHash(retained.getEndpointKeyHash()));
+    }
+
+    @Test
+    public void testUpdateAccessToken() throws Exception {
+        EndpointProfileDto saved = endpointProfileDao.save(generateEndpointProfileForTestUpdate(null, generateBytes(), null)).toDto();
+        String oldAccessToken = saved.getAccessToken();
+        saved.setAccessToken(generateStringId());
+        endpointProfileDao.save(saved);
+        Assert.assertNull(endpointProfileDao.findByAccessToken(oldAccessToken));
+        EndpointProfile found = endpointProfileDao.findByAccessToken(saved.getAccessToken());
+        Assert.assertNotNull(found);
+        Assert.assertArrayEquals(saved.getEndpointKeyHash(), found.toDto().getEndpointKeyHash());
+    }
+
     @Test
     public void testFindById() throws Exception {
         EndpointProfileDto expected = generateEndpointProfile(null, null, null, null);
@@ -272,6 +315,48 @@ public class EndpointProfileCassandraDaoTest extends AbstractCassandraTest {
         Assert.assertEquals(endpointProfileDto, found.get(0).toDto());
     }
 
+    @Test
+    public void testFindByEndpointUserIdWithSeveralProfiles() throws Exception {
+        List<String> endpointIds = new ArrayList<>();
+        List<EndpointProfileDto> expected = new ArrayList<>();
+        for (int i = 0; i < GENERATED_PROFILES_COUNT; i++) {
+            EndpointProfileDto endpointProfileDto = generateEndpointProfile(null, null, null, null);
+            expected.add(endpointProfileDto);
+            endpointIds.add(endpointProfileDto.getId());
+            if (i == 1) {
+                // A missing profile is skipped
+                endpointIds.add(CassandraDaoUtil.convertKeyHashToString(generateBytes()));
+            }
+        }
+        EndpointUserDto endpointUserDto = generateEndpointUser(endpointIds);
+        List<CassandraEndpointProfile> found = endpointProfileDao.findByEndpointUserId(endpointUserDto.getId());
+        Assert.assertEquals(expected.size(), found.size());
+        for (int i = 0; i < expected.size(); i++) {
+            Assert.assertEquals(expected.get(i), found.get(i).toDto());
+        }
+    }
+
+    @Test
+    public void testUpdateEndpointUserId() throws Exception {
+        EndpointProfileDto endpointProfileDto = generateEndpointProfile(null, null, null, null);
+        byte[] keyHash = endpointProfileDto.getEndpointKeyHash();
+        long version = endpointProfileDao.findByKeyHash(keyHash).getVersion();
+        long updatedVersion = endpointProfileDao.updateEndpointUserId(keyHash, version, "user id");
+        Assert.assertEquals(version + 1, updatedVersion);
+        CassandraEndpointProfile found = endpointProfileDao.findByKeyHash(keyHash);
+        Assert.assertEquals("user id", found.getEndpointUserId());
+        Assert.assertEquals(updatedVersion, found.getVersion().longValue());
+    }
+
+    @Test(expected = KaaOptimisticLockingFailureException.class)
+    public void testUpdateEndpointUserIdWithStaleVersion() throws Exception {
+        EndpointProfileDto endpointProfileDto = generateEndpointProfile(null, null, null, null);
+        byte[] keyHash = endpointProfileDto.getEndpointKeyHash();
+        long version = endpointProfileDao.findByKeyHash(keyHash).getVersion();
+        endpointProfileDao.updateEndpointUserId(keyHash, version, "user id");
+        endpointProfileDao.updateEndpointUserId(keyHash, version, "other user id");
+    }
+
     @Test
     public void testCheckSdkToken() throws Exception {
         generateEndpointProfile(null, "alpha", null, null);
@@ -16,22 +16,42 @@
 
 package org.kaaproject.kaa.server.common.nosql.mongo.dao;
 
+import static org.kaaproject.kaa.server.common.nosql.mongo.dao.model.MongoModelConstants.ID;
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+import static org.springframework.data.mongodb.core.query.Query.query;
+
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
 
+import org.bson.types.ObjectId;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.mapping.PersistentPropertyAccessor;
 import org.springframework.data.mongodb.core.FindAndModifyOptions;
 import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.convert.MongoConverter;
+import org.springframework.data.mongodb.core.convert.QueryMapper;
+import org.springframework.data.mongodb.core.mapping.MongoPersistentEntity;
+import org.springframework.data.mongodb.core.mapping.MongoPersistentProperty;
 import org.springframework.data.mongodb.core.query.Query;
 import org.springframework.data.mongodb.core.query.Update;
 
+import com.mongodb.BasicDBObject;
+import com.mongodb.BulkWriteError;
+import com.mongodb.BulkWriteException;
+import com.mongodb.BulkWriteOperation;
 import com.mongodb.DBCollection;
+import com.mongodb.DBObject;
 
 public abstract class AbstractMongoDao<T, K> {
 
     private static final Logger LOG = LoggerFactory.getLogger(AbstractMongoDao.class);
 
+    private static final int DUPLICATE_KEY_CODE = 11000;
+
     protected FindAndModifyOptions returnNew = new FindAndModifyOptions().returnNew(true);
 
     @Autowired
@@ -73,11 +93,107 @@ public abstract class AbstractMongoDao<T, K> {
         return mongoTemplate.count(query, getDocumentClass());
     }
 
+    /**
+     * Returns the query that matches the document with the given id.
+     *
+     * @param key the document id
+     * @return the query in terms of the document class fields
+     */
+    protected Query findByIdQuery(K key) {
+        return query(where(ID).is(key));
+    }
+
+    /**
+     * Removes the documents matched by each of the queries with a single
+     * unordered bulk write.
+     *
+     * @param queries the queries in terms of the document class fields
+     */
+    protected void removeAll(List<Query> queries) {
+        if (!queries.isEmpty()) {
+            QueryMapper queryMapper = new QueryMapper(mongoTemplate.getConverter());
+            MongoPersistentEntity<?> entity = getPersistentEntity();
+            BulkWriteOperation operation = getPrimaryCollection().initializeUnorderedBulkOperation();
+            for (Query query : queries) {
+                operation.find(queryMapper.getMappedObject(query.getQueryObject(), entity)).remove();
+            }
+            execute(operation);
+        }
+    }
+
+    private MongoPersistentEntity<?> getPersistentEntity() {
+        return mongoTemplate.getConverter().getMappingContext().getPersistentEntity(getDocumentClass());
+    }
+
+    /**
+     * Executes the bulk write. A duplicate key error of any of the writes is
+     * reported as {@link DuplicateKeyException}, as it is for single
+     * document writes.
+     */
+    private void execute(BulkWriteOperation operation) {
+        try {
+            operation.execute();
+        } catch (BulkWriteException exception) {
+            for (BulkWriteError error : exception.getWriteErrors()) {
+                if (error.getCode() == DUPLICATE_KEY_CODE) {
+                    throw new DuplicateKeyException(error.getMessage(), exception);
+                }
+            }
+            throw exception;
+        }
+    }
+
+    /**
+     * Checks whether any document matches the query. Only the document id is
+     * fetched, and the result isn't mapped to the document class.
+     *
+     * @param query the query in terms of the stored field names
+     * @return true if a matching document exists
+     */
+    protected boolean exists(Query query) {
+        query.fields().include(ID);
+        return getPrimaryCollection().findOne(query.getQueryObject(), query.getFieldsObject()) != null;
+    }
+
     public T save(T dto) {
         mongoTemplate.save(dto);
         return dto;
     }
 
+    /**
+     * Inserts the given new documents with a single unordered bulk write. The
+     * documents without an id are assigned a new one, and the versioned
+     * documents start at version 0, as they do when saved one by one. A
+     * failed insert doesn't stop the others.
+     *
+     * @param documents the documents to insert
+     * @return the inserted documents
+     */
+    public List<T> insertAll(List<T> documents) {
+        LOG.debug("Insert {} documents into [{}] collection.", documents.size(), getCollectionName());
+        if (!documents.isEmpty()) {
+            MongoConverter converter = mongoTemplate.getConverter();
+            MongoPersistentEntity<?> entity = getPersistentEntity();
+            MongoPersistentProperty idProperty = entity.getIdProperty();
+            BulkWriteOperation operation = getPrimaryCollection().initializeUnorderedBulkOperation();
+            for (T document : documents) {
+                PersistentPropertyAccessor accessor = entity.getPropertyAccessor(document);
+                if (accessor.getProperty(idProperty) == null) {
+                    accessor.setProperty(idProperty, converter.getConversionService().convert(new ObjectId(), idProperty.getType()));
+                }
+                if (entity.hasVersionProperty() && accessor.getProperty(entity.getVersionProperty()) == null) {
+                    accessor.setProperty(entity.getVersionProperty(),
+                            converter.getConversionService().convert(0L, entity.getVersionProperty().getType()));
+                }
+                DBObject dbObject = new BasicDBObject();
+                converter.write(document, dbObject);
+                operation.insert(dbObject);
+            }
+            execute(operation);
+        }
+        return documents;
+    }
+
     public <V> V save(V dto, Class<?> clazz) {
         LOG.debug("Save entity of {} class", clazz.getName());
         mongoTemplate.save(dto);
@@ -101,9 +217,25 @@ public abstract class AbstractMongoDao<T, K> {
 
     public void removeById(K key) {
         LOG.debug("Remove document of collection [{}] by id [{}]", getCollectionName(), key);
-        T object = findById(key);
-        if (object != null) {
-            mongoTemplate.remove(object);
+        if (key != null) {
+            remove(query(where(ID).is(key)));
+        }
+    }
+
+    /**
+     * Removes the documents with the given ids with a single unordered bulk
+     * write.
+     *
+     * @param keys the document ids
+     */
+    public void removeAllById(Collection<K> keys) {
+        LOG.debug("Remove {} documents of collection [{}] by id", keys.size(), getCollectionName());
+        List<Query> queries = new ArrayList<>(keys.size());
+        for (K key : keys) {
+            if (key != null) {
+                queries.add(findByIdQuery(key));
+            }
         }
+        removeAll(queries);
     }
 }
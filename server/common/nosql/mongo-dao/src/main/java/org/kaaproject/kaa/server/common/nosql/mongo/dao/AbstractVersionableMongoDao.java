@@ -16,12 +16,21 @@
 
 package org.kaaproject.kaa.server.common.nosql.mongo.dao;
 
+import static org.kaaproject.kaa.server.common.dao.DaoConstants.OPT_LOCK;
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+
+import java.util.List;
+
 import org.kaaproject.kaa.common.dto.HasVersion;
 import org.kaaproject.kaa.server.common.dao.exception.KaaOptimisticLockingFailureException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.dao.DuplicateKeyException;
 import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import com.mongodb.WriteResult;
 
 public abstract class AbstractVersionableMongoDao<T extends HasVersion, K> extends AbstractMongoDao<T, K> {
     
@@ -41,4 +50,35 @@ public abstract class AbstractVersionableMongoDao<T extends HasVersion, K> exten
         }
     }
 
+    @Override
+    public List<T> insertAll(List<T> documents) {
+        try {
+            return super.insertAll(documents);
+        } catch (DuplicateKeyException exception) {
+            LOG.error("[{}] Can't insert entities. Entity already exists!", getDocumentClass());
+            throw new KaaOptimisticLockingFailureException("Can't insert entities. Entity already exists!");
+        }
+    }
+
+    /**
+     * Applies the given update to the document matched by the query if the
+     * document still has the given version. Only the fields set by the update
+     * are written, and the version is incremented.
+     *
+     * @param query   the query that matches a single document
+     * @param version the expected version of the document
+     * @param update  the field update
+     * @return the new version of the document
+     */
+    protected long updateLocked(Query query, long version, Update update) {
+        query.addCriteria(where(OPT_LOCK).is(version));
+        WriteResult result = mongoTemplate.updateFirst(query, update.inc(OPT_LOCK, 1L), getDocumentClass());
+        if (result.getN() == 0) {
+            LOG.error("[{}] Can't update entity with version {}. Entity already changed!", getDocumentClass(), version);
+            throw new KaaOptimisticLockingFailureException(
+                    "Can't update entity with version " + version + ". Entity already changed!");
+        }
+        return version + 1;
+    }
+
 }
@@ -69,10 +69,10 @@ public class CredentialsMongoDao extends AbstractMongoDao<MongoCredentials, Byte
     @Override
     public Optional<MongoCredentials> updateStatus(String applicationId, String credentialsId, CredentialsStatus status) {
         LOG.debug("Settings status [{}] for credentials [{}] in application [{}]", status, credentialsId, applicationId);
-        updateFirst(
+        return Optional.ofNullable(this.findAndModify(
                 Query.query(Criteria.where(MongoModelConstants.CREDENTIALS_ID).is(credentialsId).and(MongoModelConstants.APPLICATION_ID).is(applicationId)),
-                Update.update(MongoModelConstants.CREDENTIAL_STATUS, status));
-        return this.find(applicationId, credentialsId);
+                Update.update(MongoModelConstants.CREDENTIAL_STATUS, status),
+                returnNew));
     }
 
     @Override
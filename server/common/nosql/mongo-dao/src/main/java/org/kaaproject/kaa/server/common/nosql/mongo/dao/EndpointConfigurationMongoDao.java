@@ -28,6 +28,7 @@ import org.kaaproject.kaa.server.common.nosql.mongo.dao.model.MongoEndpointConfi
 import org.kaaproject.kaa.server.common.nosql.mongo.dao.model.MongoModelConstants;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.data.mongodb.core.query.Query;
 import org.springframework.stereotype.Repository;
 
 import com.mongodb.DBObject;
@@ -78,6 +79,11 @@ public class EndpointConfigurationMongoDao extends AbstractMongoDao<MongoEndpoin
         }
     }
 
+    @Override
+    protected Query findByIdQuery(ByteBuffer key) {
+        return query(where(ID).is(key.array()));
+    }
+
     @Override
     public MongoEndpointConfiguration save(EndpointConfigurationDto dto) {
         return save(new MongoEndpointConfiguration(dto));
@@ -18,6 +18,7 @@ package org.kaaproject.kaa.server.common.nosql.mongo.dao;
 
 import com.mongodb.DBObject;
 import com.mongodb.util.JSON;
+import org.bson.types.ObjectId;
 import org.kaaproject.kaa.common.dto.EndpointProfileBodyDto;
 import org.kaaproject.kaa.common.dto.EndpointProfileDto;
 import org.kaaproject.kaa.common.dto.EndpointProfilesBodyDto;
@@ -29,13 +30,14 @@ import org.kaaproject.kaa.server.common.nosql.mongo.dao.model.MongoEndpointProfi
 import org.kaaproject.kaa.server.common.nosql.mongo.dao.model.MongoDaoUtil;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.domain.Sort;
 import org.springframework.data.mongodb.core.query.Query;
 import org.springframework.stereotype.Repository;
 
 import java.nio.ByteBuffer;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.regex.Pattern;
 
 import static org.kaaproject.kaa.server.common.dao.DaoConstants.OPT_LOCK;
 import static org.kaaproject.kaa.server.common.dao.impl.DaoUtil.convertDtoList;
@@ -43,6 +45,7 @@ import static org.kaaproject.kaa.server.common.nosql.mongo.dao.model.MongoModelC
 import static org.kaaproject.kaa.server.common.nosql.mongo.dao.model.MongoModelConstants.ENDPOINT_PROFILE;
 import static org.kaaproject.kaa.server.common.nosql.mongo.dao.model.MongoModelConstants.EP_ACCESS_TOKEN;
 import static org.kaaproject.kaa.server.common.nosql.mongo.dao.model.MongoModelConstants.EP_APPLICATION_ID;
+import static org.kaaproject.kaa.server.common.nosql.mongo.dao.model.MongoModelConstants.EP_ENDPOINT_KEY;
 import static org.kaaproject.kaa.server.common.nosql.mongo.dao.model.MongoModelConstants.EP_ENDPOINT_KEY_HASH;
 import static org.kaaproject.kaa.server.common.nosql.mongo.dao.model.MongoModelConstants.EP_GROUP_STATE;
 import static org.kaaproject.kaa.server.common.nosql.mongo.dao.model.MongoModelConstants.EP_PROFILE_VERSION;
@@ -60,6 +63,8 @@ public class EndpointProfileMongoDao extends AbstractVersionableMongoDao<MongoEn
 
     private static final Logger LOG = LoggerFactory.getLogger(EndpointProfileMongoDao.class);
 
+    private static final Pattern NUMERIC_OFFSET = Pattern.compile("\\d{1,9}");
+
     @Override
     protected String getCollectionName() {
         return ENDPOINT_PROFILE;
@@ -70,19 +75,31 @@ public class EndpointProfileMongoDao extends AbstractVersionableMongoDao<MongoEn
         return MongoEndpointProfile.class;
     }
 
+    /**
+     * Builds the query of a page of endpoint profiles from the endpoint group.
+     * The profiles are ordered by id. A numeric offset skips that many
+     * profiles, any other offset is the id of the last profile of the previous
+     * page and the page starts right after it.
+     */
+    private Query findByEndpointGroupIdQuery(PageLinkDto pageLink, int lim) {
+        Query query = query(where(EP_GROUP_STATE + "." + ENDPOINT_GROUP_ID).is(pageLink.getEndpointGroupId()));
+        String offset = pageLink.getOffset();
+        if (NUMERIC_OFFSET.matcher(offset).matches()) {
+            query.skip(Integer.valueOf(offset));
+        } else {
+            query.addCriteria(where(ID).gt(ObjectId.isValid(offset) ? new ObjectId(offset) : offset));
+        }
+        return query.with(new Sort(ID)).limit(lim + 1);
+    }
+
     @Override
     public EndpointProfilesPageDto findByEndpointGroupId(PageLinkDto pageLink) {
         LOG.debug("Find endpoint profiles by endpoint group id [{}] ", pageLink.getEndpointGroupId());
         EndpointProfilesPageDto endpointProfilesPageDto = new EndpointProfilesPageDto();
         int lim = Integer.valueOf(pageLink.getLimit());
-        int offs = Integer.valueOf(pageLink.getOffset());
-        List<MongoEndpointProfile> mongoEndpointProfileList = find(query(new Criteria().orOperator(where(EP_GROUP_STATE + "." + ENDPOINT_GROUP_ID)
-                .is(pageLink.getEndpointGroupId()), where(EP_GROUP_STATE + "." + ENDPOINT_GROUP_ID).is(pageLink.getEndpointGroupId())))
-                .skip(offs)
-                .limit(lim + 1));
+        List<MongoEndpointProfile> mongoEndpointProfileList = find(findByEndpointGroupIdQuery(pageLink, lim));
         if (mongoEndpointProfileList.size() == (lim + 1)) {
-            String offset = Integer.toString(lim + offs);
-            pageLink.setOffset(offset);
+            pageLink.setOffset(mongoEndpointProfileList.get(lim - 1).getId());
             mongoEndpointProfileList.remove(lim);
         } else {
             pageLink.setNext(DaoConstants.LAST_PAGE_MESSAGE);
@@ -98,16 +115,12 @@ public class EndpointProfileMongoDao extends AbstractVersionableMongoDao<MongoEn
         EndpointProfilesBodyDto endpointProfilesBodyDto = new EndpointProfilesBodyDto();
         List<EndpointProfileBodyDto> profilesBody = new ArrayList<>();
         int lim = Integer.valueOf(pageLink.getLimit());
-        int offs = Integer.valueOf(pageLink.getOffset());
-        Query query = Query.query(new Criteria().orOperator(where(EP_GROUP_STATE + "." + ENDPOINT_GROUP_ID).is(pageLink.getEndpointGroupId()),
-                where(EP_GROUP_STATE + "." + ENDPOINT_GROUP_ID).is(pageLink.getEndpointGroupId())));
-        query.skip(offs).limit(lim + 1);
-        query.fields().include(DaoConstants.PROFILE).include(EP_SERVER_PROFILE_PROPERTY).include(EP_ENDPOINT_KEY_HASH).include(EP_APPLICATION_ID)
+        Query query = findByEndpointGroupIdQuery(pageLink, lim);
+        query.fields().include(ID).include(DaoConstants.PROFILE).include(EP_SERVER_PROFILE_PROPERTY).include(EP_ENDPOINT_KEY_HASH).include(EP_APPLICATION_ID)
                 .include(EP_PROFILE_VERSION).include(EP_SERVER_PROFILE_VERSION_PROPERTY);
         List<EndpointProfileDto> endpointProfileDtoList = convertDtoList(mongoTemplate.find(query, getDocumentClass()));
         if (endpointProfileDtoList.size() == (lim + 1)) {
-            String offset = Integer.toString(lim + offs);
-            pageLink.setOffset(offset);
+            pageLink.setOffset(endpointProfileDtoList.get(lim - 1).getId());
             endpointProfileDtoList.remove(lim);
         } else {
             pageLink.setNext(DaoConstants.LAST_PAGE_MESSAGE);
@@ -143,6 +156,15 @@ public class EndpointProfileMongoDao extends AbstractVersionableMongoDao<MongoEn
         return mongoTemplate.getConverter().read(getDocumentClass(), result);
     }
 
+    @Override
+    public MongoEndpointProfile findKeyAndVersionByKeyHash(byte[] endpointKeyHash) {
+        LOG.debug("Find endpoint profile key and version by endpoint key hash [{}] ", endpointKeyHash);
+        Query query = query(where(EP_ENDPOINT_KEY_HASH).is(endpointKeyHash));
+        query.fields().include(ID).include(EP_ENDPOINT_KEY).include(OPT_LOCK);
+        DBObject result = getPrimaryCollection().findOne(query.getQueryObject(), query.getFieldsObject());
+        return mongoTemplate.getConverter().read(getDocumentClass(), result);
+    }
+
     @Override
     public EndpointProfileBodyDto findBodyByKeyHash(byte[] endpointKeyHash) {
         LOG.debug("Find endpoint profile body by endpoint key hash [{}] ", endpointKeyHash);
@@ -150,14 +172,15 @@ public class EndpointProfileMongoDao extends AbstractVersionableMongoDao<MongoEn
         Query query = Query.query(where(EP_ENDPOINT_KEY_HASH).is(endpointKeyHash));
         query.fields().include(DaoConstants.PROFILE).include(EP_SERVER_PROFILE_PROPERTY).include(EP_APPLICATION_ID)
                 .include(EP_PROFILE_VERSION).include(EP_SERVER_PROFILE_VERSION_PROPERTY);
-        EndpointProfileDto pf = mongoTemplate.findOne(query, getDocumentClass()).toDto();
-        if (pf != null) {
+        MongoEndpointProfile found = mongoTemplate.findOne(query, getDocumentClass());
+        if (found != null) {
+            EndpointProfileDto pf = found.toDto();
             endpointProfileBodyDto = new EndpointProfileBodyDto(endpointKeyHash, pf.getClientProfileBody(), pf.getServerProfileBody(),
                     pf.getClientProfileVersion(), pf.getServerProfileVersion(), pf.getApplicationId());
+            LOG.debug("[{}] Found client-side endpoint profile body {} with client-side endpoint profile version {} and server-side endpoint profile body {} " +
+                    "with server-side endpoint profile version {} and application id {}", endpointKeyHash, pf.getClientProfileBody(), pf.getServerProfileBody(),
+                    pf.getClientProfileVersion(), pf.getServerProfileVersion(), pf.getApplicationId());
         }
-        LOG.debug("[{}] Found client-side endpoint profile body {} with client-side endpoint profile version {} and server-side endpoint profile body {} " +
-                "with server-side endpoint profile version {} and application id {}", endpointKeyHash, pf.getClientProfileBody(), pf.getServerProfileBody(),
-                pf.getClientProfileVersion(), pf.getServerProfileVersion(), pf.getApplicationId());
         return endpointProfileBodyDto;
     }
 
@@ -211,6 +234,11 @@ public class EndpointProfileMongoDao extends AbstractVersionableMongoDao<MongoEn
         }
     }
 
+    @Override
+    protected Query findByIdQuery(ByteBuffer key) {
+        return query(where(EP_ENDPOINT_KEY_HASH).is(key.array()));
+    }
+
     @Override
     public MongoEndpointProfile save(EndpointProfileDto dto) {
         return save(new MongoEndpointProfile(dto));
@@ -219,16 +247,23 @@ public class EndpointProfileMongoDao extends AbstractVersionableMongoDao<MongoEn
     @Override
     public boolean checkSdkToken(String sdkToken) {
         LOG.debug("Checking for endpoint profiles with SDK token {}", sdkToken);
-        return findOne(query(where(EP_SDK_TOKEN).is(sdkToken))) != null;
+        return exists(query(where(EP_SDK_TOKEN).is(sdkToken)));
     }
 
     @Override
     public MongoEndpointProfile updateServerProfile(byte[] keyHash, int version, String serverProfile) {
         LOG.debug("Update server endpoint profile for endpoint with key hash {}, schema version is {}", keyHash, version);
-        updateFirst(
+        return findAndModify(
                 query(where(EP_ENDPOINT_KEY_HASH).is(keyHash)),
                 update(EP_SERVER_PROFILE_PROPERTY, MongoDaoUtil.encodeReservedCharacteres((DBObject) JSON.parse(serverProfile)))
-                .set(EP_SERVER_PROFILE_VERSION_PROPERTY, version));
-        return findById(ByteBuffer.wrap(keyHash));
+                .set(EP_SERVER_PROFILE_VERSION_PROPERTY, version)
+                .inc(OPT_LOCK, 1L),
+                returnNew);
+    }
+
+    @Override
+    public long updateEndpointUserId(byte[] keyHash, long version, String endpointUserId) {
+        LOG.debug("Update endpoint user id for endpoint with key hash {}, version is {}", keyHash, version);
+        return updateLocked(query(where(EP_ENDPOINT_KEY_HASH).is(keyHash)), version, update(EP_USER_ID, endpointUserId));
     }
 }
@@ -17,6 +17,7 @@
 package org.kaaproject.kaa.server.common.nosql.mongo.dao;
 
 import static org.kaaproject.kaa.server.common.nosql.mongo.dao.model.MongoModelConstants.ENDPOINT_USER;
+import static org.kaaproject.kaa.server.common.nosql.mongo.dao.model.MongoModelConstants.EP_USER_ACCESS_TOKEN;
 import static org.kaaproject.kaa.server.common.nosql.mongo.dao.model.MongoModelConstants.EP_USER_EXTERNAL_ID;
 import static org.kaaproject.kaa.server.common.nosql.mongo.dao.model.MongoModelConstants.EP_USER_TENANT_ID;
 import static org.springframework.data.mongodb.core.query.Criteria.where;
@@ -69,14 +70,9 @@ public class EndpointUserMongoDao extends AbstractVersionableMongoDao<MongoEndpo
 
     @Override
     public boolean checkAccessToken(String externalId, String tenantId, String accessToken) {
-        MongoEndpointUser endpointUser = findByExternalIdAndTenantId(externalId, tenantId);
-        if (endpointUser == null) {
-            LOG.debug("Can't find user with external id {}", externalId);
-            return false;
-        } else {
-            String realAccessToken = endpointUser.getAccessToken();
-            return realAccessToken != null && realAccessToken.equals(accessToken);
-        }
+        LOG.debug("Check access token of user with external uid [{}] and tenant id [{}] ", externalId, tenantId);
+        return accessToken != null
+                && exists(query(where(EP_USER_EXTERNAL_ID).is(externalId).and(EP_USER_TENANT_ID).is(tenantId).and(EP_USER_ACCESS_TOKEN).is(accessToken)));
     }
 
     @Override
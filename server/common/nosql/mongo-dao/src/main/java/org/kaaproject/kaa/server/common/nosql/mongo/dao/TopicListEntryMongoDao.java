@@ -28,6 +28,7 @@ import org.kaaproject.kaa.server.common.nosql.mongo.dao.model.MongoModelConstant
 import org.kaaproject.kaa.server.common.nosql.mongo.dao.model.MongoTopicListEntry;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.data.mongodb.core.query.Query;
 import org.springframework.stereotype.Repository;
 
 import com.mongodb.DBObject;
@@ -65,4 +66,9 @@ public class TopicListEntryMongoDao extends AbstractMongoDao<MongoTopicListEntry
         LOG.debug("Remove  topic list entry by hash [{}] ", hash);
         remove(query(where(ID).is(hash)));
     }
+
+    @Override
+    protected Query findByIdQuery(ByteBuffer key) {
+        return query(where(ID).is(key.array()));
+    }
 }
@@ -20,7 +20,10 @@ package org.kaaproject.kaa.server.common.nosql.mongo.dao;
 import java.io.IOException;
 import java.nio.ByteBuffer;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 import java.util.UUID;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorService;
@@ -40,6 +43,7 @@ import org.kaaproject.kaa.common.dto.EndpointProfileDto;
 import org.kaaproject.kaa.common.dto.EndpointProfilesBodyDto;
 import org.kaaproject.kaa.common.dto.EndpointProfilesPageDto;
 import org.kaaproject.kaa.common.dto.PageLinkDto;
+import org.kaaproject.kaa.server.common.dao.DaoConstants;
 import org.kaaproject.kaa.server.common.dao.exception.KaaOptimisticLockingFailureException;
 import org.kaaproject.kaa.server.common.dao.model.EndpointProfile;
 import org.kaaproject.kaa.server.common.nosql.mongo.dao.model.MongoEndpointProfile;
@@ -87,6 +91,14 @@ public class EndpointProfileMongoDaoTest extends AbstractMongoTest {
         Assert.assertEquals(endpointProfile, found.toDto());
     }
 
+    @Test
+    public void testFindByKeyHashAsync() throws Exception {
+        EndpointProfileDto endpointProfile = generateEndpointProfileDto(null, null);
+        MongoEndpointProfile found = endpointProfileDao.findByKeyHashAsync(endpointProfile.getEndpointKeyHash()).get();
+        Assert.assertNotNull(found);
+        Assert.assertEquals(endpointProfile, found.toDto());
+    }
+
     @Test
     public void findBodyByKeyHashTest() {
         EndpointProfileDto endpointProfile = generateEndpointProfileDto(null, null);
@@ -133,6 +145,29 @@ public class EndpointProfileMongoDaoTest extends AbstractMongoTest {
         Assert.assertEquals(lim, found.getEndpointProfiles().size());
     }
 
+    @Test
+    public void findByEndpointGroupIdCursorTest() {
+        for (int i = 0; i < GENERATED_PROFILES_COUNT; i++) {
+            generateEndpointProfileWithGroupIdDto(TEST_ENDPOINT_GROUP_ID);
+        }
+        Set<String> foundIds = new HashSet<>();
+        PageLinkDto pageLink = new PageLinkDto(TEST_ENDPOINT_GROUP_ID, TEST_LIMIT, TEST_OFFSET);
+        EndpointProfilesPageDto found = endpointProfileDao.findByEndpointGroupId(pageLink);
+        for (EndpointProfileDto endpointProfile : found.getEndpointProfiles()) {
+            foundIds.add(endpointProfile.getId());
+        }
+        Assert.assertNull(found.getPageLinkDto().getNext());
+        Assert.assertNotEquals(TEST_OFFSET, found.getPageLinkDto().getOffset());
+
+        pageLink = new PageLinkDto(TEST_ENDPOINT_GROUP_ID, TEST_LIMIT, found.getPageLinkDto().getOffset());
+        found = endpointProfileDao.findByEndpointGroupId(pageLink);
+        for (EndpointProfileDto endpointProfile : found.getEndpointProfiles()) {
+            foundIds.add(endpointProfile.getId());
+        }
+        Assert.assertEquals(DaoConstants.LAST_PAGE_MESSAGE, found.getPageLinkDto().getNext());
+        Assert.assertEquals(GENERATED_PROFILES_COUNT, foundIds.size());
+    }
+
     @Test
     public void findByEndpointGroupIdWithNfGroupStateTest() {
         for (int i = 0; i < GENERATED_PROFILES_COUNT; i++) {
@@ -213,6 +248,90 @@ public class EndpointProfileMongoDaoTest extends AbstractMongoTest {
         Assert.assertNull(found);
     }
     
+    @Test
+    public void testUpdateEndpointUserId() {
+        EndpointProfileDto endpointProfile = generateEndpointProfileDto(null, null);
+        byte[] keyHash = endpointProfile.getEndpointKeyHash();
+        long version = endpointProfileDao.findByKeyHash(keyHash).getVersion();
+        long updatedVersion = endpointProfileDao.updateEndpointUserId(keyHash, version, "user id");
+        Assert.assertEquals(version + 1, updatedVersion);
+        MongoEndpointProfile found = endpointProfileDao.findByKeyHash(keyHash);
+        Assert.assertEquals("user id", found.getEndpointUserId());
+        Assert.assertEquals(updatedVersion, found.getVersion().longValue());
+        Assert.assertArrayEquals(endpointProfile.getEndpointKey(), found.getEndpointKey());
+    }
+
+    @Test(expected = KaaOptimisticLockingFailureException.class)
+    public void testUpdateEndpointUserIdWithStaleVersion() {
+        EndpointProfileDto endpointProfile = generateEndpointProfileDto(null, null);
+        byte[] keyHash = endpointProfile.getEndpointKeyHash();
+        long version = endpointProfileDao.findByKeyHash(keyHash).getVersion();
+        endpointProfileDao.updateEndpointUserId(keyHash, version, "user id");
+        endpointProfileDao.updateEndpointUserId(keyHash, version, "other user id");
+    }
+
+    @Test
+    public void testCheckSdkToken() {
+        EndpointProfileDto endpointProfile = generateEndpointProfileDto(null, null);
+        Assert.assertTrue(endpointProfileDao.checkSdkToken(endpointProfile.getSdkToken()));
+        Assert.assertFalse(endpointProfileDao.checkSdkToken("unknown sdk token"));
+    }
+
+    @Test
+    public void testUpdateServerProfile() {
+        EndpointProfileDto endpointProfile = generateEndpointProfileDto(null, null);
+        byte[] keyHash = endpointProfile.getEndpointKeyHash();
+        long version = endpointProfileDao.findByKeyHash(keyHash).getVersion();
+        MongoEndpointProfile updated = endpointProfileDao.updateServerProfile(keyHash, 2, "{\"name\":\"value\"}");
+        Assert.assertEquals(2, updated.getServerProfileVersion());
+        Assert.assertEquals(version + 1, updated.getVersion().longValue());
+        Assert.assertArrayEquals(endpointProfile.getEndpointKey(), updated.getEndpointKey());
+    }
+
+    @Test
+    public void testFindKeyAndVersionByKeyHash() {
+        EndpointProfileDto endpointProfile = generateEndpointProfileDto(null, null);
+        byte[] keyHash = endpointProfile.getEndpointKeyHash();
+        MongoEndpointProfile found = endpointProfileDao.findKeyAndVersionByKeyHash(keyHash);
+        Assert.assertEquals(endpointProfile.getId(), found.getId());
+        Assert.assertArrayEquals(endpointProfile.getEndpointKey(), found.getEndpointKey());
+        Assert.assertEquals(endpointProfileDao.findByKeyHash(keyHash).getVersion(), found.getVersion());
+        Assert.assertNull(found.getSdkToken());
+        Assert.assertNull(endpointProfileDao.findKeyAndVersionByKeyHash("unknown key hash".getBytes()));
+    }
+
+    @Test
+    public void testInsertAllAndRemoveAllById() {
+        List<MongoEndpointProfile> profiles = new ArrayList<>();
+        List<ByteBuffer> keyHashes = new ArrayList<>();
+        for (int i = 0; i < GENERATED_PROFILES_COUNT; i++) {
+            byte[] keyHash = generateStringId().getBytes();
+            profiles.add(new MongoEndpointProfile(generateEndpointProfileForTestUpdate(null, keyHash, new ArrayList<EndpointGroupStateDto>())));
+            keyHashes.add(ByteBuffer.wrap(keyHash));
+        }
+        EndpointProfileMongoDao dao = (EndpointProfileMongoDao) endpointProfileDao;
+        dao.insertAll(profiles);
+        for (MongoEndpointProfile profile : profiles) {
+            Assert.assertNotNull(profile.getId());
+            MongoEndpointProfile found = endpointProfileDao.findByKeyHash(profile.getEndpointKeyHash());
+            Assert.assertEquals(profile.getId(), found.getId());
+            Assert.assertEquals(0L, found.getVersion().longValue());
+        }
+
+        dao.removeAllById(keyHashes.subList(1, keyHashes.size()));
+        Assert.assertNotNull(endpointProfileDao.findByKeyHash(keyHashes.get(0).array()));
+        for (ByteBuffer keyHash : keyHashes.subList(1, keyHashes.size())) {
+            Assert.assertNull(endpointProfileDao.findByKeyHash(keyHash.array()));
+        }
+    }
+
+    @Test(expected = KaaOptimisticLockingFailureException.class)
+    public void testInsertAllExisting() {
+        EndpointProfileDto endpointProfile = generateEndpointProfileDto(null, null);
+        MongoEndpointProfile existing = new MongoEndpointProfile(endpointProfile);
+        ((EndpointProfileMongoDao) endpointProfileDao).insertAll(Arrays.asList(existing));
+    }
+
     @Test
     public void testUpdate() throws Exception {
         List<EndpointGroupStateDto> cfGroupStateSave = new ArrayList<EndpointGroupStateDto>();
@@ -116,6 +116,8 @@ public class EndpointUserMongoDaoTest extends AbstractTest {
         Assert.assertEquals(accessToken, found.getAccessToken());
         Assert.assertTrue(endpointUserDao.checkAccessToken(found.getExternalId(), found.getTenantId().toString(), accessToken));
         Assert.assertFalse(endpointUserDao.checkAccessToken(found.getTenantId().toString(), found.getExternalId(), "invalid"));
+        Assert.assertFalse(endpointUserDao.checkAccessToken(found.getExternalId(), found.getTenantId().toString(), "invalid"));
+        Assert.assertFalse(endpointUserDao.checkAccessToken(found.getExternalId(), found.getTenantId().toString(), null));
     }
 
     @Test
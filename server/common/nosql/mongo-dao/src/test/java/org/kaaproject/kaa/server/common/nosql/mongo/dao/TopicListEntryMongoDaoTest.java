@@ -33,7 +33,9 @@ import org.springframework.test.context.ContextConfiguration;
 import org.springframework.test.context.junit4.SpringJUnit4ClassRunner;
 
 import java.io.IOException;
+import java.nio.ByteBuffer;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 
 @RunWith(SpringJUnit4ClassRunner.class)
@@ -70,4 +72,22 @@ public class TopicListEntryMongoDaoTest extends AbstractMongoTest {
         MongoTopicListEntry topicListEntry = topicListEntryDao.findByHash(hash);
         Assert.assertEquals(simpleHash, topicListEntry.getSimpleHash());
     }
+
+    @Test
+    public void insertAllAndRemoveAllByIdTest() {
+        List<TopicDto> topics = new ArrayList<>();
+        topics.add(generateTopicDto(null, TopicTypeDto.OPTIONAL));
+        byte[] firstHash = "first hash".getBytes();
+        byte[] secondHash = "second hash".getBytes();
+        TopicListEntryMongoDao dao = (TopicListEntryMongoDao) topicListEntryDao;
+        dao.insertAll(Arrays.asList(
+                new MongoTopicListEntry(new TopicListEntryDto(1, firstHash, topics)),
+                new MongoTopicListEntry(new TopicListEntryDto(2, secondHash, topics))));
+        Assert.assertEquals(1, topicListEntryDao.findByHash(firstHash).getSimpleHash());
+        Assert.assertEquals(2, topicListEntryDao.findByHash(secondHash).getSimpleHash());
+
+        dao.removeAllById(Arrays.asList(ByteBuffer.wrap(firstHash), ByteBuffer.wrap(secondHash)));
+        Assert.assertNull(topicListEntryDao.findByHash(firstHash));
+        Assert.assertNull(topicListEntryDao.findByHash(secondHash));
+    }
 }
@@ -16,6 +16,7 @@
 
 package org.kaaproject.kaa.server.sync.platform;
 
+import java.nio.BufferUnderflowException;
 import java.nio.ByteBuffer;
 import java.nio.charset.Charset;
 import java.text.MessageFormat;
@@ -91,11 +92,12 @@ public class BinaryEncDec implements PlatformEncDec {
     private static final Logger LOG = LoggerFactory.getLogger(BinaryEncDec.class);
     private static final Charset UTF8 = Charset.forName("UTF-8");
     private static final ByteBuffer EMPTY_BUFFER = ByteBuffer.wrap(new byte[0]);
-    private static final int DEFAULT_BUFFER_SIZE = 128;
     private static final int SIZE_OF_INT = 4;
+    private static final int SIZE_OF_LONG = 8;
     private static final int EXTENSIONS_COUNT_POSITION = 6;
     private static final int MIN_SIZE_OF_MESSAGE_HEADER = 8;
     private static final int MIN_SIZE_OF_EXTENSION_HEADER = 8;
+    private static final int META_DATA_SIZE = 8;
     private static final byte SUCCESS = 0x00;
 
     static final int PADDING_SIZE = 4;
@@ -192,10 +194,26 @@ public class BinaryEncDec implements PlatformEncDec {
         if (LOG.isTraceEnabled()) {
             LOG.trace("Decoding binary data {}", Arrays.toString(data));
         }
-        ByteBuffer buf = ByteBuffer.wrap(data);
+        return decode(ByteBuffer.wrap(data));
+    }
+
+    /**
+     * Decodes platform level data that is located between the current
+     * position and the limit of the given buffer. The buffer is read in place:
+     * no intermediate copy of the whole message is made and strings are
+     * decoded directly from the backing array of the buffer.
+     *
+     * @param buf
+     *            the buffer to decode
+     * @return the client sync
+     * @throws PlatformEncDecException
+     *             signals that decode exception has occurred.
+     */
+    public ClientSync decode(ByteBuffer buf) throws PlatformEncDecException {
+        buf = buf.slice();
         if (buf.remaining() < MIN_SIZE_OF_MESSAGE_HEADER) {
             throw new PlatformEncDecException(MessageFormat.format("Message header is to small {0} to be kaa binary message!",
-                    buf.capacity()));
+                    buf.remaining()));
         }
 
         int protocolId = buf.getInt();
@@ -219,7 +237,45 @@ public class BinaryEncDec implements PlatformEncDec {
     @Override
     public byte[] encode(ServerSync sync) throws PlatformEncDecException {
         LOG.trace("Encoding server sync {}", sync);
-        GrowingByteBuffer buf = new GrowingByteBuffer(DEFAULT_BUFFER_SIZE);
+        byte[] result = new byte[getEncodedSize(sync)];
+        int size = write(sync, ByteBuffer.wrap(result));
+        if (size < result.length) {
+            result = Arrays.copyOf(result, size);
+        }
+        if (LOG.isTraceEnabled()) {
+            LOG.trace("Encoded binary data {}", result);
+        }
+        return result;
+    }
+
+    /**
+     * Encodes {@link ServerSync} into the caller-provided buffer, starting at
+     * its current position. The position of the buffer is advanced by the
+     * number of written bytes. The buffer should have at least
+     * {@link #getEncodedSize(ServerSync)} bytes remaining, so it can be taken
+     * from a pool and reused between responses.
+     *
+     * @param sync
+     *            the sync to encode
+     * @param target
+     *            the buffer to write the encoded data to
+     * @return the number of written bytes
+     * @throws PlatformEncDecException
+     *             signals that the buffer is too small for the encoded data.
+     */
+    public int encode(ServerSync sync, ByteBuffer target) throws PlatformEncDecException {
+        LOG.trace("Encoding server sync {}", sync);
+        int expectedSize = getEncodedSize(sync);
+        if (target.remaining() < expectedSize) {
+            throw new PlatformEncDecException(MessageFormat.format("Buffer is to small {0} to encode server sync, expected {1}!",
+                    target.remaining(), expectedSize));
+        }
+        return write(sync, target);
+    }
+
+    private int write(ServerSync sync, ByteBuffer target) {
+        // Slice is always big endian and starts at the position of the target.
+        ByteBuffer buf = target.slice();
         buf.putInt(getId());
         buf.putShort(PROTOCOL_VERSION);
         buf.putShort(NOTHING); // will be updated later
@@ -261,27 +317,211 @@ public class BinaryEncDec implements PlatformEncDec {
         }
 
         buf.putShort(EXTENSIONS_COUNT_POSITION, extensionCount);
-        byte[] result = buf.toByteArray();
-        if (LOG.isTraceEnabled()) {
-            LOG.trace("Encoded binary data {}", result);
+        target.position(target.position() + buf.position());
+        return buf.position();
+    }
+
+    /**
+     * Calculates the size of the binary representation of the given
+     * {@link ServerSync}. The result is exact for well-formed Base64 key
+     * hashes and is an upper bound otherwise.
+     *
+     * @param sync
+     *            the sync to calculate size for
+     * @return the size of the encoded data in bytes
+     */
+    public int getEncodedSize(ServerSync sync) {
+        int size = MIN_SIZE_OF_MESSAGE_HEADER + MIN_SIZE_OF_EXTENSION_HEADER + META_DATA_SIZE;
+        if (sync.getBootstrapSync() != null) {
+            size += MIN_SIZE_OF_EXTENSION_HEADER + sizeOf(sync.getBootstrapSync());
         }
-        return result;
+        if (sync.getProfileSync() != null) {
+            size += MIN_SIZE_OF_EXTENSION_HEADER;
+        }
+        if (sync.getUserSync() != null) {
+            size += MIN_SIZE_OF_EXTENSION_HEADER + sizeOf(sync.getUserSync());
+        }
+        if (sync.getLogSync() != null) {
+            size += MIN_SIZE_OF_EXTENSION_HEADER + sizeOf(sync.getLogSync());
+        }
+        if (sync.getConfigurationSync() != null) {
+            size += MIN_SIZE_OF_EXTENSION_HEADER + sizeOf(sync.getConfigurationSync());
+        }
+        if (sync.getNotificationSync() != null) {
+            size += MIN_SIZE_OF_EXTENSION_HEADER + sizeOf(sync.getNotificationSync());
+        }
+        if (sync.getEventSync() != null) {
+            size += MIN_SIZE_OF_EXTENSION_HEADER + sizeOf(sync.getEventSync());
+        }
+        if (sync.getRedirectSync() != null) {
+            size += MIN_SIZE_OF_EXTENSION_HEADER + SIZE_OF_INT;
+        }
+        return size;
+    }
+
+    private int sizeOf(BootstrapServerSync bootstrapSync) {
+        int size = SIZE_OF_INT;
+        for (ProtocolConnectionData data : bootstrapSync.getProtocolList()) {
+            size += 3 * SIZE_OF_INT + padded(data.getConnectionData().length);
+        }
+        return size;
+    }
+
+    private int sizeOf(UserServerSync userSync) {
+        int size = 0;
+        if (userSync.getUserAttachResponse() != null) {
+            UserAttachResponse uaResponse = userSync.getUserAttachResponse();
+            size += SIZE_OF_INT;
+            if (uaResponse.getResult() != SyncStatus.SUCCESS) {
+                size += SIZE_OF_INT;
+                if (uaResponse.getErrorReason() != null) {
+                    size += padded(utf8Length(uaResponse.getErrorReason()));
+                }
+            }
+        }
+        if (userSync.getUserAttachNotification() != null) {
+            UserAttachNotification nf = userSync.getUserAttachNotification();
+            size += SIZE_OF_INT + paddedUTF(nf.getUserExternalId()) + paddedUTF(nf.getEndpointAccessToken());
+        }
+        if (userSync.getUserDetachNotification() != null) {
+            size += SIZE_OF_INT + paddedUTF(userSync.getUserDetachNotification().getEndpointAccessToken());
+        }
+        if (userSync.getEndpointAttachResponses() != null) {
+            size += SIZE_OF_INT;
+            for (EndpointAttachResponse response : userSync.getEndpointAttachResponses()) {
+                size += SIZE_OF_INT;
+                if (response.getEndpointKeyHash() != null) {
+                    size += padded(base64Length(response.getEndpointKeyHash()));
+                }
+            }
+        }
+        if (userSync.getEndpointDetachResponses() != null) {
+            size += SIZE_OF_INT + SIZE_OF_INT * userSync.getEndpointDetachResponses().size();
+        }
+        return size;
+    }
+
+    private int sizeOf(LogServerSync logSync) {
+        List<LogDeliveryStatus> statusList = logSync.getDeliveryStatuses();
+        return SIZE_OF_INT + (statusList != null ? SIZE_OF_INT * statusList.size() : 0);
+    }
+
+    private int sizeOf(ConfigurationServerSync configurationSync) {
+        int size = 0;
+        if (configurationSync.getConfSchemaBody() != null) {
+            size += SIZE_OF_INT + padded(configurationSync.getConfSchemaBody().array().length);
+        }
+        if (configurationSync.getConfDeltaBody() != null) {
+            size += SIZE_OF_INT + padded(configurationSync.getConfDeltaBody().array().length);
+        }
+        return size;
+    }
+
+    private int sizeOf(NotificationServerSync notificationSync) {
+        int size = SIZE_OF_INT;
+        if (notificationSync.getAvailableTopics() != null) {
+            size += SIZE_OF_INT;
+            for (Topic t : notificationSync.getAvailableTopics()) {
+                size += SIZE_OF_LONG + SIZE_OF_INT + paddedUTF(t.getName());
+            }
+        }
+        if (notificationSync.getNotifications() != null) {
+            size += SIZE_OF_INT;
+            for (Notification nf : notificationSync.getNotifications()) {
+                size += 3 * SIZE_OF_INT + SIZE_OF_LONG + paddedUTF(nf.getUid()) + padded(nf.getBody().array().length);
+            }
+        }
+        return size;
     }
 
-    private void buildExtensionHeader(GrowingByteBuffer buf, short extensionId, byte optionA, byte optionB, int length) {
+    private int sizeOf(EventServerSync eventSync) {
+        int size = 0;
+        if (eventSync.getEventSequenceNumberResponse() != null) {
+            size += SIZE_OF_INT;
+        }
+        if (eventSync.getEventListenersResponses() != null && !eventSync.getEventListenersResponses().isEmpty()) {
+            size += SIZE_OF_INT;
+            for (EventListenersResponse response : eventSync.getEventListenersResponses()) {
+                size += 2 * SIZE_OF_INT;
+                if (response.getListeners() != null) {
+                    for (String listener : response.getListeners()) {
+                        size += padded(base64Length(listener));
+                    }
+                }
+            }
+        }
+        if (eventSync.getEvents() != null) {
+            size += SIZE_OF_INT;
+            for (Event event : eventSync.getEvents()) {
+                boolean eventDataIsEmpty = event.getEventData() == null || event.getEventData().array().length == 0;
+                size += SIZE_OF_INT + base64Length(event.getSource()) + paddedUTF(event.getEventClassFQN());
+                if (!eventDataIsEmpty) {
+                    size += SIZE_OF_INT + padded(event.getEventData().array().length);
+                }
+            }
+        }
+        return size;
+    }
+
+    private static int padded(int size) {
+        int padding = size % PADDING_SIZE;
+        return padding > 0 ? size + (PADDING_SIZE - padding) : size;
+    }
+
+    private static int paddedUTF(String str) {
+        return str != null ? padded(utf8Length(str)) : 0;
+    }
+
+    /**
+     * Calculates the length of the UTF-8 representation of the string without
+     * encoding it. Unpaired surrogates are counted as three bytes, which is
+     * an upper bound for their replacement.
+     */
+    private static int utf8Length(String str) {
+        int length = 0;
+        for (int i = 0; i < str.length(); i++) {
+            char c = str.charAt(i);
+            if (c < 0x80) {
+                length++;
+            } else if (c < 0x800) {
+                length += 2;
+            } else if (Character.isHighSurrogate(c) && i + 1 < str.length() && Character.isLowSurrogate(str.charAt(i + 1))) {
+                length += 4;
+                i++;
+            } else {
+                length += 3;
+            }
+        }
+        return length;
+    }
+
+    /**
+     * Calculates the length of the data decoded from the Base64 string. The
+     * result is exact for unchunked Base64 and an upper bound otherwise.
+     */
+    private static int base64Length(String base64String) {
+        int length = base64String.length();
+        int padding = 0;
+        while (padding < length && base64String.charAt(length - 1 - padding) == '=') {
+            padding++;
+        }
+        return (length + 3) / 4 * 3 - padding;
+    }
+
+    private void buildExtensionHeader(ByteBuffer buf, short extensionId, byte optionA, byte optionB, int length) {
         buf.putShort(extensionId);
         buf.put(optionA);
         buf.put(optionB);
         buf.putInt(length);
     }
 
-    private void encodeMetaData(GrowingByteBuffer buf, ServerSync sync) {
-        buildExtensionHeader(buf, META_DATA_EXTENSION_ID, NOTHING, NOTHING, 8);
+    private void encodeMetaData(ByteBuffer buf, ServerSync sync) {
+        buildExtensionHeader(buf, META_DATA_EXTENSION_ID, NOTHING, NOTHING, META_DATA_SIZE);
         buf.putInt(sync.getRequestId());
         buf.putInt(sync.getStatus().ordinal());
     }
 
-    private void encode(GrowingByteBuffer buf, BootstrapServerSync bootstrapSync) {
+    private void encode(ByteBuffer buf, BootstrapServerSync bootstrapSync) {
         buildExtensionHeader(buf, BOOTSTRAP_EXTENSION_ID, NOTHING, NOTHING, 0);
         int extPosition = buf.position();
         buf.putShort((short) bootstrapSync.getRequestId());
@@ -296,12 +536,12 @@ public class BinaryEncDec implements PlatformEncDec {
         buf.putInt(extPosition - SIZE_OF_INT, buf.position() - extPosition);
     }
 
-    private void encode(GrowingByteBuffer buf, ProfileServerSync profileSync) {
+    private void encode(ByteBuffer buf, ProfileServerSync profileSync) {
         buildExtensionHeader(buf, PROFILE_EXTENSION_ID, NOTHING,
                              (profileSync.getResponseStatus() == SyncResponseStatus.RESYNC ? RESYNC : NOTHING), 0);
     }
 
-    private void encode(GrowingByteBuffer buf, UserServerSync userSync) {
+    private void encode(ByteBuffer buf, UserServerSync userSync) {
         buildExtensionHeader(buf, USER_EXTENSION_ID, NOTHING, NOTHING, 0);
         int extPosition = buf.position();
         if (userSync.getUserAttachResponse() != null) {
@@ -367,7 +607,7 @@ public class BinaryEncDec implements PlatformEncDec {
         buf.putInt(extPosition - SIZE_OF_INT, buf.position() - extPosition);
     }
 
-    private void encode(GrowingByteBuffer buf, LogServerSync logSync) {
+    private void encode(ByteBuffer buf, LogServerSync logSync) {
         List<LogDeliveryStatus> statusList = logSync.getDeliveryStatuses();
 
         int extensionSize = 4;
@@ -390,7 +630,7 @@ public class BinaryEncDec implements PlatformEncDec {
         }
     }
 
-    private void encode(GrowingByteBuffer buf, ConfigurationServerSync configurationSync) {
+    private void encode(ByteBuffer buf, ConfigurationServerSync configurationSync) {
         int option = 0;
         boolean confSchemaPresent = configurationSync.getConfSchemaBody() != null;
         boolean confBodyPresent = configurationSync.getConfDeltaBody() != null;
@@ -419,7 +659,7 @@ public class BinaryEncDec implements PlatformEncDec {
         buf.putInt(extPosition - SIZE_OF_INT, buf.position() - extPosition);
     }
 
-    private void encode(GrowingByteBuffer buf, NotificationServerSync notificationSync) {
+    private void encode(ByteBuffer buf, NotificationServerSync notificationSync) {
         buildExtensionHeader(buf, NOTIFICATION_EXTENSION_ID, NOTHING, NOTHING, 0);
         int extPosition = buf.position();
 
@@ -467,7 +707,7 @@ public class BinaryEncDec implements PlatformEncDec {
         buf.putInt(extPosition - SIZE_OF_INT, buf.position() - extPosition);
     }
 
-    private void encode(GrowingByteBuffer buf, EventServerSync eventSync) {
+    private void encode(ByteBuffer buf, EventServerSync eventSync) {
         byte option = 0;
         if (eventSync.getEventSequenceNumberResponse() != null) {
             option = 1;
@@ -522,18 +762,18 @@ public class BinaryEncDec implements PlatformEncDec {
         buf.putInt(extPosition - SIZE_OF_INT, buf.position() - extPosition);
     }
 
-    private void encode(GrowingByteBuffer buf, RedirectServerSync redirectSync) {
+    private void encode(ByteBuffer buf, RedirectServerSync redirectSync) {
         buildExtensionHeader(buf, EVENT_EXTENSION_ID, NOTHING, NOTHING, 4);
         buf.putInt(redirectSync.getAccessPointId());
     }
 
-    public void putUTF(GrowingByteBuffer buf, String str) {
+    private void putUTF(ByteBuffer buf, String str) {
         if (str != null) {
             put(buf, str.getBytes(UTF8));
         }
     }
 
-    private void put(GrowingByteBuffer buf, byte[] data) {
+    private void put(ByteBuffer buf, byte[] data) {
         buf.put(data);
         int padding = data.length % BinaryEncDec.PADDING_SIZE;
         if (padding > 0) {
@@ -871,7 +1111,16 @@ public class BinaryEncDec implements PlatformEncDec {
     }
 
     private static String getUTF8String(ByteBuffer buf, int size) {
-        return new String(getNewByteArray(buf, size), UTF8);
+        if (!buf.hasArray()) {
+            return new String(getNewByteArray(buf, size), UTF8);
+        }
+        if (buf.remaining() < size) {
+            throw new BufferUnderflowException();
+        }
+        String str = new String(buf.array(), buf.arrayOffset() + buf.position(), size, UTF8);
+        buf.position(buf.position() + size);
+        handlePadding(buf, size);
+        return str;
     }
 
     private static byte[] getNewByteArray(ByteBuffer buf, int size, boolean withPadding) {
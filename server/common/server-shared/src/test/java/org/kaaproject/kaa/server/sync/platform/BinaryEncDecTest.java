@@ -223,6 +223,34 @@ public class BinaryEncDecTest {
 
     }
 
+    @Test
+    public void testEncodeToProvidedBuffer() throws PlatformEncDecException {
+        ServerSync sync = new ServerSync();
+        sync.setRequestId(MAGIC_NUMBER);
+        UserServerSync uSync = new UserServerSync();
+        uSync.setUserAttachNotification(new UserAttachNotification("id", "token"));
+        sync.setUserSync(uSync);
+        sync.setLogSync(new LogServerSync(Collections.singletonList(new LogDeliveryStatus(MAGIC_NUMBER, SyncStatus.FAILURE, null))));
+        sync.setStatus(SyncStatus.SUCCESS);
+
+        byte[] expected = encDec.encode(sync);
+        Assert.assertEquals(expected.length, encDec.getEncodedSize(sync));
+
+        ByteBuffer buf = ByteBuffer.allocate(MAGIC_NUMBER + expected.length + MAGIC_NUMBER);
+        buf.position(MAGIC_NUMBER);
+        Assert.assertEquals(expected.length, encDec.encode(sync, buf));
+        Assert.assertEquals(MAGIC_NUMBER + expected.length, buf.position());
+        Assert.assertArrayEquals(expected, Arrays.copyOfRange(buf.array(), MAGIC_NUMBER, MAGIC_NUMBER + expected.length));
+    }
+
+    @Test(expected = PlatformEncDecException.class)
+    public void testEncodeToSmallBuffer() throws PlatformEncDecException {
+        ServerSync sync = new ServerSync();
+        sync.setRequestId(MAGIC_NUMBER);
+        sync.setStatus(SyncStatus.SUCCESS);
+        encDec.encode(sync, ByteBuffer.allocate(encDec.getEncodedSize(sync) - 1));
+    }
+
     private byte[] getValidMetaData() {
         ByteBuffer buf = ByteBuffer.wrap(new byte[8 + SHA_1_LENGTH + SHA_1_LENGTH + 28]);
         buf.putInt(1);
@@ -274,6 +302,17 @@ public class BinaryEncDecTest {
         Assert.assertEquals("token", pSync.getEndpointAccessToken());
     }
 
+    @Test
+    public void testDecodeFromBufferSlice() throws PlatformEncDecException {
+        byte[] data = concat(buildHeader(Constants.KAA_PLATFORM_PROTOCOL_BINARY_ID, 1, 1), getValidMetaData());
+        ByteBuffer buf = ByteBuffer.wrap(concat(new byte[MAGIC_NUMBER], data));
+        buf.position(MAGIC_NUMBER);
+        ClientSync sync = encDec.decode(buf);
+        Assert.assertEquals(MAGIC_NUMBER, buf.position());
+        Assert.assertNotNull(sync.getClientSyncMetaData());
+        Assert.assertEquals(MAGIC_NUMBER, sync.getClientSyncMetaData().getEndpointPublicKeyHash().get(MAGIC_INDEX));
+    }
+
     @Test
     public void testUserClientSync() throws PlatformEncDecException {
         ByteBuffer buf = ByteBuffer.wrap(new byte[4 + 4 + 4 + 8 + 8 + 4 + 4 + 8 + 4 + 4 + SHA_1_LENGTH]);
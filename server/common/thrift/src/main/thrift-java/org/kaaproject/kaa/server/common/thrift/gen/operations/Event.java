@@ -42,6 +42,7 @@ public class Event implements org.apache.thrift.TBase<Event, Event._Fields>, jav
   private static final org.apache.thrift.protocol.TField TENANT_ID_FIELD_DESC = new org.apache.thrift.protocol.TField("tenantId", org.apache.thrift.protocol.TType.STRING, (short)2);
   private static final org.apache.thrift.protocol.TField ENDPOINT_EVENT_FIELD_DESC = new org.apache.thrift.protocol.TField("endpointEvent", org.apache.thrift.protocol.TType.STRUCT, (short)3);
   private static final org.apache.thrift.protocol.TField ROUTE_ADDRESS_FIELD_DESC = new org.apache.thrift.protocol.TField("routeAddress", org.apache.thrift.protocol.TType.STRUCT, (short)4);
+  private static final org.apache.thrift.protocol.TField RECIPIENTS_FIELD_DESC = new org.apache.thrift.protocol.TField("recipients", org.apache.thrift.protocol.TType.LIST, (short)5);
 
   private static final Map<Class<? extends IScheme>, SchemeFactory> schemes = new HashMap<Class<? extends IScheme>, SchemeFactory>();
   static {
@@ -53,13 +54,15 @@ public class Event implements org.apache.thrift.TBase<Event, Event._Fields>, jav
   public String tenantId; // required
   public EndpointEvent endpointEvent; // required
   public RouteAddress routeAddress; // required
+  public List<RouteAddress> recipients; // optional
 
   /** The set of fields this struct contains, along with convenience methods for finding and manipulating them. */
   public enum _Fields implements org.apache.thrift.TFieldIdEnum {
     USER_ID((short)1, "userId"),
     TENANT_ID((short)2, "tenantId"),
     ENDPOINT_EVENT((short)3, "endpointEvent"),
-    ROUTE_ADDRESS((short)4, "routeAddress");
+    ROUTE_ADDRESS((short)4, "routeAddress"),
+    RECIPIENTS((short)5, "recipients");
 
     private static final Map<String, _Fields> byName = new HashMap<String, _Fields>();
 
@@ -82,6 +85,8 @@ public class Event implements org.apache.thrift.TBase<Event, Event._Fields>, jav
           return ENDPOINT_EVENT;
         case 4: // ROUTE_ADDRESS
           return ROUTE_ADDRESS;
+        case 5: // RECIPIENTS
+          return RECIPIENTS;
         default:
           return null;
       }
@@ -122,6 +127,7 @@ public class Event implements org.apache.thrift.TBase<Event, Event._Fields>, jav
   }
 
   // isset id assignments
+  private static final _Fields optionals[] = {_Fields.RECIPIENTS};
   public static final Map<_Fields, org.apache.thrift.meta_data.FieldMetaData> metaDataMap;
   static {
     Map<_Fields, org.apache.thrift.meta_data.FieldMetaData> tmpMap = new EnumMap<_Fields, org.apache.thrift.meta_data.FieldMetaData>(_Fields.class);
@@ -133,6 +139,9 @@ public class Event implements org.apache.thrift.TBase<Event, Event._Fields>, jav
         new org.apache.thrift.meta_data.StructMetaData(org.apache.thrift.protocol.TType.STRUCT, EndpointEvent.class)));
     tmpMap.put(_Fields.ROUTE_ADDRESS, new org.apache.thrift.meta_data.FieldMetaData("routeAddress", org.apache.thrift.TFieldRequirementType.DEFAULT, 
         new org.apache.thrift.meta_data.StructMetaData(org.apache.thrift.protocol.TType.STRUCT, RouteAddress.class)));
+    tmpMap.put(_Fields.RECIPIENTS, new org.apache.thrift.meta_data.FieldMetaData("recipients", org.apache.thrift.TFieldRequirementType.OPTIONAL, 
+        new org.apache.thrift.meta_data.ListMetaData(org.apache.thrift.protocol.TType.LIST, 
+            new org.apache.thrift.meta_data.StructMetaData(org.apache.thrift.protocol.TType.STRUCT, RouteAddress.class))));
     metaDataMap = Collections.unmodifiableMap(tmpMap);
     org.apache.thrift.meta_data.FieldMetaData.addStructMetaDataMap(Event.class, metaDataMap);
   }
@@ -169,6 +178,13 @@ public class Event implements org.apache.thrift.TBase<Event, Event._Fields>, jav
     if (other.isSetRouteAddress()) {
       this.routeAddress = new RouteAddress(other.routeAddress);
     }
+    if (other.isSetRecipients()) {
+      List<RouteAddress> __this__recipients = new ArrayList<RouteAddress>(other.recipients.size());
+      for (RouteAddress other_element : other.recipients) {
+        __this__recipients.add(new RouteAddress(other_element));
+      }
+      this.recipients = __this__recipients;
+    }
   }
 
   public Event deepCopy() {
@@ -181,6 +197,7 @@ public class Event implements org.apache.thrift.TBase<Event, Event._Fields>, jav
     this.tenantId = null;
     this.endpointEvent = null;
     this.routeAddress = null;
+    this.recipients = null;
   }
 
   public String getUserId() {
@@ -279,6 +296,45 @@ public class Event implements org.apache.thrift.TBase<Event, Event._Fields>, jav
     }
   }
 
+  public int getRecipientsSize() {
+    return (this.recipients == null) ? 0 : this.recipients.size();
+  }
+
+  public java.util.Iterator<RouteAddress> getRecipientsIterator() {
+    return (this.recipients == null) ? null : this.recipients.iterator();
+  }
+
+  public void addToRecipients(RouteAddress elem) {
+    if (this.recipients == null) {
+      this.recipients = new ArrayList<RouteAddress>();
+    }
+    this.recipients.add(elem);
+  }
+
+  public List<RouteAddress> getRecipients() {
+    return this.recipients;
+  }
+
+  public Event setRecipients(List<RouteAddress> recipients) {
+    this.recipients = recipients;
+    return this;
+  }
+
+  public void unsetRecipients() {
+    this.recipients = null;
+  }
+
+  /** Returns true if field recipients is set (has been assigned a value) and false otherwise */
+  public boolean isSetRecipients() {
+    return this.recipients != null;
+  }
+
+  public void setRecipientsIsSet(boolean value) {
+    if (!value) {
+      this.recipients = null;
+    }
+  }
+
   public void setFieldValue(_Fields field, Object value) {
     switch (field) {
     case USER_ID:
@@ -313,6 +369,14 @@ public class Event implements org.apache.thrift.TBase<Event, Event._Fields>, jav
       }
       break;
 
+    case RECIPIENTS:
+      if (value == null) {
+        unsetRecipients();
+      } else {
+        setRecipients((List<RouteAddress>)value);
+      }
+      break;
+
     }
   }
 
@@ -330,6 +394,9 @@ public class Event implements org.apache.thrift.TBase<Event, Event._Fields>, jav
     case ROUTE_ADDRESS:
       return getRouteAddress();
 
+    case RECIPIENTS:
+      return getRecipients();
+
     }
     throw new IllegalStateException();
   }
@@ -349,6 +416,8 @@ public class Event implements org.apache.thrift.TBase<Event, Event._Fields>, jav
       return isSetEndpointEvent();
     case ROUTE_ADDRESS:
       return isSetRouteAddress();
+    case RECIPIENTS:
+      return isSetRecipients();
     }
     throw new IllegalStateException();
   }
@@ -402,6 +471,15 @@ public class Event implements org.apache.thrift.TBase<Event, Event._Fields>, jav
         return false;
     }
 
+    boolean this_present_recipients = true && this.isSetRecipients();
+    boolean that_present_recipients = true && that.isSetRecipients();
+    if (this_present_recipients || that_present_recipients) {
+      if (!(this_present_recipients && that_present_recipients))
+        return false;
+      if (!this.recipients.equals(that.recipients))
+        return false;
+    }
+
     return true;
   }
 
@@ -429,6 +507,11 @@ public class Event implements org.apache.thrift.TBase<Event, Event._Fields>, jav
     if (present_routeAddress)
       list.add(routeAddress);
 
+    boolean present_recipients = true && (isSetRecipients());
+    list.add(present_recipients);
+    if (present_recipients)
+      list.add(recipients);
+
     return list.hashCode();
   }
 
@@ -480,6 +563,16 @@ public class Event implements org.apache.thrift.TBase<Event, Event._Fields>, jav
         return lastComparison;
       }
     }
+    lastComparison = Boolean.valueOf(isSetRecipients()).compareTo(other.isSetRecipients());
+    if (lastComparison != 0) {
+      return lastComparison;
+    }
+    if (isSetRecipients()) {
+      lastComparison = org.apache.thrift.TBaseHelper.compareTo(this.recipients, other.recipients);
+      if (lastComparison != 0) {
+        return lastComparison;
+      }
+    }
     return 0;
   }
 
@@ -531,6 +624,16 @@ public class Event implements org.apache.thrift.TBase<Event, Event._Fields>, jav
       sb.append(this.routeAddress);
     }
     first = false;
+    if (isSetRecipients()) {
+      if (!first) sb.append(", ");
+      sb.append("recipients:");
+      if (this.recipients == null) {
+        sb.append("null");
+      } else {
+        sb.append(this.recipients);
+      }
+      first = false;
+    }
     sb.append(")");
     return sb.toString();
   }
@@ -614,6 +717,25 @@ public class Event implements org.apache.thrift.TBase<Event, Event._Fields>, jav
               org.apache.thrift.protocol.TProtocolUtil.skip(iprot, schemeField.type);
             }
             break;
+          case 5: // RECIPIENTS
+            if (schemeField.type == org.apache.thrift.protocol.TType.LIST) {
+              {
+                org.apache.thrift.protocol.TList _list16 = iprot.readListBegin();
+                struct.recipients = new ArrayList<RouteAddress>(_list16.size);
+                RouteAddress _elem17;
+                for (int _i18 = 0; _i18 < _list16.size; ++_i18)
+                {
+                  _elem17 = new RouteAddress();
+                  _elem17.read(iprot);
+                  struct.recipients.add(_elem17);
+                }
+                iprot.readListEnd();
+              }
+              struct.setRecipientsIsSet(true);
+            } else { 
+              org.apache.thrift.protocol.TProtocolUtil.skip(iprot, schemeField.type);
+            }
+            break;
           default:
             org.apache.thrift.protocol.TProtocolUtil.skip(iprot, schemeField.type);
         }
@@ -649,6 +771,20 @@ public class Event implements org.apache.thrift.TBase<Event, Event._Fields>, jav
         struct.routeAddress.write(oprot);
         oprot.writeFieldEnd();
       }
+      if (struct.recipients != null) {
+        if (struct.isSetRecipients()) {
+          oprot.writeFieldBegin(RECIPIENTS_FIELD_DESC);
+          {
+            oprot.writeListBegin(new org.apache.thrift.protocol.TList(org.apache.thrift.protocol.TType.STRUCT, struct.recipients.size()));
+            for (RouteAddress _iter19 : struct.recipients)
+            {
+              _iter19.write(oprot);
+            }
+            oprot.writeListEnd();
+          }
+          oprot.writeFieldEnd();
+        }
+      }
       oprot.writeFieldStop();
       oprot.writeStructEnd();
     }
@@ -679,7 +815,10 @@ public class Event implements org.apache.thrift.TBase<Event, Event._Fields>, jav
       if (struct.isSetRouteAddress()) {
         optionals.set(3);
       }
-      oprot.writeBitSet(optionals, 4);
+      if (struct.isSetRecipients()) {
+        optionals.set(4);
+      }
+      oprot.writeBitSet(optionals, 5);
       if (struct.isSetUserId()) {
         oprot.writeString(struct.userId);
       }
@@ -692,12 +831,21 @@ public class Event implements org.apache.thrift.TBase<Event, Event._Fields>, jav
       if (struct.isSetRouteAddress()) {
         struct.routeAddress.write(oprot);
       }
+      if (struct.isSetRecipients()) {
+        {
+          oprot.writeI32(struct.recipients.size());
+          for (RouteAddress _iter20 : struct.recipients)
+          {
+            _iter20.write(oprot);
+          }
+        }
+      }
     }
 
     @Override
     public void read(org.apache.thrift.protocol.TProtocol prot, Event struct) throws org.apache.thrift.TException {
       TTupleProtocol iprot = (TTupleProtocol) prot;
-      BitSet incoming = iprot.readBitSet(4);
+      BitSet incoming = iprot.readBitSet(5);
       if (incoming.get(0)) {
         struct.userId = iprot.readString();
         struct.setUserIdIsSet(true);
@@ -716,6 +864,20 @@ public class Event implements org.apache.thrift.TBase<Event, Event._Fields>, jav
         struct.routeAddress.read(iprot);
         struct.setRouteAddressIsSet(true);
       }
+      if (incoming.get(4)) {
+        {
+          org.apache.thrift.protocol.TList _list21 = new org.apache.thrift.protocol.TList(org.apache.thrift.protocol.TType.STRUCT, iprot.readI32());
+          struct.recipients = new ArrayList<RouteAddress>(_list21.size);
+          RouteAddress _elem22;
+          for (int _i23 = 0; _i23 < _list21.size; ++_i23)
+          {
+            _elem22 = new RouteAddress();
+            _elem22.read(iprot);
+            struct.recipients.add(_elem22);
+          }
+        }
+        struct.setRecipientsIsSet(true);
+      }
     }
   }
 
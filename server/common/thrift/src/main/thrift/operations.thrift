@@ -142,6 +142,7 @@ struct Event {
   2: tenant_id tenantId
   3: EndpointEvent endpointEvent
   4: RouteAddress routeAddress
+  5: optional list<RouteAddress> recipients
 }
 
 struct UserRouteInfo {
@@ -33,7 +33,13 @@ import java.util.Properties;
 import java.util.Set;
 import java.util.Map.Entry;
 
+import org.apache.avro.Schema;
+import org.apache.avro.Schema.Field;
+import org.apache.avro.Schema.Type;
 import org.apache.avro.generic.GenericRecord;
+import org.codehaus.jackson.JsonNode;
+import org.codehaus.jackson.map.ObjectMapper;
+import org.codehaus.jackson.node.ObjectNode;
 import org.kaaproject.kaa.common.avro.GenericAvroConverter;
 import org.kaaproject.kaa.server.common.zk.gen.VersionConnectionInfoPair;
 import org.kaaproject.kaa.server.transport.message.MessageHandler;
@@ -100,7 +106,8 @@ public abstract class AbstractTransportService implements TransportService {
                 LOG.info("Lookup of transport configuration file {}", transportConfigFile);
                 URL configFileURL = this.getClass().getClassLoader().getResource(transportConfigFile);
                 GenericAvroConverter<GenericRecord> configConverter = new GenericAvroConverter<GenericRecord>(config.getConfigSchema());
-                GenericRecord configRecord = configConverter.decodeJson(Files.readAllBytes(Paths.get(configFileURL.toURI())));
+                String configJson = addMissingOptionalFields(config.getConfigSchema(), Files.readAllBytes(Paths.get(configFileURL.toURI())));
+                GenericRecord configRecord = configConverter.decodeJson(configJson);
                 LOG.info("Lookup of transport configuration file {}", transportConfigFile);
                 TransportContext context = new TransportContext(transportProperties, getPublicKey(), getMessageHandler());
                 transport.init(new GenericTransportContext(context, configConverter.encode(configRecord)));
@@ -111,6 +118,43 @@ public abstract class AbstractTransportService implements TransportService {
         }
     }
 
+    /**
+     * Adds the optional fields that are missing in the JSON configuration as
+     * nulls. The Avro JSON decoder requires every field, so without this a
+     * configuration file written before an optional field was added to the
+     * configuration schema could not be loaded.
+     *
+     * @param schema the configuration schema
+     * @param data the JSON configuration
+     * @return the JSON configuration with all optional fields
+     * @throws IOException if the configuration is not a JSON object
+     */
+    static String addMissingOptionalFields(Schema schema, byte[] data) throws IOException {
+        ObjectMapper mapper = new ObjectMapper();
+        JsonNode json = mapper.readTree(data);
+        if (!(json instanceof ObjectNode)) {
+            throw new IOException("Transport configuration is not a JSON object");
+        }
+        ObjectNode configJson = (ObjectNode) json;
+        for (Field field : schema.getFields()) {
+            if (!configJson.has(field.name()) && isOptional(field.schema())) {
+                configJson.putNull(field.name());
+            }
+        }
+        return mapper.writeValueAsString(configJson);
+    }
+
+    private static boolean isOptional(Schema schema) {
+        if (schema.getType() == Type.UNION) {
+            for (Schema type : schema.getTypes()) {
+                if (type.getType() == Type.NULL) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
     @Override
     public void start() {
         LOG.info("Starting {} available transports.", transports.size());
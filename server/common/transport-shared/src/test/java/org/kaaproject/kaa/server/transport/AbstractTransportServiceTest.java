@@ -0,0 +1,59 @@
+/*
+ * Copyright 2014-2016 CyberVision, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.kaaproject.kaa.server.transport;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+import org.apache.avro.AvroTypeException;
+import org.apache.avro.Schema;
+import org.apache.avro.generic.GenericRecord;
+import org.junit.Assert;
+import org.junit.Test;
+import org.kaaproject.kaa.common.avro.GenericAvroConverter;
+
+public class AbstractTransportServiceTest {
+
+    private static final Schema CONFIG_SCHEMA = new Schema.Parser().parse(
+            "{\"type\":\"record\",\"name\":\"Config\",\"fields\":["
+            + "{\"name\":\"port\",\"type\":\"int\"},"
+            + "{\"name\":\"limit\",\"type\":[\"null\",\"int\"],\"default\":null}]}");
+
+    @Test
+    public void missingOptionalFieldTest() throws IOException {
+        GenericRecord record = decode("{\"port\":9997}");
+        Assert.assertEquals(9997, record.get("port"));
+        Assert.assertNull(record.get("limit"));
+    }
+
+    @Test
+    public void presentOptionalFieldTest() throws IOException {
+        GenericRecord record = decode("{\"port\":9997,\"limit\":{\"int\":16}}");
+        Assert.assertEquals(9997, record.get("port"));
+        Assert.assertEquals(16, record.get("limit"));
+    }
+
+    @Test(expected = AvroTypeException.class)
+    public void missingRequiredFieldTest() throws IOException {
+        decode("{\"limit\":null}");
+    }
+
+    private GenericRecord decode(String json) throws IOException {
+        GenericAvroConverter<GenericRecord> converter = new GenericAvroConverter<GenericRecord>(CONFIG_SCHEMA);
+        return converter.decodeJson(AbstractTransportService.addMissingOptionalFields(CONFIG_SCHEMA, json.getBytes(StandardCharsets.UTF_8)));
+    }
+}
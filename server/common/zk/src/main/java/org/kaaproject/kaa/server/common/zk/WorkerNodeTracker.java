@@ -19,7 +19,14 @@ package org.kaaproject.kaa.server.common.zk;
 import java.io.IOException;
 import java.util.*;
 import java.util.concurrent.CopyOnWriteArrayList;
-
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.avro.Schema;
+import org.apache.avro.Schema.Field;
+import org.apache.avro.io.DecoderFactory;
+import org.apache.avro.specific.SpecificDatumReader;
 import org.apache.curator.RetryPolicy;
 import org.apache.curator.framework.CuratorFramework;
 import org.apache.curator.framework.recipes.cache.ChildData;
@@ -42,6 +49,12 @@ public abstract class WorkerNodeTracker extends ControlNodeTracker {
     /** The Constant LOG. */
     private static final Logger LOG = LoggerFactory.getLogger(WorkerNodeTracker.class);
 
+    /** The default operations node updates coalescing window. Zero disables coalescing. */
+    public static final long DEFAULT_UPDATE_COALESCING_WINDOW = 0;
+
+    /** The operations node info schema used by nodes that don't publish their event protocol version. */
+    private static final Schema LEGACY_OPERATIONS_NODE_SCHEMA = buildLegacyOperationsNodeSchema();
+
     /** The endpoint cache. */
     private PathChildrenCache endpointCache;
 
@@ -62,6 +75,20 @@ public abstract class WorkerNodeTracker extends ControlNodeTracker {
      * string and its start time */
     private Map<String, Long> bootstrapNodesStartTimes;
 
+    /** Latest undelivered update of each operations node, keyed by thriftHost+thriftPort */
+    private Map<String, OperationsNodeInfo> pendingEndpointUpdates;
+
+    /** Guards delivery of operations node events to the listeners. */
+    private final Object endpointEventsLock = new Object();
+
+    /** The operations node updates coalescing window in milliseconds. */
+    private volatile long updateCoalescingWindow = DEFAULT_UPDATE_COALESCING_WINDOW;
+
+    /** Delivers coalesced operations node updates. */
+    private ScheduledExecutorService updateExecutor;
+
+    private boolean updateDeliveryScheduled;
+
     /**
      * Instantiates a new worker node tracker.
      *
@@ -99,6 +126,20 @@ public abstract class WorkerNodeTracker extends ControlNodeTracker {
         bootstrapListeners = new CopyOnWriteArrayList<BootstrapNodeListener>();
         operationNodesStartTimes = new HashMap<String, Long>();
         bootstrapNodesStartTimes = new HashMap<String, Long>();
+        pendingEndpointUpdates = new LinkedHashMap<String, OperationsNodeInfo>();
+    }
+
+    /**
+     * Sets the window during which operations node updates are coalesced.
+     * Updates of the same node received within the window are delivered to
+     * the listeners once, with the latest node info. Additions and removals
+     * of nodes are always delivered immediately.
+     *
+     * @param updateCoalescingWindow
+     *            the window in milliseconds, zero disables coalescing
+     */
+    public void setUpdateCoalescingWindow(long updateCoalescingWindow) {
+        this.updateCoalescingWindow = updateCoalescingWindow;
     }
 
     /*
@@ -199,9 +240,12 @@ public abstract class WorkerNodeTracker extends ControlNodeTracker {
     protected void endpointAdded(ChildData data) {
         OperationsNodeInfo nodeInfo = extractOperationServerInfo(data);
         String endpointAddress = constructEndpointAddress(nodeInfo);
-        operationNodesStartTimes.put(endpointAddress, nodeInfo.getTimeStarted());
-        for (OperationsNodeListener listener : endpointListeners) {
-            listener.onNodeAdded(nodeInfo);
+        synchronized (endpointEventsLock) {
+            operationNodesStartTimes.put(endpointAddress, nodeInfo.getTimeStarted());
+            pendingEndpointUpdates.remove(endpointAddress);
+            for (OperationsNodeListener listener : endpointListeners) {
+                listener.onNodeAdded(nodeInfo);
+            }
         }
     }
 
@@ -214,12 +258,50 @@ public abstract class WorkerNodeTracker extends ControlNodeTracker {
     protected void endpointUpdated(ChildData data) {
         OperationsNodeInfo nodeInfo = extractOperationServerInfo(data);
         String endpointAddress = constructEndpointAddress(nodeInfo);
-        operationNodesStartTimes.put(endpointAddress, nodeInfo.getTimeStarted());
-        for (OperationsNodeListener listener : endpointListeners) {
-            listener.onNodeUpdated(nodeInfo);
+        synchronized (endpointEventsLock) {
+            operationNodesStartTimes.put(endpointAddress, nodeInfo.getTimeStarted());
+            if (updateCoalescingWindow > 0) {
+                pendingEndpointUpdates.put(endpointAddress, nodeInfo);
+                if (!updateDeliveryScheduled) {
+                    updateDeliveryScheduled = true;
+                    getUpdateExecutor().schedule(new Runnable() {
+                        @Override
+                        public void run() {
+                            deliverPendingEndpointUpdates();
+                        }
+                    }, updateCoalescingWindow, TimeUnit.MILLISECONDS);
+                }
+            } else {
+                for (OperationsNodeListener listener : endpointListeners) {
+                    listener.onNodeUpdated(nodeInfo);
+                }
+            }
+        }
+    }
+
+    /**
+     * Delivers coalesced operations node updates to the listeners.
+     */
+    protected void deliverPendingEndpointUpdates() {
+        synchronized (endpointEventsLock) {
+            updateDeliveryScheduled = false;
+            LOG.debug("Delivering {} coalesced operations node updates", pendingEndpointUpdates.size());
+            for (OperationsNodeInfo nodeInfo : pendingEndpointUpdates.values()) {
+                for (OperationsNodeListener listener : endpointListeners) {
+                    listener.onNodeUpdated(nodeInfo);
+                }
+            }
+            pendingEndpointUpdates.clear();
         }
     }
 
+    private synchronized ScheduledExecutorService getUpdateExecutor() {
+        if (updateExecutor == null) {
+            updateExecutor = Executors.newSingleThreadScheduledExecutor();
+        }
+        return updateExecutor;
+    }
+
     /**
      * Operations Node removed.
      *
@@ -230,14 +312,17 @@ public abstract class WorkerNodeTracker extends ControlNodeTracker {
         OperationsNodeInfo nodeInfo = extractOperationServerInfo(data);
         String endpointAddress = constructEndpointAddress(nodeInfo);
         Long removeTime = nodeInfo.getTimeStarted();
-        Long updateTime = operationNodesStartTimes.get(endpointAddress);
-        if (updateTime == null || removeTime >= updateTime) {
-            operationNodesStartTimes.remove(endpointAddress);
-            for (OperationsNodeListener listener : endpointListeners) {
-                listener.onNodeRemoved(nodeInfo);
+        synchronized (endpointEventsLock) {
+            Long updateTime = operationNodesStartTimes.get(endpointAddress);
+            if (updateTime == null || removeTime >= updateTime) {
+                operationNodesStartTimes.remove(endpointAddress);
+                pendingEndpointUpdates.remove(endpointAddress);
+                for (OperationsNodeListener listener : endpointListeners) {
+                    listener.onNodeRemoved(nodeInfo);
+                }
+            } else {
+                LOG.debug("Ignoring [{}] endpoint removal, as it was before add/update", endpointAddress);
             }
-        } else {
-            LOG.debug("Ignoring [{}] endpoint removal, as it was before add/update", endpointAddress);
         }
     }
 
@@ -357,13 +442,47 @@ public abstract class WorkerNodeTracker extends ControlNodeTracker {
     private OperationsNodeInfo extractOperationServerInfo(ChildData currentData) {
         OperationsNodeInfo endpointServerInfo = null;
         try {
-            endpointServerInfo = operationsNodeAvroConverter.get().fromByteArray(currentData.getData(), null);
+            endpointServerInfo = decodeOperationsNodeInfo(currentData.getData());
         } catch (IOException e) {
             LOG.error("error reading control server info", e);
         }
         return endpointServerInfo;
     }
 
+    /**
+     * Decodes operations node info. Nodes started before the event protocol
+     * version was added to the node info write one field less, so their data
+     * is read with the previous schema and the version is left empty.
+     *
+     * @param data
+     *            the node data
+     * @return the operations node info
+     * @throws IOException
+     *             if the data can't be decoded with either schema
+     */
+    OperationsNodeInfo decodeOperationsNodeInfo(byte[] data) throws IOException {
+        try {
+            return operationsNodeAvroConverter.get().fromByteArray(data, null);
+        } catch (IOException e) {
+            SpecificDatumReader<OperationsNodeInfo> reader = new SpecificDatumReader<>(LEGACY_OPERATIONS_NODE_SCHEMA,
+                    OperationsNodeInfo.getClassSchema());
+            return reader.read(null, DecoderFactory.get().binaryDecoder(data, null));
+        }
+    }
+
+    private static Schema buildLegacyOperationsNodeSchema() {
+        Schema schema = OperationsNodeInfo.getClassSchema();
+        List<Field> fields = new ArrayList<>();
+        for (Field field : schema.getFields()) {
+            if (!"eventProtocolVersion".equals(field.name())) {
+                fields.add(new Field(field.name(), field.schema(), field.doc(), field.defaultValue()));
+            }
+        }
+        Schema legacySchema = Schema.createRecord(schema.getName(), schema.getDoc(), schema.getNamespace(), schema.isError());
+        legacySchema.setFields(fields);
+        return legacySchema;
+    }
+
     /**
      * Extract bootstrap server info.
      *
@@ -398,6 +517,12 @@ public abstract class WorkerNodeTracker extends ControlNodeTracker {
      */
     @Override
     public void close() throws IOException {
+        synchronized (this) {
+            if (updateExecutor != null) {
+                updateExecutor.shutdownNow();
+                updateExecutor = null;
+            }
+        }
         endpointCache.close();
         bootstrapCache.close();
         super.close();
@@ -7,12 +7,13 @@ package org.kaaproject.kaa.server.common.zk.gen;
 @SuppressWarnings("all")
 @org.apache.avro.specific.AvroGenerated
 public class OperationsNodeInfo extends org.apache.avro.specific.SpecificRecordBase implements org.apache.avro.specific.SpecificRecord {
-  public static final org.apache.avro.Schema SCHEMA$ = new org.apache.avro.Schema.Parser().parse("{\"type\":\"record\",\"name\":\"OperationsNodeInfo\",\"namespace\":\"org.kaaproject.kaa.server.common.zk.gen\",\"fields\":[{\"name\":\"connectionInfo\",\"type\":{\"type\":\"record\",\"name\":\"ConnectionInfo\",\"fields\":[{\"name\":\"thriftHost\",\"type\":\"string\"},{\"name\":\"thriftPort\",\"type\":\"int\"},{\"name\":\"publicKey\",\"type\":[\"bytes\",\"null\"]}]}},{\"name\":\"loadInfo\",\"type\":{\"type\":\"record\",\"name\":\"LoadInfo\",\"fields\":[{\"name\":\"endpointCount\",\"type\":\"int\"},{\"name\":\"loadAverage\",\"type\":\"double\"}]}},{\"name\":\"timeStarted\",\"type\":\"long\"},{\"name\":\"transports\",\"type\":{\"type\":\"array\",\"items\":{\"type\":\"record\",\"name\":\"TransportMetaData\",\"fields\":[{\"name\":\"id\",\"type\":\"int\"},{\"name\":\"minSupportedVersion\",\"type\":\"int\"},{\"name\":\"maxSupportedVersion\",\"type\":\"int\"},{\"name\":\"connectionInfo\",\"type\":{\"type\":\"array\",\"items\":{\"type\":\"record\",\"name\":\"VersionConnectionInfoPair\",\"fields\":[{\"name\":\"version\",\"type\":\"int\"},{\"name\":\"conenctionInfo\",\"type\":\"bytes\"}]}}}]}}}]}");
+  public static final org.apache.avro.Schema SCHEMA$ = new org.apache.avro.Schema.Parser().parse("{\"type\":\"record\",\"name\":\"OperationsNodeInfo\",\"namespace\":\"org.kaaproject.kaa.server.common.zk.gen\",\"fields\":[{\"name\":\"connectionInfo\",\"type\":{\"type\":\"record\",\"name\":\"ConnectionInfo\",\"fields\":[{\"name\":\"thriftHost\",\"type\":\"string\"},{\"name\":\"thriftPort\",\"type\":\"int\"},{\"name\":\"publicKey\",\"type\":[\"bytes\",\"null\"]}]}},{\"name\":\"loadInfo\",\"type\":{\"type\":\"record\",\"name\":\"LoadInfo\",\"fields\":[{\"name\":\"endpointCount\",\"type\":\"int\"},{\"name\":\"loadAverage\",\"type\":\"double\"}]}},{\"name\":\"timeStarted\",\"type\":\"long\"},{\"name\":\"transports\",\"type\":{\"type\":\"array\",\"items\":{\"type\":\"record\",\"name\":\"TransportMetaData\",\"fields\":[{\"name\":\"id\",\"type\":\"int\"},{\"name\":\"minSupportedVersion\",\"type\":\"int\"},{\"name\":\"maxSupportedVersion\",\"type\":\"int\"},{\"name\":\"connectionInfo\",\"type\":{\"type\":\"array\",\"items\":{\"type\":\"record\",\"name\":\"VersionConnectionInfoPair\",\"fields\":[{\"name\":\"version\",\"type\":\"int\"},{\"name\":\"conenctionInfo\",\"type\":\"bytes\"}]}}}]}}},{\"name\":\"eventProtocolVersion\",\"type\":[\"null\",\"int\"],\"default\":null}]}");
   public static org.apache.avro.Schema getClassSchema() { return SCHEMA$; }
    private org.kaaproject.kaa.server.common.zk.gen.ConnectionInfo connectionInfo;
    private org.kaaproject.kaa.server.common.zk.gen.LoadInfo loadInfo;
    private long timeStarted;
    private java.util.List<org.kaaproject.kaa.server.common.zk.gen.TransportMetaData> transports;
+   private java.lang.Integer eventProtocolVersion;
 
   /**
    * Default constructor.  Note that this does not initialize fields
@@ -24,11 +25,12 @@ public class OperationsNodeInfo extends org.apache.avro.specific.SpecificRecordB
   /**
    * All-args constructor.
    */
-  public OperationsNodeInfo(org.kaaproject.kaa.server.common.zk.gen.ConnectionInfo connectionInfo, org.kaaproject.kaa.server.common.zk.gen.LoadInfo loadInfo, java.lang.Long timeStarted, java.util.List<org.kaaproject.kaa.server.common.zk.gen.TransportMetaData> transports) {
+  public OperationsNodeInfo(org.kaaproject.kaa.server.common.zk.gen.ConnectionInfo connectionInfo, org.kaaproject.kaa.server.common.zk.gen.LoadInfo loadInfo, java.lang.Long timeStarted, java.util.List<org.kaaproject.kaa.server.common.zk.gen.TransportMetaData> transports, java.lang.Integer eventProtocolVersion) {
     this.connectionInfo = connectionInfo;
     this.loadInfo = loadInfo;
     this.timeStarted = timeStarted;
     this.transports = transports;
+    this.eventProtocolVersion = eventProtocolVersion;
   }
 
   public org.apache.avro.Schema getSchema() { return SCHEMA$; }
@@ -39,6 +41,7 @@ public class OperationsNodeInfo extends org.apache.avro.specific.SpecificRecordB
     case 1: return loadInfo;
     case 2: return timeStarted;
     case 3: return transports;
+    case 4: return eventProtocolVersion;
     default: throw new org.apache.avro.AvroRuntimeException("Bad index");
     }
   }
@@ -50,6 +53,7 @@ public class OperationsNodeInfo extends org.apache.avro.specific.SpecificRecordB
     case 1: loadInfo = (org.kaaproject.kaa.server.common.zk.gen.LoadInfo)value$; break;
     case 2: timeStarted = (java.lang.Long)value$; break;
     case 3: transports = (java.util.List<org.kaaproject.kaa.server.common.zk.gen.TransportMetaData>)value$; break;
+    case 4: eventProtocolVersion = (java.lang.Integer)value$; break;
     default: throw new org.apache.avro.AvroRuntimeException("Bad index");
     }
   }
@@ -114,6 +118,21 @@ public class OperationsNodeInfo extends org.apache.avro.specific.SpecificRecordB
     this.transports = value;
   }
 
+  /**
+   * Gets the value of the 'eventProtocolVersion' field.
+   */
+  public java.lang.Integer getEventProtocolVersion() {
+    return eventProtocolVersion;
+  }
+
+  /**
+   * Sets the value of the 'eventProtocolVersion' field.
+   * @param value the value to set.
+   */
+  public void setEventProtocolVersion(java.lang.Integer value) {
+    this.eventProtocolVersion = value;
+  }
+
   /** Creates a new OperationsNodeInfo RecordBuilder */
   public static org.kaaproject.kaa.server.common.zk.gen.OperationsNodeInfo.Builder newBuilder() {
     return new org.kaaproject.kaa.server.common.zk.gen.OperationsNodeInfo.Builder();
@@ -139,6 +158,7 @@ public class OperationsNodeInfo extends org.apache.avro.specific.SpecificRecordB
     private org.kaaproject.kaa.server.common.zk.gen.LoadInfo loadInfo;
     private long timeStarted;
     private java.util.List<org.kaaproject.kaa.server.common.zk.gen.TransportMetaData> transports;
+    private java.lang.Integer eventProtocolVersion;
 
     /** Creates a new Builder */
     private Builder() {
@@ -164,6 +184,10 @@ public class OperationsNodeInfo extends org.apache.avro.specific.SpecificRecordB
         this.transports = data().deepCopy(fields()[3].schema(), other.transports);
         fieldSetFlags()[3] = true;
       }
+      if (isValidValue(fields()[4], other.eventProtocolVersion)) {
+        this.eventProtocolVersion = data().deepCopy(fields()[4].schema(), other.eventProtocolVersion);
+        fieldSetFlags()[4] = true;
+      }
     }
     
     /** Creates a Builder by copying an existing OperationsNodeInfo instance */
@@ -185,6 +209,10 @@ public class OperationsNodeInfo extends org.apache.avro.specific.SpecificRecordB
         this.transports = data().deepCopy(fields()[3].schema(), other.transports);
         fieldSetFlags()[3] = true;
       }
+      if (isValidValue(fields()[4], other.eventProtocolVersion)) {
+        this.eventProtocolVersion = data().deepCopy(fields()[4].schema(), other.eventProtocolVersion);
+        fieldSetFlags()[4] = true;
+      }
     }
 
     /** Gets the value of the 'connectionInfo' field */
@@ -286,6 +314,31 @@ public class OperationsNodeInfo extends org.apache.avro.specific.SpecificRecordB
       return this;
     }
 
+    /** Gets the value of the 'eventProtocolVersion' field */
+    public java.lang.Integer getEventProtocolVersion() {
+      return eventProtocolVersion;
+    }
+    
+    /** Sets the value of the 'eventProtocolVersion' field */
+    public org.kaaproject.kaa.server.common.zk.gen.OperationsNodeInfo.Builder setEventProtocolVersion(java.lang.Integer value) {
+      validate(fields()[4], value);
+      this.eventProtocolVersion = value;
+      fieldSetFlags()[4] = true;
+      return this; 
+    }
+    
+    /** Checks whether the 'eventProtocolVersion' field has been set */
+    public boolean hasEventProtocolVersion() {
+      return fieldSetFlags()[4];
+    }
+    
+    /** Clears the value of the 'eventProtocolVersion' field */
+    public org.kaaproject.kaa.server.common.zk.gen.OperationsNodeInfo.Builder clearEventProtocolVersion() {
+      eventProtocolVersion = null;
+      fieldSetFlags()[4] = false;
+      return this;
+    }
+
     @Override
     public OperationsNodeInfo build() {
       try {
@@ -294,6 +347,7 @@ public class OperationsNodeInfo extends org.apache.avro.specific.SpecificRecordB
         record.loadInfo = fieldSetFlags()[1] ? this.loadInfo : (org.kaaproject.kaa.server.common.zk.gen.LoadInfo) defaultValue(fields()[1]);
         record.timeStarted = fieldSetFlags()[2] ? this.timeStarted : (java.lang.Long) defaultValue(fields()[2]);
         record.transports = fieldSetFlags()[3] ? this.transports : (java.util.List<org.kaaproject.kaa.server.common.zk.gen.TransportMetaData>) defaultValue(fields()[3]);
+        record.eventProtocolVersion = fieldSetFlags()[4] ? this.eventProtocolVersion : (java.lang.Integer) defaultValue(fields()[4]);
         return record;
       } catch (Exception e) {
         throw new org.apache.avro.AvroRuntimeException(e);
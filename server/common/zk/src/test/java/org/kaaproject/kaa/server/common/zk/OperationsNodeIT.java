@@ -18,8 +18,10 @@ package org.kaaproject.kaa.server.common.zk;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
+import static org.mockito.Matchers.any;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
 import static org.mockito.Mockito.verify;
 
 import java.io.IOException;
@@ -103,6 +105,42 @@ public class OperationsNodeIT {
         }
     }
 
+    @Test
+    public void endpointUpdatesCoalescingTest() throws Exception {
+        Timing timing = new Timing();
+        TestingCluster cluster = new TestingCluster(3);
+        cluster.start();
+        try {
+            OperationsNodeInfo endpointNodeInfo = buildOperationsNodeInfo();
+            BootstrapNodeInfo bootstrapNodeInfo = buildBootstrapNodeInfo();
+
+            BootstrapNode bootstrapNode = new BootstrapNode(bootstrapNodeInfo, cluster.getConnectString(), buildDefaultRetryPolicy());
+            bootstrapNode.setUpdateCoalescingWindow(timing.milliseconds());
+            OperationsNodeListener mockListener = mock(OperationsNodeListener.class);
+            bootstrapNode.addListener(mockListener);
+            bootstrapNode.start();
+
+            OperationsNode endpointNode = new OperationsNode(endpointNodeInfo, cluster.getConnectString(), buildDefaultRetryPolicy());
+            endpointNode.start();
+            timing.sleepABit();
+            verify(mockListener).onNodeAdded(endpointNodeInfo);
+
+            for (int i = 1; i <= 3; i++) {
+                endpointNodeInfo.setLoadInfo(new LoadInfo(i, 1.0));
+                endpointNode.updateNodeData(endpointNodeInfo);
+            }
+            timing.sleepABit();
+            verify(mockListener, never()).onNodeUpdated(any(OperationsNodeInfo.class));
+
+            verify(mockListener, timeout(timing.forWaiting().milliseconds())).onNodeUpdated(endpointNodeInfo);
+
+            endpointNode.close();
+            bootstrapNode.close();
+        } finally {
+            cluster.close();
+        }
+    }
+
     @Test
     public void endpointExceptionTest() throws Exception {
         TestingCluster cluster = new TestingCluster(3);
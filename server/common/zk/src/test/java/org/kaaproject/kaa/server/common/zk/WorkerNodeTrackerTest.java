@@ -0,0 +1,87 @@
+/*
+ * Copyright 2014-2016 CyberVision, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.kaaproject.kaa.server.common.zk;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.apache.avro.Schema;
+import org.apache.avro.Schema.Field;
+import org.apache.avro.io.BinaryEncoder;
+import org.apache.avro.io.EncoderFactory;
+import org.apache.avro.specific.SpecificDatumWriter;
+import org.apache.curator.retry.RetryOneTime;
+import org.junit.Assert;
+import org.junit.Test;
+import org.kaaproject.kaa.common.avro.AvroByteArrayConverter;
+import org.kaaproject.kaa.server.common.zk.gen.ConnectionInfo;
+import org.kaaproject.kaa.server.common.zk.gen.LoadInfo;
+import org.kaaproject.kaa.server.common.zk.gen.OperationsNodeInfo;
+import org.kaaproject.kaa.server.common.zk.gen.TransportMetaData;
+import org.kaaproject.kaa.server.common.zk.operations.OperationsNode;
+
+public class WorkerNodeTrackerTest {
+
+    private static final String ZK_HOST_PORT_LIST = "localhost:2181";
+
+    @Test
+    public void decodeOperationsNodeInfoTest() throws IOException {
+        WorkerNodeTracker node = new OperationsNode(buildOperationsNodeInfo(), ZK_HOST_PORT_LIST, new RetryOneTime(1));
+        OperationsNodeInfo nodeInfo = buildOperationsNodeInfo();
+        nodeInfo.setEventProtocolVersion(1);
+        byte[] data = new AvroByteArrayConverter<>(OperationsNodeInfo.class).toByteArray(nodeInfo);
+
+        Assert.assertEquals(nodeInfo, node.decodeOperationsNodeInfo(data));
+    }
+
+    @Test
+    public void decodeLegacyOperationsNodeInfoTest() throws IOException {
+        WorkerNodeTracker node = new OperationsNode(buildOperationsNodeInfo(), ZK_HOST_PORT_LIST, new RetryOneTime(1));
+        OperationsNodeInfo nodeInfo = buildOperationsNodeInfo();
+        Schema schema = OperationsNodeInfo.getClassSchema();
+        List<Field> fields = new ArrayList<>();
+        for (Field field : schema.getFields()) {
+            if (!field.name().equals("eventProtocolVersion")) {
+                fields.add(new Field(field.name(), field.schema(), field.doc(), field.defaultValue()));
+            }
+        }
+        Schema legacySchema = Schema.createRecord(schema.getName(), schema.getDoc(), schema.getNamespace(), false);
+        legacySchema.setFields(fields);
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        BinaryEncoder encoder = EncoderFactory.get().binaryEncoder(output, null);
+        new SpecificDatumWriter<OperationsNodeInfo>(legacySchema).write(nodeInfo, encoder);
+        encoder.flush();
+
+        OperationsNodeInfo decoded = node.decodeOperationsNodeInfo(output.toByteArray());
+        Assert.assertEquals(nodeInfo.getConnectionInfo(), decoded.getConnectionInfo());
+        Assert.assertEquals(nodeInfo.getTimeStarted(), decoded.getTimeStarted());
+        Assert.assertNull(decoded.getEventProtocolVersion());
+    }
+
+    private OperationsNodeInfo buildOperationsNodeInfo() {
+        OperationsNodeInfo nodeInfo = new OperationsNodeInfo();
+        nodeInfo.setConnectionInfo(new ConnectionInfo("localhost", 1000, ByteBuffer.wrap(new byte[] { 1, 2, 3 })));
+        nodeInfo.setLoadInfo(new LoadInfo(1, 1.0));
+        nodeInfo.setTimeStarted(System.currentTimeMillis());
+        nodeInfo.setTransports(new ArrayList<TransportMetaData>());
+        return nodeInfo;
+    }
+}
@@ -88,4 +88,7 @@ public interface ConfigurationConstants {
     
     public static final String CONFIG_AVRO_EVENT_SERIALIZER_SCHEMA_LOCAL_ROOT = "avro.schema.local.root";
     
+    public static final String CONFIG_AVRO_EVENT_SERIALIZER_PASSTHROUGH = "avro.passthrough";
+    public static final boolean DEFAULT_AVRO_EVENT_SERIALIZER_PASSTHROUGH = false;
+    
 }
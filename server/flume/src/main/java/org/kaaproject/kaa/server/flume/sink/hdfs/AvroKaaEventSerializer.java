@@ -20,10 +20,12 @@ import static org.apache.flume.serialization.AvroEventSerializerConfigurationCon
 import static org.apache.flume.serialization.AvroEventSerializerConfigurationConstants.DEFAULT_SYNC_INTERVAL_BYTES;
 import static org.apache.flume.serialization.AvroEventSerializerConfigurationConstants.SYNC_INTERVAL_BYTES;
 
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.OutputStream;
-import java.util.HashMap;
-import java.util.Map;
+import java.nio.ByteBuffer;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 import org.apache.avro.AvroRuntimeException;
 import org.apache.avro.Schema;
@@ -34,20 +36,34 @@ import org.apache.avro.generic.GenericDatumReader;
 import org.apache.avro.generic.GenericDatumWriter;
 import org.apache.avro.generic.GenericRecord;
 import org.apache.avro.io.BinaryDecoder;
+import org.apache.avro.io.BinaryEncoder;
 import org.apache.avro.io.DatumReader;
 import org.apache.avro.io.DatumWriter;
 import org.apache.avro.io.DecoderFactory;
+import org.apache.avro.io.EncoderFactory;
+import org.apache.avro.specific.SpecificDatumWriter;
 import org.apache.flume.Context;
 import org.apache.flume.Event;
 import org.apache.flume.FlumeException;
 import org.apache.flume.conf.Configurable;
 import org.apache.flume.serialization.EventSerializer;
 import org.kaaproject.kaa.server.common.log.shared.RecordWrapperSchemaGenerator;
+import org.kaaproject.kaa.server.common.log.shared.avro.gen.RecordHeader;
+import org.kaaproject.kaa.server.flume.ConfigurationConstants;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+/**
+ * Writes Kaa log records into an Avro data file, wrapping each record with its
+ * record header.
+ *
+ * <p>In passthrough mode the records are not decoded: the binary form of the
+ * wrapper record is assembled from the pre-encoded record header followed by
+ * the record bytes exactly as received, and appended to the data file as is.
+ * The records must then be valid for the log schema of the sink key.</p>
+ */
 public class AvroKaaEventSerializer implements EventSerializer, Configurable,
-        EventConstants {
+        EventConstants, ConfigurationConstants {
 
     private static final Logger LOG = LoggerFactory.getLogger(AvroKaaEventSerializer.class);
 
@@ -62,7 +78,13 @@ public class AvroKaaEventSerializer implements EventSerializer, Configurable,
 
     private int syncIntervalBytes;
     private String compressionCodec;
-    private static Map<KaaSinkKey, Schema> schemaCache = new HashMap<KaaSinkKey, Schema>();
+    private boolean passthrough;
+    private static ConcurrentMap<KaaSinkKey, Schema> schemaCache = new ConcurrentHashMap<KaaSinkKey, Schema>();
+
+    private final DatumWriter<RecordHeader> headerWriter = new SpecificDatumWriter<RecordHeader>(RecordHeader.class);
+    private BinaryEncoder headerEncoder;
+    private RecordHeader encodedHeader;
+    private byte[] encodedHeaderPrefix;
 
     private AvroSchemaSource schemaSource;
 
@@ -77,6 +99,8 @@ public class AvroKaaEventSerializer implements EventSerializer, Configurable,
                 DEFAULT_SYNC_INTERVAL_BYTES);
         compressionCodec = context.getString(COMPRESSION_CODEC,
                 DEFAULT_COMPRESSION_CODEC);
+        passthrough = context.getBoolean(CONFIG_AVRO_EVENT_SERIALIZER_PASSTHROUGH,
+                DEFAULT_AVRO_EVENT_SERIALIZER_PASSTHROUGH);
         schemaSource.configure(context);
     }
 
@@ -101,6 +125,15 @@ public class AvroKaaEventSerializer implements EventSerializer, Configurable,
             throw new IOException("Not instance of KaaRecordEvent!");
         }
         KaaRecordEvent kaaRecordEvent = (KaaRecordEvent)event;
+
+        if (passthrough) {
+            byte[] prefix = getEncodedHeaderPrefix(kaaRecordEvent.getRecordHeader());
+            byte[] body = kaaRecordEvent.getBody();
+            ByteBuffer wrapperRecordData = ByteBuffer.allocate(prefix.length + body.length);
+            wrapperRecordData.put(prefix).put(body).flip();
+            dataFileWriter.appendEncoded(wrapperRecordData);
+            return;
+        }
         
         binaryDecoder = DecoderFactory.get().binaryDecoder(kaaRecordEvent.getBody(), binaryDecoder);
         GenericRecord recordData = datumReader.read(null, binaryDecoder);
@@ -111,6 +144,30 @@ public class AvroKaaEventSerializer implements EventSerializer, Configurable,
         dataFileWriter.append(wrapperRecord);
     }
 
+    /**
+     * Returns the binary encoded wrapper record fields that precede the record
+     * data: the record header union and the record data union index. Events of
+     * one incoming batch share the record header, so the last encoded header is
+     * reused.
+     */
+    private byte[] getEncodedHeaderPrefix(RecordHeader recordHeader) throws IOException {
+        if (encodedHeaderPrefix == null || encodedHeader != recordHeader) {
+            ByteArrayOutputStream prefix = new ByteArrayOutputStream();
+            headerEncoder = EncoderFactory.get().binaryEncoder(prefix, headerEncoder);
+            if (recordHeader != null) {
+                headerEncoder.writeIndex(0);
+                headerWriter.write(recordHeader, headerEncoder);
+            } else {
+                headerEncoder.writeIndex(1);
+            }
+            headerEncoder.writeIndex(0);
+            headerEncoder.flush();
+            encodedHeader = recordHeader;
+            encodedHeaderPrefix = prefix.toByteArray();
+        }
+        return encodedHeaderPrefix;
+    }
+
     private void initialize(Event event) throws IOException {
         Schema schema = null;
         Schema wrapperSchema = null;
@@ -125,7 +182,12 @@ public class AvroKaaEventSerializer implements EventSerializer, Configurable,
                 throw new FlumeException("Could not find schema for event "
                         + event);
             }
-            schemaCache.put(key, schema);
+            if (schema != null) {
+                Schema cached = schemaCache.putIfAbsent(key, schema);
+                if (cached != null) {
+                    schema = cached;
+                }
+            }
         }
 
         if (schema == null) {
@@ -0,0 +1,133 @@
+/*
+ * Copyright 2014-2016 CyberVision, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.kaaproject.kaa.server.flume;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.avro.Schema;
+import org.apache.avro.file.DataFileStream;
+import org.apache.avro.generic.GenericRecord;
+import org.apache.avro.io.BinaryEncoder;
+import org.apache.avro.io.EncoderFactory;
+import org.apache.avro.specific.SpecificDatumReader;
+import org.apache.avro.specific.SpecificDatumWriter;
+import org.apache.commons.io.FileUtils;
+import org.apache.flume.Context;
+import org.apache.flume.serialization.EventSerializer;
+import org.junit.AfterClass;
+import org.junit.Assert;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.kaaproject.kaa.server.common.log.shared.RecordWrapperSchemaGenerator;
+import org.kaaproject.kaa.server.common.log.shared.avro.gen.RecordHeader;
+import org.kaaproject.kaa.server.flume.sink.hdfs.AvroKaaEventSerializer;
+import org.kaaproject.kaa.server.flume.sink.hdfs.EventConstants;
+import org.kaaproject.kaa.server.flume.sink.hdfs.KaaRecordEvent;
+
+public class TestAvroKaaEventSerializer {
+
+    private static String applicationToken = "75434753";
+    private static int logSchemaVersion = 1;
+    private static File logSchemasRootDir;
+
+    @BeforeClass
+    public static void setUp() throws IOException {
+        logSchemasRootDir = new File("serializer_schemas");
+        File schemaFile = new File(new File(logSchemasRootDir, applicationToken), "schema_v" + logSchemaVersion);
+        FileUtils.write(schemaFile, TestLogData.getClassSchema().toString());
+    }
+
+    @AfterClass
+    public static void deleteTempDirectory() throws IOException {
+        FileUtils.deleteDirectory(logSchemasRootDir);
+    }
+
+    @Test
+    public void testSerializer() throws IOException {
+        testSerializer(false);
+    }
+
+    @Test
+    public void testPassthroughSerializer() throws IOException {
+        testSerializer(true);
+    }
+
+    private void testSerializer(boolean passthrough) throws IOException {
+        RecordHeader header = RecordHeader.newBuilder()
+                .setApplicationToken(applicationToken)
+                .setEndpointKeyHash("endpoint key hash")
+                .setHeaderVersion(1)
+                .setLogSchemaVersion(logSchemaVersion)
+                .setTimestamp(System.currentTimeMillis())
+                .build();
+
+        Context context = new Context();
+        context.put("compressionCodec", "null");
+        context.put(ConfigurationConstants.CONFIG_AVRO_EVENT_SERIALIZER_SCHEMA_SOURCE, "local");
+        context.put(ConfigurationConstants.CONFIG_AVRO_EVENT_SERIALIZER_SCHEMA_LOCAL_ROOT, logSchemasRootDir.getAbsolutePath());
+        context.put(ConfigurationConstants.CONFIG_AVRO_EVENT_SERIALIZER_PASSTHROUGH, String.valueOf(passthrough));
+
+        Map<String, String> headers = new HashMap<>();
+        headers.put(EventConstants.APPLICATION_TOKEN_HEADER, applicationToken);
+        headers.put(EventConstants.SCHEMA_VERSION_HEADER, String.valueOf(logSchemaVersion));
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        EventSerializer serializer = new AvroKaaEventSerializer.Builder().build(context, out);
+        serializer.afterCreate();
+
+        List<RecordHeader> expectedHeaders = new ArrayList<>();
+        List<TestLogData> expectedLogs = new ArrayList<>();
+        SpecificDatumWriter<TestLogData> avroWriter = new SpecificDatumWriter<>(TestLogData.class);
+        BinaryEncoder encoder = null;
+        for (int i = 0; i < 10; i++) {
+            RecordHeader recordHeader = i < 5 ? header : null;
+            TestLogData testLogData = new TestLogData();
+            testLogData.setLevel(i % 2 == 0 ? Level.INFO : Level.DEBUG);
+            testLogData.setTag("TestAvroKaaEventSerializer");
+            testLogData.setMessage("Test log message # " + i);
+            ByteArrayOutputStream baos = new ByteArrayOutputStream();
+            encoder = EncoderFactory.get().binaryEncoder(baos, encoder);
+            avroWriter.write(testLogData, encoder);
+            encoder.flush();
+            serializer.write(new KaaRecordEvent(recordHeader, headers, baos.toByteArray()));
+            expectedHeaders.add(recordHeader);
+            expectedLogs.add(testLogData);
+        }
+        serializer.flush();
+        serializer.beforeClose();
+
+        Schema wrapperSchema = RecordWrapperSchemaGenerator.generateRecordWrapperSchema(TestLogData.getClassSchema().toString());
+        List<RecordHeader> resultHeaders = new ArrayList<>();
+        List<TestLogData> resultLogs = new ArrayList<>();
+        try (DataFileStream<GenericRecord> fileReader = new DataFileStream<>(new ByteArrayInputStream(out.toByteArray()),
+                new SpecificDatumReader<GenericRecord>(wrapperSchema))) {
+            for (GenericRecord record : fileReader) {
+                resultHeaders.add((RecordHeader) record.get(RecordWrapperSchemaGenerator.RECORD_HEADER_FIELD));
+                resultLogs.add((TestLogData) record.get(RecordWrapperSchemaGenerator.RECORD_DATA_FIELD));
+            }
+        }
+        Assert.assertEquals(expectedHeaders, resultHeaders);
+        Assert.assertEquals(expectedLogs, resultLogs);
+    }
+}
@@ -19,13 +19,16 @@ package org.kaaproject.kaa.server.admin.controller;
 import static org.springframework.http.MediaType.APPLICATION_JSON_VALUE;
 
 import java.io.IOException;
+import java.io.OutputStream;
 import java.nio.charset.Charset;
+import java.util.Collections;
 import java.util.List;
 
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
 
 import org.apache.commons.lang3.StringUtils;
+import org.codehaus.jackson.map.ObjectMapper;
 import org.kaaproject.kaa.common.dto.ApplicationDto;
 import org.kaaproject.kaa.common.dto.ConfigurationDto;
 import org.kaaproject.kaa.common.dto.ConfigurationRecordDto;
@@ -79,6 +82,7 @@ import org.kaaproject.kaa.server.admin.shared.services.KaaAdminService;
 import org.kaaproject.kaa.server.admin.shared.services.KaaAdminServiceException;
 import org.kaaproject.kaa.server.admin.shared.services.KaaAuthService;
 import org.kaaproject.kaa.server.admin.shared.services.ServiceErrorCode;
+import org.kaaproject.kaa.server.control.service.ControlService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.spring4gwt.server.SpringGwtRemoteServiceServlet;
@@ -117,6 +121,18 @@ public class KaaAdminController {
     /** The Constant DEFAULT_OFFSET. */
     private static final String DEFAULT_OFFSET = "0";
 
+    /** The Constant EXPORT_LIMIT, the page size used to export endpoint profiles. */
+    private static final String EXPORT_LIMIT = "500";
+
+    /** The Constant APPLICATION_NDJSON_VALUE. */
+    private static final String APPLICATION_NDJSON_VALUE = "application/x-ndjson";
+
+    /** The Constant EXPORT_ERROR_FIELD, the field of the error record that ends a failed export. */
+    private static final String EXPORT_ERROR_FIELD = "error";
+
+    /** The Constant JSON_MAPPER. */
+    private static final ObjectMapper JSON_MAPPER = new ObjectMapper();
+
     /** The Constant HTTPS_PORT. */
     public static final int HTTPS_PORT = 443;
 
@@ -133,6 +149,10 @@ public class KaaAdminController {
     @Autowired
     KaaAuthService kaaAuthService;
 
+    /** The control service. */
+    @Autowired
+    ControlService controlService;
+
     /** The user facade. */
     @Autowired
     UserFacade userFacade;
@@ -243,6 +263,78 @@ public class KaaAdminController {
         return endpointProfilesBodyDto;
     }
 
+    /**
+     * Exports all the endpoint profiles of the endpoint group as
+     * newline-delimited JSON, one endpoint profile per line. The profiles are
+     * read and written page by page, following the page cursor, so only one
+     * page is held in memory at a time. The endpoint group is resolved and
+     * checked once, before the first page is read. If the export fails after
+     * the response is committed, the last line is an error record.
+     *
+     * @param endpointGroupId
+     *            the endpoint group id
+     * @param response
+     *            the response
+     * @throws KaaAdminServiceException
+     *             the kaa admin service exception
+     */
+    @RequestMapping(value = "endpointProfilesExport", method = RequestMethod.GET, produces = APPLICATION_NDJSON_VALUE)
+    @ResponseStatus(value = HttpStatus.OK)
+    public void exportEndpointProfilesByEndpointGroupId(@RequestParam(value = "endpointGroupId") String endpointGroupId,
+            HttpServletResponse response) throws KaaAdminServiceException {
+        EndpointGroupDto endpointGroup = kaaAdminService.getEndpointGroup(endpointGroupId);
+        try {
+            response.setContentType(APPLICATION_NDJSON_VALUE);
+            response.setCharacterEncoding("UTF-8");
+            response.setBufferSize(BUFFER);
+            OutputStream output = response.getOutputStream();
+            String offset = DEFAULT_OFFSET;
+            while (true) {
+                EndpointProfilesPageDto endpointProfilesPageDto = controlService.getEndpointProfileByEndpointGroupId(
+                        createExportPageLink(endpointGroup, offset));
+                if (endpointProfilesPageDto.hasEndpointProfiles()) {
+                    for (EndpointProfileDto endpointProfile : endpointProfilesPageDto.getEndpointProfiles()) {
+                        output.write(JSON_MAPPER.writeValueAsBytes(endpointProfile));
+                        output.write('\n');
+                    }
+                }
+                PageLinkDto pageLinkDto = endpointProfilesPageDto.getPageLinkDto();
+                if (pageLinkDto == null || pageLinkDto.getNext() != null || !endpointProfilesPageDto.hasEndpointProfiles()) {
+                    break;
+                }
+                response.flushBuffer();
+                offset = pageLinkDto.getOffset();
+            }
+            response.flushBuffer();
+        } catch (Exception e) {
+            if (!response.isCommitted()) {
+                throw Utils.handleException(e);
+            }
+            LOG.error("Failed to export endpoint profiles of endpoint group [{}]", endpointGroupId, e);
+            writeExportError(response, e);
+        }
+    }
+
+    private PageLinkDto createExportPageLink(EndpointGroupDto endpointGroup, String offset) {
+        PageLinkDto pageLinkDto = new PageLinkDto(endpointGroup.getId(), EXPORT_LIMIT, offset);
+        if (endpointGroup.getWeight() == 0) {
+            // The profiles of the group "all" are looked up by the application
+            pageLinkDto.setApplicationId(endpointGroup.getApplicationId());
+        }
+        return pageLinkDto;
+    }
+
+    private void writeExportError(HttpServletResponse response, Exception cause) {
+        try {
+            OutputStream output = response.getOutputStream();
+            output.write(JSON_MAPPER.writeValueAsBytes(Collections.singletonMap(EXPORT_ERROR_FIELD, String.valueOf(cause.getMessage()))));
+            output.write('\n');
+            response.flushBuffer();
+        } catch (IOException e) {
+            LOG.error("Failed to write the export error record", e);
+        }
+    }
+
     private PageLinkDto createNext(PageLinkDto pageLink, HttpServletRequest request) {
         if (pageLink != null && pageLink.getNext() == null) {
             StringBuilder nextUrl = new StringBuilder();
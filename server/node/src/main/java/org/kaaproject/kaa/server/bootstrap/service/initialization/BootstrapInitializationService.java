@@ -145,6 +145,7 @@ public class BootstrapInitializationService extends AbstractInitializationServic
             nodeInfo.setTimeStarted(System.currentTimeMillis());
             bootstrapNode = new BootstrapNode(nodeInfo, getNodeConfig().getZkHostPortList(), new RetryUntilElapsed(getNodeConfig().getZkMaxRetryTime(), getNodeConfig().getZkSleepTime()));
             if (bootstrapNode != null) {
+                bootstrapNode.setUpdateCoalescingWindow(getNodeConfig().getZkUpdateCoalescingWindow());
                 bootstrapNode.start();
             }
         }
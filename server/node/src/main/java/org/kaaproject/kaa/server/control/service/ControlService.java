@@ -1585,7 +1585,8 @@ public interface ControlService {
 
     /**
      * Exports the CTL schema as avro schema with all dependencies inline,
-     * recursively.
+     * recursively. The returned avro schema is shared and must not be
+     * modified.
      * 
      * @param schema
      *            A CTL schema to export
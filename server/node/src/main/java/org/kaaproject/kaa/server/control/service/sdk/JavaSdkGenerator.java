@@ -16,20 +16,30 @@
 
 package org.kaaproject.kaa.server.control.service.sdk;
 
+import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
 import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
 import java.security.SecureRandom;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.Enumeration;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
 import java.util.Properties;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.stream.Stream;
 import java.util.zip.ZipEntry;
 import java.util.zip.ZipFile;
@@ -42,6 +52,9 @@ import org.apache.avro.compiler.specific.SpecificCompiler;
 import org.apache.avro.compiler.specific.SpecificCompiler.FieldVisibility;
 import org.apache.avro.generic.GenericData.StringType;
 import org.apache.commons.codec.binary.Base64;
+import org.apache.commons.codec.binary.Hex;
+import org.apache.commons.codec.digest.DigestUtils;
+import org.apache.commons.io.FileUtils;
 import org.apache.commons.io.IOUtils;
 import org.kaaproject.kaa.common.dto.admin.SdkPlatform;
 import org.kaaproject.kaa.common.dto.admin.SdkProfileDto;
@@ -57,6 +70,10 @@ import org.kaaproject.kaa.server.control.service.sdk.event.JavaEventClassesGener
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+
 /**
  * The Class JavaSdkGenerator.
  */
@@ -337,6 +354,48 @@ public class JavaSdkGenerator extends SdkGenerator {
      */
     private static final SecureRandom RANDOM = new SecureRandom();
 
+    /**
+     * The maximum number of schemas whose generated sources are cached.
+     */
+    private static final int SCHEMA_SOURCES_CACHE_SIZE = 256;
+
+    /**
+     * The maximum number of compiled source sets that are cached.
+     */
+    private static final int COMPILED_CLASSES_CACHE_SIZE = 32;
+
+    /**
+     * The maximum number of unpacked SDK templates that are cached.
+     */
+    private static final int SDK_TEMPLATE_CACHE_SIZE = 4;
+
+    /**
+     * Sources generated by the Avro compiler, by schema fingerprint. The
+     * sources are kept unfiltered, so every caller can apply its own set of
+     * unique schemas.
+     */
+    private static final Cache<String, List<GeneratedSource>> SCHEMA_SOURCES_CACHE = CacheBuilder.newBuilder()
+            .maximumSize(SCHEMA_SOURCES_CACHE_SIZE).build();
+
+    /**
+     * Class files, by fingerprint of the compiled sources and compiler options.
+     */
+    private static final Cache<String, Map<String, byte[]>> COMPILED_CLASSES_CACHE = CacheBuilder.newBuilder()
+            .maximumSize(COMPILED_CLASSES_CACHE_SIZE).softValues().build();
+
+    /**
+     * Unpacked SDK template archives, by template location.
+     */
+    private static final Cache<String, SdkTemplate> SDK_TEMPLATE_CACHE = CacheBuilder.newBuilder()
+            .maximumSize(SDK_TEMPLATE_CACHE_SIZE).softValues().build();
+
+    /**
+     * Runs the Avro compiler for independent schemas in parallel.
+     */
+    private static final ExecutorService SCHEMA_COMPILER_EXECUTOR = Executors.newFixedThreadPool(
+            Runtime.getRuntime().availableProcessors(),
+            new ThreadFactoryBuilder().setNameFormat("sdk-schema-compiler-%d").setDaemon(true).build());
+
     private final SdkPlatform sdkPlatform;
 
     public JavaSdkGenerator(SdkPlatform sdkPlatform) {
@@ -387,6 +446,24 @@ public class JavaSdkGenerator extends SdkGenerator {
 
         Map<String, Schema> uniqueSchemasMap = SchemaUtil.getUniqueSchemasMap(schemasToCheck);
 
+        Future<List<GeneratedSource>> configurationSchemaSources = submitSchemaSources(configurationSchema);
+        Future<List<GeneratedSource>> profileSchemaSources = null;
+        if (profileSchemaVersion != DEFAULT_PROFILE_SCHEMA_VERSION) {
+            profileSchemaSources = submitSchemaSources(profileSchema);
+        }
+        Future<List<GeneratedSource>> notificationSchemaSources = null;
+        if (notificationSchemaVersion != DEFAULT_SCHEMA_VERSION) {
+            notificationSchemaSources = submitSchemaSources(notificationSchema);
+        }
+        Future<List<GeneratedSource>> logSchemaSources = null;
+        if (logSchemaVersion != DEFAULT_SCHEMA_VERSION) {
+            logSchemaSources = submitSchemaSources(logSchema);
+        }
+        List<Future<List<GeneratedSource>>> eventFamilySchemaSources = new ArrayList<>();
+        for (Schema eventFamilySchema : eventFamilySchemas) {
+            eventFamilySchemaSources.add(submitSchemaSources(eventFamilySchema));
+        }
+
         String sdkTemplateLocation;
         if (sdkPlatform == SdkPlatform.JAVA) {
             sdkTemplateLocation = Environment.getServerHomeDir() + "/" + JAVA_SDK_DIR + "/" + JAVA_SDK_PREFIX + buildVersion
@@ -398,13 +475,11 @@ public class JavaSdkGenerator extends SdkGenerator {
             LOG.debug("Lookup Android SDK template: {}", sdkTemplateLocation);
         }
 
-        File sdkTemplateFile = new File(sdkTemplateLocation);
-        ZipFile templateArhive = new ZipFile(sdkTemplateFile);
+        SdkTemplate sdkTemplate = getSdkTemplate(new File(sdkTemplateLocation));
 
         Map<String, ZipEntryData> replacementData = new HashMap<String, ZipEntryData>();
 
-        ZipEntry clientPropertiesEntry = templateArhive.getEntry(CLIENT_PROPERTIES);
-        byte[] clientPropertiesData = generateClientProperties(templateArhive.getInputStream(clientPropertiesEntry), bootstrapNodes,
+        byte[] clientPropertiesData = generateClientProperties(sdkTemplate.getInputStream(CLIENT_PROPERTIES), bootstrapNodes,
                 sdkToken, configurationProtocolSchemaBody, defaultConfigurationData);
 
         replacementData.put(CLIENT_PROPERTIES, new ZipEntryData(new ZipEntry(CLIENT_PROPERTIES), clientPropertiesData));
@@ -414,7 +489,7 @@ public class JavaSdkGenerator extends SdkGenerator {
         String configurationClassName = configurationSchema.getName();
         String configurationClassPackage = configurationSchema.getNamespace();
 
-        javaSources.addAll(generateSchemaSources(configurationSchema, uniqueSchemasMap));
+        javaSources.addAll(filterSchemaSources(await(configurationSchemaSources), uniqueSchemasMap));
 
         String configurationManagerImplTemplate = readResource(CONFIGURATION_MANAGER_IMPL_SOURCE_TEMPLATE);
         String configurationManagerImplSource = configurationManagerImplTemplate.replaceAll(CONFIGURATION_CLASS_PACKAGE_VAR,
@@ -450,7 +525,7 @@ public class JavaSdkGenerator extends SdkGenerator {
         String profileClassPackage = profileSchema.getNamespace();
 
         if (profileSchemaVersion != DEFAULT_PROFILE_SCHEMA_VERSION) {
-            javaSources.addAll(generateSchemaSources(profileSchema, uniqueSchemasMap));
+            javaSources.addAll(filterSchemaSources(await(profileSchemaSources), uniqueSchemasMap));
         }
 
         String profileContainerTemplate = readResource(PROFILE_CONTAINER_SOURCE_TEMPLATE);
@@ -474,7 +549,7 @@ public class JavaSdkGenerator extends SdkGenerator {
         String notificationClassPackage = notificationSchema.getNamespace();
 
         if (notificationSchemaVersion != DEFAULT_SCHEMA_VERSION) {
-            javaSources.addAll(generateSchemaSources(notificationSchema, uniqueSchemasMap));
+            javaSources.addAll(filterSchemaSources(await(notificationSchemaSources), uniqueSchemasMap));
         }
 
         String notificationListenerTemplate = readResource(NOTIFICATION_LISTENER_SOURCE_TEMPLATE);
@@ -492,7 +567,7 @@ public class JavaSdkGenerator extends SdkGenerator {
         javaSources.add(notificationDeserializerClassBean);
 
         if (logSchemaVersion != DEFAULT_SCHEMA_VERSION) {
-            javaSources.addAll(generateSchemaSources(logSchema, uniqueSchemasMap));
+            javaSources.addAll(filterSchemaSources(await(logSchemaSources), uniqueSchemasMap));
         }
 
         String logRecordTemplate = readResource(LOG_RECORD_SOURCE_TEMPLATE);
@@ -516,8 +591,8 @@ public class JavaSdkGenerator extends SdkGenerator {
         javaSources.add(logCollectorSourceClassBean);
 
         if (eventFamilies != null && !eventFamilies.isEmpty()) {
-            for (Schema eventFamilySchema : eventFamilySchemas) {
-                javaSources.addAll(generateSchemaSources(eventFamilySchema, uniqueSchemasMap));
+            for (Future<List<GeneratedSource>> eventFamilySources : eventFamilySchemaSources) {
+                javaSources.addAll(filterSchemaSources(await(eventFamilySources), uniqueSchemasMap));
             }
             javaSources.addAll(JavaEventClassesGenerator.generateEventClasses(eventFamilies));
         }
@@ -555,23 +630,20 @@ public class JavaSdkGenerator extends SdkGenerator {
         ByteArrayOutputStream sdkOutput = new ByteArrayOutputStream();
         ZipOutputStream sdkFile = new ZipOutputStream(sdkOutput);
 
-        Enumeration<? extends ZipEntry> entries = templateArhive.entries();
-
-        while (entries.hasMoreElements()) {
-            ZipEntry e = entries.nextElement();
+        for (ZipEntryData templateEntry : sdkTemplate.getEntries()) {
+            ZipEntry e = templateEntry.getEntry();
             if (replacementData.containsKey(e.getName())) {
                 ZipEntryData replacementEntry = replacementData.remove(e.getName());
                 sdkFile.putNextEntry(replacementEntry.getEntry());
                 sdkFile.write(replacementEntry.getData());
             } else {
-                sdkFile.putNextEntry(e);
+                sdkFile.putNextEntry(new ZipEntry(e));
                 if (!e.isDirectory()) {
-                    IOUtils.copy(templateArhive.getInputStream(e), sdkFile);
+                    sdkFile.write(templateEntry.getData());
                 }
             }
             sdkFile.closeEntry();
         }
-        templateArhive.close();
 
         for (String entryName : replacementData.keySet()) {
             ZipEntryData replacementEntry = replacementData.get(entryName);
@@ -602,6 +674,26 @@ public class JavaSdkGenerator extends SdkGenerator {
      * @throws  IOException Signals that an I/O exception has occurred.
      */
     public static List<JavaDynamicBean> generateSchemaSources(Schema schema, Map<String, Schema> uniqueSchemas) throws IOException {
+        return filterSchemaSources(getSchemaSources(schema), uniqueSchemas);
+    }
+
+    /**
+     * Gets the sources the Avro compiler generates for the schema. The
+     * compiler only runs if the schema with the same fingerprint has not been
+     * compiled before.
+     *
+     * @param   schema  the schema
+     * @return  all the generated sources
+     * @throws  IOException Signals that an I/O exception has occurred.
+     */
+    private static List<GeneratedSource> getSchemaSources(Schema schema) throws IOException {
+        String schemaFingerprint = fingerprint(Collections.singletonList(schema.toString()));
+        List<GeneratedSource> sources = SCHEMA_SOURCES_CACHE.getIfPresent(schemaFingerprint);
+        if (sources != null) {
+            LOG.debug("Reusing generated sources of schema [{}]", schema.getFullName());
+            return sources;
+        }
+
         SpecificCompiler compiler = new SpecificCompiler(schema);
         compiler.setStringType(StringType.String);
         compiler.setFieldVisibility(FieldVisibility.PRIVATE);
@@ -617,24 +709,75 @@ public class JavaSdkGenerator extends SdkGenerator {
         File tmpOutputDir = new File(tmpdir, "tmp-gen-" + Long.toString(n));
         tmpOutputDir.mkdirs();
 
-        compiler.compileToDestination(null, tmpOutputDir);
+        try {
+            compiler.compileToDestination(null, tmpOutputDir);
+            sources = Collections.unmodifiableList(getJavaSources(tmpOutputDir));
+        } finally {
+            FileUtils.deleteQuietly(tmpOutputDir);
+        }
 
-        List<JavaDynamicBean> sources = getJavaSources(tmpOutputDir, uniqueSchemas);
+        SCHEMA_SOURCES_CACHE.put(schemaFingerprint, sources);
+        return sources;
+    }
 
-        tmpOutputDir.delete();
+    /**
+     * Submits the generation of the schema sources to the schema compiler
+     * executor.
+     *
+     * @param   schema  the schema
+     * @return  the future of all the generated sources
+     */
+    private static Future<List<GeneratedSource>> submitSchemaSources(Schema schema) {
+        return SCHEMA_COMPILER_EXECUTOR.submit(() -> getSchemaSources(schema));
+    }
 
-        return sources;
+    /**
+     * Waits for the generated sources, rethrowing the failure of the task.
+     *
+     * @param   future  the future of the generated sources
+     * @return  the generated sources
+     * @throws  Exception if the generation failed or the thread was interrupted
+     */
+    private static List<GeneratedSource> await(Future<List<GeneratedSource>> future) throws Exception {
+        try {
+            return future.get();
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof Exception) {
+                throw (Exception) cause;
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Keeps the sources of the classes from the unique schemas and removes
+     * them from the unique schemas, so the class is not generated twice.
+     *
+     * @param   sources         the generated sources
+     * @param   uniqueSchemas   the unique schemas
+     * @return  the java sources
+     */
+    private static List<JavaDynamicBean> filterSchemaSources(List<GeneratedSource> sources, Map<String, Schema> uniqueSchemas) {
+        List<JavaDynamicBean> result = new ArrayList<JavaDynamicBean>();
+        for (GeneratedSource source : sources) {
+            if (uniqueSchemas.remove(source.classPackageAndName) != null) {
+                result.add(new JavaDynamicBean(source.className, source.sourceCode));
+            }
+        }
+        return result;
     }
 
     /**
-     * Package sources.
+     * Package sources. The sources are compiled only if the same set of
+     * sources has not been compiled before.
      *
      * @param javaSources the java sources
      * @param data        the data
+     * @throws IOException Signals that an I/O exception has occurred.
      */
-    private void packageSources(List<JavaDynamicBean> javaSources, Map<String, ZipEntryData> data) {
-        JavaDynamicCompiler dynamicCompiler = new JavaDynamicCompiler();
-        dynamicCompiler.init();
+    private void packageSources(List<JavaDynamicBean> javaSources, Map<String, ZipEntryData> data) throws IOException {
+        List<String> compilationInput = new ArrayList<>();
         for (JavaDynamicBean bean : javaSources) {
             LOG.debug("Compiling bean [{}]...", bean.getName());
             LOG.trace("Bean source:\n{}", bean.getCharContent(true));
@@ -642,16 +785,33 @@ public class JavaSdkGenerator extends SdkGenerator {
             String packageLine = sourceLines.filter(line -> line.startsWith("package")).findFirst().orElse("");
             String sourceFileName = packageLine.replaceAll("package", "").replaceAll("\\.|;", "/").trim() + bean.getName();
             data.put(sourceFileName, new ZipEntryData(new ZipEntry(sourceFileName), bean.getCharContent(true).getBytes()));
+            compilationInput.add(sourceFileName);
+            compilationInput.add(bean.getCharContent(true));
+        }
+        compilationInput.add(JAVA_SOURCE_COMPILER_RELEASE);
+        compilationInput.add(JAVA_TARGET_COMPILER_RELEASE);
+
+        String compilationFingerprint = fingerprint(compilationInput);
+        Map<String, byte[]> classFiles = COMPILED_CLASSES_CACHE.getIfPresent(compilationFingerprint);
+        if (classFiles == null) {
+            JavaDynamicCompiler dynamicCompiler = new JavaDynamicCompiler();
+            dynamicCompiler.init();
+            Collection<JavaDynamicBean> compiledObjects = dynamicCompiler.compile(javaSources,
+                    "-source", JAVA_SOURCE_COMPILER_RELEASE,
+                    "-target", JAVA_TARGET_COMPILER_RELEASE);
+            classFiles = new LinkedHashMap<>();
+            for (JavaDynamicBean compiledObject : compiledObjects) {
+                String className = compiledObject.getName();
+                String classFileName = className.replace('.', '/') + Kind.CLASS.extension;
+                classFiles.put(classFileName, compiledObject.getBytes());
+            }
+            COMPILED_CLASSES_CACHE.put(compilationFingerprint, Collections.unmodifiableMap(classFiles));
+        } else {
+            LOG.debug("Reusing {} compiled classes", classFiles.size());
         }
-        Collection<JavaDynamicBean> compiledObjects = dynamicCompiler.compile(javaSources, 
-                "-source", JAVA_SOURCE_COMPILER_RELEASE,
-                "-target", JAVA_TARGET_COMPILER_RELEASE);
-        for (JavaDynamicBean compiledObject : compiledObjects) {
-            String className = compiledObject.getName();
-            String classFileName = className.replace('.', '/') + Kind.CLASS.extension;
-            ZipEntry classFile = new ZipEntry(classFileName);
-            ZipEntryData zipEntryData = new ZipEntryData(classFile, compiledObject.getBytes());
-            data.put(classFileName, zipEntryData);
+        for (Map.Entry<String, byte[]> classFile : classFiles.entrySet()) {
+            ZipEntryData zipEntryData = new ZipEntryData(new ZipEntry(classFile.getKey()), classFile.getValue());
+            data.put(classFile.getKey(), zipEntryData);
         }
     }
 
@@ -662,12 +822,12 @@ public class JavaSdkGenerator extends SdkGenerator {
      * @return the java sources
      * @throws IOException Signals that an I/O exception has occurred.
      */
-    private static List<JavaDynamicBean> getJavaSources(File srcDir, Map<String, Schema> uniqueSchemas) throws IOException {
-        List<JavaDynamicBean> result = new ArrayList<JavaDynamicBean>();
+    private static List<GeneratedSource> getJavaSources(File srcDir) throws IOException {
+        List<GeneratedSource> result = new ArrayList<GeneratedSource>();
         File[] files = srcDir.listFiles();
         for (File f : files) {
             if (f.isDirectory()) {
-                result.addAll(getJavaSources(f, uniqueSchemas));
+                result.addAll(getJavaSources(f));
             } else if (f.getName().endsWith(Kind.SOURCE.extension)) {
                 int index = f.getName().indexOf('.');
                 String className = f.getName().substring(0, index);
@@ -683,16 +843,48 @@ public class JavaSdkGenerator extends SdkGenerator {
                     }
                 }
 
-                if (uniqueSchemas.containsKey(classPackageAndName)) {
-                    uniqueSchemas.remove(classPackageAndName);
-                    JavaDynamicBean sourceObject = new JavaDynamicBean(className, sourceCode);
-                    result.add(sourceObject);
-                }
+                result.add(new GeneratedSource(className, classPackageAndName, sourceCode));
             }
         }
         return result;
     }
 
+    /**
+     * Gets the SDK template, unpacking the archive only if it is not cached
+     * or has changed since it was cached.
+     *
+     * @param templateFile the template file
+     * @return the SDK template
+     * @throws IOException Signals that an I/O exception has occurred.
+     */
+    private static SdkTemplate getSdkTemplate(File templateFile) throws IOException {
+        String templateLocation = templateFile.getAbsolutePath();
+        SdkTemplate template = SDK_TEMPLATE_CACHE.getIfPresent(templateLocation);
+        if (template == null || !template.isUpToDate(templateFile)) {
+            template = SdkTemplate.load(templateFile);
+            SDK_TEMPLATE_CACHE.put(templateLocation, template);
+        } else {
+            LOG.debug("Reusing SDK template: {}", templateLocation);
+        }
+        return template;
+    }
+
+    /**
+     * Calculates the SHA-256 fingerprint of the values.
+     *
+     * @param values the values
+     * @return the hex encoded fingerprint
+     */
+    private static String fingerprint(List<String> values) {
+        MessageDigest digest = DigestUtils.getSha256Digest();
+        for (String value : values) {
+            byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+            digest.update(ByteBuffer.allocate(Integer.BYTES).putInt(bytes.length).array());
+            digest.update(bytes);
+        }
+        return Hex.encodeHexString(digest.digest());
+    }
+
     /**
      * Generate client properties.
      *
@@ -728,4 +920,71 @@ public class JavaSdkGenerator extends SdkGenerator {
         return baos.toByteArray();
     }
 
+    /**
+     * The source of a class generated by the Avro compiler.
+     */
+    private static final class GeneratedSource {
+
+        private final String className;
+
+        private final String classPackageAndName;
+
+        private final String sourceCode;
+
+        private GeneratedSource(String className, String classPackageAndName, String sourceCode) {
+            this.className = className;
+            this.classPackageAndName = classPackageAndName;
+            this.sourceCode = sourceCode;
+        }
+    }
+
+    /**
+     * The unpacked entries of an SDK template archive.
+     */
+    private static final class SdkTemplate {
+
+        private final long lastModified;
+
+        private final long length;
+
+        private final Map<String, ZipEntryData> entries;
+
+        private SdkTemplate(long lastModified, long length, Map<String, ZipEntryData> entries) {
+            this.lastModified = lastModified;
+            this.length = length;
+            this.entries = entries;
+        }
+
+        private static SdkTemplate load(File templateFile) throws IOException {
+            long lastModified = templateFile.lastModified();
+            long length = templateFile.length();
+            Map<String, ZipEntryData> entries = new LinkedHashMap<>();
+            try (ZipFile templateArhive = new ZipFile(templateFile)) {
+                Enumeration<? extends ZipEntry> templateEntries = templateArhive.entries();
+                while (templateEntries.hasMoreElements()) {
+                    ZipEntry e = templateEntries.nextElement();
+                    byte[] data = new byte[0];
+                    if (!e.isDirectory()) {
+                        try (InputStream input = templateArhive.getInputStream(e)) {
+                            data = IOUtils.toByteArray(input);
+                        }
+                    }
+                    entries.put(e.getName(), new ZipEntryData(e, data));
+                }
+            }
+            return new SdkTemplate(lastModified, length, Collections.unmodifiableMap(entries));
+        }
+
+        private boolean isUpToDate(File templateFile) {
+            return templateFile.lastModified() == lastModified && templateFile.length() == length;
+        }
+
+        private Collection<ZipEntryData> getEntries() {
+            return entries.values();
+        }
+
+        private InputStream getInputStream(String name) {
+            return new ByteArrayInputStream(entries.get(name).getData());
+        }
+    }
 }
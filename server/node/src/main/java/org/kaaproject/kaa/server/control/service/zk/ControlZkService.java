@@ -75,6 +75,7 @@ public class ControlZkService {
             nodeInfo.setConnectionInfo(connectionInfo);
             controlZKNode = new ControlNode(nodeInfo, getNodeConfig().getZkHostPortList(), 60 * 1000, 3 * 1000, new RetryUntilElapsed(
                     getNodeConfig().getZkMaxRetryTime(), getNodeConfig().getZkSleepTime()));
+            controlZKNode.setUpdateCoalescingWindow(getNodeConfig().getZkUpdateCoalescingWindow());
             try {
                 controlZKNode.start();
             } catch (Exception e) {
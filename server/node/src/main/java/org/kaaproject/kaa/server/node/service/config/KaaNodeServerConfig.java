@@ -50,6 +50,9 @@ public class KaaNodeServerConfig {
 
     /** The zk ignore errors. */
     private boolean zkIgnoreErrors;
+
+    /** The zk node updates coalescing window. */
+    private long zkUpdateCoalescingWindow;
     
     /**
      * @return true if Control server enabled
@@ -132,6 +135,15 @@ public class KaaNodeServerConfig {
     public boolean isZkIgnoreErrors() {
         return zkIgnoreErrors;
     }
+
+    /**
+     * The zk node updates coalescing window.
+     * 
+     * @return the zkUpdateCoalescingWindow
+     */
+    public long getZkUpdateCoalescingWindow() {
+        return zkUpdateCoalescingWindow;
+    }
     
     /**
      * @param controlServerEnabled
@@ -212,4 +224,12 @@ public class KaaNodeServerConfig {
     public void setZkIgnoreErrors(boolean zkIgnoreErrors) {
         this.zkIgnoreErrors = zkIgnoreErrors;
     }
+
+    /**
+     * @param zkUpdateCoalescingWindow
+     *            the zkUpdateCoalescingWindow to set
+     */
+    public void setZkUpdateCoalescingWindow(long zkUpdateCoalescingWindow) {
+        this.zkUpdateCoalescingWindow = zkUpdateCoalescingWindow;
+    }
 }
@@ -17,6 +17,7 @@
 package org.kaaproject.kaa.server.operations.service.akka.actors.core;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -141,6 +142,15 @@ public class ApplicationLogActorMessageProcessor {
         }
     }
 
+    /**
+     * Returns the appenders that support the given log schema version and
+     * delivery confirmation mode. The result is cached until the set of
+     * appenders changes.
+     *
+     * @param schemaVersion the log schema version
+     * @param confirmDelivery whether the appenders should require delivery confirmation
+     * @return the unmodifiable list of matching appenders
+     */
     public List<LogAppender> filterAppenders(int schemaVersion, boolean confirmDelivery) {
         LogAppenderFilterKey key = new LogAppenderFilterKey(schemaVersion, confirmDelivery);
         List<LogAppender> result = logAppendersCache.get(key);
@@ -151,6 +161,8 @@ public class ApplicationLogActorMessageProcessor {
                     result.add(appender);
                 }
             }
+            result = Collections.unmodifiableList(result);
+            logAppendersCache.put(key, result);
         }
         return result;
     }
@@ -298,8 +298,22 @@ public class LocalUserActorMessageProcessor {
     }
 
     private void sendEventToRecepients(ActorContext context, EndpointEvent event, Collection<RouteTableAddress> recipients) {
+        List<RouteTableAddress> remoteRecipients = new ArrayList<>();
         for (RouteTableAddress recipient : recipients) {
-            sendEventsToRecepient(context, recipient, Collections.singletonList(event));
+            if (recipient.isLocal()) {
+                sendEventsToRecepient(context, recipient, Collections.singletonList(event));
+            } else if (!eventDeliveryTable.isDeliveryStarted(event, recipient)) {
+                remoteRecipients.add(recipient);
+            }
+        }
+
+        if (remoteRecipients.size() > 0) {
+            LOG.trace("[{}] forwarding event {} to {} remote recepients", userId, event, remoteRecipients.size());
+            eventService.sendEvent(tenantId, userId, event, remoteRecipients);
+            for (RouteTableAddress recipient : remoteRecipients) {
+                LOG.debug("[{}] registering delivery attempt of event {} to recepient {}", userId, event, recipient);
+                eventDeliveryTable.registerDeliveryAttempt(event, recipient);
+            }
         }
     }
 
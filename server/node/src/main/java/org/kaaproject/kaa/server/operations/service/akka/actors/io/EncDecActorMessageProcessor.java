@@ -334,7 +334,7 @@ public class EncDecActorMessageProcessor {
             LOG.trace("Public key extracted");
         }
         crypt.setRemotePublicKey(endpointKey);
-        if (crypt.verify(message.getEncodedSessionKey(), message.getSessionKeySignature())) {
+        if (crypt.verifySessionKey(message.getEncodedSessionKey(), message.getSessionKeySignature())) {
             LOG.trace("Request data verified");
         } else {
             LOG.warn("Request data verification failed");
@@ -427,8 +427,9 @@ public class EncDecActorMessageProcessor {
         Object[] responses = converter.build(e);
         if (responses != null && responses.length > 0) {
             for (Object response : responses) {
-                ctx.writeAndFlush(response);
+                ctx.write(response);
             }
+            ctx.flush();
         } else {
             ctx.fireExceptionCaught(e);
         }
@@ -22,8 +22,6 @@ import java.security.PublicKey;
 import java.security.spec.InvalidKeySpecException;
 import java.security.spec.X509EncodedKeySpec;
 import java.util.ArrayList;
-import java.util.Collections;
-import java.util.Comparator;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
@@ -207,15 +205,6 @@ public class ConcurrentCacheService implements CacheService {
     /** The topic list memorizer. */
     private final CacheTemporaryMemorizer<EndpointObjectHash, TopicListCacheEntry> topicListMemorizer = new CacheTemporaryMemorizer<>();
 
-    /** The history seq number comparator. */
-    public static final Comparator<HistoryDto> HISTORY_SEQ_NUMBER_COMPARATOR = (o1, o2) -> {
-        if (o1.getSequenceNumber() > o2.getSequenceNumber()) {
-            return 1;
-        } else {
-            return o1.getSequenceNumber() == o2.getSequenceNumber() ? 0 : -1;
-        }
-    };
-
     /*
      * (non-Javadoc)
      * 
@@ -309,7 +298,6 @@ public class ConcurrentCacheService implements CacheService {
                 ApplicationDto appDto = applicationService.findAppByApplicationToken(key.getAppToken());
                 List<HistoryDto> fullHistoryList = historyService.findHistoriesBySeqNumberRange(appDto.getId(), key.getOldSeqNumber(),
                         key.getNewSeqNumber());
-                Collections.sort(fullHistoryList, ConcurrentCacheService.HISTORY_SEQ_NUMBER_COMPARATOR);
 
                 for (HistoryDto historyDto : fullHistoryList) {
                     ChangeDto changeDto = historyDto.getChange();
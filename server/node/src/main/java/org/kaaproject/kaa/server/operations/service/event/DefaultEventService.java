@@ -24,6 +24,7 @@ import java.util.Collections;
 import java.util.HashMap;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 import java.util.UUID;
 import java.util.concurrent.ConcurrentHashMap;
@@ -80,6 +81,12 @@ public class DefaultEventService implements EventService {
 
     private static final AtomicLong eventSequence = new AtomicLong(UUID.randomUUID().getLeastSignificantBits()); //NOSONAR
 
+    /**
+     * The first event protocol version that accepts an {@link Event} with a
+     * list of recipients.
+     */
+    private static final int RECIPIENT_LIST_PROTOCOL_VERSION = 1;
+
     @Autowired
     private OperationsServerConfig operationsServerConfig;
 
@@ -95,6 +102,9 @@ public class DefaultEventService implements EventService {
     /** Listeners list which registered to receive event from thrift server. */
     private Set<EventServiceListener> listeners;
 
+    /** Operations servers that accept events with a list of recipients. */
+    private final Set<String> recipientListServers = Collections.newSetFromMap(new ConcurrentHashMap<String, Boolean>());
+
     /** AVRO event converter */
     private final ThreadLocal<AvroByteArrayConverter<org.kaaproject.kaa.common.endpoint.gen.Event>> eventConverter = new ThreadLocal<AvroByteArrayConverter<org.kaaproject.kaa.common.endpoint.gen.Event>>() {
         @Override
@@ -137,30 +147,54 @@ public class DefaultEventService implements EventService {
      */
     @Override
     public void sendEvent(RemoteEndpointEvent remoteEndpointEvent) {
-        String serverId = remoteEndpointEvent.getRecipient().getServerId();
-        NeighborConnection<MessageTemplate, Message> server = neighbors.getNeghborConnection(serverId);
-        if (server == null) {
-            LOG.debug("sendRouteInfo() specified server {} not found in neighbors list", serverId);
-            notifyListenersOnServerProblem(serverId);
-            return;
+        sendEvent(remoteEndpointEvent.getTenantId(), remoteEndpointEvent.getUserId(), remoteEndpointEvent.getEvent(),
+                Collections.singletonList(remoteEndpointEvent.getRecipient()));
+    }
+
+    /*
+     * (non-Javadoc)
+     * 
+     * @see
+     * org.kaaproject.kaa.server.operations.service.event.EventService#sendEvent
+     * (java.lang.String, java.lang.String,
+     * org.kaaproject.kaa.server.operations.service.event.EndpointEvent,
+     * java.util.Collection)
+     */
+    @Override
+    public void sendEvent(String tenantId, String userId, EndpointEvent event, Collection<RouteTableAddress> recipients) {
+        Map<String, List<RouteAddress>> recipientsByServer = new HashMap<>();
+        for (RouteTableAddress recipient : recipients) {
+            List<RouteAddress> serverRecipients = recipientsByServer.get(recipient.getServerId());
+            if (serverRecipients == null) {
+                serverRecipients = new ArrayList<>();
+                recipientsByServer.put(recipient.getServerId(), serverRecipients);
+            }
+            serverRecipients.add(new RouteAddress(ByteBuffer.wrap(recipient.getEndpointKey().getData()), recipient.getApplicationToken(),
+                    recipient.getServerId()));
         }
-        RouteAddress routeAddress = new RouteAddress(ByteBuffer.wrap(remoteEndpointEvent.getRecipient().getEndpointKey().getData()),
-                remoteEndpointEvent.getRecipient().getApplicationToken(), serverId);
-        ByteBuffer eventData;
+        org.kaaproject.kaa.server.common.thrift.gen.operations.EndpointEvent endpointEvent;
         try {
-            org.kaaproject.kaa.server.sync.Event eventSource = remoteEndpointEvent.getEvent().getEvent();
-            eventData = ByteBuffer.wrap(eventConverter.get().toByteArray(AvroEncDec.convert(eventSource)));
-            org.kaaproject.kaa.server.common.thrift.gen.operations.EndpointEvent endpointEvent = new org.kaaproject.kaa.server.common.thrift.gen.operations.EndpointEvent(
-                    remoteEndpointEvent.getEvent().getId().toString(),
-                    ByteBuffer.wrap(remoteEndpointEvent.getEvent().getSender().getData()), eventData, remoteEndpointEvent.getEvent()
-                            .getCreateTime(), remoteEndpointEvent.getEvent().getVersion());
-            Event event = new Event(remoteEndpointEvent.getUserId(), remoteEndpointEvent.getTenantId(), endpointEvent, routeAddress);
-            server.sendMessages(packMessage(event));
-        } catch (IOException e1) {
-            LOG.error("Error on converting Event to byte array: skiping this event message", e1);
-        } catch (InterruptedException e) {
-            LOG.error("Error sending events to server: ", e);
-            notifyListenersOnServerProblem(serverId);
+            ByteBuffer eventData = ByteBuffer.wrap(eventConverter.get().toByteArray(AvroEncDec.convert(event.getEvent())));
+            endpointEvent = new org.kaaproject.kaa.server.common.thrift.gen.operations.EndpointEvent(event.getId().toString(),
+                    ByteBuffer.wrap(event.getSender().getData()), eventData, event.getCreateTime(), event.getVersion());
+        } catch (IOException e) {
+            LOG.error("Error on converting Event to byte array: skiping this event message", e);
+            return;
+        }
+        for (Map.Entry<String, List<RouteAddress>> entry : recipientsByServer.entrySet()) {
+            List<RouteAddress> serverRecipients = entry.getValue();
+            if (serverRecipients.size() > 1 && recipientListServers.contains(entry.getKey())) {
+                Event thriftEvent = new Event(userId, tenantId, endpointEvent, serverRecipients.get(0));
+                thriftEvent.setRecipients(serverRecipients);
+                sendMessagesToServer(packMessage(thriftEvent), entry.getKey());
+            } else {
+                // Older nodes only read routeAddress, so each recipient gets its own event
+                List<Message> messages = new ArrayList<>(serverRecipients.size());
+                for (RouteAddress recipient : serverRecipients) {
+                    messages.addAll(packMessage(new Event(userId, tenantId, endpointEvent, recipient)));
+                }
+                sendMessagesToServer(messages, entry.getKey());
+            }
         }
     }
 
@@ -332,6 +366,7 @@ public class DefaultEventService implements EventService {
         this.operationsNode = operationsNode;
         this.id = Neighbors.getServerID(KaaThriftService.OPERATIONS_SERVICE, this.operationsNode.getNodeInfo().getConnectionInfo());
         neighbors.setZkNode(KaaThriftService.OPERATIONS_SERVICE, this.operationsNode.getNodeInfo().getConnectionInfo(), operationsNode);
+        trackEventProtocolVersions(operationsNode);
         if (resolver != null) {
             updateResolver(this.resolver);
         }
@@ -586,21 +621,26 @@ public class DefaultEventService implements EventService {
     private void onEvent(Event event) {
         LOG.debug("onEvent .... event in {} listeners", listeners.size());
         LOG.debug("Event: {}", event.toString());
-        for (EventServiceListener listener : listeners) {
-            org.kaaproject.kaa.server.sync.Event localEvent;
-            try {
-                localEvent = AvroEncDec.convert(eventConverter.get().fromByteArray(event.getEndpointEvent().getEventData()));
-                EndpointEvent endpointEvent = new EndpointEvent(EndpointObjectHash.fromBytes(event.getEndpointEvent().getSender()),
-                        localEvent, UUID.fromString(event.getEndpointEvent().getUuid()), event.getEndpointEvent().getCreateTime(), event
-                                .getEndpointEvent().getVersion());
-                RouteTableAddress recipient = new RouteTableAddress(EndpointObjectHash.fromBytes(event.getRouteAddress().getEndpointKey()),
-                        event.getRouteAddress().getApplicationToken(), event.getRouteAddress().getOperationsServerId());
-                RemoteEndpointEvent remoteEvent = new RemoteEndpointEvent(event.getTenantId(), event.getUserId(), endpointEvent, recipient);
+        EndpointEvent endpointEvent;
+        try {
+            org.kaaproject.kaa.server.sync.Event localEvent = AvroEncDec.convert(eventConverter.get().fromByteArray(
+                    event.getEndpointEvent().getEventData()));
+            endpointEvent = new EndpointEvent(EndpointObjectHash.fromBytes(event.getEndpointEvent().getSender()), localEvent,
+                    UUID.fromString(event.getEndpointEvent().getUuid()), event.getEndpointEvent().getCreateTime(), event.getEndpointEvent()
+                            .getVersion());
+        } catch (IOException e) {
+            LOG.error("Error on converting byte array to Event: skiping this event message", e);
+            return;
+        }
+        List<RouteAddress> recipients = event.isSetRecipients() ? event.getRecipients() : Collections.singletonList(event
+                .getRouteAddress());
+        for (RouteAddress routeAddress : recipients) {
+            RouteTableAddress recipient = new RouteTableAddress(EndpointObjectHash.fromBytes(routeAddress.getEndpointKey()),
+                    routeAddress.getApplicationToken(), routeAddress.getOperationsServerId());
+            RemoteEndpointEvent remoteEvent = new RemoteEndpointEvent(event.getTenantId(), event.getUserId(), endpointEvent, recipient);
+            for (EventServiceListener listener : listeners) {
                 listener.onEvent(remoteEvent);
-            } catch (IOException e) {
-                LOG.error("Error on converting byte array to Event: skiping this event message", e);
             }
-
         }
     }
 
@@ -630,6 +670,39 @@ public class DefaultEventService implements EventService {
         }
     }
 
+    private void trackEventProtocolVersions(OperationsNode operationsNode) {
+        operationsNode.addListener(new OperationsNodeListener() {
+            @Override
+            public void onNodeUpdated(OperationsNodeInfo node) {
+                updateEventProtocolVersion(node);
+            }
+
+            @Override
+            public void onNodeRemoved(OperationsNodeInfo node) {
+                recipientListServers.remove(Neighbors.getServerID(node.getConnectionInfo()));
+            }
+
+            @Override
+            public void onNodeAdded(OperationsNodeInfo node) {
+                updateEventProtocolVersion(node);
+            }
+        });
+
+        for (OperationsNodeInfo info : operationsNode.getCurrentOperationServerNodes()) {
+            updateEventProtocolVersion(info);
+        }
+    }
+
+    private void updateEventProtocolVersion(OperationsNodeInfo node) {
+        String serverId = Neighbors.getServerID(node.getConnectionInfo());
+        Integer version = node.getEventProtocolVersion();
+        if (version != null && version >= RECIPIENT_LIST_PROTOCOL_VERSION) {
+            recipientListServers.add(serverId);
+        } else {
+            recipientListServers.remove(serverId);
+        }
+    }
+
     private List<Message> packMessage(GlobalRouteInfo routeInfo) {
         EventMessageType type = EventMessageType.ENDPOINT_ROUTE_UPDATE;
         List<Message> messages = new LinkedList<>();
@@ -37,6 +37,14 @@ import org.kaaproject.kaa.server.resolve.OperationsServerResolver;
  */
 public interface EventService {
 
+    /**
+     * Version of the event protocol between operations servers. It is
+     * published in the operations node info, so neighbors know which
+     * messages this server understands. Version 1 added events with a list
+     * of recipients.
+     */
+    int EVENT_PROTOCOL_VERSION = 1;
+
     /**
      * Stop Event service.
      */
@@ -51,6 +59,24 @@ public interface EventService {
      */
     void sendEvent(RemoteEndpointEvent event);
 
+    /**
+     * Send Endpoint Event to the list of remote recipients. Recipients are
+     * grouped by their operations server, so the event is serialized once.
+     * Neighbors that publish event protocol version 1 or later receive a
+     * single message with the list of their recipients; older neighbors
+     * receive one message per recipient.
+     *
+     * @param tenantId
+     *            the tenant id
+     * @param userId
+     *            the user id
+     * @param event
+     *            EndpointEvent
+     * @param recipients
+     *            the recipients, located on remote operations servers
+     */
+    void sendEvent(String tenantId, String userId, EndpointEvent event, Collection<RouteTableAddress> recipients);
+
     /**
      * Send RouteInfo to specified list of operations servers. null in
      * serverIdList mean broadcast to all servers.
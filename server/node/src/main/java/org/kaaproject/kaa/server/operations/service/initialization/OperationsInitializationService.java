@@ -192,8 +192,10 @@ public class OperationsInitializationService extends AbstractInitializationServi
         nodeInfo.setConnectionInfo(new ConnectionInfo(getNodeConfig().getThriftHost(), getNodeConfig().getThriftPort(), keyData));
         nodeInfo.setLoadInfo(new LoadInfo(DEFAULT_LOAD_INDEX, 1.0));
         nodeInfo.setTransports(new ArrayList<TransportMetaData>());
+        nodeInfo.setEventProtocolVersion(EventService.EVENT_PROTOCOL_VERSION);
         operationsNode = new OperationsNode(nodeInfo, getNodeConfig().getZkHostPortList(), new RetryUntilElapsed(getNodeConfig()
                 .getZkMaxRetryTime(), getNodeConfig().getZkSleepTime()));
+        operationsNode.setUpdateCoalescingWindow(getNodeConfig().getZkUpdateCoalescingWindow());
         try {
             operationsNode.start();
             eventService.setZkNode(operationsNode);
@@ -39,6 +39,10 @@ public class DefaultLoadBalancingService implements LoadBalancingService {
 
     private static final long DEFAULT_STATS_UPDATE_FREQUENCY = 10 * 1000;
 
+    private static final int DEFAULT_ENDPOINT_COUNT_DELTA = 100;
+
+    private static final double DEFAULT_LOAD_AVERAGE_DELTA = 0.5;
+
     /**
      * The Constant LOG.
      */
@@ -53,10 +57,21 @@ public class DefaultLoadBalancingService implements LoadBalancingService {
     @Value("#{properties[load_stats_update_frequency]}")
     private long loadStatsUpdateFrequency = DEFAULT_STATS_UPDATE_FREQUENCY;
 
+    /** Endpoint count change that is not published to ZooKeeper. */
+    @Value("#{properties[load_stats_endpoint_count_delta]}")
+    private int endpointCountDelta = DEFAULT_ENDPOINT_COUNT_DELTA;
+
+    /** System load average change that is not published to ZooKeeper. */
+    @Value("#{properties[load_stats_load_average_delta]}")
+    private double loadAverageDelta = DEFAULT_LOAD_AVERAGE_DELTA;
+
     private ExecutorService pool = Executors.newSingleThreadExecutor();
 
     private OperationsNode operationsNode;
 
+    /** The load info that was last published to ZooKeeper. */
+    private LoadInfo publishedLoadInfo;
+
     @Override
     public void start(OperationsNode operationsNode) {
         LOG.info("Starting service using {} update frequency", loadStatsUpdateFrequency);
@@ -91,13 +106,27 @@ public class DefaultLoadBalancingService implements LoadBalancingService {
     @Override
     public void onStatusUpdate(AkkaServiceStatus status) {
         try {
-            OperationsNodeInfo nodeInfo = operationsNode.getNodeInfo();
             OperatingSystemMXBean operatingSystemMXBean = ManagementFactory.getOperatingSystemMXBean();
-            nodeInfo.setLoadInfo(new LoadInfo(status.getEndpointCount(), operatingSystemMXBean.getSystemLoadAverage()));
+            LoadInfo loadInfo = new LoadInfo(status.getEndpointCount(), operatingSystemMXBean.getSystemLoadAverage());
+            if (!isSignificantChange(loadInfo)) {
+                LOG.debug("Skipping load info update: {}, published: {}", loadInfo, publishedLoadInfo);
+                return;
+            }
+            OperationsNodeInfo nodeInfo = operationsNode.getNodeInfo();
+            nodeInfo.setLoadInfo(loadInfo);
             operationsNode.updateNodeData(nodeInfo);
+            publishedLoadInfo = loadInfo;
             LOG.info("Updated load info: {}", nodeInfo.getLoadInfo());
         } catch (Exception e) {
             LOG.error("Failed to report status update to control server", e);
         }
     }
+
+    private boolean isSignificantChange(LoadInfo loadInfo) {
+        if (publishedLoadInfo == null) {
+            return true;
+        }
+        return Math.abs(loadInfo.getEndpointCount() - publishedLoadInfo.getEndpointCount()) > endpointCountDelta
+                || Math.abs(loadInfo.getLoadAverage() - publishedLoadInfo.getLoadAverage()) > loadAverageDelta;
+    }
 }
@@ -16,10 +16,18 @@
 
 package org.kaaproject.kaa.server.operations.service.logs;
 
+import java.io.File;
+import java.io.IOException;
+
 import org.kaaproject.kaa.common.dto.logs.LogAppenderDto;
 import org.kaaproject.kaa.server.common.log.shared.appender.LogAppender;
+import org.kaaproject.kaa.server.common.log.shared.appender.QueuedLogAppender;
+import org.kaaproject.kaa.server.common.log.shared.appender.spill.FsyncPolicy;
+import org.kaaproject.kaa.server.common.log.shared.appender.spill.LogEventPackSpill;
+import org.kaaproject.kaa.server.common.log.shared.appender.spill.SpillingLogAppender;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
 @Component
@@ -27,6 +35,42 @@ public class DefaultLogAppenderBuilder implements LogAppenderBuilder {
 
     private static final Logger LOG = LoggerFactory.getLogger(DefaultLogAppenderBuilder.class);
 
+    /** The capacity of the queue of each log appender, 0 disables queueing. */
+    @Value("#{properties[log_appender_queue_capacity]}")
+    private int queueCapacity;
+
+    /** The number of worker threads of each log appender. */
+    @Value("#{properties[log_appender_worker_count]}")
+    private int workerCount;
+
+    /** The root directory of log appender spills, empty disables spilling. */
+    @Value("#{properties[log_appender_spill_dir]}")
+    private String spillDirectory;
+
+    /** The maximum size of a spill segment in bytes. */
+    @Value("#{properties[log_appender_spill_segment_size]}")
+    private long spillSegmentSize;
+
+    /** The maximum size of the spill of each log appender in bytes. */
+    @Value("#{properties[log_appender_spill_max_size]}")
+    private long spillMaxSize;
+
+    /** The spill fsync policy. */
+    @Value("#{properties[log_appender_spill_fsync_policy]}")
+    private String spillFsyncPolicy;
+
+    /** The spill fsync interval in milliseconds. */
+    @Value("#{properties[log_appender_spill_fsync_interval]}")
+    private long spillFsyncInterval;
+
+    /** The delay between spill replay attempts in milliseconds. */
+    @Value("#{properties[log_appender_spill_replay_interval]}")
+    private long spillReplayInterval;
+
+    /** The time to wait for delivery of a replayed log event pack in milliseconds. */
+    @Value("#{properties[log_appender_spill_replay_timeout]}")
+    private long spillReplayTimeout;
+
     public DefaultLogAppenderBuilder() {
         super();
     }
@@ -46,6 +90,14 @@ public class DefaultLogAppenderBuilder implements LogAppenderBuilder {
             logAppender.setAppenderId(appenderConfig.getId());
             logAppender.setApplicationToken(appenderConfig.getApplicationToken());
             logAppender.init(appenderConfig);
+            if (spillDirectory != null && !spillDirectory.isEmpty()) {
+                logAppender = wrapWithSpill(logAppender, appenderConfig);
+            }
+            if (queueCapacity > 0) {
+                LOG.debug("Wrap log appender [{}] with a queue of capacity {} and {} worker(s).", logAppender, queueCapacity,
+                        workerCount);
+                logAppender = new QueuedLogAppender(logAppender, queueCapacity, workerCount);
+            }
             return logAppender;
         } catch (ClassNotFoundException e) {
             LOG.error("Unable to find custom appender class {}", appenderConfig.getPluginClassName());
@@ -55,4 +107,17 @@ public class DefaultLogAppenderBuilder implements LogAppenderBuilder {
             throw e;
         }
     }
-}
\ No newline at end of file
+
+    private LogAppender wrapWithSpill(LogAppender logAppender, LogAppenderDto appenderConfig) {
+        File directory = new File(spillDirectory, appenderConfig.getId());
+        try {
+            FsyncPolicy fsyncPolicy = FsyncPolicy.valueOf(spillFsyncPolicy.toUpperCase());
+            LogEventPackSpill spill = new LogEventPackSpill(directory, spillSegmentSize, spillMaxSize, fsyncPolicy, spillFsyncInterval);
+            LOG.debug("Wrap log appender [{}] with a spill in [{}].", logAppender, directory);
+            return new SpillingLogAppender(logAppender, spill, spillReplayInterval, spillReplayTimeout);
+        } catch (IOException | IllegalArgumentException e) {
+            LOG.warn("Unable to open spill [{}] for log appender [{}], spilling is disabled", directory, logAppender, e);
+            return logAppender;
+        }
+    }
+}
@@ -29,6 +29,8 @@ import java.util.Map;
 import java.util.Set;
 import java.util.StringJoiner;
 import java.util.TimeZone;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 
 import org.kaaproject.kaa.common.dto.EndpointGroupDto;
 import org.kaaproject.kaa.common.dto.EndpointGroupStateDto;
@@ -163,6 +165,17 @@ public class DefaultNotificationDeltaService implements NotificationDeltaService
 
         long now = new GregorianCalendar(TimeZone.getTimeZone("UTC")).getTimeInMillis();
 
+        if (request.getAcceptedUnicastNotifications() != null) {
+            for (String acceptedUnicastId : request.getAcceptedUnicastNotifications()) {
+                notificationService.removeUnicastNotificationById(acceptedUnicastId);
+                LOG.debug("[{}] deleted accepted unicast notification {} ", endpointId, acceptedUnicastId);
+            }
+        }
+
+        // The unicast notifications are looked up while the topic notifications are fetched
+        CompletableFuture<List<EndpointNotificationDto>> unicastNotificationsFuture = notificationService
+                .findUnicastNotificationsByKeyHashAsync(request.getProfile().getEndpointKeyHash());
+
         List<NotificationDto> notifications = new ArrayList<>();
         for (String topicId : subscriptionSet) {
             int seqNumber = subscriptionStates.get(topicId);
@@ -186,15 +199,7 @@ public class DefaultNotificationDeltaService implements NotificationDeltaService
             }
         }
 
-        if (request.getAcceptedUnicastNotifications() != null) {
-            for (String acceptedUnicastId : request.getAcceptedUnicastNotifications()) {
-                notificationService.removeUnicastNotificationById(acceptedUnicastId);
-                LOG.debug("[{}] deleted accepted unicast notification {} ", endpointId, acceptedUnicastId);
-            }
-        }
-
-        List<EndpointNotificationDto> unicastNotifications = notificationService.findUnicastNotificationsByKeyHash(request.getProfile()
-                .getEndpointKeyHash());
+        List<EndpointNotificationDto> unicastNotifications = await(unicastNotificationsFuture);
         for (EndpointNotificationDto unicastNotification : unicastNotifications) {
             LOG.debug("[{}] detected new unicast notification: {} ", endpointId, unicastNotification.getId());
             LOG.trace("[{}] detected new unicast notification: {} ", endpointId, unicastNotification);
@@ -221,6 +226,17 @@ public class DefaultNotificationDeltaService implements NotificationDeltaService
         return response;
     }
 
+    private static <T> T await(CompletableFuture<T> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw e;
+        }
+    }
+
     /**
      * Convert unicast notification.
      *
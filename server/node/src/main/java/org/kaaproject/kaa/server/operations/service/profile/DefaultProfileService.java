@@ -20,6 +20,8 @@ import java.security.InvalidKeyException;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.util.function.BiFunction;
 import java.util.function.Function;
 
@@ -81,6 +83,11 @@ public class DefaultProfileService implements ProfileService {
         return endpointService.findEndpointProfileByKeyHash(endpointKey.getData());
     }
 
+    @Override
+    public CompletableFuture<EndpointProfileDto> getProfileAsync(EndpointObjectHash endpointKey) {
+        return endpointService.findEndpointProfileByKeyHashAsync(endpointKey.getData());
+    }
+
     @Override
     public EndpointProfileDto updateProfile(EndpointProfileDto profile,
             BiFunction<EndpointProfileDto, EndpointProfileDto, EndpointProfileDto> mergeFunction) {
@@ -91,6 +98,9 @@ public class DefaultProfileService implements ProfileService {
             BiFunction<EndpointProfileDto, EndpointProfileDto, EndpointProfileDto> mergeFunction, int retryCount) {
         LOG.debug("Updating profile {} ", update);
         try {
+            // Profile and group state updates change the group states, the access token and
+            // the version states together, and the group states and the access token are indexed.
+            // Unlike the endpoint user id they are saved as a whole, so the DAO keeps the indexes in sync.
             return endpointService.saveEndpointProfile(update);
         } catch (KaaOptimisticLockingFailureException ex) {
             LOG.warn("Failed to update profile {} ", update, ex);
@@ -117,6 +127,10 @@ public class DefaultProfileService implements ProfileService {
     public EndpointProfileDto registerProfile(RegisterProfileRequest request) {
         String endpointId = Base64Util.encode(SHA1HashUtils.hashToBytes(request.getEndpointKey())); 
         LOG.debug("Registering Profile for {}", request.getEndpointKey());
+        EndpointObjectHash keyHash = EndpointObjectHash.fromSHA1(request.getEndpointKey());
+        // The profile lookup goes to the database, so it runs while the cache lookups and the profile decoding are done.
+        CompletableFuture<EndpointProfileDto> profileLookup = getProfileAsync(keyHash);
+
         LOG.trace("Lookup application by token: {}", request.getAppToken());
 
         AppSeqNumber appSeqNumber = cacheService.getAppSeqNumber(request.getAppToken());
@@ -127,9 +141,7 @@ public class DefaultProfileService implements ProfileService {
 
         String profileJson = decodeProfile(request.getProfile(), appSeqNumber.getAppToken(), sdkProfile.getProfileSchemaVersion());
 
-        EndpointObjectHash keyHash = EndpointObjectHash.fromSHA1(request.getEndpointKey());
-
-        EndpointProfileDto dto = endpointService.findEndpointProfileByKeyHash(keyHash.getData());
+        EndpointProfileDto dto = join(profileLookup);
         if (dto == null) {
             dto = new EndpointProfileDto();
             dto.setSdkToken(sdkProfile.getToken());
@@ -189,13 +201,15 @@ public class DefaultProfileService implements ProfileService {
     public EndpointProfileDto updateProfile(UpdateProfileRequest request) {
         LOG.debug("Updating Profile for {}", request.getEndpointKeyHash());
 
-        EndpointProfileDto dto = endpointService.findEndpointProfileByKeyHash(request.getEndpointKeyHash().getData());
+        CompletableFuture<EndpointProfileDto> profileLookup = getProfileAsync(request.getEndpointKeyHash());
 
         AppSeqNumber appSeqNumber = cacheService.getAppSeqNumber(request.getApplicationToken());
 
         SdkProfileDto sdkProfile = cacheService.getSdkProfileBySdkToken(request.getSdkToken());
         String profileJson = decodeProfile(request.getProfile(), appSeqNumber.getAppToken(), sdkProfile.getProfileSchemaVersion());
 
+        EndpointProfileDto dto = join(profileLookup);
+
         Function<EndpointProfileDto, EndpointProfileDto> updateFunction = profile -> {
             if (request.getAccessToken() != null) {
                 profile.setAccessToken(request.getAccessToken());
@@ -213,6 +227,17 @@ public class DefaultProfileService implements ProfileService {
         });
     }
 
+    private static EndpointProfileDto join(CompletableFuture<EndpointProfileDto> profile) {
+        try {
+            return profile.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw e;
+        }
+    }
+
     protected void populateVersionStates(String tenantId, EndpointProfileDto dto, SdkProfileDto sdkProfile) {
         dto.setClientProfileVersion(sdkProfile.getProfileSchemaVersion());
         dto.setConfigurationVersion(sdkProfile.getConfigurationSchemaVersion());
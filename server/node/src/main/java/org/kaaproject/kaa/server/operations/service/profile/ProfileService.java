@@ -16,6 +16,7 @@
 
 package org.kaaproject.kaa.server.operations.service.profile;
 
+import java.util.concurrent.CompletableFuture;
 import java.util.function.BiFunction;
 import java.util.function.Function;
 
@@ -41,6 +42,15 @@ public interface ProfileService {
      */
     EndpointProfileDto getProfile(EndpointObjectHash endpointKey);
 
+    /**
+     * Gets the profile without blocking the calling thread.
+     *
+     * @param endpointKey
+     *            the endpoint key
+     * @return the future of the profile, completed with null if the profile is not found
+     */
+    CompletableFuture<EndpointProfileDto> getProfileAsync(EndpointObjectHash endpointKey);
+
     /**
      * Update profile.
      *
@@ -0,0 +1,131 @@
+/*
+ * Copyright 2014-2016 CyberVision, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.kaaproject.kaa.server.admin.controller;
+
+import static org.mockito.Mockito.mock;
+
+import java.util.Arrays;
+import java.util.List;
+
+import org.codehaus.jackson.JsonNode;
+import org.codehaus.jackson.map.ObjectMapper;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.kaaproject.kaa.common.dto.EndpointGroupDto;
+import org.kaaproject.kaa.common.dto.EndpointProfileDto;
+import org.kaaproject.kaa.common.dto.EndpointProfilesPageDto;
+import org.kaaproject.kaa.common.dto.PageLinkDto;
+import org.kaaproject.kaa.server.admin.shared.services.KaaAdminService;
+import org.kaaproject.kaa.server.common.dao.DaoConstants;
+import org.kaaproject.kaa.server.control.service.ControlService;
+import org.kaaproject.kaa.server.control.service.exception.ControlServiceException;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mockito;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.util.ReflectionTestUtils;
+
+public class KaaAdminControllerTest {
+
+    private static final String APPLICATION_ID = "APPLICATION_ID";
+    private static final String ENDPOINT_GROUP_ID = "ENDPOINT_GROUP_ID";
+
+    private KaaAdminController controller;
+    // mocks
+    private KaaAdminService kaaAdminService;
+    private ControlService controlService;
+
+    @Before
+    public void before() throws Exception {
+        controller = new KaaAdminController();
+        kaaAdminService = mock(KaaAdminService.class);
+        controlService = mock(ControlService.class);
+        ReflectionTestUtils.setField(controller, "kaaAdminService", kaaAdminService);
+        ReflectionTestUtils.setField(controller, "controlService", controlService);
+
+        EndpointGroupDto endpointGroup = new EndpointGroupDto();
+        endpointGroup.setId(ENDPOINT_GROUP_ID);
+        endpointGroup.setApplicationId(APPLICATION_ID);
+        endpointGroup.setWeight(0);
+        Mockito.when(kaaAdminService.getEndpointGroup(ENDPOINT_GROUP_ID)).thenReturn(endpointGroup);
+    }
+
+    @Test
+    public void exportEndpointProfilesPagesTest() throws Exception {
+        Mockito.when(controlService.getEndpointProfileByEndpointGroupId(Mockito.any(PageLinkDto.class)))
+                .thenReturn(createPage("cursor", null, "EP1", "EP2"))
+                .thenReturn(createPage(null, DaoConstants.LAST_PAGE_MESSAGE, "EP3"));
+
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        controller.exportEndpointProfilesByEndpointGroupId(ENDPOINT_GROUP_ID, response);
+
+        List<JsonNode> records = readRecords(response);
+        Assert.assertEquals(3, records.size());
+        Assert.assertEquals("EP1", records.get(0).get("id").getTextValue());
+        Assert.assertEquals("EP2", records.get(1).get("id").getTextValue());
+        Assert.assertEquals("EP3", records.get(2).get("id").getTextValue());
+
+        ArgumentCaptor<PageLinkDto> pageLinks = ArgumentCaptor.forClass(PageLinkDto.class);
+        Mockito.verify(controlService, Mockito.times(2)).getEndpointProfileByEndpointGroupId(pageLinks.capture());
+        Assert.assertEquals("0", pageLinks.getAllValues().get(0).getOffset());
+        Assert.assertEquals("cursor", pageLinks.getAllValues().get(1).getOffset());
+        for (PageLinkDto pageLink : pageLinks.getAllValues()) {
+            Assert.assertEquals(ENDPOINT_GROUP_ID, pageLink.getEndpointGroupId());
+            Assert.assertEquals(APPLICATION_ID, pageLink.getApplicationId());
+        }
+        Mockito.verify(kaaAdminService, Mockito.times(1)).getEndpointGroup(ENDPOINT_GROUP_ID);
+    }
+
+    @Test
+    public void exportEndpointProfilesFailureAfterFlushTest() throws Exception {
+        Mockito.when(controlService.getEndpointProfileByEndpointGroupId(Mockito.any(PageLinkDto.class)))
+                .thenReturn(createPage("cursor", null, "EP1"))
+                .thenThrow(new ControlServiceException("Page failed"));
+
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        controller.exportEndpointProfilesByEndpointGroupId(ENDPOINT_GROUP_ID, response);
+
+        Assert.assertTrue(response.isCommitted());
+        List<JsonNode> records = readRecords(response);
+        Assert.assertEquals(2, records.size());
+        Assert.assertEquals("EP1", records.get(0).get("id").getTextValue());
+        Assert.assertEquals("Page failed", records.get(1).get("error").getTextValue());
+    }
+
+    private EndpointProfilesPageDto createPage(String offset, String next, String... ids) {
+        EndpointProfileDto[] endpointProfiles = new EndpointProfileDto[ids.length];
+        for (int i = 0; i < ids.length; i++) {
+            endpointProfiles[i] = new EndpointProfileDto();
+            endpointProfiles[i].setId(ids[i]);
+        }
+        EndpointProfilesPageDto page = new EndpointProfilesPageDto(Arrays.asList(endpointProfiles));
+        PageLinkDto pageLink = new PageLinkDto(ENDPOINT_GROUP_ID, "500", offset);
+        pageLink.setNext(next);
+        page.setPageLinkDto(pageLink);
+        return page;
+    }
+
+    private List<JsonNode> readRecords(MockHttpServletResponse response) throws Exception {
+        ObjectMapper mapper = new ObjectMapper();
+        String[] lines = response.getContentAsString().split("\n");
+        JsonNode[] records = new JsonNode[lines.length];
+        for (int i = 0; i < lines.length; i++) {
+            records[i] = mapper.readTree(lines[i]);
+        }
+        return Arrays.asList(records);
+    }
+}
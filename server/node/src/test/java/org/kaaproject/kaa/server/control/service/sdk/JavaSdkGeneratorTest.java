@@ -0,0 +1,57 @@
+/*
+ * Copyright 2014-2016 CyberVision, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.kaaproject.kaa.server.control.service.sdk;
+
+import java.net.URL;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.avro.Schema;
+import org.apache.commons.io.IOUtils;
+import org.junit.Assert;
+import org.junit.Test;
+import org.kaaproject.kaa.server.control.service.sdk.compiler.JavaDynamicBean;
+
+public class JavaSdkGeneratorTest {
+
+    private static final String SCHEMA_RESOURCE = "control/data/testLogSchema.json";
+
+    @Test
+    public void testGenerateSchemaSourcesCache() throws Exception {
+        URL resource = this.getClass().getClassLoader().getResource(SCHEMA_RESOURCE);
+        Schema schema = new Schema.Parser().parse(IOUtils.toString(resource));
+
+        Map<String, Schema> uniqueSchemas = SchemaUtil.getUniqueSchemasMap(Collections.singletonList(schema));
+        int uniqueSchemasCount = uniqueSchemas.size();
+        List<JavaDynamicBean> sources = JavaSdkGenerator.generateSchemaSources(schema, uniqueSchemas);
+        Assert.assertEquals(uniqueSchemasCount, sources.size());
+        Assert.assertTrue(uniqueSchemas.isEmpty());
+
+        uniqueSchemas = SchemaUtil.getUniqueSchemasMap(Collections.singletonList(schema));
+        List<JavaDynamicBean> cachedSources = JavaSdkGenerator.generateSchemaSources(schema, uniqueSchemas);
+        Assert.assertEquals(sources.size(), cachedSources.size());
+        for (int i = 0; i < sources.size(); i++) {
+            Assert.assertNotSame(sources.get(i), cachedSources.get(i));
+            Assert.assertEquals(sources.get(i).getName(), cachedSources.get(i).getName());
+            Assert.assertEquals(sources.get(i).getCharContent(true), cachedSources.get(i).getCharContent(true));
+        }
+
+        Assert.assertTrue(JavaSdkGenerator.generateSchemaSources(schema, uniqueSchemas).isEmpty());
+    }
+}
@@ -136,7 +136,7 @@ public class ControlZkServiceTest {
         ReflectionTestUtils.setField(zkService, "controlZKNode", controlZKNode);
         
         List<OperationsNodeInfo> endpointNodes = Arrays.asList(
-                new OperationsNodeInfo(new ConnectionInfo("host1", 123, null), new LoadInfo(1, 1.0), System.currentTimeMillis(), new ArrayList<TransportMetaData>()));
+                new OperationsNodeInfo(new ConnectionInfo("host1", 123, null), new LoadInfo(1, 1.0), System.currentTimeMillis(), new ArrayList<TransportMetaData>(), null));
         
         
         Mockito.when(controlZKNode.getCurrentOperationServerNodes()).thenReturn(endpointNodes);
@@ -20,6 +20,7 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 
+import org.junit.Assert;
 import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
@@ -36,6 +37,8 @@ import org.kaaproject.kaa.server.common.log.shared.appender.LogEvent;
 import org.kaaproject.kaa.server.common.log.shared.appender.LogEventPack;
 import org.kaaproject.kaa.server.common.log.shared.appender.LogSchema;
 import org.kaaproject.kaa.server.common.log.shared.appender.data.BaseLogEventPack;
+import org.kaaproject.kaa.server.common.thrift.gen.operations.Notification;
+import org.kaaproject.kaa.server.common.thrift.gen.operations.Operation;
 import org.kaaproject.kaa.server.operations.service.akka.AkkaContext;
 import org.kaaproject.kaa.server.operations.service.akka.actors.core.ApplicationLogActorMessageProcessor.VoidCallback;
 import org.kaaproject.kaa.server.operations.service.akka.messages.core.logs.AbstractActorCallback;
@@ -256,4 +259,31 @@ public class ApplicationLogActorMessageProcessorTest {
         Mockito.verify(optional).doAppend(Mockito.eq(message.getLogEventPack()), Mockito.any(VoidCallback.class));
         Mockito.verify(messageProcessor).sendSuccessMessageToEndpoint(message);
     }
+
+    /**
+     * A test to ensure that the appenders are filtered once per log schema
+     * version and filtered again after the set of appenders changes.
+     *
+     * @throws Exception
+     */
+    @Test
+    public void appenderFilterCacheTest() throws Exception {
+
+        logAppenders.add(required[0]);
+
+        ApplicationLogActorMessageProcessor messageProcessor = new ApplicationLogActorMessageProcessor(context, APPLICATION_TOKEN);
+        Assert.assertEquals(Arrays.asList(required[0]), messageProcessor.filterAppenders(LOG_SCHEMA_VERSION, true));
+        Assert.assertEquals(Arrays.asList(required[0]), messageProcessor.filterAppenders(LOG_SCHEMA_VERSION, true));
+        Mockito.verify(required[0], Mockito.times(1)).isSchemaVersionSupported(LOG_SCHEMA_VERSION);
+
+        Mockito.when(logAppenderService.getApplicationAppender(optional.getAppenderId())).thenReturn(optional);
+        Notification notification = new Notification();
+        notification.setAppenderId(optional.getAppenderId());
+        notification.setOp(Operation.ADD_LOG_APPENDER);
+        messageProcessor.processLogAppenderNotification(notification);
+
+        Assert.assertEquals(Arrays.asList(optional), messageProcessor.filterAppenders(LOG_SCHEMA_VERSION, false));
+        Assert.assertEquals(Arrays.asList(required[0]), messageProcessor.filterAppenders(LOG_SCHEMA_VERSION, true));
+        Mockito.verify(required[0], Mockito.times(3)).isSchemaVersionSupported(LOG_SCHEMA_VERSION);
+    }
 }
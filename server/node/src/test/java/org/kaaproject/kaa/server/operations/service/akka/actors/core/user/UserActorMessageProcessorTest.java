@@ -26,10 +26,14 @@ import static org.mockito.Mockito.when;
 import java.lang.reflect.Field;
 import java.nio.ByteBuffer;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
 import java.util.Collections;
+import java.util.HashSet;
 import java.util.List;
 import java.util.UUID;
 
+import org.junit.Assert;
 import org.junit.Before;
 import org.junit.Test;
 import org.kaaproject.kaa.common.hash.EndpointObjectHash;
@@ -57,6 +61,7 @@ import org.kaaproject.kaa.server.operations.service.event.RouteTableAddress;
 import org.kaaproject.kaa.server.operations.service.event.RouteTableKey;
 import org.kaaproject.kaa.server.operations.service.event.UserRouteInfo;
 import org.kaaproject.kaa.server.sync.Event;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Mockito;
 import org.springframework.util.ReflectionUtils;
 
@@ -212,7 +217,31 @@ public class UserActorMessageProcessorTest {
         messageProcessor.processEndpointEventSendMessage(actorContextMock, eventMessage);
 
         verify(messageProcessor, Mockito.never()).sendEventToLocal(Mockito.any(ActorContext.class), Mockito.any(EndpointEventReceiveMessage.class));
-        verify(eventServiceMock).sendEvent(any(RemoteEndpointEvent.class));
+        verify(eventServiceMock).sendEvent(Mockito.eq(TENANT_ID), Mockito.eq(USER_ID), any(EndpointEvent.class),
+                Mockito.eq(Collections.singletonList(address2)));
+    }
+
+    @Test
+    public void testEndpointRemoteBroadcastEvent(){
+        EndpointUserConnectMessage message1 = new EndpointUserConnectMessage(USER_ID, endpoint1Key, ecfVersions, 1, null, APP_TOKEN, originatorRefMock);
+        messageProcessor.processEndpointConnectMessage(actorContextMock, message1);
+
+        RouteTableAddress remoteAddress3 = new RouteTableAddress(endpoint3Key, APP_TOKEN, SERVER2);
+        messageProcessor.processRouteInfoMessage(actorContextMock, new RouteInfoMessage(new RouteInfo(TENANT_ID, USER_ID, address2, ecfVersions)));
+        messageProcessor.processRouteInfoMessage(actorContextMock, new RouteInfoMessage(new RouteInfo(TENANT_ID, USER_ID, remoteAddress3, ecfVersions)));
+
+        when(cacheServiceMock.getEventClassFamilyIdByEventClassFqn(new EventClassFqnKey(TENANT_ID, "testClassFqn"))).thenReturn(ECF_ID1);
+        RouteTableKey routeKey = new RouteTableKey(APP_TOKEN, ecfVersion1);
+        when(cacheServiceMock.getRouteKeys(new EventClassFqnVersion(TENANT_ID, "testClassFqn", ECF_ID1_VERSION))).thenReturn(Collections.singleton(routeKey));
+
+        Event event = new Event(0, "testClassFqn", ByteBuffer.wrap(new byte[0]), null, null);
+        EndpointEventSendMessage eventMessage = new EndpointEventSendMessage(USER_ID, Collections.singletonList(event), endpoint1Key, APP_TOKEN, originatorRefMock);
+        messageProcessor.processEndpointEventSendMessage(actorContextMock, eventMessage);
+
+        ArgumentCaptor<Collection> recipients = ArgumentCaptor.forClass(Collection.class);
+        verify(eventServiceMock).sendEvent(Mockito.eq(TENANT_ID), Mockito.eq(USER_ID), any(EndpointEvent.class), recipients.capture());
+        Assert.assertEquals(new HashSet<>(Arrays.asList(address2, remoteAddress3)), new HashSet<>(recipients.getValue()));
+        verify(eventServiceMock, Mockito.never()).sendEvent(any(RemoteEndpointEvent.class));
     }
 
     @Test
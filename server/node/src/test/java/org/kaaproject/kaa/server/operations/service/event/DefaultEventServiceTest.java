@@ -0,0 +1,148 @@
+/*
+ * Copyright 2014-2016 CyberVision, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.kaaproject.kaa.server.operations.service.event;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.kaaproject.kaa.common.hash.EndpointObjectHash;
+import org.kaaproject.kaa.server.common.thrift.gen.operations.Message;
+import org.kaaproject.kaa.server.common.zk.gen.ConnectionInfo;
+import org.kaaproject.kaa.server.common.zk.gen.LoadInfo;
+import org.kaaproject.kaa.server.common.zk.gen.OperationsNodeInfo;
+import org.kaaproject.kaa.server.common.zk.gen.TransportMetaData;
+import org.kaaproject.kaa.server.common.zk.operations.OperationsNode;
+import org.kaaproject.kaa.server.common.zk.operations.OperationsNodeListener;
+import org.kaaproject.kaa.server.sync.Event;
+import org.kaaproject.kaa.server.thrift.NeighborConnection;
+import org.kaaproject.kaa.server.thrift.Neighbors;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mockito;
+import org.springframework.test.util.ReflectionTestUtils;
+
+@SuppressWarnings({ "rawtypes", "unchecked" })
+public class DefaultEventServiceTest {
+
+    private static final String TENANT_ID = "tenant";
+    private static final String USER_ID = "user";
+    private static final String APP_TOKEN = "app";
+
+    private DefaultEventService eventService;
+    private BlockingQueue<Message> currentNodeMessages;
+    private BlockingQueue<Message> legacyNodeMessages;
+    private String currentNodeId;
+    private String legacyNodeId;
+
+    @Before
+    public void before() {
+        OperationsNodeInfo selfInfo = buildNodeInfo("self", EventService.EVENT_PROTOCOL_VERSION);
+        OperationsNodeInfo currentNodeInfo = buildNodeInfo("current", EventService.EVENT_PROTOCOL_VERSION);
+        OperationsNodeInfo legacyNodeInfo = buildNodeInfo("legacy", null);
+        currentNodeId = Neighbors.getServerID(currentNodeInfo.getConnectionInfo());
+        legacyNodeId = Neighbors.getServerID(legacyNodeInfo.getConnectionInfo());
+
+        Neighbors neighbors = Mockito.mock(Neighbors.class);
+        currentNodeMessages = new LinkedBlockingQueue<>();
+        legacyNodeMessages = new LinkedBlockingQueue<>();
+        Mockito.when(neighbors.getNeghborConnection(currentNodeId)).thenReturn(
+                buildConnection(currentNodeInfo, currentNodeMessages));
+        Mockito.when(neighbors.getNeghborConnection(legacyNodeId)).thenReturn(
+                buildConnection(legacyNodeInfo, legacyNodeMessages));
+
+        OperationsNode operationsNode = Mockito.mock(OperationsNode.class);
+        Mockito.when(operationsNode.getNodeInfo()).thenReturn(selfInfo);
+        Mockito.when(operationsNode.getCurrentOperationServerNodes()).thenReturn(
+                Arrays.asList(selfInfo, currentNodeInfo, legacyNodeInfo));
+
+        eventService = new DefaultEventService();
+        ReflectionTestUtils.setField(eventService, "neighbors", neighbors);
+        ReflectionTestUtils.setField(eventService, "listeners", new HashSet<EventServiceListener>());
+        eventService.setZkNode(operationsNode);
+    }
+
+    @Test
+    public void sendEventWithRecipientListTest() throws Exception {
+        eventService.sendEvent(TENANT_ID, USER_ID, buildEvent(), Arrays.asList(buildAddress("ep1", currentNodeId),
+                buildAddress("ep2", currentNodeId)));
+
+        Assert.assertEquals(1, currentNodeMessages.size());
+        Assert.assertEquals(2, currentNodeMessages.peek().getEvent().getRecipientsSize());
+    }
+
+    @Test
+    public void sendEventToLegacyNodeTest() throws Exception {
+        eventService.sendEvent(TENANT_ID, USER_ID, buildEvent(), Arrays.asList(buildAddress("ep1", legacyNodeId),
+                buildAddress("ep2", legacyNodeId)));
+
+        Assert.assertEquals(2, legacyNodeMessages.size());
+        Set<ByteBuffer> endpointKeys = new HashSet<>();
+        for (Message message : legacyNodeMessages) {
+            Assert.assertFalse(message.getEvent().isSetRecipients());
+            endpointKeys.add(message.getEvent().getRouteAddress().bufferForEndpointKey());
+        }
+        Assert.assertEquals(2, endpointKeys.size());
+    }
+
+    @Test
+    public void sendEventAfterNodeUpgradeTest() throws Exception {
+        ArgumentCaptor<OperationsNodeListener> listener = ArgumentCaptor.forClass(OperationsNodeListener.class);
+        OperationsNode operationsNode = (OperationsNode) ReflectionTestUtils.getField(eventService, "operationsNode");
+        Mockito.verify(operationsNode).addListener(listener.capture());
+        listener.getValue().onNodeUpdated(buildNodeInfo("legacy", EventService.EVENT_PROTOCOL_VERSION));
+
+        eventService.sendEvent(TENANT_ID, USER_ID, buildEvent(), Arrays.asList(buildAddress("ep1", legacyNodeId),
+                buildAddress("ep2", legacyNodeId)));
+
+        Assert.assertEquals(1, legacyNodeMessages.size());
+        Assert.assertEquals(2, legacyNodeMessages.peek().getEvent().getRecipientsSize());
+    }
+
+    private static NeighborConnection buildConnection(OperationsNodeInfo nodeInfo, BlockingQueue<Message> messages) {
+        NeighborConnection connection = new NeighborConnection(nodeInfo.getConnectionInfo(), 1, null);
+        ReflectionTestUtils.setField(connection, "messageQueue", messages);
+        return connection;
+    }
+
+    private static EndpointEvent buildEvent() {
+        Event event = new Event(0, "testClassFqn", ByteBuffer.wrap(new byte[0]), null, null);
+        return new EndpointEvent(EndpointObjectHash.fromSHA1("sender"), event, UUID.randomUUID(), System.currentTimeMillis(), 1);
+    }
+
+    private static RouteTableAddress buildAddress(String endpoint, String serverId) {
+        return new RouteTableAddress(EndpointObjectHash.fromSHA1(endpoint), APP_TOKEN, serverId);
+    }
+
+    private static OperationsNodeInfo buildNodeInfo(String host, Integer eventProtocolVersion) {
+        OperationsNodeInfo nodeInfo = new OperationsNodeInfo();
+        nodeInfo.setConnectionInfo(new ConnectionInfo(host, 9090, null));
+        nodeInfo.setLoadInfo(new LoadInfo(1, 1.0));
+        nodeInfo.setTimeStarted(System.currentTimeMillis());
+        nodeInfo.setTransports(new ArrayList<TransportMetaData>());
+        nodeInfo.setEventProtocolVersion(eventProtocolVersion);
+        return nodeInfo;
+    }
+}
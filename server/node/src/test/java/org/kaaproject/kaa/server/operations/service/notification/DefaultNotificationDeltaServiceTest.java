@@ -22,6 +22,7 @@ import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Date;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.TimeUnit;
 
 import org.junit.Assert;
@@ -83,6 +84,8 @@ public class DefaultNotificationDeltaServiceTest {
         topicService = mock(TopicService.class);
         endpointService = mock(EndpointService.class);
         cacheService = mock(CacheService.class);
+        Mockito.when(notificationService.findUnicastNotificationsByKeyHashAsync(Mockito.any(byte[].class))).thenReturn(
+                CompletableFuture.completedFuture(Collections.<EndpointNotificationDto>emptyList()));
 
         ReflectionTestUtils.setField(notificationDeltaService, "cacheService", cacheService);
         ReflectionTestUtils.setField(notificationDeltaService, "notificationService", notificationService);
@@ -259,8 +262,8 @@ public class DefaultNotificationDeltaServiceTest {
         pnf2.setId(PNF_ID_2);
         pnf2.setNotificationDto(nfDto);
         nfDto.setExpiredAt(new Date(System.currentTimeMillis() + TimeUnit.DAYS.toMillis(7)));
-        Mockito.when(notificationService.findUnicastNotificationsByKeyHash(ENDPOINT_KEY_HASH_BYTES)).thenReturn(
-                Collections.singletonList(pnf2));
+        Mockito.when(notificationService.findUnicastNotificationsByKeyHashAsync(ENDPOINT_KEY_HASH_BYTES)).thenReturn(
+                CompletableFuture.completedFuture(Collections.singletonList(pnf2)));
 
         GetNotificationRequest request = new GetNotificationRequest(130150, profile, subscriptionCommands, acceptedUnicastNotifications,
                 topicStates);
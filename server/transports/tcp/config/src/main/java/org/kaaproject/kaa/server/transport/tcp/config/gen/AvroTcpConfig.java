@@ -7,12 +7,15 @@ package org.kaaproject.kaa.server.transport.tcp.config.gen;
 @SuppressWarnings("all")
 @org.apache.avro.specific.AvroGenerated
 public class AvroTcpConfig extends org.apache.avro.specific.SpecificRecordBase implements org.apache.avro.specific.SpecificRecord {
-  public static final org.apache.avro.Schema SCHEMA$ = new org.apache.avro.Schema.Parser().parse("{\"type\":\"record\",\"name\":\"AvroTcpConfig\",\"namespace\":\"org.kaaproject.kaa.server.transport.tcp.config.gen\",\"fields\":[{\"name\":\"bindInterface\",\"type\":{\"type\":\"string\",\"avro.java.string\":\"String\"}},{\"name\":\"bindPort\",\"type\":\"int\"},{\"name\":\"publicInterface\",\"type\":{\"type\":\"string\",\"avro.java.string\":\"String\"}},{\"name\":\"publicPort\",\"type\":\"int\"}]}");
+  public static final org.apache.avro.Schema SCHEMA$ = new org.apache.avro.Schema.Parser().parse("{\"type\":\"record\",\"name\":\"AvroTcpConfig\",\"namespace\":\"org.kaaproject.kaa.server.transport.tcp.config.gen\",\"fields\":[{\"name\":\"bindInterface\",\"type\":{\"type\":\"string\",\"avro.java.string\":\"String\"}},{\"name\":\"bindPort\",\"type\":\"int\"},{\"name\":\"publicInterface\",\"type\":{\"type\":\"string\",\"avro.java.string\":\"String\"}},{\"name\":\"publicPort\",\"type\":\"int\"},{\"name\":\"maxPendingFlushes\",\"type\":[\"null\",\"int\"],\"default\":null},{\"name\":\"writeBufferLowWaterMark\",\"type\":[\"null\",\"int\"],\"default\":null},{\"name\":\"writeBufferHighWaterMark\",\"type\":[\"null\",\"int\"],\"default\":null}]}");
   public static org.apache.avro.Schema getClassSchema() { return SCHEMA$; }
    private java.lang.String bindInterface;
    private int bindPort;
    private java.lang.String publicInterface;
    private int publicPort;
+   private java.lang.Integer maxPendingFlushes;
+   private java.lang.Integer writeBufferLowWaterMark;
+   private java.lang.Integer writeBufferHighWaterMark;
 
   /**
    * Default constructor.  Note that this does not initialize fields
@@ -24,11 +27,14 @@ public class AvroTcpConfig extends org.apache.avro.specific.SpecificRecordBase i
   /**
    * All-args constructor.
    */
-  public AvroTcpConfig(java.lang.String bindInterface, java.lang.Integer bindPort, java.lang.String publicInterface, java.lang.Integer publicPort) {
+  public AvroTcpConfig(java.lang.String bindInterface, java.lang.Integer bindPort, java.lang.String publicInterface, java.lang.Integer publicPort, java.lang.Integer maxPendingFlushes, java.lang.Integer writeBufferLowWaterMark, java.lang.Integer writeBufferHighWaterMark) {
     this.bindInterface = bindInterface;
     this.bindPort = bindPort;
     this.publicInterface = publicInterface;
     this.publicPort = publicPort;
+    this.maxPendingFlushes = maxPendingFlushes;
+    this.writeBufferLowWaterMark = writeBufferLowWaterMark;
+    this.writeBufferHighWaterMark = writeBufferHighWaterMark;
   }
 
   public org.apache.avro.Schema getSchema() { return SCHEMA$; }
@@ -39,6 +45,9 @@ public class AvroTcpConfig extends org.apache.avro.specific.SpecificRecordBase i
     case 1: return bindPort;
     case 2: return publicInterface;
     case 3: return publicPort;
+    case 4: return maxPendingFlushes;
+    case 5: return writeBufferLowWaterMark;
+    case 6: return writeBufferHighWaterMark;
     default: throw new org.apache.avro.AvroRuntimeException("Bad index");
     }
   }
@@ -50,6 +59,9 @@ public class AvroTcpConfig extends org.apache.avro.specific.SpecificRecordBase i
     case 1: bindPort = (java.lang.Integer)value$; break;
     case 2: publicInterface = (java.lang.String)value$; break;
     case 3: publicPort = (java.lang.Integer)value$; break;
+    case 4: maxPendingFlushes = (java.lang.Integer)value$; break;
+    case 5: writeBufferLowWaterMark = (java.lang.Integer)value$; break;
+    case 6: writeBufferHighWaterMark = (java.lang.Integer)value$; break;
     default: throw new org.apache.avro.AvroRuntimeException("Bad index");
     }
   }
@@ -114,6 +126,51 @@ public class AvroTcpConfig extends org.apache.avro.specific.SpecificRecordBase i
     this.publicPort = value;
   }
 
+  /**
+   * Gets the value of the 'maxPendingFlushes' field.
+   */
+  public java.lang.Integer getMaxPendingFlushes() {
+    return maxPendingFlushes;
+  }
+
+  /**
+   * Sets the value of the 'maxPendingFlushes' field.
+   * @param value the value to set.
+   */
+  public void setMaxPendingFlushes(java.lang.Integer value) {
+    this.maxPendingFlushes = value;
+  }
+
+  /**
+   * Gets the value of the 'writeBufferLowWaterMark' field.
+   */
+  public java.lang.Integer getWriteBufferLowWaterMark() {
+    return writeBufferLowWaterMark;
+  }
+
+  /**
+   * Sets the value of the 'writeBufferLowWaterMark' field.
+   * @param value the value to set.
+   */
+  public void setWriteBufferLowWaterMark(java.lang.Integer value) {
+    this.writeBufferLowWaterMark = value;
+  }
+
+  /**
+   * Gets the value of the 'writeBufferHighWaterMark' field.
+   */
+  public java.lang.Integer getWriteBufferHighWaterMark() {
+    return writeBufferHighWaterMark;
+  }
+
+  /**
+   * Sets the value of the 'writeBufferHighWaterMark' field.
+   * @param value the value to set.
+   */
+  public void setWriteBufferHighWaterMark(java.lang.Integer value) {
+    this.writeBufferHighWaterMark = value;
+  }
+
   /** Creates a new AvroTcpConfig RecordBuilder */
   public static org.kaaproject.kaa.server.transport.tcp.config.gen.AvroTcpConfig.Builder newBuilder() {
     return new org.kaaproject.kaa.server.transport.tcp.config.gen.AvroTcpConfig.Builder();
@@ -139,6 +196,9 @@ public class AvroTcpConfig extends org.apache.avro.specific.SpecificRecordBase i
     private int bindPort;
     private java.lang.String publicInterface;
     private int publicPort;
+    private java.lang.Integer maxPendingFlushes;
+    private java.lang.Integer writeBufferLowWaterMark;
+    private java.lang.Integer writeBufferHighWaterMark;
 
     /** Creates a new Builder */
     private Builder() {
@@ -164,6 +224,18 @@ public class AvroTcpConfig extends org.apache.avro.specific.SpecificRecordBase i
         this.publicPort = data().deepCopy(fields()[3].schema(), other.publicPort);
         fieldSetFlags()[3] = true;
       }
+      if (isValidValue(fields()[4], other.maxPendingFlushes)) {
+        this.maxPendingFlushes = data().deepCopy(fields()[4].schema(), other.maxPendingFlushes);
+        fieldSetFlags()[4] = true;
+      }
+      if (isValidValue(fields()[5], other.writeBufferLowWaterMark)) {
+        this.writeBufferLowWaterMark = data().deepCopy(fields()[5].schema(), other.writeBufferLowWaterMark);
+        fieldSetFlags()[5] = true;
+      }
+      if (isValidValue(fields()[6], other.writeBufferHighWaterMark)) {
+        this.writeBufferHighWaterMark = data().deepCopy(fields()[6].schema(), other.writeBufferHighWaterMark);
+        fieldSetFlags()[6] = true;
+      }
     }
     
     /** Creates a Builder by copying an existing AvroTcpConfig instance */
@@ -185,6 +257,18 @@ public class AvroTcpConfig extends org.apache.avro.specific.SpecificRecordBase i
         this.publicPort = data().deepCopy(fields()[3].schema(), other.publicPort);
         fieldSetFlags()[3] = true;
       }
+      if (isValidValue(fields()[4], other.maxPendingFlushes)) {
+        this.maxPendingFlushes = data().deepCopy(fields()[4].schema(), other.maxPendingFlushes);
+        fieldSetFlags()[4] = true;
+      }
+      if (isValidValue(fields()[5], other.writeBufferLowWaterMark)) {
+        this.writeBufferLowWaterMark = data().deepCopy(fields()[5].schema(), other.writeBufferLowWaterMark);
+        fieldSetFlags()[5] = true;
+      }
+      if (isValidValue(fields()[6], other.writeBufferHighWaterMark)) {
+        this.writeBufferHighWaterMark = data().deepCopy(fields()[6].schema(), other.writeBufferHighWaterMark);
+        fieldSetFlags()[6] = true;
+      }
     }
 
     /** Gets the value of the 'bindInterface' field */
@@ -285,6 +369,81 @@ public class AvroTcpConfig extends org.apache.avro.specific.SpecificRecordBase i
       return this;
     }
 
+    /** Gets the value of the 'maxPendingFlushes' field */
+    public java.lang.Integer getMaxPendingFlushes() {
+      return maxPendingFlushes;
+    }
+    
+    /** Sets the value of the 'maxPendingFlushes' field */
+    public org.kaaproject.kaa.server.transport.tcp.config.gen.AvroTcpConfig.Builder setMaxPendingFlushes(java.lang.Integer value) {
+      validate(fields()[4], value);
+      this.maxPendingFlushes = value;
+      fieldSetFlags()[4] = true;
+      return this; 
+    }
+    
+    /** Checks whether the 'maxPendingFlushes' field has been set */
+    public boolean hasMaxPendingFlushes() {
+      return fieldSetFlags()[4];
+    }
+    
+    /** Clears the value of the 'maxPendingFlushes' field */
+    public org.kaaproject.kaa.server.transport.tcp.config.gen.AvroTcpConfig.Builder clearMaxPendingFlushes() {
+      maxPendingFlushes = null;
+      fieldSetFlags()[4] = false;
+      return this;
+    }
+
+    /** Gets the value of the 'writeBufferLowWaterMark' field */
+    public java.lang.Integer getWriteBufferLowWaterMark() {
+      return writeBufferLowWaterMark;
+    }
+    
+    /** Sets the value of the 'writeBufferLowWaterMark' field */
+    public org.kaaproject.kaa.server.transport.tcp.config.gen.AvroTcpConfig.Builder setWriteBufferLowWaterMark(java.lang.Integer value) {
+      validate(fields()[5], value);
+      this.writeBufferLowWaterMark = value;
+      fieldSetFlags()[5] = true;
+      return this; 
+    }
+    
+    /** Checks whether the 'writeBufferLowWaterMark' field has been set */
+    public boolean hasWriteBufferLowWaterMark() {
+      return fieldSetFlags()[5];
+    }
+    
+    /** Clears the value of the 'writeBufferLowWaterMark' field */
+    public org.kaaproject.kaa.server.transport.tcp.config.gen.AvroTcpConfig.Builder clearWriteBufferLowWaterMark() {
+      writeBufferLowWaterMark = null;
+      fieldSetFlags()[5] = false;
+      return this;
+    }
+
+    /** Gets the value of the 'writeBufferHighWaterMark' field */
+    public java.lang.Integer getWriteBufferHighWaterMark() {
+      return writeBufferHighWaterMark;
+    }
+    
+    /** Sets the value of the 'writeBufferHighWaterMark' field */
+    public org.kaaproject.kaa.server.transport.tcp.config.gen.AvroTcpConfig.Builder setWriteBufferHighWaterMark(java.lang.Integer value) {
+      validate(fields()[6], value);
+      this.writeBufferHighWaterMark = value;
+      fieldSetFlags()[6] = true;
+      return this; 
+    }
+    
+    /** Checks whether the 'writeBufferHighWaterMark' field has been set */
+    public boolean hasWriteBufferHighWaterMark() {
+      return fieldSetFlags()[6];
+    }
+    
+    /** Clears the value of the 'writeBufferHighWaterMark' field */
+    public org.kaaproject.kaa.server.transport.tcp.config.gen.AvroTcpConfig.Builder clearWriteBufferHighWaterMark() {
+      writeBufferHighWaterMark = null;
+      fieldSetFlags()[6] = false;
+      return this;
+    }
+
     @Override
     public AvroTcpConfig build() {
       try {
@@ -293,6 +452,9 @@ public class AvroTcpConfig extends org.apache.avro.specific.SpecificRecordBase i
         record.bindPort = fieldSetFlags()[1] ? this.bindPort : (java.lang.Integer) defaultValue(fields()[1]);
         record.publicInterface = fieldSetFlags()[2] ? this.publicInterface : (java.lang.String) defaultValue(fields()[2]);
         record.publicPort = fieldSetFlags()[3] ? this.publicPort : (java.lang.Integer) defaultValue(fields()[3]);
+        record.maxPendingFlushes = fieldSetFlags()[4] ? this.maxPendingFlushes : (java.lang.Integer) defaultValue(fields()[4]);
+        record.writeBufferLowWaterMark = fieldSetFlags()[5] ? this.writeBufferLowWaterMark : (java.lang.Integer) defaultValue(fields()[5]);
+        record.writeBufferHighWaterMark = fieldSetFlags()[6] ? this.writeBufferHighWaterMark : (java.lang.Integer) defaultValue(fields()[6]);
         return record;
       } catch (Exception e) {
         throw new org.apache.avro.AvroRuntimeException(e);
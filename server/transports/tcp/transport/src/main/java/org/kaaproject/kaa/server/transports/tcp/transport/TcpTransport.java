@@ -16,7 +16,9 @@
 
 package org.kaaproject.kaa.server.transports.tcp.transport;
 
+import io.netty.bootstrap.ServerBootstrap;
 import io.netty.channel.ChannelInitializer;
+import io.netty.channel.ChannelOption;
 import io.netty.channel.SimpleChannelInboundHandler;
 import io.netty.channel.socket.SocketChannel;
 
@@ -24,6 +26,7 @@ import java.nio.ByteBuffer;
 import java.util.UUID;
 
 import org.kaaproject.kaa.server.common.server.AbstractNettyServer;
+import org.kaaproject.kaa.server.common.server.FlushCoalescingHandler;
 import org.kaaproject.kaa.server.transport.AbstractKaaTransport;
 import org.kaaproject.kaa.server.transport.SpecificTransportContext;
 import org.kaaproject.kaa.server.transport.TransportLifecycleException;
@@ -44,6 +47,8 @@ import org.slf4j.LoggerFactory;
 public class TcpTransport extends AbstractKaaTransport<AvroTcpConfig> {
     private static final Logger LOG = LoggerFactory.getLogger(TcpTransport.class);
     private static final int SUPPORTED_VERSION = 1;
+    private static final int DEFAULT_WRITE_BUFFER_LOW_WATER_MARK = 32 * 1024;
+    private static final int DEFAULT_WRITE_BUFFER_HIGH_WATER_MARK = 64 * 1024;
     private AbstractNettyServer netty;
 
     @Override
@@ -54,11 +59,23 @@ public class TcpTransport extends AbstractKaaTransport<AvroTcpConfig> {
         configuration.setPublicInterface(replaceProperty(configuration.getPublicInterface(), PUBLIC_INTERFACE_PROP_NAME, context
                 .getCommonProperties().getProperty(PUBLIC_INTERFACE_PROP_NAME, LOCALHOST)));
         final KaaTcpCommandFactory factory = new KaaTcpCommandFactory();
+        // Configurations created before these settings were added don't contain them
+        final int maxPendingFlushes = valueOrDefault(configuration.getMaxPendingFlushes(), FlushCoalescingHandler.DEFAULT_MAX_PENDING_FLUSHES);
+        final int lowWaterMark = valueOrDefault(configuration.getWriteBufferLowWaterMark(), DEFAULT_WRITE_BUFFER_LOW_WATER_MARK);
+        final int highWaterMark = valueOrDefault(configuration.getWriteBufferHighWaterMark(), DEFAULT_WRITE_BUFFER_HIGH_WATER_MARK);
         this.netty = new AbstractNettyServer(configuration.getBindInterface(), configuration.getBindPort()) {
 
+            @Override
+            protected void configureChildOptions(ServerBootstrap bootstrap) {
+                if (lowWaterMark > 0 && highWaterMark >= lowWaterMark) {
+                    bootstrap.childOption(ChannelOption.WRITE_BUFFER_HIGH_WATER_MARK, highWaterMark);
+                    bootstrap.childOption(ChannelOption.WRITE_BUFFER_LOW_WATER_MARK, lowWaterMark);
+                }
+            }
+
             @Override
             protected ChannelInitializer<SocketChannel> configureInitializer() throws Exception {
-                return new AbstractKaaTcpServerInitializer() {
+                return new AbstractKaaTcpServerInitializer(maxPendingFlushes) {
                     @Override
                     protected SimpleChannelInboundHandler<AbstractKaaTcpCommandProcessor> getMainHandler(UUID uuid) {
                         return new TcpHandler(uuid, TcpTransport.this.handler);
@@ -73,6 +90,10 @@ public class TcpTransport extends AbstractKaaTransport<AvroTcpConfig> {
         };
     }
 
+    private static int valueOrDefault(Integer value, int defaultValue) {
+        return value != null ? value : defaultValue;
+    }
+
     @Override
     public void start() {
         LOG.info("Initializing netty");
@@ -27,6 +27,7 @@ import io.netty.util.Attribute;
 import java.util.UUID;
 
 import org.kaaproject.kaa.server.common.server.AbstractNettyServer;
+import org.kaaproject.kaa.server.common.server.FlushCoalescingHandler;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -39,11 +40,23 @@ import org.slf4j.LoggerFactory;
 public abstract class AbstractKaaTcpServerInitializer extends ChannelInitializer<SocketChannel> {
     private static final Logger LOG = LoggerFactory.getLogger(AbstractKaaTcpServerInitializer.class);
 
+    private final int maxPendingFlushes;
+
     /**
      * KaaTcpServerInitializer constructor.
      */
     public AbstractKaaTcpServerInitializer() {
+        this(FlushCoalescingHandler.DEFAULT_MAX_PENDING_FLUSHES);
+    }
+
+    /**
+     * KaaTcpServerInitializer constructor.
+     * @param maxPendingFlushes - number of flush requests that may be coalesced
+     * before the channel is flushed
+     */
+    public AbstractKaaTcpServerInitializer(int maxPendingFlushes) {
         super();
+        this.maxPendingFlushes = maxPendingFlushes;
     }
 
     /**
@@ -66,6 +79,7 @@ public abstract class AbstractKaaTcpServerInitializer extends ChannelInitializer
         Attribute<UUID> uuidAttr = ch.attr(AbstractNettyServer.UUID_KEY);
         uuidAttr.set(uuid);
 
+        p.addLast("flushCoalescing", new FlushCoalescingHandler(maxPendingFlushes));
         p.addLast("binaryDecoder", new ByteArrayDecoder());
         p.addLast("kaaTcpDecoder", getDecoder());
         p.addLast("binaryEncoder", new ByteArrayEncoder());
@@ -48,10 +48,11 @@ public class KaaTcpEncoder extends ChannelOutboundHandlerAdapter {
                 LOG.trace("Sending {} data for frame {}", Arrays.toString(data), frame);
             }
             if(LOG.isTraceEnabled()){
-                LOG.trace("Channel promise before writeAndFlush isSuccess [{}] isDone [{}] isCancelled [{}] for frame {}", promise.isSuccess(),
+                LOG.trace("Channel promise before write isSuccess [{}] isDone [{}] isCancelled [{}] for frame {}", promise.isSuccess(),
                         promise.isDone(), promise.isCancelled(), frame);
             }            
-            ChannelFuture future = ctx.writeAndFlush(data, promise);
+            // Flush is issued by the sender and coalesced by the pipeline
+            ChannelFuture future = ctx.write(data, promise);
             if(LOG.isTraceEnabled()){
                 LOG.trace("Returned future [{}] isSuccess [{}] isDone [{}] isCancelled [{}] cause [{}] for frame {}", future, future.isSuccess(),
                         future.isDone(), future.isCancelled(), future.cause(), frame);
@@ -27,6 +27,7 @@ import org.kaaproject.kaa.common.channels.protocols.kaatcp.messages.Connect;
 import org.kaaproject.kaa.common.channels.protocols.kaatcp.messages.Disconnect;
 import org.kaaproject.kaa.common.channels.protocols.kaatcp.messages.Disconnect.DisconnectReason;
 import org.kaaproject.kaa.common.channels.protocols.kaatcp.messages.PingRequest;
+import org.kaaproject.kaa.server.common.server.FlushCoalescingHandler;
 import org.kaaproject.kaa.server.transport.GenericTransportContext;
 import org.kaaproject.kaa.server.transport.TransportContext;
 import org.kaaproject.kaa.server.transport.TransportProperties;
@@ -108,6 +109,7 @@ public class KaaTcpServerIT {
         config.setBindPort(TEST_PORT);
         config.setPublicInterface(TEST_HOST);
         config.setPublicPort(TEST_PORT);
+        config.setMaxPendingFlushes(FlushCoalescingHandler.DEFAULT_MAX_PENDING_FLUSHES);
 
         AvroByteArrayConverter<AvroTcpConfig> converter = new AvroByteArrayConverter<AvroTcpConfig>(AvroTcpConfig.class);
 